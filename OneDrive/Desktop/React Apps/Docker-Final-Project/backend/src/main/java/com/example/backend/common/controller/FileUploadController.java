@@ -1,29 +1,20 @@
 package com.example.backend.common.controller;
 
+import com.example.backend.common.exceptions.FileStorageException;
+import com.example.backend.common.storage.ContentAddressedStore;
+import com.example.backend.common.storage.ContentAddressedStore.StoredContent;
+import com.example.backend.common.util.StoredFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import org.springframework.core.io.PathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.web.servlet.resource.PathResourceResolver;
-
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -40,27 +31,27 @@ public class FileUploadController {
     private String baseUrl;
 
 
+    @Autowired
+    private StoredFileServer storedFileServer;
+
+    @Autowired
+    private ContentAddressedStore contentStore;
+
     private final String uploadRoot = "uploads"; // adjust path as needed
     @GetMapping("/download/{context}/{type}/{filename}")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @PathVariable String context,
             @PathVariable String type,
-            @PathVariable String filename) {
-
-        try {
-            Path filePath = Paths.get(uploadRoot, context, type, filename);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Path filePath = resolveWithin(Paths.get(uploadRoot), context, type, filename);
+        if (filePath == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        storedFileServer.serve(request, response, filePath, null, "attachment", filename);
     }
     @PostMapping("/upload/{context}/{type}")
     public ResponseEntity<Map<String, String>> uploadFile(
@@ -116,12 +107,6 @@ public class FileUploadController {
                 }
             }
 
-            // Create context and type specific directory structure
-            Path contextPath = Paths.get(uploadDir, context, type + "s"); // "images" or "files"
-            if (!Files.exists(contextPath)) {
-                Files.createDirectories(contextPath);
-            }
-
             // Generate unique filename
             String originalFilename = file.getOriginalFilename();
             String fileExtension = originalFilename != null ?
@@ -129,9 +114,8 @@ public class FileUploadController {
                     (type.equals("image") ? ".jpg" : ".pdf");
             String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
 
-            // Save file in context/type directory
-            Path filePath = contextPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Save file in context/type directory ("images" or "files"); identical content is stored once
+            StoredContent stored = contentStore.store(file, context + "/" + type + "s/" + uniqueFilename);
 
             // Return the file URL with context and type
             String fileUrl = baseUrl + "/api/files/" + context + "/" + type + "s/" + uniqueFilename;
@@ -142,40 +126,29 @@ public class FileUploadController {
             response.put("context", context);
             response.put("type", type);
             response.put("size", String.valueOf(file.getSize()));
+            response.put("contentHash", stored.hash());
             return ResponseEntity.ok(response);
-        } catch (IOException e) {
+        } catch (FileStorageException e) {
             return ResponseEntity.status(500).body(Map.of("error", "File upload failed: " + e.getMessage()));
         }
     }
 
     @GetMapping("/{context}/{type}s/{filename}")
-    public ResponseEntity<Resource> serveFile(
+    public void serveFile(
             @PathVariable String context,
             @PathVariable String type,
-            @PathVariable String filename) {
-        try {
-            Path filePath = Paths.get(uploadDir, context, type + "s", filename);
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                // Try to determine file content type
-                String contentType = Files.probeContentType(filePath);
-                if (contentType == null) {
-                    contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-                }
-                // For files, suggest download; for images, display inline
-                String disposition = type.equals("image") ? "inline" : "attachment";
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + filename + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(500).build();
-        } catch (IOException e) {
-            return ResponseEntity.status(500).build();
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Path filePath = resolveWithin(Paths.get(uploadDir), context, type + "s", filename);
+        if (filePath == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        // For files, suggest download; for images, display inline. Range requests, ETags and
+        // conditional GETs are handled by the file server (lecture videos can seek).
+        String disposition = type.equals("image") ? "inline" : "attachment";
+        storedFileServer.serve(request, response, filePath, null, disposition, filename);
     }
 
     @DeleteMapping("/{context}/{type}s/{filename}")
@@ -184,15 +157,30 @@ public class FileUploadController {
             @PathVariable String type,
             @PathVariable String filename) {
         try {
-            Path filePath = Paths.get(uploadDir, context, type + "s", filename);
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            if (contentStore.release(context + "/" + type + "s/" + filename)) {
                 return ResponseEntity.ok(Map.of("message", "File deleted successfully"));
             } else {
                 return ResponseEntity.notFound().build();
             }
-        } catch (IOException e) {
+        } catch (FileStorageException e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to delete file"));
         }
     }
-}
\ No newline at end of file
+
+    // Disk usage of the deduplicating upload store (admin only, see SecurityConfig)
+    @GetMapping("/storage/metrics")
+    public ResponseEntity<Map<String, Object>> getStorageMetrics() {
+        return ResponseEntity.ok(contentStore.getMetrics());
+    }
+
+    // Resolves the path segments under root; null if they would escape it
+    private static Path resolveWithin(Path root, String... segments) {
+        Path base = root.toAbsolutePath().normalize();
+        Path resolved = base;
+        for (String segment : segments) {
+            resolved = resolved.resolve(segment);
+        }
+        resolved = resolved.normalize();
+        return resolved.startsWith(base) ? resolved : null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.common.security;
+
+import com.example.backend.eduSphere.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals used by {@link JwtRequestFilter}.
+ * Entries are keyed by the SHA-256 of the raw token (the token itself is never stored)
+ * and expire after the configured TTL or at the token's own `exp`, whichever comes first.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public AuthenticatedPrincipalCache(
+            @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+    }
+
+    // ✅ Look up a cached principal for this token, or null on a miss / expired entry
+    public UserEntity get(String token) {
+        String key = hash(token);
+        CachedPrincipal cached = entries.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, cached);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.user;
+    }
+
+    // ✅ Cache a principal resolved from a verified token, never beyond the token's expiration
+    public void put(String token, UserEntity user, Date tokenExpiration) {
+        if (ttlMillis <= 0 || maxSize <= 0 || user == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.put(hash(token), new CachedPrincipal(user, expiresAt));
+    }
+
+    // ✅ Drop every cached principal of a user (role, status or profile changed)
+    public void invalidateUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        entries.entrySet().removeIf(entry -> {
+            boolean matches = userId.equals(entry.getValue().user.getId());
+            if (matches) {
+                invalidations.incrementAndGet();
+            }
+            return matches;
+        });
+    }
+
+    public void invalidateAll() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt <= now;
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+
+        // Still full of live entries: drop arbitrary ones until we are back under the bound
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedPrincipal {
+        private final UserEntity user;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserEntity user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.common.security;
 
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,6 +27,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -37,7 +41,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String jwt = null;
-        String username = null;
 
         // Try to extract token from Authorization header first
         final String authorizationHeader = request.getHeader("Authorization");
@@ -56,28 +59,32 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             }
         }
 
-        if (jwt != null) {
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                // Token is invalid or expired, proceed without authentication
-            }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            Optional<UserEntity> userOptional = userRepository.findByUsername(username);
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Cache hit: the token was verified when the entry was stored and the entry
+            // never outlives the token's expiration, so no parse or user lookup is needed
+            UserEntity userDetails = principalCache.get(jwt);
 
-            if (userOptional.isPresent()) {
-                UserEntity userDetails = userOptional.get();
+            if (userDetails == null) {
+                // Token is invalid or expired -> null claims, proceed without authentication
+                Claims claims = jwtUtil.parseValidClaims(jwt);
 
-                if (jwtUtil.isTokenValid(jwt, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                if (claims != null && claims.getSubject() != null) {
+                    Optional<UserEntity> userOptional = userRepository.findByUsername(claims.getSubject());
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    if (userOptional.isPresent()) {
+                        userDetails = userOptional.get();
+                        principalCache.put(jwt, userDetails, claims.getExpiration());
+                    }
                 }
             }
+
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         }
 
         chain.doFilter(request, response);
@@ -47,10 +47,24 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
-    // ✅ Validate Token
+    // ✅ Validate Token (single parse: signature, subject and expiration checked together)
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return extractedUsername.equals(username) && !isTokenExpired(token);
+        final Claims claims = parseValidClaims(token);
+        return claims != null && username != null && username.equals(claims.getSubject());
+    }
+
+    // ✅ Parse and verify the token once, returning its claims, or null if it is invalid or expired
+    public Claims parseValidClaims(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            Date expiration = claims.getExpiration();
+            if (expiration != null && expiration.before(new Date())) {
+                return null;
+            }
+            return claims;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     // ✅ Check if Token is Expired
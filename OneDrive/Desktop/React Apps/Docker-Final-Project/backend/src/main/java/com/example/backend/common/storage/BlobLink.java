@@ -0,0 +1,31 @@
+package com.example.backend.common.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An upload path (relative to the upload directory, '/'-separated) and the blob it holds.
+ * Each link is one reference counted on the blob.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "blob_links")
+public class BlobLink {
+
+    @Id
+    private String path;
+
+    @Indexed
+    private String hash;
+
+    private LocalDateTime linkedAt;
+}
@@ -0,0 +1,404 @@
+package com.example.backend.common.storage;
+
+import com.example.backend.common.exceptions.FileStorageException;
+import com.example.backend.common.util.StoredFileServer;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed, deduplicating storage shared by all upload paths.
+ *
+ * Uploads are hashed while they are written to a temporary file (one pass over the stream) and
+ * kept once under {@code <blob-dir>/<first two hex digits>/<sha256>}. The upload path the caller
+ * asked for becomes a hard link to that blob, so existing URLs, static serving and
+ * {@link StoredFileServer} keep working unchanged; where hard links are not supported the blob is
+ * copied instead (correct, but without the disk saving).
+ *
+ * Every upload path is recorded as a {@link BlobLink} and counted on its {@link StoredBlob}.
+ * Releasing a path removes the link; blobs left without references are deleted by a scheduled
+ * sweep once a grace period has passed.
+ */
+@Component
+public class ContentAddressedStore {
+
+    private static final String TEMP_DIR = "tmp";
+
+    private final MongoTemplate mongoTemplate;
+    private final StoredFileServer storedFileServer;
+    private final Path uploadRoot;
+    private final Path blobRoot;
+    private final long gracePeriodMillis;
+
+    public ContentAddressedStore(MongoTemplate mongoTemplate,
+                                 StoredFileServer storedFileServer,
+                                 @Value("${app.upload.dir:uploads}") String uploadDir,
+                                 @Value("${app.storage.blob-dir:}") String blobDir,
+                                 @Value("${app.storage.gc.grace-minutes:60}") long graceMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.storedFileServer = storedFileServer;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Blobs live on the same file system as the uploads by default so the links can be hard links
+        this.blobRoot = (blobDir.isBlank() ? uploadRoot.resolve(".blobs") : Paths.get(blobDir))
+                .toAbsolutePath().normalize();
+        this.gracePeriodMillis = graceMinutes * 60_000L;
+    }
+
+    public StoredContent store(MultipartFile file, String relativePath) {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, relativePath);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not store file " + relativePath, e);
+        }
+    }
+
+    /**
+     * Stores the stream at {@code relativePath} (relative to the upload directory), replacing
+     * whatever was stored there before.
+     */
+    public StoredContent store(InputStream content, String relativePath) {
+        Path target = resolve(relativePath);
+        String key = keyOf(target);
+        Path temp = null;
+
+        try {
+            Files.createDirectories(blobRoot.resolve(TEMP_DIR));
+            temp = Files.createTempFile(blobRoot.resolve(TEMP_DIR), "upload-", ".part");
+
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            // Take the reference first: the sweep never deletes a blob with references
+            retain(hash, size);
+            boolean deduplicated;
+            try {
+                deduplicated = placeBlob(temp, hash);
+                temp = null;
+                release(key);
+                link(target, blobPath(hash));
+                mongoTemplate.save(new BlobLink(key, hash, LocalDateTime.now()));
+            } catch (IOException | RuntimeException e) {
+                dropReference(hash);
+                throw e;
+            }
+
+            storedFileServer.primeContentHash(target, hash);
+            return new StoredContent(key, target, hash, size, deduplicated);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not store file " + relativePath, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings a file already present under the upload directory into the store: it is hashed in
+     * place and, if the same content is already stored, replaced by a link to that blob. Paths
+     * that are already linked are left alone.
+     */
+    public StoredContent adopt(Path file) throws IOException {
+        Path target = file.toAbsolutePath().normalize();
+        String key = keyOf(target);
+
+        BlobLink existing = mongoTemplate.findById(key, BlobLink.class);
+        if (existing != null) {
+            return new StoredContent(key, target, existing.getHash(), Files.size(target), false);
+        }
+
+        MessageDigest digest = sha256();
+        long size;
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(target), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        retain(hash, size);
+        boolean deduplicated;
+        try {
+            Path blob = blobPath(hash);
+            Files.createDirectories(blob.getParent());
+            if (Files.exists(blob)) {
+                // Swap the duplicate for a link to the stored blob
+                Path replacement = target.resolveSibling(target.getFileName() + ".link");
+                Files.deleteIfExists(replacement);
+                link(replacement, blob);
+                move(replacement, target);
+                deduplicated = true;
+            } else {
+                // The file itself becomes the blob
+                link(blob, target);
+                deduplicated = false;
+            }
+            mongoTemplate.save(new BlobLink(key, hash, LocalDateTime.now()));
+        } catch (IOException | RuntimeException e) {
+            dropReference(hash);
+            throw e;
+        }
+
+        return new StoredContent(key, target, hash, size, deduplicated);
+    }
+
+    /**
+     * Deletes the file at {@code relativePath} and drops its reference on the blob.
+     * Returns whether a file was there.
+     */
+    public boolean release(String relativePath) {
+        Path target = resolve(relativePath);
+        String key = keyOf(target);
+
+        BlobLink link = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(key)), BlobLink.class);
+        boolean existed;
+        try {
+            existed = Files.deleteIfExists(target);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not delete file: " + relativePath, e);
+        }
+
+        if (link != null) {
+            dropReference(link.getHash());
+        }
+        return existed || link != null;
+    }
+
+    /**
+     * SHA-256 of the content stored at {@code relativePath}, or null if the path is not in the store
+     */
+    public String hashOf(String relativePath) {
+        BlobLink link = mongoTemplate.findById(keyOf(resolve(relativePath)), BlobLink.class);
+        return link != null ? link.getHash() : null;
+    }
+
+    /**
+     * Absolute path of {@code relativePath} under the upload directory
+     */
+    public Path resolve(String relativePath) {
+        Path resolved = uploadRoot.resolve(relativePath).normalize();
+        if (!resolved.startsWith(uploadRoot) || resolved.startsWith(blobRoot)) {
+            throw new FileStorageException("Cannot access file outside upload directory: " + relativePath);
+        }
+        return resolved;
+    }
+
+    public Path getUploadRoot() {
+        return uploadRoot;
+    }
+
+    public Path getBlobRoot() {
+        return blobRoot;
+    }
+
+    /**
+     * Deletes blobs that have had no references for the whole grace period, plus abandoned
+     * temporary upload files.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval-ms:3600000}",
+            initialDelayString = "${app.storage.gc.interval-ms:3600000}")
+    public void collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(gracePeriodMillis * 1_000_000L);
+        Query unreferenced = Query.query(Criteria.where("refCount").lte(0).and("releasedAt").lt(cutoff));
+        unreferenced.fields().include("_id").include("size");
+
+        int deleted = 0;
+        long freedBytes = 0;
+
+        for (StoredBlob blob : mongoTemplate.find(unreferenced, StoredBlob.class)) {
+            // Only remove the record if nobody took a reference since the query ran
+            DeleteResult removed = mongoTemplate.remove(Query.query(
+                    Criteria.where("_id").is(blob.getHash()).and("refCount").lte(0)), StoredBlob.class);
+            if (removed.getDeletedCount() == 0) {
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(blobPath(blob.getHash()))) {
+                    deleted++;
+                    freedBytes += blob.getSize();
+                }
+            } catch (IOException e) {
+                System.err.println("❌ Could not delete blob " + blob.getHash() + ": " + e.getMessage());
+            }
+        }
+
+        deleteAbandonedTempFiles();
+
+        if (deleted > 0) {
+            System.out.println("🧹 Deleted " + deleted + " unreferenced blobs (" + freedBytes + " bytes)");
+        }
+    }
+
+    private void deleteAbandonedTempFiles() {
+        Path tempDir = blobRoot.resolve(TEMP_DIR);
+        if (!Files.isDirectory(tempDir)) {
+            return;
+        }
+        long cutoffMillis = System.currentTimeMillis() - Math.max(gracePeriodMillis, 24 * 3_600_000L);
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(tempDir, "*.part")) {
+            for (Path part : parts) {
+                if (Files.getLastModifiedTime(part).toMillis() < cutoffMillis) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Could not clean temporary uploads: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Disk usage of the store: logical bytes (what the upload paths would take as separate
+     * copies) against the bytes actually held in blobs.
+     */
+    public Map<String, Object> getMetrics() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("size", "refCount")
+                        .and(ArithmeticOperators.Multiply.valueOf("size").multiplyBy("refCount")).as("logical")
+                        .and(ConditionalOperators.when(ComparisonOperators.Lte.valueOf("refCount").lessThanEqualToValue(0))
+                                .then("$size").otherwise(0)).as("unreferencedSize")
+                        .and(ConditionalOperators.when(ComparisonOperators.Lte.valueOf("refCount").lessThanEqualToValue(0))
+                                .then(1).otherwise(0)).as("unreferenced"),
+                Aggregation.group()
+                        .count().as("blobs")
+                        .sum("refCount").as("references")
+                        .sum("size").as("physicalBytes")
+                        .sum("logical").as("logicalBytes")
+                        .sum("unreferencedSize").as("unreferencedBytes")
+                        .sum("unreferenced").as("unreferencedBlobs"));
+
+        List<Document> rows = mongoTemplate.aggregate(aggregation, StoredBlob.class, Document.class).getMappedResults();
+        Document totals = rows.isEmpty() ? new Document() : rows.get(0);
+
+        long blobs = longValue(totals.get("blobs"));
+        long references = longValue(totals.get("references"));
+        long physicalBytes = longValue(totals.get("physicalBytes"));
+        long logicalBytes = longValue(totals.get("logicalBytes"));
+        long unreferencedBytes = longValue(totals.get("unreferencedBytes"));
+        long savedBytes = Math.max(0, logicalBytes - (physicalBytes - unreferencedBytes));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("blobCount", blobs);
+        metrics.put("referenceCount", references);
+        metrics.put("logicalBytes", logicalBytes);
+        metrics.put("physicalBytes", physicalBytes);
+        metrics.put("savedBytes", savedBytes);
+        metrics.put("savedRatio", logicalBytes > 0 ? (double) savedBytes / logicalBytes : 0.0);
+        metrics.put("unreferencedBlobs", longValue(totals.get("unreferencedBlobs")));
+        metrics.put("unreferencedBytes", unreferencedBytes);
+        return metrics;
+    }
+
+    private void retain(String hash, long size) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(hash)),
+                new Update().inc("refCount", 1)
+                        .setOnInsert("size", size)
+                        .setOnInsert("createdAt", LocalDateTime.now()),
+                StoredBlob.class);
+    }
+
+    private void dropReference(String hash) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(hash)),
+                new Update().inc("refCount", -1).set("releasedAt", LocalDateTime.now()),
+                StoredBlob.class);
+    }
+
+    /**
+     * Moves the freshly written temp file into place as the blob, unless the blob already
+     * exists. Returns whether the content was a duplicate. A blob file lost to a concurrent sweep
+     * is simply put back by the next upload of the same content; existing links keep their data.
+     */
+    private boolean placeBlob(Path temp, String hash) throws IOException {
+        Path blob = blobPath(hash);
+        if (Files.exists(blob)) {
+            Files.delete(temp);
+            return true;
+        }
+        Files.createDirectories(blob.getParent());
+        move(temp, blob);
+        return false;
+    }
+
+    private static void link(Path link, Path existing) throws IOException {
+        Files.createDirectories(link.getParent());
+        try {
+            Files.createLink(link, existing);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(existing, link, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    Path blobPath(String hash) {
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private String keyOf(Path target) {
+        return uploadRoot.relativize(target).toString().replace('\\', '/');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Result of storing an upload
+     *
+     * @param path         key of the upload path, relative to the upload directory
+     * @param file         absolute file the upload is available at
+     * @param hash         SHA-256 of the content (hex)
+     * @param deduplicated whether identical content was already stored
+     */
+    public record StoredContent(String path, Path file, String hash, long size, boolean deduplicated) {
+    }
+}
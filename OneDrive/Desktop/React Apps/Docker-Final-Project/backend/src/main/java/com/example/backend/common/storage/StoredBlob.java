@@ -0,0 +1,33 @@
+package com.example.backend.common.storage;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored upload body, keyed by the SHA-256 of its content. {@code refCount} is the number of
+ * {@link BlobLink}s (upload paths) currently pointing at it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "stored_blobs")
+@CompoundIndex(name = "unreferenced", def = "{'refCount': 1, 'releasedAt': 1}")
+public class StoredBlob {
+
+    @Id
+    private String hash;
+
+    private long size;
+    private long refCount;
+
+    private LocalDateTime createdAt;
+
+    // Last time a reference was released; unreferenced blobs are collected after a grace period
+    private LocalDateTime releasedAt;
+}
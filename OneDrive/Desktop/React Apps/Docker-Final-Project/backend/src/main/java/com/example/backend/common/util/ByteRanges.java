@@ -0,0 +1,118 @@
+package com.example.backend.common.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parser for HTTP {@code Range: bytes=...} headers (RFC 9110 section 14).
+ *
+ * Supports closed ({@code 0-499}), open-ended ({@code 500-}) and suffix ({@code -500}) ranges and
+ * lists of them. Ranges are clamped to the representation length; overlapping or adjacent ranges
+ * are coalesced, so the result is sorted and disjoint.
+ */
+public final class ByteRanges {
+
+    // More ranges than this in one request is treated as malformed (and the full file is served)
+    static final int MAX_RANGES = 16;
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Inclusive byte range
+     */
+    public record ByteRange(long start, long end) {
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        public String contentRange(long totalLength) {
+            return "bytes " + start + "-" + end + "/" + totalLength;
+        }
+    }
+
+    /**
+     * Parses a Range header against a representation of {@code length} bytes.
+     *
+     * @return the satisfiable ranges, sorted and coalesced; an empty list if none is satisfiable (416)
+     * @throws IllegalArgumentException if the header is malformed (the Range header must then be ignored)
+     */
+    public static List<ByteRange> parse(String header, long length) {
+        if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            throw new IllegalArgumentException("Unsupported range unit: " + header);
+        }
+
+        String[] specs = header.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            throw new IllegalArgumentException("Too many ranges: " + specs.length);
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String rawSpec : specs) {
+            String spec = rawSpec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0 || spec.indexOf('-', dash + 1) >= 0) {
+                throw new IllegalArgumentException("Malformed range: " + spec);
+            }
+
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffixLength = parseNumber(last);
+                if (suffixLength > 0 && length > 0) {
+                    ranges.add(new ByteRange(Math.max(0, length - suffixLength), length - 1));
+                }
+                continue;
+            }
+
+            long start = parseNumber(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : parseNumber(last);
+            if (end < start) {
+                throw new IllegalArgumentException("Malformed range: " + spec);
+            }
+            if (start < length) {
+                ranges.add(new ByteRange(start, Math.min(end, length - 1)));
+            }
+        }
+
+        return coalesce(ranges);
+    }
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>();
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    private static long parseNumber(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            throw new IllegalArgumentException("Malformed range position: " + value);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Malformed range position: " + value);
+            }
+        }
+        return Long.parseLong(value);
+    }
+}
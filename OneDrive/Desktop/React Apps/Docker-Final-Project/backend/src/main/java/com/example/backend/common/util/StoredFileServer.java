@@ -0,0 +1,314 @@
+package com.example.backend.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves stored upload files over HTTP.
+ *
+ * <ul>
+ *   <li>Strong ETag from the SHA-256 of the content and Last-Modified, with {@code If-None-Match} /
+ *       {@code If-Modified-Since} answered by 304 without touching the file content.</li>
+ *   <li>{@code Range} requests answered with 206 (single range) or 206 {@code multipart/byteranges}
+ *       (several ranges), 416 for unsatisfiable ranges, {@code If-Range} honoured.</li>
+ *   <li>Content hash and MIME type are cached per file and only recomputed when the file's size or
+ *       modification time changes.</li>
+ *   <li>File regions are transferred with {@link FileChannel#transferTo}; on Tomcat connectors that
+ *       support sendfile, full and single-range responses are handed to the connector instead
+ *       (zero-copy).</li>
+ * </ul>
+ */
+@Component
+public class StoredFileServer {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int MAX_CACHED_FILES = 10_000;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<Path, FileMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * Writes {@code file} (or the requested ranges of it) to the response.
+     *
+     * @param contentType  MIME type to send, or null to detect it from the file
+     * @param disposition  "inline" or "attachment"
+     * @param downloadName file name for the Content-Disposition header
+     */
+    public void serve(HttpServletRequest request, HttpServletResponse response, Path file,
+                      String contentType, String disposition, String downloadName) throws IOException {
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        FileMetadata metadata = metadataFor(file);
+        String mediaType = contentType != null ? contentType : metadata.contentType;
+
+        response.setHeader(HttpHeaders.ETAG, metadata.etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, metadata.lastModifiedMillis);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (isNotModified(request, metadata)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + downloadName + "\"");
+        boolean writeBody = !"HEAD".equalsIgnoreCase(request.getMethod());
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request, metadata)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(mediaType);
+            response.setContentLengthLong(metadata.size);
+            if (writeBody) {
+                writeRegion(request, response, file, new ByteRanges.ByteRange(0, metadata.size - 1), true);
+            }
+            return;
+        }
+
+        List<ByteRanges.ByteRange> ranges;
+        try {
+            ranges = ByteRanges.parse(rangeHeader, metadata.size);
+        } catch (IllegalArgumentException e) {
+            // Malformed Range headers are ignored: full content
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(mediaType);
+            response.setContentLengthLong(metadata.size);
+            if (writeBody) {
+                writeRegion(request, response, file, new ByteRanges.ByteRange(0, metadata.size - 1), true);
+            }
+            return;
+        }
+
+        if (ranges.isEmpty()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (ranges.size() == 1) {
+            ByteRanges.ByteRange range = ranges.get(0);
+            response.setContentType(mediaType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(metadata.size));
+            response.setContentLengthLong(range.length());
+            if (writeBody) {
+                writeRegion(request, response, file, range, true);
+            }
+            return;
+        }
+
+        writeMultipart(request, response, file, ranges, mediaType, metadata.size, writeBody);
+    }
+
+    private void writeMultipart(HttpServletRequest request, HttpServletResponse response, Path file,
+                                List<ByteRanges.ByteRange> ranges, String mediaType, long size,
+                                boolean writeBody) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (ByteRanges.ByteRange range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n" +
+                    HttpHeaders.CONTENT_TYPE + ": " + mediaType + "\r\n" +
+                    HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(size) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (!writeBody) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        for (int i = 0; i < ranges.size(); i++) {
+            out.write(partHeaders.get(i));
+            writeRegion(request, response, file, ranges.get(i), false);
+        }
+        out.write(closing);
+        out.flush();
+    }
+
+    private void writeRegion(HttpServletRequest request, HttpServletResponse response, Path file,
+                             ByteRanges.ByteRange range, boolean wholeBody) throws IOException {
+        if (range.length() <= 0) {
+            return;
+        }
+
+        // The connector sends the region straight from the file (only possible if it is the whole body)
+        if (wholeBody && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, FileMetadata metadata) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since; weak comparison
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || stripWeak(candidate).equals(metadata.etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && metadata.lastModifiedMillis <= ifModifiedSince;
+    }
+
+    // If-Range: the Range header only applies if the validator still matches (strong comparison)
+    private static boolean ifRangeMatches(HttpServletRequest request, FileMetadata metadata) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(metadata.etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && date == metadata.lastModifiedMillis;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Cached hash, MIME type and validators of a file, refreshed when its size or mtime changes
+     */
+    FileMetadata metadataFor(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        FileMetadata cached = metadataCache.get(key);
+        if (cached != null && cached.size == size && cached.modifiedMillis == modified) {
+            return cached;
+        }
+
+        String contentType = Files.probeContentType(key);
+        FileMetadata metadata = new FileMetadata(size, modified, "\"" + sha256(key) + "\"",
+                contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        if (metadataCache.size() >= MAX_CACHED_FILES) {
+            metadataCache.clear();
+        }
+        metadataCache.put(key, metadata);
+        return metadata;
+    }
+
+    /**
+     * Seeds the cache with a content hash that is already known (e.g. computed while the file was
+     * uploaded), so the first request does not have to read the file to build its ETag.
+     */
+    public void primeContentHash(Path file, String sha256) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        String contentType = Files.probeContentType(key);
+
+        if (metadataCache.size() >= MAX_CACHED_FILES) {
+            metadataCache.clear();
+        }
+        metadataCache.put(key, new FileMetadata(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                "\"" + sha256 + "\"", contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE));
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static final class FileMetadata {
+        final long size;
+        final long modifiedMillis;
+        // HTTP dates have second precision
+        final long lastModifiedMillis;
+        final String etag;
+        final String contentType;
+
+        FileMetadata(long size, long modifiedMillis, String etag, String contentType) {
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            this.lastModifiedMillis = modifiedMillis / 1000 * 1000;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -26,10 +26,16 @@ public class GroupsController {
     @GetMapping
     public ResponseEntity<List<GroupDto>> getAllGroups(
             @RequestParam(required = false) Boolean joined,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false, defaultValue = "all") String type,
+            @RequestParam(required = false, defaultValue = "recent") String sortBy,
             Authentication authentication) {
         String username = authentication.getName();
         String userId = userService.getUserByUsername(username).getId();
-        List<GroupDto> groups = groupsService.getAllGroups(userId, joined);
+        List<GroupDto> groups = page == null
+                ? groupsService.getAllGroups(userId, joined)
+                : groupsService.getGroupsPage(type, sortBy, page, size);
         return ResponseEntity.ok(groups);
     }
 
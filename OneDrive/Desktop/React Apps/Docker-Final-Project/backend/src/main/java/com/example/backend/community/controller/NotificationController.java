@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -59,10 +60,10 @@ public class NotificationController {
     }
 
     @PutMapping("/mark-all-read")
-    public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> markAllAsRead(Authentication authentication) {
         String username = authentication.getName();
         String userId = userService.getUserByUsername(username).getId();
-        notificationService.markAllAsRead(userId);
-        return ResponseEntity.ok().build();
+        long marked = notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(Map.of("markedAsRead", marked));
     }
 }
\ No newline at end of file
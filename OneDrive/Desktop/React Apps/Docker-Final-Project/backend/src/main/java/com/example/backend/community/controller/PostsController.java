@@ -5,16 +5,17 @@ import com.example.backend.community.service.FriendsService;
 import com.example.backend.eduSphere.service.UserService; // Add this import
 import com.example.backend.community.dto.PostDto;
 import com.example.backend.community.dto.CommentDto;
-import com.example.backend.community.dto.UserDto;
 import com.example.backend.community.dto.request.CreatePostRequest;
 import com.example.backend.community.dto.request.CreateCommentRequest;
+import com.example.backend.community.dto.response.FeedPageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/community/posts")
@@ -39,17 +40,39 @@ public class PostsController {
         String username = authentication.getName();
         String currentUserId = userService.getUserByUsername(username).getId();
 
+        List<PostDto> posts = postsService.getFeed(currentUserId, getFriendIds(currentUserId));
+        return ResponseEntity.ok(posts);
+    }
+
+    @GetMapping("/feed/page")
+    public ResponseEntity<FeedPageResponse> getFeedPage(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String beforeId,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        String username = authentication.getName();
+        String currentUserId = userService.getUserByUsername(username).getId();
+
+        LocalDateTime beforeTimestamp = before == null || before.isBlank()
+                ? null
+                : LocalDateTime.parse(before, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        FeedPageResponse page = postsService.getFeedPage(currentUserId, getFriendIds(currentUserId),
+                beforeTimestamp, beforeId, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    private List<String> getFriendIds(String currentUserId) {
         // Get friend IDs automatically
         List<String> friendIds = new ArrayList<>();
         try {
-            List<UserDto> friends = friendsService.getFriends(currentUserId);
-            friendIds = friends.stream()
-                    .map(UserDto::getId)
-                    .collect(Collectors.toList());
+            friendIds = friendsService.getFriendIds(currentUserId);
         } catch (Exception ignored) {}
-
-        List<PostDto> posts = postsService.getFeed(currentUserId, friendIds);
-        return ResponseEntity.ok(posts);
+        return friendIds;
     }
 
     @GetMapping("/user/{userId}")
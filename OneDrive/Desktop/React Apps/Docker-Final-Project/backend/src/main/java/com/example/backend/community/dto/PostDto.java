@@ -27,6 +27,7 @@ public class PostDto {
 
     // Engagement
     private List<String> likes;
+    private Integer likeCount;
     private Integer commentCount;
 
     // Timestamps with proper formatting
@@ -0,0 +1,26 @@
+package com.example.backend.community.dto.response;
+
+import com.example.backend.community.dto.PostDto;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class FeedPageResponse {
+    private List<PostDto> posts;
+    private boolean hasMore;
+
+    // Cursor for the next page: createdAt (ISO) and id of the last post returned
+    private String nextBefore;
+    private String nextBeforeId;
+
+    public FeedPageResponse() {}
+
+    public FeedPageResponse(List<PostDto> posts, boolean hasMore, String nextBefore, String nextBeforeId) {
+        this.posts = posts;
+        this.hasMore = hasMore;
+        this.nextBefore = nextBefore;
+        this.nextBeforeId = nextBeforeId;
+    }
+}
@@ -22,6 +22,7 @@ public class AttachedFile {
     private String fileType; // "image", "document", "video", etc.
     private String mimeType;
     private Long fileSize; // in bytes
+    private String contentHash; // SHA-256 of the stored content
 
     private String uploadedBy; // User ID who uploaded
 
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -12,6 +13,9 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(collection = "friend_requests")
+@CompoundIndex(name = "pair_status", def = "{'pairKey': 1, 'status': 1}")
+@CompoundIndex(name = "receiver_status", def = "{'receiverId': 1, 'status': 1}")
+@CompoundIndex(name = "sender_status", def = "{'senderId': 1, 'status': 1}")
 public class FriendRequest {
 
     @Id
@@ -23,6 +27,11 @@ public class FriendRequest {
     @DBRef
     private UserEntity receiver;
 
+    // Plain user ids and the canonical pair key (see Friendship.pairKeyOf) for indexed lookups
+    private String senderId;
+    private String receiverId;
+    private String pairKey;
+
     private String status; // "PENDING", "ACCEPTED", "REJECTED"
     private String message; // Optional message with friend request
 
@@ -0,0 +1,39 @@
+package com.example.backend.community.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed top-K friend suggestions of one user (the document id is the user id),
+ * ranked by mutual friends, shared groups and shared courses.
+ */
+@Getter
+@Setter
+@Document(collection = "friend_suggestions")
+public class FriendSuggestionList {
+
+    @Id
+    private String userId;
+
+    private List<Candidate> candidates = new ArrayList<>();
+
+    // Users this user dismissed; never suggested again
+    private List<String> dismissedIds = new ArrayList<>();
+
+    private LocalDateTime computedAt;
+
+    @Getter
+    @Setter
+    public static class Candidate {
+        private String userId;
+        private int score;
+        private int mutualFriends;
+        private int sharedGroups;
+        private int sharedCourses;
+    }
+}
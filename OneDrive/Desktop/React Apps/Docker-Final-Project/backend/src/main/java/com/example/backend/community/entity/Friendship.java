@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -23,6 +24,20 @@ public class Friendship {
     @DBRef
     private UserEntity user2;
 
+    // Edge store: plain user ids plus the canonical "minId:maxId" key of the pair (one friendship per pair)
+    @Indexed(unique = true)
+    private String pairKey;
+
+    @Indexed
+    private String userId1;
+
+    @Indexed
+    private String userId2;
+
     @CreatedDate
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    public static String pairKeyOf(String userIdA, String userIdB) {
+        return userIdA.compareTo(userIdB) <= 0 ? userIdA + ":" + userIdB : userIdB + ":" + userIdA;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -13,6 +14,11 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(collection = "groups")
+@CompoundIndex(name = "type_members", def = "{'type': 1, 'memberCount': -1, '_id': -1}")
+@CompoundIndex(name = "type_recent", def = "{'type': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "members", def = "{'memberCount': -1, '_id': -1}")
+@CompoundIndex(name = "recent", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "type_trending", def = "{'type': 1, 'trendingScore': -1, 'memberCount': -1}")
 public class Group {
 
     @Id
@@ -26,7 +32,10 @@ public class Group {
     @DBRef
     private UserEntity founder;
 
-    private Integer memberCount = 0; // Cache for performance
+    private Integer memberCount = 0; // Maintained with atomic $inc on join/leave
+
+    // Recent joins and posts, recomputed periodically by GroupTrendingRanker
+    private Integer trendingScore = 0;
 
     @CreatedDate
     private LocalDateTime createdAt;
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -12,6 +13,9 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(collection = "group_memberships")
+@CompoundIndex(name = "group_user", def = "{'groupId': 1, 'userId': 1}", unique = true)
+@CompoundIndex(name = "user_groups", def = "{'userId': 1, 'joinDate': -1}")
+@CompoundIndex(name = "recent_joins", def = "{'joinDate': -1, 'groupId': 1}")
 public class GroupMembership {
 
     @Id
@@ -23,6 +27,10 @@ public class GroupMembership {
     @DBRef
     private UserEntity user;
 
+    // Denormalized ids of the group and the user, so membership lookups never resolve the DBRefs
+    private String groupId;
+    private String userId;
+
     private String role; // "Founder", "Co-founder", "Member"
 
     @CreatedDate
@@ -6,6 +6,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -15,6 +16,8 @@ import java.util.Map;
 @Getter
 @Setter
 @Document(collection = "posts")
+@CompoundIndex(name = "user_feed", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "group_posts", def = "{'groupId': 1, 'createdAt': -1}")
 public class Post {
 
     @Id
@@ -23,6 +26,9 @@ public class Post {
     @DBRef
     private UserEntity user;
 
+    // Denormalized id of the author, so feed queries never resolve the user DBRef
+    private String userId;
+
     private String desc; // Post description/content
     private String img; // Image URL
 
@@ -40,6 +46,7 @@ public class Post {
 
     // Engagement
     private List<String> likes; // List of user IDs who liked
+    private Integer likeCount = 0; // Size of likes, kept in step by the atomic like/unlike updates
     private Integer commentCount = 0; // Cache for performance
 
     @CreatedDate
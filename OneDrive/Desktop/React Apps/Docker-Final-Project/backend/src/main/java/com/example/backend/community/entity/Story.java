@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -12,6 +14,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(collection = "stories")
+@CompoundIndex(name = "user_active", def = "{'userId': 1, 'expiresAt': 1}")
 public class Story {
 
     @Id
@@ -20,6 +23,9 @@ public class Story {
     @DBRef
     private UserEntity user;
 
+    // Denormalized author id (same as user.id) so the feed can be queried without the DBRef
+    private String userId;
+
     private String text; // Text content
     private String img; // Image/video URL
     private String type; // "text", "image", "video"
@@ -31,6 +37,7 @@ public class Story {
     @CreatedDate
     private LocalDateTime createdAt;
 
-    // Stories expire after 24 hours
+    // Stories expire after 24 hours; expired documents are removed by the TTL index
+    @Indexed(name = "story_expiry_ttl", expireAfter = "0s")
     private LocalDateTime expiresAt;
 }
\ No newline at end of file
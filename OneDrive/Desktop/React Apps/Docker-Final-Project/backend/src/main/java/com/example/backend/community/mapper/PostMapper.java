@@ -21,8 +21,8 @@ public class PostMapper {
         dto.setFile(entity.getFile());
 
         // Map user information - using cached fields from Post entity
-        if (entity.getUser() != null) {
-            dto.setUserId(entity.getUser().getId());
+        if (entity.getUserId() != null || entity.getUser() != null) {
+            dto.setUserId(entity.getUserId() != null ? entity.getUserId() : entity.getUser().getId());
             dto.setName(entity.getName()); // Using cached name from Post
             dto.setProfilePic(entity.getProfilePic()); // Using cached profilePic from Post
             dto.setRole(entity.getRole()); // Using cached role from Post
@@ -34,6 +34,8 @@ public class PostMapper {
 
         // Engagement
         dto.setLikes(entity.getLikes());
+        dto.setLikeCount(entity.getLikeCount() != null ? entity.getLikeCount()
+                : (entity.getLikes() != null ? entity.getLikes().size() : 0));
         dto.setCommentCount(entity.getCommentCount());
 
         // Timestamps
@@ -63,6 +65,7 @@ public class PostMapper {
 
         // Engagement
         entity.setLikes(dto.getLikes());
+        entity.setLikeCount(dto.getLikeCount());
         entity.setCommentCount(dto.getCommentCount());
 
         // Timestamps
@@ -12,35 +12,35 @@ import java.util.Optional;
 public interface FriendRequestRepository extends MongoRepository<FriendRequest, String> {
 
     // Find requests by receiver ID and status
-    @Query("{'receiver.$id': ?0, 'status': ?1}")
+    @Query("{'receiverId': ?0, 'status': ?1}")
     List<FriendRequest> findByReceiverIdAndStatus(String receiverId, String status);
 
     // Original method using UserEntity
     List<FriendRequest> findByReceiverAndStatus(UserEntity receiver, String status);
 
     // Find ALL requests by receiver ID (any status)
-    @Query("{'receiver.$id': ?0}")
+    @Query("{'receiverId': ?0}")
     List<FriendRequest> findByReceiverId(String receiverId);
 
     // Original method using UserEntity
     List<FriendRequest> findByReceiver(UserEntity receiver);
 
     // Find requests by sender ID (all statuses)
-    @Query("{'sender.$id': ?0}")
+    @Query("{'senderId': ?0}")
     List<FriendRequest> findBySenderId(String senderId);
 
     // Original method using UserEntity
     List<FriendRequest> findBySender(UserEntity sender);
 
     // Find requests by sender ID and status
-    @Query("{'sender.$id': ?0, 'status': ?1}")
+    @Query("{'senderId': ?0, 'status': ?1}")
     List<FriendRequest> findBySenderIdAndStatus(String senderId, String status);
 
     // Original method using UserEntity
     List<FriendRequest> findBySenderAndStatus(UserEntity sender, String status);
 
     // Check if request exists between two users using String IDs (any direction)
-    @Query("{'$or': [{'sender.$id': ?0, 'receiver.$id': ?1}, {'sender.$id': ?1, 'receiver.$id': ?0}]}")
+    @Query("{'$or': [{'senderId': ?0, 'receiverId': ?1}, {'senderId': ?1, 'receiverId': ?0}]}")
     Optional<FriendRequest> findBetweenUserIds(String userId1, String userId2);
 
     // Original method using UserEntity
@@ -48,7 +48,7 @@ public interface FriendRequestRepository extends MongoRepository<FriendRequest,
     Optional<FriendRequest> findBetweenUsers(UserEntity user1, UserEntity user2);
 
     // Find request between two users with specific status using String IDs
-    @Query("{'$or': [{'sender.$id': ?0, 'receiver.$id': ?1}, {'sender.$id': ?1, 'receiver.$id': ?0}], 'status': ?2}")
+    @Query("{'$or': [{'senderId': ?0, 'receiverId': ?1}, {'senderId': ?1, 'receiverId': ?0}], 'status': ?2}")
     Optional<FriendRequest> findBetweenUserIdsWithStatus(String userId1, String userId2, String status);
 
     // Original method using UserEntity
@@ -56,7 +56,7 @@ public interface FriendRequestRepository extends MongoRepository<FriendRequest,
     Optional<FriendRequest> findBetweenUsersWithStatus(UserEntity user1, UserEntity user2, String status);
 
     // Count pending requests for a user using String ID
-    @Query(value = "{'receiver.$id': ?0, 'status': 'PENDING'}", count = true)
+    @Query(value = "{'receiverId': ?0, 'status': 'PENDING'}", count = true)
     long countPendingRequestsByReceiverId(String receiverId);
 
     // Original method using UserEntity
@@ -64,12 +64,28 @@ public interface FriendRequestRepository extends MongoRepository<FriendRequest,
     long countPendingRequestsByReceiver(UserEntity receiver);
 
     // Find all requests involving specific user IDs (for cleanup operations)
-    @Query("{'$or': [{'sender.$id': {$in: ?0}}, {'receiver.$id': {$in: ?0}}]}")
+    @Query("{'$or': [{'senderId': {$in: ?0}}, {'receiverId': {$in: ?0}}]}")
     List<FriendRequest> findAllInvolvingUserIds(List<String> userIds);
 
     // Find all requests between two users (any status, any direction)
-    @Query("{'$or': [{'sender.$id': ?0, 'receiver.$id': ?1}, {'sender.$id': ?1, 'receiver.$id': ?0}]}")
+    @Query("{'$or': [{'senderId': ?0, 'receiverId': ?1}, {'senderId': ?1, 'receiverId': ?0}]}")
     List<FriendRequest> findAllBetweenUserIds(String userId1, String userId2);
 
+    // Request edges of a user without resolving the user DBRefs (only the plain ids are loaded)
+    @Query(value = "{'$or': [{'senderId': ?0}, {'receiverId': ?0}]}", fields = "{'senderId': 1, 'receiverId': 1, 'status': 1}")
+    List<FriendRequest> findEdgesByUserId(String userId);
+
+    // Pending senders of a user without resolving the user DBRefs
+    @Query(value = "{'receiverId': ?0, 'status': ?1}", fields = "{'senderId': 1}")
+    List<FriendRequest> findSenderEdgesByReceiverIdAndStatus(String receiverId, String status);
+
+    Optional<FriendRequest> findFirstBySenderIdAndReceiverIdAndStatus(String senderId, String receiverId, String status);
+
+    boolean existsByPairKey(String pairKey);
+
+    boolean existsByPairKeyAndStatus(String pairKey, String status);
+
+    long deleteByPairKey(String pairKey);
+
     // REMOVED ALL DELETE QUERIES - We'll handle deletion in service layer using deleteAll() and deleteById()
 }
\ No newline at end of file
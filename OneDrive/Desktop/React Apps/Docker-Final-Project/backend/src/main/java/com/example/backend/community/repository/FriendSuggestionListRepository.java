@@ -0,0 +1,9 @@
+package com.example.backend.community.repository;
+
+import com.example.backend.community.entity.FriendSuggestionList;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FriendSuggestionListRepository extends MongoRepository<FriendSuggestionList, String> {
+}
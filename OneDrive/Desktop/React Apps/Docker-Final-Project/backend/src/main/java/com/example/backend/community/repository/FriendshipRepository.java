@@ -11,16 +11,28 @@ import java.util.Optional;
 @Repository
 public interface FriendshipRepository extends MongoRepository<Friendship, String> {
 
-    // Find all friendships for a user (any direction) - using String IDs for better reliability
-    @Query("{'$or': [{'user1.$id': ?0}, {'user2.$id': ?0}]}")
+    // Find all friendships for a user (any direction) - using the denormalized String IDs
+    @Query("{'$or': [{'userId1': ?0}, {'userId2': ?0}]}")
     List<Friendship> findAllByUserId(String userId);
 
+    // Edges of a user without resolving the user DBRefs (only the plain ids are loaded)
+    @Query(value = "{'$or': [{'userId1': ?0}, {'userId2': ?0}]}", fields = "{'userId1': 1, 'userId2': 1}")
+    List<Friendship> findEdgesByUserId(String userId);
+
+    // Edges of several users at once, again only the plain ids
+    @Query(value = "{'$or': [{'userId1': {$in: ?0}}, {'userId2': {$in: ?0}}]}", fields = "{'userId1': 1, 'userId2': 1}")
+    List<Friendship> findEdgesByUserIds(List<String> userIds);
+
+    boolean existsByPairKey(String pairKey);
+
+    long deleteByPairKey(String pairKey);
+
     // BACKUP: Original method using UserEntity (keep for compatibility)
     @Query("{'$or': [{'user1': ?0}, {'user2': ?0}]}")
     List<Friendship> findAllByUser(UserEntity user);
 
     // Check if friendship exists between two users using String IDs
-    @Query("{'$or': [{'user1.$id': ?0, 'user2.$id': ?1}, {'user1.$id': ?1, 'user2.$id': ?0}]}")
+    @Query("{'$or': [{'userId1': ?0, 'userId2': ?1}, {'userId1': ?1, 'userId2': ?0}]}")
     Optional<Friendship> findBetweenUserIds(String userId1, String userId2);
 
     // BACKUP: Original method using UserEntity (keep for compatibility)
@@ -28,7 +40,7 @@ public interface FriendshipRepository extends MongoRepository<Friendship, String
     Optional<Friendship> findBetweenUsers(UserEntity user1, UserEntity user2);
 
     // Count friends for a user using String ID
-    @Query(value = "{'$or': [{'user1.$id': ?0}, {'user2.$id': ?0}]}", count = true)
+    @Query(value = "{'$or': [{'userId1': ?0}, {'userId2': ?0}]}", count = true)
     long countFriendsByUserId(String userId);
 
     // Original count method using UserEntity
@@ -36,7 +48,7 @@ public interface FriendshipRepository extends MongoRepository<Friendship, String
     long countFriendsByUser(UserEntity user);
 
     // Find mutual friends using String IDs
-    @Query("{'$or': [{'user1.$id': {$in: ?0}}, {'user2.$id': {$in: ?0}}]}")
+    @Query("{'$or': [{'userId1': {$in: ?0}}, {'userId2': {$in: ?0}}]}")
     List<Friendship> findMutualFriendsByIds(List<String> friendIds);
 
     // Find mutual friends using UserEntity list
@@ -44,7 +56,7 @@ public interface FriendshipRepository extends MongoRepository<Friendship, String
     List<Friendship> findMutualFriends(List<UserEntity> friendsOfUser1);
 
     // Find all friendships involving specific user IDs (for cleanup operations)
-    @Query("{'$or': [{'user1.$id': {$in: ?0}}, {'user2.$id': {$in: ?0}}]}")
+    @Query("{'$or': [{'userId1': {$in: ?0}}, {'userId2': {$in: ?0}}]}")
     List<Friendship> findAllInvolvingUserIds(List<String> userIds);
 
     // REMOVED ALL DELETE QUERIES - We'll handle deletion in service layer using deleteAll() and deleteById()
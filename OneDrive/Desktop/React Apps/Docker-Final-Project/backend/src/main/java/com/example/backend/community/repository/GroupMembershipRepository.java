@@ -37,4 +37,14 @@ public interface GroupMembershipRepository extends MongoRepository<GroupMembersh
 
     // Delete membership
     void deleteByGroupAndUser(Group group, UserEntity user);
+
+    // Groups of a user (newest membership first) without resolving the group and user DBRefs
+    @Query(value = "{'userId': ?0}", fields = "{'groupId': 1, 'role': 1, 'joinDate': 1}", sort = "{'joinDate': -1}")
+    List<GroupMembership> findGroupRefsByUserId(String userId);
+
+    boolean existsByGroupIdAndUserId(String groupId, String userId);
+
+    long countByUserId(String userId);
+
+    long deleteByGroupIdAndUserId(String groupId, String userId);
 }
\ No newline at end of file
@@ -35,4 +35,12 @@ public interface GroupRepository extends MongoRepository<Group, String> {
     // Find popular groups (by member count)
     List<Group> findTop10ByTypeOrderByMemberCountDesc(String type);
 
+    // Paged listing; the sort comes with the Pageable (member count or recent, see the type_* indexes)
+    List<Group> findByType(String type, Pageable pageable);
+
+    List<Group> findByIdNotInAndType(List<String> groupIds, String type, Pageable pageable);
+
+    // Precomputed ranking, see GroupTrendingRanker
+    List<Group> findByTypeOrderByTrendingScoreDescMemberCountDesc(String type, Pageable pageable);
+
 }
\ No newline at end of file
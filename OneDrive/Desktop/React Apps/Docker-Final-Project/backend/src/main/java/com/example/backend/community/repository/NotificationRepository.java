@@ -2,7 +2,9 @@ package com.example.backend.community.repository;
 
 import com.example.backend.community.entity.Notification;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -10,4 +12,7 @@ public interface NotificationRepository extends MongoRepository<Notification, St
     List<Notification> findByRecipientIdAndIsDeletedFalseOrderByCreatedAtDesc(String recipientId);
     List<Notification> findByRecipientIdAndIsReadFalseAndIsDeletedFalse(String recipientId);
     int countByRecipientIdAndIsReadFalseAndIsDeletedFalse(String recipientId);
+
+    @Update("{ '$set': { 'isRead': true, 'readAt': ?1 } }")
+    long findAndSetReadByRecipientIdAndIsReadFalseAndIsDeletedFalse(String recipientId, LocalDateTime readAt);
 }
\ No newline at end of file
@@ -22,8 +22,8 @@ public interface StoryRepository extends MongoRepository<Story, String> {
     @Query("{'user': ?0, 'expiresAt': {$gt: ?1}}")
     List<Story> findActiveStoriesByUser(UserEntity user, LocalDateTime now);
 
-    // FIXED: Query by user.id field to work with @DBRef - try different syntax
-    @Query("{'user.$id': {$in: ?0}, 'expiresAt': {$gt: ?1}}")
+    // Active stories of the given authors on the denormalized userId; the user DBRef is not loaded
+    @Query(value = "{'userId': {$in: ?0}, 'expiresAt': {$gt: ?1}}", fields = "{'user': 0}", sort = "{'createdAt': 1}")
     List<Story> findActiveStoriesByUserIds(List<String> userIds, LocalDateTime now);
 
     // ALTERNATIVE: Use ObjectId conversion
@@ -7,6 +7,7 @@ import java.util.List;
 
 public interface FriendsService {
     List<UserDto> getFriends(String userId);
+    List<String> getFriendIds(String userId);
     List<UserDto> getFriendSuggestions(String userId);
     List<UserDto> getFriendRequests(String userId);
     void sendFriendRequest(String senderId, String receiverId);
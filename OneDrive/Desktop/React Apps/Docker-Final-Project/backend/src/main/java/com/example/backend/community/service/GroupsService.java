@@ -10,6 +10,7 @@ public interface GroupsService {
 
     // EXISTING METHODS
     List<GroupDto> getAllGroups(String userId, Boolean joined);
+    List<GroupDto> getGroupsPage(String type, String sortBy, int page, int size);
     List<GroupDto> getUserGroups(String userId);
     GroupDto getGroupDetails(String groupId);
     GroupDto createGroup(CreateGroupRequest request, MultipartFile img, String userId);
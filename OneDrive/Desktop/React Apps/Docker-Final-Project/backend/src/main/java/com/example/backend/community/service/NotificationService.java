@@ -9,6 +9,6 @@ public interface NotificationService {
     void sendNotification(SendNotificationRequest request, String senderId);
     void markAsRead(String notificationId, String userId);
     int getUnreadCount(String userId);
-    void markAllAsRead(String userId);
+    long markAllAsRead(String userId);
     void sendJobApplicationNotification(String recipientId, String type, String title, String message, String jobId);
 }
\ No newline at end of file
@@ -4,10 +4,13 @@ import com.example.backend.community.dto.PostDto;
 import com.example.backend.community.dto.CommentDto;
 import com.example.backend.community.dto.request.CreatePostRequest;
 import com.example.backend.community.dto.request.CreateCommentRequest;
+import com.example.backend.community.dto.response.FeedPageResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PostsService {
     List<PostDto> getFeed(String userId, List<String> friendIds);
+    FeedPageResponse getFeedPage(String userId, List<String> friendIds, LocalDateTime before, String beforeId, int limit);
     List<PostDto> getUserPosts(String userId);
     PostDto createPost(CreatePostRequest request, String userId);
     PostDto toggleLike(String postId, String userId);
@@ -1,21 +1,22 @@
 package com.example.backend.community.service.impl;
 
+import com.example.backend.common.exceptions.FileStorageException;
+import com.example.backend.common.storage.ContentAddressedStore;
 import com.example.backend.community.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
 @Service
 public class FileStorageServiceImpl implements FileStorageService {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private ContentAddressedStore contentStore;
 
     @Value("${app.base.url:http://localhost:8080}")
     private String baseUrl;
@@ -23,30 +24,35 @@ public class FileStorageServiceImpl implements FileStorageService {
     @Override
     public String storeFile(MultipartFile file, String folder) {
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, folder);
-            Files.createDirectories(uploadPath);
-
             // Generate unique filename
             String fileName = generateFileName(file.getOriginalFilename());
-            Path filePath = uploadPath.resolve(fileName);
 
-            // Copy file to upload directory
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Store under the folder; identical content is kept only once
+            contentStore.store(file, folder + "/" + fileName);
 
             // Return URL
             return baseUrl + "/uploads/" + folder + "/" + fileName;
-        } catch (IOException e) {
+        } catch (FileStorageException e) {
             throw new RuntimeException("Failed to store file", e);
         }
     }
 
     @Override
     public void deleteFile(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return;
+        }
         try {
-            Path path = Paths.get(filePath);
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
+            // Stored values are the public URLs returned by storeFile
+            String urlPrefix = baseUrl + "/uploads/";
+            String relativePath = filePath.startsWith(urlPrefix) ? filePath.substring(urlPrefix.length()) : null;
+
+            if (relativePath != null) {
+                contentStore.release(relativePath);
+            } else {
+                Files.deleteIfExists(Paths.get(filePath));
+            }
+        } catch (IOException | FileStorageException e) {
             throw new RuntimeException("Failed to delete file", e);
         }
     }
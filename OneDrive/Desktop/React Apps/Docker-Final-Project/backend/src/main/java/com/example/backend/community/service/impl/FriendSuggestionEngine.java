@@ -0,0 +1,318 @@
+package com.example.backend.community.service.impl;
+
+import com.example.backend.community.entity.FriendRequest;
+import com.example.backend.community.entity.FriendSuggestionList;
+import com.example.backend.community.entity.Friendship;
+import com.example.backend.community.entity.GroupMembership;
+import com.example.backend.community.repository.FriendRequestRepository;
+import com.example.backend.community.repository.FriendSuggestionListRepository;
+import com.example.backend.community.repository.FriendshipRepository;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.UserEntity;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Friend suggestion engine.
+ *
+ * Candidates of a user are the friends of their friends, the members of their groups and the
+ * students of their courses, scored by mutual friends, shared groups and shared courses. Only the
+ * top {@link #MAX_CANDIDATES} are kept in the user's {@link FriendSuggestionList}, so reading
+ * suggestions is a single document read.
+ *
+ * Lists are recomputed incrementally: friendship, group membership and enrollment changes mark the
+ * affected users dirty, and a scheduled pass recomputes just those users.
+ */
+@Component
+public class FriendSuggestionEngine {
+
+    static final int MAX_CANDIDATES = 20;
+
+    private static final int MUTUAL_FRIEND_WEIGHT = 3;
+    private static final int SHARED_GROUP_WEIGHT = 2;
+    private static final int SHARED_COURSE_WEIGHT = 1;
+
+    private final MongoTemplate mongoTemplate;
+    private final FriendshipRepository friendshipRepository;
+    private final FriendRequestRepository friendRequestRepository;
+    private final FriendSuggestionListRepository suggestionListRepository;
+    private final long maxAgeHours;
+
+    private final Set<String> dirtyUserIds = ConcurrentHashMap.newKeySet();
+
+    public FriendSuggestionEngine(MongoTemplate mongoTemplate,
+                                  FriendshipRepository friendshipRepository,
+                                  FriendRequestRepository friendRequestRepository,
+                                  FriendSuggestionListRepository suggestionListRepository,
+                                  @Value("${app.friends.suggestions.max-age-hours:24}") long maxAgeHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.friendshipRepository = friendshipRepository;
+        this.friendRequestRepository = friendRequestRepository;
+        this.suggestionListRepository = suggestionListRepository;
+        this.maxAgeHours = maxAgeHours;
+    }
+
+    /**
+     * Stored suggestions of a user. Computed on the calling thread only the first time; a list
+     * older than the max age is returned as is and queued for recomputation.
+     */
+    public FriendSuggestionList getSuggestions(String userId) {
+        FriendSuggestionList list = suggestionListRepository.findById(userId).orElse(null);
+        if (list == null || list.getComputedAt() == null) {
+            return recompute(userId);
+        }
+        if (list.getComputedAt().isBefore(LocalDateTime.now().minusHours(maxAgeHours))) {
+            dirtyUserIds.add(userId);
+        }
+        return list;
+    }
+
+    /**
+     * A friendship between the two users was created or removed. Their own lists change, and so do
+     * the mutual friend counts of everybody who is friends with either of them.
+     */
+    public void onFriendshipChanged(String userId1, String userId2) {
+        dirtyUserIds.add(userId1);
+        dirtyUserIds.add(userId2);
+        for (Friendship edge : friendshipRepository.findEdgesByUserIds(List.of(userId1, userId2))) {
+            dirtyUserIds.add(edge.getUserId1());
+            dirtyUserIds.add(edge.getUserId2());
+        }
+    }
+
+    /**
+     * A friend request was sent: neither user should keep suggesting the other
+     */
+    public void onFriendRequestSent(String senderId, String receiverId) {
+        removeCandidate(senderId, receiverId);
+        removeCandidate(receiverId, senderId);
+    }
+
+    /**
+     * The user joined or left the group; shared group counts with every member change
+     */
+    public void onGroupMembershipChanged(String groupId, String userId) {
+        dirtyUserIds.add(userId);
+        markDirty(groupMemberIds(List.of(groupId)));
+    }
+
+    public void markDirty(Collection<String> userIds) {
+        dirtyUserIds.addAll(userIds);
+    }
+
+    public void dismiss(String userId, String dismissedUserId) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update()
+                        .addToSet("dismissedIds", dismissedUserId)
+                        .pull("candidates", new Document("userId", dismissedUserId)),
+                FriendSuggestionList.class);
+    }
+
+    private void removeCandidate(String userId, String candidateId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().pull("candidates", new Document("userId", candidateId)),
+                FriendSuggestionList.class);
+    }
+
+    @Scheduled(fixedDelayString = "${app.friends.suggestions.refresh-interval-ms:15000}")
+    public void recomputeDirty() {
+        if (dirtyUserIds.isEmpty()) {
+            return;
+        }
+
+        List<String> batch = new ArrayList<>(dirtyUserIds);
+        dirtyUserIds.removeAll(batch);
+
+        long start = System.currentTimeMillis();
+        for (String userId : batch) {
+            try {
+                recompute(userId);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to recompute friend suggestions for user " + userId + ": " + e.getMessage());
+            }
+        }
+        System.out.println("🤝 Recomputed friend suggestions for " + batch.size() + " users in " +
+                (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Full recomputation of one user's list; dismissed users are kept
+     */
+    public FriendSuggestionList recompute(String userId) {
+        FriendSuggestionList list = suggestionListRepository.findById(userId).orElseGet(() -> {
+            FriendSuggestionList created = new FriendSuggestionList();
+            created.setUserId(userId);
+            return created;
+        });
+
+        Set<String> excluded = new HashSet<>(list.getDismissedIds());
+        excluded.add(userId);
+
+        List<String> friendIds = new ArrayList<>();
+        for (Friendship edge : friendshipRepository.findEdgesByUserId(userId)) {
+            friendIds.add(userId.equals(edge.getUserId1()) ? edge.getUserId2() : edge.getUserId1());
+        }
+        excluded.addAll(friendIds);
+
+        for (FriendRequest request : friendRequestRepository.findEdgesByUserId(userId)) {
+            excluded.add(userId.equals(request.getSenderId()) ? request.getReceiverId() : request.getSenderId());
+        }
+
+        Map<String, FriendSuggestionList.Candidate> candidates = new HashMap<>();
+        countMutualFriends(friendIds, excluded, candidates);
+        countSharedGroups(userId, excluded, candidates);
+        countSharedCourses(userId, excluded, candidates);
+
+        List<FriendSuggestionList.Candidate> ranked = new ArrayList<>(candidates.values());
+        for (FriendSuggestionList.Candidate candidate : ranked) {
+            candidate.setScore(candidate.getMutualFriends() * MUTUAL_FRIEND_WEIGHT
+                    + candidate.getSharedGroups() * SHARED_GROUP_WEIGHT
+                    + candidate.getSharedCourses() * SHARED_COURSE_WEIGHT);
+        }
+        ranked.sort(Comparator.comparingInt(FriendSuggestionList.Candidate::getScore).reversed()
+                .thenComparing(FriendSuggestionList.Candidate::getUserId));
+        if (ranked.size() > MAX_CANDIDATES) {
+            ranked = new ArrayList<>(ranked.subList(0, MAX_CANDIDATES));
+        }
+
+        // Users without any connection yet still get suggestions: the newest users
+        if (ranked.size() < MAX_CANDIDATES) {
+            excluded.addAll(candidates.keySet());
+            addNewestUsers(excluded, MAX_CANDIDATES - ranked.size(), ranked);
+        }
+
+        list.setCandidates(ranked);
+        list.setComputedAt(LocalDateTime.now());
+        return suggestionListRepository.save(list);
+    }
+
+    private void countMutualFriends(List<String> friendIds, Set<String> excluded,
+                                    Map<String, FriendSuggestionList.Candidate> candidates) {
+        if (friendIds.isEmpty()) {
+            return;
+        }
+        Set<String> friends = new HashSet<>(friendIds);
+        for (Friendship edge : friendshipRepository.findEdgesByUserIds(friendIds)) {
+            // An edge from one of the user's friends to someone else: that someone has one more mutual friend
+            if (friends.contains(edge.getUserId1()) && !excluded.contains(edge.getUserId2())) {
+                FriendSuggestionList.Candidate candidate = candidate(candidates, edge.getUserId2());
+                candidate.setMutualFriends(candidate.getMutualFriends() + 1);
+            }
+            if (friends.contains(edge.getUserId2()) && !excluded.contains(edge.getUserId1())) {
+                FriendSuggestionList.Candidate candidate = candidate(candidates, edge.getUserId1());
+                candidate.setMutualFriends(candidate.getMutualFriends() + 1);
+            }
+        }
+    }
+
+    private void countSharedGroups(String userId, Set<String> excluded,
+                                   Map<String, FriendSuggestionList.Candidate> candidates) {
+        // Denormalized ids on the indexed user_groups / group_user keys; no DBRef is resolved
+        Query ownGroups = new Query(Criteria.where("userId").is(userId));
+        ownGroups.fields().include("groupId").exclude("_id");
+
+        List<String> groupIds = new ArrayList<>();
+        for (Document membership : mongoTemplate.find(ownGroups, Document.class, membershipCollection())) {
+            String groupId = membership.getString("groupId");
+            if (groupId != null) {
+                groupIds.add(groupId);
+            }
+        }
+        if (groupIds.isEmpty()) {
+            return;
+        }
+
+        for (String memberId : groupMemberIds(groupIds)) {
+            if (!excluded.contains(memberId)) {
+                FriendSuggestionList.Candidate candidate = candidate(candidates, memberId);
+                candidate.setSharedGroups(candidate.getSharedGroups() + 1);
+            }
+        }
+    }
+
+    private void countSharedCourses(String userId, Set<String> excluded,
+                                    Map<String, FriendSuggestionList.Candidate> candidates) {
+        Query courses = new Query(Criteria.where("enrollments.studentIds").is(userId));
+        courses.fields().include("enrollments.studentIds");
+
+        for (Document course : mongoTemplate.find(courses, Document.class, mongoTemplate.getCollectionName(Course.class))) {
+            // A student enrolled in several years of the same course still shares it once
+            Set<String> classmates = new HashSet<>();
+            for (Document enrollment : course.getList("enrollments", Document.class, List.of())) {
+                classmates.addAll(enrollment.getList("studentIds", String.class, List.of()));
+            }
+            for (String classmateId : classmates) {
+                if (!excluded.contains(classmateId)) {
+                    FriendSuggestionList.Candidate candidate = candidate(candidates, classmateId);
+                    candidate.setSharedCourses(candidate.getSharedCourses() + 1);
+                }
+            }
+        }
+    }
+
+    private void addNewestUsers(Set<String> excluded, int limit, List<FriendSuggestionList.Candidate> ranked) {
+        Query newest = new Query(Criteria.where("_id").nin(excluded.stream().map(FriendSuggestionEngine::toObjectId).toList()))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(limit);
+        newest.fields().include("_id");
+
+        for (Document user : mongoTemplate.find(newest, Document.class, mongoTemplate.getCollectionName(UserEntity.class))) {
+            FriendSuggestionList.Candidate candidate = new FriendSuggestionList.Candidate();
+            candidate.setUserId(user.get("_id").toString());
+            ranked.add(candidate);
+        }
+    }
+
+    /**
+     * Member ids of the given groups, once per membership
+     */
+    private List<String> groupMemberIds(List<String> groupIds) {
+        Query members = new Query(Criteria.where("groupId").in(groupIds));
+        members.fields().include("userId").exclude("_id");
+
+        List<String> memberIds = new ArrayList<>();
+        for (Document membership : mongoTemplate.find(members, Document.class, membershipCollection())) {
+            String memberId = membership.getString("userId");
+            if (memberId != null) {
+                memberIds.add(memberId);
+            }
+        }
+        return memberIds;
+    }
+
+    private String membershipCollection() {
+        return mongoTemplate.getCollectionName(GroupMembership.class);
+    }
+
+    private static FriendSuggestionList.Candidate candidate(Map<String, FriendSuggestionList.Candidate> candidates, String userId) {
+        return candidates.computeIfAbsent(userId, id -> {
+            FriendSuggestionList.Candidate candidate = new FriendSuggestionList.Candidate();
+            candidate.setUserId(id);
+            return candidate;
+        });
+    }
+
+    // User _ids are stored as ObjectIds when they are valid hex ids
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
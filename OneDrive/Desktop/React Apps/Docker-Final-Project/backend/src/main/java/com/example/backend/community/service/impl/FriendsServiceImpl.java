@@ -3,6 +3,7 @@ package com.example.backend.community.service.impl;
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.community.entity.FriendRequest;
+import com.example.backend.community.entity.FriendSuggestionList;
 import com.example.backend.community.entity.Friendship;
 import com.example.backend.community.entity.Activity;
 import com.example.backend.community.repository.FriendRequestRepository;
@@ -15,13 +16,16 @@ import com.example.backend.community.dto.FriendshipStatusDto;
 import com.example.backend.community.mapper.UserMapper;
 import com.example.backend.community.mapper.ActivityMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class FriendsServiceImpl implements FriendsService {
@@ -44,59 +48,69 @@ public class FriendsServiceImpl implements FriendsService {
     @Autowired
     private ActivityMapper activityMapper;
 
+    @Autowired
+    private FriendSuggestionEngine suggestionEngine;
+
     @Override
     public List<UserDto> getFriends(String userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<String> friendIds = getRobustFriendIds(userId);
-
-        return friendIds.stream()
-                .map(friendId -> {
-                    UserEntity friend = userRepository.findById(friendId)
-                            .orElse(null);
-                    return friend != null ? userMapper.toDto(friend) : null;
-                })
-                .filter(friend -> friend != null)
+        requireUser(userId);
+
+        List<String> friendIds = getFriendIds(userId);
+        if (friendIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UserDto> friends = new ArrayList<>();
+        userRepository.findAllById(friendIds).forEach(friend -> friends.add(userMapper.toDto(friend)));
+        return friends;
+    }
+
+    @Override
+    public List<String> getFriendIds(String userId) {
+        return friendshipRepository.findEdgesByUserId(userId).stream()
+                .map(edge -> userId.equals(edge.getUserId1()) ? edge.getUserId2() : edge.getUserId1())
+                .distinct()
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<UserDto> getFriendSuggestions(String userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<UserEntity> allUsers = userRepository.findAll();
-        List<String> friendIds = getRobustFriendIds(userId);
-        List<String> allRequestRelatedIds = getAllRequestRelatedUserIds(userId);
-
-        List<String> excludeIds = new ArrayList<>();
-        excludeIds.addAll(friendIds);
-        excludeIds.addAll(allRequestRelatedIds);
-        excludeIds.add(userId);
-        excludeIds = excludeIds.stream().distinct().collect(Collectors.toList());
-
-        List<String> finalExcludeIds = excludeIds;
-        List<UserEntity> suggestions = allUsers.stream()
-                .filter(u -> !finalExcludeIds.contains(u.getId()))
-                .collect(Collectors.toList());
+        requireUser(userId);
 
-        return suggestions.stream()
+        List<String> candidateIds = suggestionEngine.getSuggestions(userId).getCandidates().stream()
+                .map(FriendSuggestionList.Candidate::getUserId)
                 .limit(10)
+                .collect(Collectors.toList());
+        if (candidateIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Keep the engine's ranking; findAllById returns users in arbitrary order
+        Map<String, UserEntity> users = new HashMap<>();
+        userRepository.findAllById(candidateIds).forEach(user -> users.put(user.getId(), user));
+
+        return candidateIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<UserDto> getFriendRequests(String userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        requireUser(userId);
 
-        List<FriendRequest> requests = friendRequestRepository.findByReceiverAndStatus(user, "PENDING");
-
-        return requests.stream()
-                .map(request -> userMapper.toDto(request.getSender()))
+        List<String> senderIds = friendRequestRepository.findSenderEdgesByReceiverIdAndStatus(userId, "PENDING").stream()
+                .map(FriendRequest::getSenderId)
+                .distinct()
                 .collect(Collectors.toList());
+        if (senderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UserDto> senders = new ArrayList<>();
+        userRepository.findAllById(senderIds).forEach(sender -> senders.add(userMapper.toDto(sender)));
+        return senders;
     }
 
     @Override
@@ -107,17 +121,22 @@ public class FriendsServiceImpl implements FriendsService {
         UserEntity receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
-        if (isDuplicateRequest(sender, receiver)) {
+        String pairKey = Friendship.pairKeyOf(senderId, receiverId);
+        if (isDuplicateRequest(pairKey)) {
             throw new RuntimeException("Friend request already exists or users are already friends");
         }
 
         FriendRequest friendRequest = new FriendRequest();
         friendRequest.setSender(sender);
         friendRequest.setReceiver(receiver);
+        friendRequest.setSenderId(senderId);
+        friendRequest.setReceiverId(receiverId);
+        friendRequest.setPairKey(pairKey);
         friendRequest.setStatus("PENDING");
         friendRequest.setCreatedAt(LocalDateTime.now());
 
         friendRequestRepository.save(friendRequest);
+        suggestionEngine.onFriendRequestSent(senderId, receiverId);
         createActivity(sender, "sent a friend request to " + receiver.getName(), "friend_request", receiverId);
     }
 
@@ -129,27 +148,34 @@ public class FriendsServiceImpl implements FriendsService {
         UserEntity receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
-        FriendRequest friendRequest = findPendingRequest(sender, receiver);
+        FriendRequest friendRequest = findPendingRequest(senderId, receiverId);
         if (friendRequest == null) {
             throw new RuntimeException("No pending friend request found");
         }
 
-        if (friendshipExists(sender, receiver)) {
-            friendRequest.setStatus("ACCEPTED");
-            friendRequest.setRespondedAt(LocalDateTime.now());
-            friendRequestRepository.save(friendRequest);
-            return;
-        }
-
         friendRequest.setStatus("ACCEPTED");
         friendRequest.setRespondedAt(LocalDateTime.now());
         friendRequestRepository.save(friendRequest);
 
+        String pairKey = Friendship.pairKeyOf(senderId, receiverId);
+        if (friendshipRepository.existsByPairKey(pairKey)) {
+            return;
+        }
+
         Friendship friendship = new Friendship();
         friendship.setUser1(sender);
         friendship.setUser2(receiver);
+        friendship.setUserId1(senderId);
+        friendship.setUserId2(receiverId);
+        friendship.setPairKey(pairKey);
         friendship.setCreatedAt(LocalDateTime.now());
-        friendshipRepository.save(friendship);
+        try {
+            friendshipRepository.save(friendship);
+        } catch (DuplicateKeyException e) {
+            // Accepted concurrently from both sides; the unique pair key keeps a single friendship
+            return;
+        }
+        suggestionEngine.onFriendshipChanged(senderId, receiverId);
 
         createActivity(receiver, "accepted friend request from " + sender.getName(), "friend_accept", senderId);
     }
@@ -157,12 +183,14 @@ public class FriendsServiceImpl implements FriendsService {
     @Override
     @Transactional
     public void rejectFriendRequest(String senderId, String receiverId) {
-        UserEntity sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
-        UserEntity receiver = userRepository.findById(receiverId)
-                .orElseThrow(() -> new RuntimeException("Receiver not found"));
+        if (!userRepository.existsById(senderId)) {
+            throw new RuntimeException("Sender not found");
+        }
+        if (!userRepository.existsById(receiverId)) {
+            throw new RuntimeException("Receiver not found");
+        }
 
-        FriendRequest friendRequest = findPendingRequest(sender, receiver);
+        FriendRequest friendRequest = findPendingRequest(senderId, receiverId);
         if (friendRequest == null) {
             throw new RuntimeException("No pending friend request found");
         }
@@ -175,83 +203,26 @@ public class FriendsServiceImpl implements FriendsService {
     @Override
     @Transactional
     public void removeFriend(String userId1, String userId2) {
-        UserEntity user1 = userRepository.findById(userId1)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        UserEntity user2 = userRepository.findById(userId2)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Remove friendships
-        try {
-            List<Friendship> allFriendships = friendshipRepository.findAll();
-            List<Friendship> toDelete = new ArrayList<>();
-
-            for (Friendship friendship : allFriendships) {
-                try {
-                    String friend1Id = friendship.getUser1().getId();
-                    String friend2Id = friendship.getUser2().getId();
-
-                    boolean shouldDelete = (friend1Id.equals(userId1) && friend2Id.equals(userId2)) ||
-                            (friend1Id.equals(userId2) && friend2Id.equals(userId1));
-
-                    if (shouldDelete) {
-                        toDelete.add(friendship);
-                    }
-                } catch (Exception e) {
-                    // Skip malformed friendships
-                }
-            }
-
-            if (!toDelete.isEmpty()) {
-                friendshipRepository.deleteAll(toDelete);
-            }
-
-        } catch (Exception e) {
-            // Fallback to individual deletion
-            performAggressiveCleanup(userId1, userId2);
-        }
+        requireUser(userId1);
+        requireUser(userId2);
 
-        // Remove friend requests
-        try {
-            List<FriendRequest> allRequests = friendRequestRepository.findAll();
-            List<FriendRequest> requestsToDelete = new ArrayList<>();
-
-            for (FriendRequest request : allRequests) {
-                try {
-                    String senderId = request.getSender().getId();
-                    String receiverId = request.getReceiver().getId();
-
-                    boolean shouldDelete = (senderId.equals(userId1) && receiverId.equals(userId2)) ||
-                            (senderId.equals(userId2) && receiverId.equals(userId1));
-
-                    if (shouldDelete) {
-                        requestsToDelete.add(request);
-                    }
-                } catch (Exception e) {
-                    // Skip malformed requests
-                }
-            }
-
-            if (!requestsToDelete.isEmpty()) {
-                friendRequestRepository.deleteAll(requestsToDelete);
-            }
-
-        } catch (Exception e) {
-            // Log error but continue
-        }
+        String pairKey = Friendship.pairKeyOf(userId1, userId2);
+        friendshipRepository.deleteByPairKey(pairKey);
+        friendRequestRepository.deleteByPairKey(pairKey);
+        suggestionEngine.onFriendshipChanged(userId1, userId2);
     }
 
     @Override
     public FriendshipStatusDto getFriendshipStatus(String userId1, String userId2) {
-        UserEntity user1 = userRepository.findById(userId1)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        UserEntity user2 = userRepository.findById(userId2)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        requireUser(userId1);
+        requireUser(userId2);
 
-        if (friendshipExists(user1, user2)) {
+        String pairKey = Friendship.pairKeyOf(userId1, userId2);
+        if (friendshipRepository.existsByPairKey(pairKey)) {
             return new FriendshipStatusDto("friends");
         }
 
-        if (hasPendingRequest(user1, user2)) {
+        if (friendRequestRepository.existsByPairKeyAndStatus(pairKey, "PENDING")) {
             return new FriendshipStatusDto("pending");
         }
 
@@ -260,7 +231,7 @@ public class FriendsServiceImpl implements FriendsService {
 
     @Override
     public List<ActivityDto> getFriendsActivities(String userId) {
-        List<String> friendIds = getRobustFriendIds(userId);
+        List<String> friendIds = getFriendIds(userId);
         List<Activity> activities = activityRepository.findByUserIdInOrderByCreatedAtDesc(friendIds);
 
         return activities.stream()
@@ -271,201 +242,24 @@ public class FriendsServiceImpl implements FriendsService {
 
     @Override
     public void dismissSuggestion(String userId, String suggestionId) {
-        // Implementation for dismissing suggestions
+        suggestionEngine.dismiss(userId, suggestionId);
     }
 
     // PRIVATE HELPER METHODS
 
-    private boolean isDuplicateRequest(UserEntity sender, UserEntity receiver) {
-        if (friendshipExists(sender, receiver)) {
-            return true;
-        }
-
-        try {
-            List<FriendRequest> allRequests = friendRequestRepository.findAll();
-            return allRequests.stream()
-                    .anyMatch(r -> {
-                        String senderId = r.getSender().getId();
-                        String receiverId = r.getReceiver().getId();
-                        String targetSenderId = sender.getId();
-                        String targetReceiverId = receiver.getId();
-
-                        return (senderId.equals(targetSenderId) && receiverId.equals(targetReceiverId)) ||
-                                (senderId.equals(targetReceiverId) && receiverId.equals(targetSenderId));
-                    });
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean friendshipExists(UserEntity user1, UserEntity user2) {
-        try {
-            Optional<Friendship> friendship = friendshipRepository.findBetweenUsers(user1, user2);
-            if (friendship.isPresent()) {
-                return true;
-            }
-        } catch (Exception e) {
-            // Fallback to manual check
-        }
-
-        try {
-            List<Friendship> allFriendships = friendshipRepository.findAll();
-            return allFriendships.stream()
-                    .anyMatch(f -> {
-                        String friend1Id = f.getUser1().getId();
-                        String friend2Id = f.getUser2().getId();
-                        String userId1 = user1.getId();
-                        String userId2 = user2.getId();
-
-                        return (friend1Id.equals(userId1) && friend2Id.equals(userId2)) ||
-                                (friend1Id.equals(userId2) && friend2Id.equals(userId1));
-                    });
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean hasPendingRequest(UserEntity user1, UserEntity user2) {
-        try {
-            List<FriendRequest> allRequests = friendRequestRepository.findAll();
-            return allRequests.stream()
-                    .anyMatch(r -> {
-                        if (!"PENDING".equals(r.getStatus())) {
-                            return false;
-                        }
-
-                        String senderId = r.getSender().getId();
-                        String receiverId = r.getReceiver().getId();
-                        String userId1 = user1.getId();
-                        String userId2 = user2.getId();
-
-                        return (senderId.equals(userId1) && receiverId.equals(userId2)) ||
-                                (senderId.equals(userId2) && receiverId.equals(userId1));
-                    });
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private FriendRequest findPendingRequest(UserEntity sender, UserEntity receiver) {
-        try {
-            List<FriendRequest> pendingRequests = friendRequestRepository.findByReceiverAndStatus(receiver, "PENDING");
-            return pendingRequests.stream()
-                    .filter(req -> req.getSender().getId().equals(sender.getId()))
-                    .findFirst()
-                    .orElse(null);
-        } catch (Exception e) {
-            return null;
+    private void requireUser(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
     }
 
-    private List<String> getRobustFriendIds(String userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        try {
-            List<Friendship> friendships = friendshipRepository.findAllByUser(user);
-            if (!friendships.isEmpty()) {
-                return friendships.stream()
-                        .map(friendship -> friendship.getUser1().getId().equals(userId)
-                                ? friendship.getUser2().getId()
-                                : friendship.getUser1().getId())
-                        .collect(Collectors.toList());
-            }
-        } catch (Exception ignored) {}
-
-        try {
-            List<Friendship> allFriendships = friendshipRepository.findAll();
-            return allFriendships.stream()
-                    .filter(f -> f.getUser1().getId().equals(userId) || f.getUser2().getId().equals(userId))
-                    .map(friendship -> friendship.getUser1().getId().equals(userId)
-                            ? friendship.getUser2().getId()
-                            : friendship.getUser1().getId())
-                    .collect(Collectors.toList());
-        } catch (Exception ignored) {}
-
-        return new ArrayList<>();
+    // Any friendship or request (in any status) between the pair blocks a new request
+    private boolean isDuplicateRequest(String pairKey) {
+        return friendshipRepository.existsByPairKey(pairKey) || friendRequestRepository.existsByPairKey(pairKey);
     }
 
-    private List<String> getAllRequestRelatedUserIds(String userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<String> relatedIds = new ArrayList<>();
-
-        try {
-            List<FriendRequest> sentRequests = friendRequestRepository.findBySender(user);
-            List<String> sentIds = sentRequests.stream()
-                    .map(request -> request.getReceiver().getId())
-                    .collect(Collectors.toList());
-            relatedIds.addAll(sentIds);
-
-            List<FriendRequest> allReceivedRequests = friendRequestRepository.findByReceiver(user);
-            List<String> receivedIds = allReceivedRequests.stream()
-                    .map(request -> request.getSender().getId())
-                    .collect(Collectors.toList());
-            relatedIds.addAll(receivedIds);
-
-        } catch (Exception ignored) {}
-
-        return relatedIds.stream().distinct().collect(Collectors.toList());
-    }
-
-    private void performAggressiveCleanup(String userId1, String userId2) {
-        try {
-            List<Friendship> allFriendships = friendshipRepository.findAll();
-            List<String> idsToDelete = new ArrayList<>();
-
-            for (Friendship f : allFriendships) {
-                try {
-                    String id1 = f.getUser1().getId();
-                    String id2 = f.getUser2().getId();
-
-                    if ((id1.equals(userId1) && id2.equals(userId2)) ||
-                            (id1.equals(userId2) && id2.equals(userId1))) {
-                        idsToDelete.add(f.getId());
-                    }
-                } catch (Exception e) {
-                    // Skip malformed entries
-                }
-            }
-
-            for (String id : idsToDelete) {
-                try {
-                    friendshipRepository.deleteById(id);
-                } catch (Exception e) {
-                    // Continue with other deletions
-                }
-            }
-
-            List<FriendRequest> allRequests = friendRequestRepository.findAll();
-            List<String> requestIdsToDelete = new ArrayList<>();
-
-            for (FriendRequest r : allRequests) {
-                try {
-                    String senderId = r.getSender().getId();
-                    String receiverId = r.getReceiver().getId();
-
-                    if ((senderId.equals(userId1) && receiverId.equals(userId2)) ||
-                            (senderId.equals(userId2) && receiverId.equals(userId1))) {
-                        requestIdsToDelete.add(r.getId());
-                    }
-                } catch (Exception e) {
-                    // Skip malformed entries
-                }
-            }
-
-            for (String id : requestIdsToDelete) {
-                try {
-                    friendRequestRepository.deleteById(id);
-                } catch (Exception e) {
-                    // Continue with other deletions
-                }
-            }
-
-        } catch (Exception e) {
-            // Log error but don't throw exception
-        }
+    private FriendRequest findPendingRequest(String senderId, String receiverId) {
+        return friendRequestRepository.findFirstBySenderIdAndReceiverIdAndStatus(senderId, receiverId, "PENDING").orElse(null);
     }
 
     private void createActivity(UserEntity user, String action, String type, String targetId) {
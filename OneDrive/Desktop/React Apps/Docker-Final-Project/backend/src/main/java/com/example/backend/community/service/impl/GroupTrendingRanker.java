@@ -0,0 +1,91 @@
+package com.example.backend.community.service.impl;
+
+import com.example.backend.community.entity.Group;
+import com.example.backend.community.entity.GroupMembership;
+import com.example.backend.community.entity.Post;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed trending ranking of groups.
+ *
+ * Counts the joins and the posts of every group within the trending window with two aggregation
+ * pipelines and stores the resulting score on the group, so the trending endpoint is a single
+ * indexed query ({type, trendingScore}) instead of a live computation.
+ */
+@Component
+public class GroupTrendingRanker {
+
+    private static final int JOIN_WEIGHT = 2;
+    private static final int POST_WEIGHT = 1;
+
+    private final MongoTemplate mongoTemplate;
+    private final long windowDays;
+
+    public GroupTrendingRanker(MongoTemplate mongoTemplate,
+                               @Value("${app.groups.trending.window-days:7}") long windowDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.windowDays = windowDays;
+    }
+
+    @Scheduled(fixedDelayString = "${app.groups.trending.refresh-interval-ms:600000}")
+    public void refresh() {
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+
+            Map<String, Integer> scores = new HashMap<>();
+            addCounts(scores, countByGroup(GroupMembership.class, "joinDate", since), JOIN_WEIGHT);
+            addCounts(scores, countByGroup(Post.class, "createdAt", since), POST_WEIGHT);
+
+            // Groups that dropped out of the window go back to zero
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("trendingScore").gt(0).and("_id").nin(scores.keySet())),
+                    new Update().set("trendingScore", 0),
+                    Group.class);
+
+            if (!scores.isEmpty()) {
+                BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Group.class);
+                scores.forEach((groupId, score) -> bulkOps.updateOne(
+                        new Query(Criteria.where("_id").is(groupId)),
+                        new Update().set("trendingScore", score)));
+                bulkOps.execute();
+            }
+
+            System.out.println("📈 Ranked " + scores.size() + " trending groups in " +
+                    (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("❌ Failed to rank trending groups: " + e.getMessage());
+        }
+    }
+
+    private List<Document> countByGroup(Class<?> entityClass, String dateField, LocalDateTime since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("groupId").ne(null).and(dateField).gte(since)),
+                Aggregation.group("groupId").count().as("count"));
+
+        return mongoTemplate.aggregate(aggregation, entityClass, Document.class).getMappedResults();
+    }
+
+    private static void addCounts(Map<String, Integer> scores, List<Document> counts, int weight) {
+        for (Document row : counts) {
+            String groupId = row.getString("_id");
+            if (groupId != null) {
+                scores.merge(groupId, ((Number) row.get("count")).intValue() * weight, Integer::sum);
+            }
+        }
+    }
+}
@@ -20,11 +20,23 @@ import com.example.backend.community.mapper.GroupMapper;
 import com.example.backend.community.mapper.GroupMemberMapper;
 import com.example.backend.community.mapper.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -52,6 +64,9 @@ public class GroupsServiceImpl implements GroupsService {
     @Autowired
     private FriendsService friendsService;
 
+    @Autowired
+    private FriendSuggestionEngine suggestionEngine;
+
     @Autowired
     private GroupMapper groupMapper;
 
@@ -64,47 +79,59 @@ public class GroupsServiceImpl implements GroupsService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     // EXISTING METHODS
     @Override
     public List<GroupDto> getAllGroups(String userId, Boolean joined) {
         List<Group> groups;
 
         if (joined != null) {
+            List<String> memberGroupIds = getJoinedGroupIds(userId);
             if (joined) {
-                List<GroupMembership> memberships = groupMembershipRepository.findByUserOrderByJoinDateDesc(getUserById(userId));
-                groups = memberships.stream()
-                        .map(GroupMembership::getGroup)
-                        .collect(Collectors.toList());
+                groups = findGroupsInOrder(memberGroupIds);
             } else {
-                List<String> memberGroupIds = groupMembershipRepository.findByUserOrderByJoinDateDesc(getUserById(userId))
-                        .stream()
-                        .map(membership -> membership.getGroup().getId())
-                        .collect(Collectors.toList());
                 groups = groupRepository.findPublicGroupsUserNotMemberOf(memberGroupIds);
             }
         } else {
-            groups = groupRepository.findAll();
+            // Unpaged listing: every group, newest first (only paged calls are capped)
+            groups = groupRepository.findAll(listingSort("recent"));
         }
 
         return groups.stream()
-                .map(group -> {
-                    GroupDto dto = groupMapper.toDto(group);
-                    dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(group)));
-                    return dto;
-                })
+                .map(groupMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<GroupDto> getGroupsPage(String type, String sortBy, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), listingSort(sortBy));
+
+        List<Group> groups = type == null || type.isBlank() || "all".equalsIgnoreCase(type)
+                ? groupRepository.findAll(pageRequest).getContent()
+                : groupRepository.findByType(type, pageRequest);
+
+        return groups.stream()
+                .map(groupMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<GroupDto> getUserGroups(String userId) {
-        UserEntity user = getUserById(userId);
-        List<GroupMembership> memberships = groupMembershipRepository.findByUserOrderByJoinDateDesc(user);
+        List<GroupMembership> memberships = groupMembershipRepository.findGroupRefsByUserId(userId);
+
+        Map<String, Group> groups = new HashMap<>();
+        groupRepository.findAllById(memberships.stream().map(GroupMembership::getGroupId).collect(Collectors.toList()))
+                .forEach(group -> groups.put(group.getId(), group));
 
         return memberships.stream()
+                .filter(membership -> groups.containsKey(membership.getGroupId()))
                 .map(membership -> {
-                    GroupDto dto = groupMapper.toDto(membership.getGroup());
+                    GroupDto dto = groupMapper.toDto(groups.get(membership.getGroupId()));
                     dto.setUserRole(membership.getRole());
-                    dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(membership.getGroup())));
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -112,10 +139,7 @@ public class GroupsServiceImpl implements GroupsService {
 
     @Override
     public GroupDto getGroupDetails(String groupId) {
-        Group group = getGroupById(groupId);
-        GroupDto dto = groupMapper.toDto(group);
-        dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(group)));
-        return dto;
+        return groupMapper.toDto(getGroupById(groupId));
     }
 
     @Override
@@ -140,6 +164,8 @@ public class GroupsServiceImpl implements GroupsService {
         GroupMembership membership = new GroupMembership();
         membership.setGroup(savedGroup);
         membership.setUser(user);
+        membership.setGroupId(savedGroup.getId());
+        membership.setUserId(userId);
         membership.setRole("Founder");
         membership.setJoinDate(LocalDateTime.now());
         groupMembershipRepository.save(membership);
@@ -155,16 +181,18 @@ public class GroupsServiceImpl implements GroupsService {
             throw new RuntimeException("You don't have permission to update this group");
         }
 
-        group.setName(request.getName());
-        group.setDescription(request.getDescription());
-        group.setType(request.getType());
+        // Field-level update, so a concurrent join or leave is not overwritten with a stale member count
+        Update update = new Update()
+                .set("name", request.getName())
+                .set("description", request.getDescription())
+                .set("type", request.getType())
+                .set("updatedAt", LocalDateTime.now());
         if (request.getImg() != null) {
-            group.setImg(request.getImg());
+            update.set("img", request.getImg());
         }
-        group.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(groupId)), update, Group.class);
 
-        Group savedGroup = groupRepository.save(group);
-        return groupMapper.toDto(savedGroup);
+        return groupMapper.toDto(getGroupById(groupId));
     }
 
     @Override
@@ -179,6 +207,10 @@ public class GroupsServiceImpl implements GroupsService {
         groupMembershipRepository.deleteAll(memberships);
 
         groupRepository.delete(group);
+
+        suggestionEngine.markDirty(memberships.stream()
+                .map(membership -> membership.getUser().getId())
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -186,34 +218,41 @@ public class GroupsServiceImpl implements GroupsService {
         Group group = getGroupById(groupId);
         UserEntity user = getUserById(userId);
 
-        if (groupMembershipRepository.findByGroupAndUser(group, user).isPresent()) {
+        if (groupMembershipRepository.existsByGroupIdAndUserId(groupId, userId)) {
             throw new RuntimeException("User is already a member of this group");
         }
 
         GroupMembership membership = new GroupMembership();
         membership.setGroup(group);
         membership.setUser(user);
+        membership.setGroupId(groupId);
+        membership.setUserId(userId);
         membership.setRole("Member");
         membership.setJoinDate(LocalDateTime.now());
-        groupMembershipRepository.save(membership);
+        try {
+            groupMembershipRepository.save(membership);
+        } catch (DuplicateKeyException e) {
+            // Joined concurrently; the unique {groupId, userId} index keeps a single membership
+            throw new RuntimeException("User is already a member of this group");
+        }
+
+        incrementMemberCount(groupId, 1);
 
-        group.setMemberCount(group.getMemberCount() + 1);
-        groupRepository.save(group);
+        suggestionEngine.onGroupMembershipChanged(groupId, userId);
     }
 
     @Override
     public void leaveGroup(String groupId, String userId) {
         Group group = getGroupById(groupId);
-        UserEntity user = getUserById(userId);
 
         if (group.getFounder().getId().equals(userId)) {
             throw new RuntimeException("Founder cannot leave the group. Delete the group instead.");
         }
 
-        groupMembershipRepository.deleteByGroupAndUser(group, user);
+        long removed = groupMembershipRepository.deleteByGroupIdAndUserId(groupId, userId);
+        incrementMemberCount(groupId, -removed);
 
-        group.setMemberCount(group.getMemberCount() - 1);
-        groupRepository.save(group);
+        suggestionEngine.onGroupMembershipChanged(groupId, userId);
     }
 
     @Override
@@ -254,11 +293,10 @@ public class GroupsServiceImpl implements GroupsService {
             throw new RuntimeException("Cannot remove the founder");
         }
 
-        UserEntity member = getUserById(memberId);
-        groupMembershipRepository.deleteByGroupAndUser(group, member);
+        long removed = groupMembershipRepository.deleteByGroupIdAndUserId(groupId, memberId);
+        incrementMemberCount(groupId, -removed);
 
-        group.setMemberCount(group.getMemberCount() - 1);
-        groupRepository.save(group);
+        suggestionEngine.onGroupMembershipChanged(groupId, memberId);
     }
 
     @Override
@@ -271,12 +309,7 @@ public class GroupsServiceImpl implements GroupsService {
 
     @Override
     public List<PostDto> getGroupFeed(String userId) {
-        UserEntity user = getUserById(userId);
-        List<GroupMembership> memberships = groupMembershipRepository.findByUserOrderByJoinDateDesc(user);
-
-        List<String> groupIds = memberships.stream()
-                .map(membership -> membership.getGroup().getId())
-                .collect(Collectors.toList());
+        List<String> groupIds = getJoinedGroupIds(userId);
 
         List<Post> posts = postRepository.findByGroupIdInOrderByCreatedAtDesc(groupIds);
         return posts.stream()
@@ -287,48 +320,30 @@ public class GroupsServiceImpl implements GroupsService {
     // NEW ENHANCED METHODS
     @Override
     public List<GroupDto> searchGroups(String userId, String searchTerm, String type, String sortBy) {
-        List<Group> groups;
-
         try {
+            Criteria criteria = Criteria.where("_id").nin(getJoinedGroupIds(userId));
+
             if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-                groups = groupRepository.findByNameContainingIgnoreCase(searchTerm.trim());
-            } else {
-                groups = groupRepository.findAll();
+                criteria.and("name").regex(Pattern.quote(searchTerm.trim()), "i");
             }
 
             if (type != null && !type.isEmpty() && !"all".equalsIgnoreCase(type)) {
-                groups = groups.stream()
-                        .filter(group -> type.equalsIgnoreCase(group.getType()))
-                        .collect(Collectors.toList());
+                criteria.and("type").regex("^" + Pattern.quote(type) + "$", "i");
             }
 
-            List<String> joinedGroupIds = groupMembershipRepository.findByUserOrderByJoinDateDesc(getUserById(userId))
-                    .stream()
-                    .map(membership -> membership.getGroup().getId())
-                    .collect(Collectors.toList());
-
-            groups = groups.stream()
-                    .filter(group -> !joinedGroupIds.contains(group.getId()))
-                    .collect(Collectors.toList());
-
+            Sort sort;
             if ("members".equalsIgnoreCase(sortBy)) {
-                groups.sort((a, b) -> Integer.compare(b.getMemberCount(), a.getMemberCount()));
+                sort = Sort.by(Sort.Direction.DESC, "memberCount", "_id");
             } else if ("newest".equalsIgnoreCase(sortBy)) {
-                groups.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+                sort = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
             } else {
-                groups.sort((a, b) -> {
-                    LocalDateTime aUpdated = a.getUpdatedAt() != null ? a.getUpdatedAt() : a.getCreatedAt();
-                    LocalDateTime bUpdated = b.getUpdatedAt() != null ? b.getUpdatedAt() : b.getCreatedAt();
-                    return bUpdated.compareTo(aUpdated);
-                });
+                sort = Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt");
             }
 
-            return groups.stream()
-                    .map(group -> {
-                        GroupDto dto = groupMapper.toDto(group);
-                        dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(group)));
-                        return dto;
-                    })
+            Query query = new Query(criteria).with(sort);
+
+            return mongoTemplate.find(query, Group.class).stream()
+                    .map(groupMapper::toDto)
                     .collect(Collectors.toList());
 
         } catch (Exception e) {
@@ -339,27 +354,11 @@ public class GroupsServiceImpl implements GroupsService {
     @Override
     public List<GroupDto> getRecommendedGroups(String userId) {
         try {
-            UserEntity user = getUserById(userId);
-            List<Group> recommendedGroups = new ArrayList<>();
-
-            List<String> joinedGroupIds = groupMembershipRepository.findByUserOrderByJoinDateDesc(user)
-                    .stream()
-                    .map(membership -> membership.getGroup().getId())
-                    .collect(Collectors.toList());
+            List<Group> popularGroups = groupRepository.findByIdNotInAndType(getJoinedGroupIds(userId), "Public",
+                    PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "memberCount", "_id")));
 
-            List<Group> popularGroups = groupRepository.findTop10ByTypeOrderByMemberCountDesc("Public");
-            recommendedGroups.addAll(popularGroups.stream()
-                    .filter(group -> !joinedGroupIds.contains(group.getId()))
-                    .limit(10)
-                    .collect(Collectors.toList()));
-
-            return recommendedGroups.stream()
-                    .distinct()
-                    .map(group -> {
-                        GroupDto dto = groupMapper.toDto(group);
-                        dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(group)));
-                        return dto;
-                    })
+            return popularGroups.stream()
+                    .map(groupMapper::toDto)
                     .collect(Collectors.toList());
 
         } catch (Exception e) {
@@ -455,17 +454,22 @@ public class GroupsServiceImpl implements GroupsService {
         groupInvitationRepository.save(invitation);
 
         if ("ACCEPTED".equalsIgnoreCase(response)) {
-            if (groupMembershipRepository.findByGroupAndUser(invitation.getGroup(), user).isEmpty()) {
+            Group group = invitation.getGroup();
+            if (!groupMembershipRepository.existsByGroupIdAndUserId(group.getId(), userId)) {
                 GroupMembership membership = new GroupMembership();
-                membership.setGroup(invitation.getGroup());
+                membership.setGroup(group);
                 membership.setUser(user);
+                membership.setGroupId(group.getId());
+                membership.setUserId(userId);
                 membership.setRole("Member");
                 membership.setJoinDate(LocalDateTime.now());
-                groupMembershipRepository.save(membership);
-
-                Group group = invitation.getGroup();
-                group.setMemberCount(group.getMemberCount() + 1);
-                groupRepository.save(group);
+                try {
+                    groupMembershipRepository.save(membership);
+                    incrementMemberCount(group.getId(), 1);
+                    suggestionEngine.onGroupMembershipChanged(group.getId(), userId);
+                } catch (DuplicateKeyException e) {
+                    // Joined meanwhile by other means; already a member
+                }
             }
         }
     }
@@ -478,7 +482,7 @@ public class GroupsServiceImpl implements GroupsService {
         stats.setTotalGroups(groupRepository.count());
         stats.setPublicGroups(groupRepository.countByType("Public"));
         stats.setPrivateGroups(groupRepository.countByType("Private"));
-        stats.setUserJoinedGroups((long) groupMembershipRepository.findByUserOrderByJoinDateDesc(user).size());
+        stats.setUserJoinedGroups(groupMembershipRepository.countByUserId(userId));
         stats.setPendingInvitations((long) groupInvitationRepository.findByInviteeAndStatus(user, "PENDING").size());
 
         return stats;
@@ -496,14 +500,11 @@ public class GroupsServiceImpl implements GroupsService {
 
     @Override
     public List<GroupDto> getTrendingGroups(String userId, int limit) {
-        List<Group> trendingGroups = groupRepository.findTop10ByTypeOrderByMemberCountDesc("Public");
+        // Ranking is precomputed by GroupTrendingRanker
+        List<Group> trendingGroups = groupRepository.findByTypeOrderByTrendingScoreDescMemberCountDesc("Public",
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
         return trendingGroups.stream()
-                .limit(limit)
-                .map(group -> {
-                    GroupDto dto = groupMapper.toDto(group);
-                    dto.setMemberCount(Math.toIntExact(groupMembershipRepository.countByGroup(group)));
-                    return dto;
-                })
+                .map(groupMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -533,6 +534,36 @@ public class GroupsServiceImpl implements GroupsService {
     }
 
     // HELPER METHODS
+    private void incrementMemberCount(String groupId, long delta) {
+        if (delta != 0) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(groupId)),
+                    new Update().inc("memberCount", delta), Group.class);
+        }
+    }
+
+    private List<String> getJoinedGroupIds(String userId) {
+        return groupMembershipRepository.findGroupRefsByUserId(userId).stream()
+                .map(GroupMembership::getGroupId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Groups by id, in the order of the given ids
+    private List<Group> findGroupsInOrder(List<String> groupIds) {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        groupRepository.findAllById(groupIds).forEach(group -> groups.put(group.getId(), group));
+        return groupIds.stream()
+                .map(groups::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Sort listingSort(String sortBy) {
+        return "members".equalsIgnoreCase(sortBy)
+                ? Sort.by(Sort.Direction.DESC, "memberCount", "_id")
+                : Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+    }
+
     private UserEntity getUserById(String userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -8,9 +8,11 @@ import com.example.backend.community.dto.request.SendNotificationRequest;
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +24,9 @@ public class NotificationServiceImpl implements NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
     @Override
     public List<NotificationDto> getUserNotifications(String userId) {
         List<Notification> notifications = notificationRepository
@@ -51,6 +56,8 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
 
         notificationRepository.save(notification);
+
+        pushUnreadCount(recipient.getId());
     }
 
     @Override
@@ -65,6 +72,8 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setRead(true);
         notification.setReadAt(LocalDateTime.now());
         notificationRepository.save(notification);
+
+        pushUnreadCount(userId);
     }
 
     @Override
@@ -73,16 +82,12 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    public void markAllAsRead(String userId) {
-        List<Notification> notifications = notificationRepository
-                .findByRecipientIdAndIsReadFalseAndIsDeletedFalse(userId);
+    public long markAllAsRead(String userId) {
+        long marked = notificationRepository
+                .findAndSetReadByRecipientIdAndIsReadFalseAndIsDeletedFalse(userId, LocalDateTime.now());
 
-        notifications.forEach(notification -> {
-            notification.setRead(true);
-            notification.setReadAt(LocalDateTime.now());
-        });
-
-        notificationRepository.saveAll(notifications);
+        pushUnreadCount(userId);
+        return marked;
     }
 
     @Override
@@ -100,6 +105,14 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
 
         notificationRepository.save(notification);
+
+        pushUnreadCount(recipient.getId());
+    }
+
+    // Push the current unread count so clients don't have to poll /count
+    private void pushUnreadCount(String userId) {
+        messagingTemplate.convertAndSend("/topic/notifications/unread/" + userId,
+                Map.of("userId", userId, "unreadCount", getUnreadCount(userId)));
     }
 
     private NotificationDto convertToDto(Notification notification) {
@@ -0,0 +1,76 @@
+package com.example.backend.community.service.impl;
+
+import com.example.backend.community.entity.Post;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Atomic like and comment counters of posts.
+ *
+ * A like is a conditional {@code $addToSet} on {@code likes} (only if the user is not in it yet)
+ * with a {@code $inc} of {@code likeCount} in the same update; an unlike is the matching
+ * conditional {@code $pull} / {@code $inc -1}. The condition makes the counter move only when the
+ * set actually changed, so concurrent likes never lose updates or double count, and the post is
+ * never read and written back as a whole.
+ */
+@Component
+public class PostEngagementCounter {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PostEngagementCounter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Likes the post if the user has not liked it yet, otherwise removes the like.
+     * Returns the updated post, or null if the post does not exist.
+     */
+    public Post toggleLike(String postId, String userId) {
+        Post liked = like(postId, userId);
+        if (liked != null) {
+            return liked;
+        }
+        Post unliked = unlike(postId, userId);
+        if (unliked != null) {
+            return unliked;
+        }
+        // A concurrent toggle by the same user got in between; report the current state
+        return mongoTemplate.findById(postId, Post.class);
+    }
+
+    /**
+     * Returns the updated post, or null if the user already liked it (or the post does not exist)
+     */
+    public Post like(String postId, String userId) {
+        Query query = new Query(Criteria.where("_id").is(postId).and("likes").ne(userId));
+        Update update = new Update()
+                .addToSet("likes", userId)
+                .inc("likeCount", 1)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    /**
+     * Returns the updated post, or null if the user had not liked it (or the post does not exist)
+     */
+    public Post unlike(String postId, String userId) {
+        Query query = new Query(Criteria.where("_id").is(postId).and("likes").is(userId));
+        Update update = new Update()
+                .pull("likes", userId)
+                .inc("likeCount", -1)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    public void incrementCommentCount(String postId, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(postId)),
+                new Update().inc("commentCount", delta), Post.class);
+    }
+}
@@ -14,11 +14,17 @@ import com.example.backend.community.dto.PostDto;
 import com.example.backend.community.dto.CommentDto;
 import com.example.backend.community.dto.request.CreatePostRequest;
 import com.example.backend.community.dto.request.CreateCommentRequest;
+import com.example.backend.community.dto.response.FeedPageResponse;
 import com.example.backend.community.mapper.CommentMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -44,52 +50,69 @@ public class PostsServiceImpl implements PostsService {
     @Autowired
     private CommentMapper commentMapper;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostEngagementCounter engagementCounter;
+
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
+    private static final Sort FEED_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     @Override
     public List<PostDto> getFeed(String userId, List<String> friendIds) {
+        Query query = new Query(Criteria.where("userId").in(feedAuthorIds(userId, friendIds)))
+                .with(FEED_SORT);
+        query.fields().exclude("user");
+
+        return mongoTemplate.find(query, Post.class).stream()
+                .map(postMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public FeedPageResponse getFeedPage(String userId, List<String> friendIds, LocalDateTime before, String beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        Criteria criteria = Criteria.where("userId").in(feedAuthorIds(userId, friendIds));
+        if (before != null) {
+            // Keyset: strictly older than the cursor, ties on createdAt broken by id
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(before),
+                    Criteria.where("createdAt").is(before).and("_id").lt(beforeId == null ? "" : beforeId));
+        }
+
+        // Fetch one extra post to know whether another page exists
+        Query query = new Query(criteria).with(FEED_SORT).limit(pageSize + 1);
+        query.fields().exclude("user");
+
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+
+        List<PostDto> page = posts.stream()
+                .map(postMapper::toDto)
+                .collect(Collectors.toList());
+
+        if (!hasMore || posts.isEmpty()) {
+            return new FeedPageResponse(page, false, null, null);
+        }
+        Post last = posts.get(posts.size() - 1);
+        return new FeedPageResponse(page, true,
+                last.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), last.getId());
+    }
+
+    private List<String> feedAuthorIds(String userId, List<String> friendIds) {
         List<String> userIds = new ArrayList<>();
         userIds.add(userId);
 
         if (friendIds != null && !friendIds.isEmpty()) {
             userIds.addAll(friendIds);
         }
-
-        // Use the simple and reliable approach: get UserEntity objects and query with them
-        try {
-            List<UserEntity> users = userRepository.findAllById(userIds);
-            List<Post> posts = postRepository.findByUserInOrderByCreatedAtDesc(users);
-
-            if (!posts.isEmpty()) {
-                return posts.stream()
-                        .map(postMapper::toDto)
-                        .collect(Collectors.toList());
-            }
-        } catch (Exception e) {
-            // Fallback: get all posts and filter manually
-            try {
-                List<Post> allPosts = postRepository.findAll();
-                List<Post> filteredPosts = allPosts.stream()
-                        .filter(post -> userIds.contains(post.getUser().getId()))
-                        .sorted((p1, p2) -> p2.getCreatedAt().compareTo(p1.getCreatedAt()))
-                        .collect(Collectors.toList());
-
-                return filteredPosts.stream()
-                        .map(postMapper::toDto)
-                        .collect(Collectors.toList());
-            } catch (Exception fallbackError) {
-                // Final fallback: just current user's posts
-                try {
-                    UserEntity currentUser = getUserById(userId);
-                    List<Post> userPosts = postRepository.findByUserOrderByCreatedAtDesc(currentUser);
-                    return userPosts.stream()
-                            .map(postMapper::toDto)
-                            .collect(Collectors.toList());
-                } catch (Exception finalError) {
-                    return new ArrayList<>();
-                }
-            }
-        }
-
-        return new ArrayList<>();
+        return userIds;
     }
 
     @Override
@@ -107,6 +130,7 @@ public class PostsServiceImpl implements PostsService {
 
         Post post = new Post();
         post.setUser(user);
+        post.setUserId(user.getId());
         post.setDesc(request.getDesc());
         post.setImg(request.getImg());
         post.setFile(request.getFile());
@@ -116,6 +140,7 @@ public class PostsServiceImpl implements PostsService {
         post.setGroupId(request.getGroupId());
         post.setGroupName(request.getGroupName());
         post.setLikes(new ArrayList<>());
+        post.setLikeCount(0);
         post.setCommentCount(0);
         post.setCreatedAt(LocalDateTime.now());
 
@@ -125,20 +150,11 @@ public class PostsServiceImpl implements PostsService {
 
     @Override
     public PostDto toggleLike(String postId, String userId) {
-        Post post = getPostById(postId);
-
-        List<String> likes = post.getLikes();
-        if (likes.contains(userId)) {
-            likes.remove(userId);
-        } else {
-            likes.add(userId);
+        Post post = engagementCounter.toggleLike(postId, userId);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
         }
-
-        post.setLikes(likes);
-        post.setUpdatedAt(LocalDateTime.now());
-
-        Post savedPost = postRepository.save(post);
-        return postMapper.toDto(savedPost);
+        return postMapper.toDto(post);
     }
 
     @Override
@@ -188,7 +204,9 @@ public class PostsServiceImpl implements PostsService {
     @Override
     public CommentDto createComment(String postId, CreateCommentRequest request, String userId) {
         UserEntity user = getUserById(userId);
-        Post post = getPostById(postId);
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
 
         Comment comment = new Comment();
         comment.setPostId(postId);
@@ -200,8 +218,7 @@ public class PostsServiceImpl implements PostsService {
 
         Comment savedComment = commentRepository.save(comment);
 
-        post.setCommentCount(post.getCommentCount() + 1);
-        postRepository.save(post);
+        engagementCounter.incrementCommentCount(postId, 1);
 
         return commentMapper.toDto(savedComment);
     }
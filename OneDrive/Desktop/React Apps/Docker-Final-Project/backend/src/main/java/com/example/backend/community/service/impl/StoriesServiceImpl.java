@@ -4,7 +4,6 @@ import com.example.backend.community.mapper.StoryMapper;
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.community.entity.Story;
-import com.example.backend.community.entity.Friendship;
 import com.example.backend.community.repository.StoryRepository;
 import com.example.backend.community.repository.FriendshipRepository;
 import com.example.backend.community.service.StoriesService;
@@ -13,13 +12,18 @@ import com.example.backend.community.dto.StoryDto;
 import com.example.backend.community.dto.response.StoriesFeedResponse;
 import com.example.backend.community.dto.response.UserStoriesGroup;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,31 +44,39 @@ public class StoriesServiceImpl implements StoriesService {
     @Autowired
     private StoryMapper storyMapper;
 
+    @Value("${app.stories.feed-cache-ttl-ms:30000}")
+    private long feedCacheTtlMillis;
+
+    @Value("${app.stories.feed-cache.max-size:10000}")
+    private int feedCacheMaxSize;
+
+    // Short-lived per-user feed cache, invalidated when the user or a friend creates or deletes a story;
+    // expired entries are swept (and, if that is not enough, the cache cleared) when it reaches its max size
+    private final Map<String, CachedFeed> feedCache = new ConcurrentHashMap<>();
+
     @Override
     public StoriesFeedResponse getStoriesFeed(String userId) {
-        cleanupExpiredStories();
-
-        // Get friend IDs using robust method
-        List<String> friendIds = getRobustFriendIds(userId);
+        CachedFeed cached = feedCache.get(userId);
+        if (cached != null && cached.validUntilMillis > System.currentTimeMillis()) {
+            return cached.response;
+        }
 
-        // Add current user to the list
-        List<String> allUserIds = new ArrayList<>(friendIds);
+        List<String> allUserIds = new ArrayList<>(getRobustFriendIds(userId));
         allUserIds.add(userId);
 
         LocalDateTime now = LocalDateTime.now();
-        List<Story> allStories = new ArrayList<>();
+        List<Story> stories = storyRepository.findActiveStoriesByUserIds(allUserIds, now);
 
-        // Get all active stories and filter manually for maximum reliability
-        try {
-            List<Story> allActiveStories = storyRepository.findAllActiveStories(now);
-            allStories = allActiveStories.stream()
-                    .filter(story -> allUserIds.contains(story.getUser().getId()))
-                    .collect(Collectors.toList());
-        } catch (Exception ignored) {}
+        // Authors are loaded once each instead of resolving the DBRef of every story
+        Map<String, UserEntity> authors = new HashMap<>();
+        userRepository.findAllById(stories.stream().map(Story::getUserId).distinct().collect(Collectors.toList()))
+                .forEach(author -> authors.put(author.getId(), author));
+        stories.forEach(story -> story.setUser(authors.get(story.getUserId())));
 
-        // Group stories by user
-        Map<String, List<Story>> storiesByUser = allStories.stream()
-                .collect(Collectors.groupingBy(story -> story.getUser().getId()));
+        // Group stories by user, keeping creation order within each group
+        Map<String, List<Story>> storiesByUser = stories.stream()
+                .filter(story -> story.getUser() != null)
+                .collect(Collectors.groupingBy(Story::getUserId, LinkedHashMap::new, Collectors.toList()));
 
         // Convert to UserStoriesGroup objects
         List<UserStoriesGroup> userGroups = storiesByUser.entrySet().stream()
@@ -87,6 +99,23 @@ public class StoriesServiceImpl implements StoriesService {
 
         StoriesFeedResponse response = new StoriesFeedResponse();
         response.setStories(userGroups);
+
+        // Never serve a cached feed past the expiry of the first story in it
+        long validUntil = System.currentTimeMillis() + feedCacheTtlMillis;
+        for (Story story : stories) {
+            if (story.getExpiresAt() != null) {
+                validUntil = Math.min(validUntil, story.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        long nowMillis = System.currentTimeMillis();
+        if (feedCache.size() >= feedCacheMaxSize) {
+            feedCache.values().removeIf(entry -> entry.validUntilMillis <= nowMillis);
+            if (feedCache.size() >= feedCacheMaxSize) {
+                feedCache.clear();
+            }
+        }
+        feedCache.put(userId, new CachedFeed(response, validUntil));
+
         return response;
     }
 
@@ -96,6 +125,7 @@ public class StoriesServiceImpl implements StoriesService {
 
         Story story = new Story();
         story.setUser(user);
+        story.setUserId(user.getId());
         story.setName(name);
         story.setProfilePic(profilePic);
         story.setCreatedAt(LocalDateTime.now());
@@ -114,6 +144,7 @@ public class StoriesServiceImpl implements StoriesService {
         }
 
         Story savedStory = storyRepository.save(story);
+        invalidateFeeds(userId);
         return storyMapper.toDto(savedStory);
     }
 
@@ -142,49 +173,42 @@ public class StoriesServiceImpl implements StoriesService {
         }
 
         storyRepository.delete(story);
+        invalidateFeeds(userId);
     }
 
+    // Expired stories are removed by the TTL index on expiresAt; this is only an explicit sweep
     @Override
     public void cleanupExpiredStories() {
         LocalDateTime now = LocalDateTime.now();
         storyRepository.deleteExpiredStories(now);
     }
 
+    // The author's own feed and the feeds of everybody who sees their stories
+    private void invalidateFeeds(String authorId) {
+        feedCache.remove(authorId);
+        getRobustFriendIds(authorId).forEach(feedCache::remove);
+    }
+
     private UserEntity getUserById(String userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    // Robust method to get friend IDs - tries multiple approaches
+    // Friend IDs straight from the indexed friendship edges (no user documents are loaded)
     private List<String> getRobustFriendIds(String userId) {
-        try {
-            UserEntity user = getUserById(userId);
-
-            // Approach 1: Try the repository method
-            try {
-                List<Friendship> friendships1 = friendshipRepository.findAllByUser(user);
-                if (!friendships1.isEmpty()) {
-                    return friendships1.stream()
-                            .map(friendship -> friendship.getUser1().getId().equals(userId)
-                                    ? friendship.getUser2().getId()
-                                    : friendship.getUser1().getId())
-                            .collect(Collectors.toList());
-                }
-            } catch (Exception ignored) {}
-
-            // Approach 2: Manual filtering of all friendships (more reliable)
-            try {
-                List<Friendship> allFriendships = friendshipRepository.findAll();
-                return allFriendships.stream()
-                        .filter(f -> f.getUser1().getId().equals(userId) || f.getUser2().getId().equals(userId))
-                        .map(friendship -> friendship.getUser1().getId().equals(userId)
-                                ? friendship.getUser2().getId()
-                                : friendship.getUser1().getId())
-                        .collect(Collectors.toList());
-            } catch (Exception ignored) {}
-
-        } catch (Exception ignored) {}
-
-        return new ArrayList<>();
+        return friendshipRepository.findEdgesByUserId(userId).stream()
+                .map(edge -> userId.equals(edge.getUserId1()) ? edge.getUserId2() : edge.getUserId1())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static final class CachedFeed {
+        private final StoriesFeedResponse response;
+        private final long validUntilMillis;
+
+        private CachedFeed(StoriesFeedResponse response, long validUntilMillis) {
+            this.response = response;
+            this.validUntilMillis = validUntilMillis;
+        }
     }
-}
\ No newline at end of file
+}
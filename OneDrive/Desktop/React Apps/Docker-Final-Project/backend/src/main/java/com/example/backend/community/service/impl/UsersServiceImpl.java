@@ -1,5 +1,6 @@
 package com.example.backend.community.service.impl;
 
+import com.example.backend.common.security.AuthenticatedPrincipalCache;
 import com.example.backend.eduSphere.entity.UserEntity; // Main project
 import com.example.backend.eduSphere.repository.UserRepository; // Main project
 import com.example.backend.community.service.UsersService;
@@ -29,6 +30,9 @@ public class UsersServiceImpl implements UsersService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
     @Override
     public UserDto getUserProfile(String userId) {
         UserEntity user = getUserById(userId);
@@ -52,6 +56,7 @@ public class UsersServiceImpl implements UsersService {
         user.setUpdatedAt(LocalDateTime.now());
 
         UserEntity savedUser = userRepository.save(user);
+        principalCache.invalidateUser(savedUser.getId());
         return userMapper.toDto(savedUser);
     }
 
@@ -89,6 +94,7 @@ public class UsersServiceImpl implements UsersService {
         user.setProfilePic(imageUrl);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidateUser(user.getId());
 
         Map<String, String> result = new HashMap<>();
         result.put("url", imageUrl);
@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import com.example.backend.eduSphere.entity.ChatMessageEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills conversationKey on chat messages stored before the field existed (computed
+ * server-side in a single pipeline update). Runs before the index bootstrap and the chat
+ * summary migration, which both rely on the key.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER - 10)
+public class ChatConversationKeyMigration implements CommandLineRunner {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            AggregationUpdate setConversationKey = AggregationUpdate.update()
+                    .set("conversationKey").toValue(
+                            ConditionalOperators.when(ComparisonOperators.Lte.valueOf("senderId").lessThanEqualTo("receiverId"))
+                                    .then(StringOperators.Concat.valueOf("senderId").concat(":").concatValueOf("receiverId"))
+                                    .otherwise(StringOperators.Concat.valueOf("receiverId").concat(":").concatValueOf("senderId")));
+
+            long updated = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("conversationKey").exists(false)),
+                    setConversationKey,
+                    ChatMessageEntity.class).getModifiedCount();
+
+            if (updated > 0) {
+                System.out.println("✅ Backfilled conversationKey on " + updated + " chat messages");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Chat conversationKey migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
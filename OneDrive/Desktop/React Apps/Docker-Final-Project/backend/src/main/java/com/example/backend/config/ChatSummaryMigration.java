@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import com.example.backend.eduSphere.entity.ChatMessageEntity;
+import com.example.backend.eduSphere.service.ChatSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the chat conversation summaries from the existing messages once, recorded in
+ * {@link MigrationMarkers}; summaries are maintained on write after that. Deleting the marker
+ * forces a rebuild on the next startup.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER + 10)
+public class ChatSummaryMigration implements CommandLineRunner {
+
+    private static final String MIGRATION = "chat-conversation-summaries";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ChatSummaryService chatSummaryService;
+
+    @Autowired
+    private MigrationMarkers migrationMarkers;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            if (migrationMarkers.isApplied(MIGRATION)) {
+                return;
+            }
+
+            if (mongoTemplate.exists(new Query(), ChatMessageEntity.class)) {
+                System.out.println("🔄 Building chat conversation summaries...");
+                int written = chatSummaryService.rebuildAll();
+                System.out.println("✅ Built " + written + " chat conversation summaries");
+            }
+            migrationMarkers.markApplied(MIGRATION);
+        } catch (Exception e) {
+            System.err.println("❌ Chat summary migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
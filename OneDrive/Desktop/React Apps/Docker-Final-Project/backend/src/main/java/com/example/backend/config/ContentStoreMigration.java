@@ -0,0 +1,89 @@
+package com.example.backend.config;
+
+import com.example.backend.common.storage.BlobLink;
+import com.example.backend.common.storage.ContentAddressedStore;
+import com.example.backend.common.storage.ContentAddressedStore.StoredContent;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Brings uploads written before the content store existed into it: every file under the upload directory without a link record is hashed and, if its
+ * content is already stored, replaced by a link to the stored blob. Already linked paths are
+ * skipped, so the migration only does work once per file.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER + 10)
+public class ContentStoreMigration implements CommandLineRunner {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ContentAddressedStore contentStore;
+
+    @Value("${app.storage.adopt-existing:true}")
+    private boolean adoptExisting;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            Path uploadRoot = contentStore.getUploadRoot();
+            if (!adoptExisting || !Files.isDirectory(uploadRoot)) {
+                return;
+            }
+
+            Set<String> linked = new HashSet<>();
+            for (Document link : mongoTemplate.getCollection(mongoTemplate.getCollectionName(BlobLink.class))
+                    .find().projection(new Document("_id", 1))) {
+                linked.add(link.getString("_id"));
+            }
+
+            Path blobRoot = contentStore.getBlobRoot();
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(uploadRoot)) {
+                files = walk.filter(path -> !path.startsWith(blobRoot))
+                        .filter(Files::isRegularFile)
+                        .filter(path -> !linked.contains(uploadRoot.relativize(path).toString().replace('\\', '/')))
+                        .toList();
+            }
+
+            int adopted = 0;
+            int deduplicated = 0;
+            long savedBytes = 0;
+
+            for (Path file : files) {
+                try {
+                    StoredContent stored = contentStore.adopt(file);
+                    adopted++;
+                    if (stored.deduplicated()) {
+                        deduplicated++;
+                        savedBytes += stored.size();
+                    }
+                } catch (IOException e) {
+                    System.err.println("❌ Could not add " + file + " to the content store: " + e.getMessage());
+                }
+            }
+
+            if (adopted > 0) {
+                System.out.println("✅ Added " + adopted + " existing uploads to the content store (" +
+                        deduplicated + " duplicates, " + savedBytes + " bytes saved)");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Content store migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
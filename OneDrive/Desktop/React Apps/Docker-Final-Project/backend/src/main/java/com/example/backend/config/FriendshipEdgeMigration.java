@@ -0,0 +1,123 @@
+package com.example.backend.config;
+
+import com.example.backend.community.entity.FriendRequest;
+import com.example.backend.community.entity.Friendship;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Backfills the friendship edge fields (userId1/userId2/pairKey on friendships, senderId/receiverId/pairKey
+ * on friend requests) from the user DBRefs and removes duplicate friendships of the same pair. Runs
+ * before the index bootstrap, which could not build the unique pair key index otherwise. Reads raw
+ * documents so no DBRef is resolved.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER - 10)
+public class FriendshipEdgeMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            int friendships = backfill(Friendship.class, "user1", "user2", "userId1", "userId2");
+            int requests = backfill(FriendRequest.class, "sender", "receiver", "senderId", "receiverId");
+            int duplicates = removeDuplicateFriendships();
+
+            if (friendships > 0 || requests > 0 || duplicates > 0) {
+                System.out.println("✅ Backfilled friendship edges on " + friendships + " friendships and " +
+                        requests + " friend requests, removed " + duplicates + " duplicate friendships");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Friendship edge migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private int backfill(Class<?> entityClass, String firstRef, String secondRef, String firstId, String secondId) {
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        BulkOperations bulkOps = null;
+        int pending = 0;
+        int updated = 0;
+
+        for (Document edge : mongoTemplate.getCollection(collection)
+                .find(new Document("pairKey", new Document("$exists", false)))
+                .projection(new Document(firstRef, 1).append(secondRef, 1))) {
+
+            if (!(edge.get(firstRef) instanceof DBRef first) || !(edge.get(secondRef) instanceof DBRef second)) {
+                continue;
+            }
+
+            String firstUserId = first.getId().toString();
+            String secondUserId = second.getId().toString();
+
+            if (bulkOps == null) {
+                bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+            }
+            bulkOps.updateOne(new Query(Criteria.where("_id").is(edge.get("_id"))),
+                    new Update()
+                            .set(firstId, firstUserId)
+                            .set(secondId, secondUserId)
+                            .set("pairKey", Friendship.pairKeyOf(firstUserId, secondUserId)));
+
+            if (++pending == BATCH_SIZE) {
+                bulkOps.execute();
+                updated += pending;
+                bulkOps = null;
+                pending = 0;
+            }
+        }
+
+        if (bulkOps != null) {
+            bulkOps.execute();
+            updated += pending;
+        }
+        return updated;
+    }
+
+    /**
+     * Keeps the oldest friendship of every pair; the unique pair key index cannot be built otherwise
+     */
+    private int removeDuplicateFriendships() {
+        String collection = mongoTemplate.getCollectionName(Friendship.class);
+        Set<String> seen = new HashSet<>();
+        BulkOperations bulkOps = null;
+        int removed = 0;
+
+        for (Document edge : mongoTemplate.getCollection(collection)
+                .find(new Document("pairKey", new Document("$exists", true)))
+                .projection(new Document("pairKey", 1))
+                .sort(new Document("_id", 1))) {
+
+            if (seen.add(edge.getString("pairKey"))) {
+                continue;
+            }
+
+            if (bulkOps == null) {
+                bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Friendship.class);
+            }
+            bulkOps.remove(new Query(Criteria.where("_id").is(edge.get("_id"))));
+            removed++;
+        }
+
+        if (bulkOps != null) {
+            bulkOps.execute();
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.backend.config;
+
+import com.example.backend.community.entity.Group;
+import com.example.backend.community.entity.GroupMembership;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Backfills groupId/userId on group memberships from the DBRefs, removes duplicate memberships of
+ * the same user in the same group (runs before the index bootstrap, which could not build the
+ * unique {groupId, userId} index otherwise), and recounts every group's memberCount from its
+ * memberships. Reads raw documents so no DBRef is resolved.
+ *
+ * Runs once, recorded in {@link MigrationMarkers}: memberCount is maintained with $inc after that,
+ * and recounting on every startup would overwrite increments made while the application is
+ * already serving requests.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER - 10)
+public class GroupMembershipMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String MIGRATION = "group-memberships";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationMarkers migrationMarkers;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            if (migrationMarkers.isApplied(MIGRATION)) {
+                return;
+            }
+
+            LocalDateTime startedAt = LocalDateTime.now();
+            int backfilled = backfillIds();
+            int duplicates = removeDuplicateMemberships();
+
+            int recounted = recountMembers(startedAt);
+            migrationMarkers.markApplied(MIGRATION);
+
+            if (backfilled > 0 || duplicates > 0) {
+                System.out.println("✅ Backfilled ids on " + backfilled + " group memberships, removed " +
+                        duplicates + " duplicate memberships");
+            }
+            System.out.println("👥 Recounted members of " + recounted + " groups");
+        } catch (Exception e) {
+            System.err.println("❌ Group membership migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private int backfillIds() {
+        String collection = mongoTemplate.getCollectionName(GroupMembership.class);
+        BulkOperations bulkOps = null;
+        int pending = 0;
+        int updated = 0;
+
+        for (Document membership : mongoTemplate.getCollection(collection)
+                .find(new Document("userId", new Document("$exists", false)))
+                .projection(new Document("group", 1).append("user", 1))) {
+
+            if (!(membership.get("group") instanceof DBRef group) || !(membership.get("user") instanceof DBRef user)) {
+                continue;
+            }
+
+            if (bulkOps == null) {
+                bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GroupMembership.class);
+            }
+            bulkOps.updateOne(new Query(Criteria.where("_id").is(membership.get("_id"))),
+                    new Update()
+                            .set("groupId", group.getId().toString())
+                            .set("userId", user.getId().toString()));
+
+            if (++pending == BATCH_SIZE) {
+                bulkOps.execute();
+                updated += pending;
+                bulkOps = null;
+                pending = 0;
+            }
+        }
+
+        if (bulkOps != null) {
+            bulkOps.execute();
+            updated += pending;
+        }
+        return updated;
+    }
+
+    /**
+     * Keeps the oldest membership of every user in a group; the unique index cannot be built otherwise
+     */
+    private int removeDuplicateMemberships() {
+        String collection = mongoTemplate.getCollectionName(GroupMembership.class);
+        Set<String> seen = new HashSet<>();
+        BulkOperations bulkOps = null;
+        int removed = 0;
+
+        for (Document membership : mongoTemplate.getCollection(collection)
+                .find(new Document("userId", new Document("$exists", true)))
+                .projection(new Document("groupId", 1).append("userId", 1))
+                .sort(new Document("_id", 1))) {
+
+            if (seen.add(membership.getString("groupId") + ":" + membership.getString("userId"))) {
+                continue;
+            }
+
+            if (bulkOps == null) {
+                bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GroupMembership.class);
+            }
+            bulkOps.remove(new Query(Criteria.where("_id").is(membership.get("_id"))));
+            removed++;
+        }
+
+        if (bulkOps != null) {
+            bulkOps.execute();
+        }
+        return removed;
+    }
+
+    private int recountMembers(LocalDateTime startedAt) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("groupId").ne(null)),
+                Aggregation.group("groupId").count().as("count"));
+
+        List<Document> counts = mongoTemplate.aggregate(aggregation, GroupMembership.class, Document.class)
+                .getMappedResults();
+
+        Set<String> countedGroupIds = new HashSet<>();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Group.class);
+        for (Document row : counts) {
+            String groupId = row.getString("_id");
+            countedGroupIds.add(groupId);
+            bulkOps.updateOne(new Query(Criteria.where("_id").is(groupId)),
+                    new Update().set("memberCount", ((Number) row.get("count")).intValue()));
+        }
+        if (!counts.isEmpty()) {
+            bulkOps.execute();
+        }
+
+        // Groups without any membership left; a group created since the migration started may not have its founder yet
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").nin(countedGroupIds).orOperator(
+                        Criteria.where("createdAt").lt(startedAt),
+                        Criteria.where("createdAt").is(null))),
+                new Update().set("memberCount", 0), Group.class);
+
+        return counts.size();
+    }
+}
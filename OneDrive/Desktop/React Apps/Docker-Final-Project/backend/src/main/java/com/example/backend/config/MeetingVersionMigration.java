@@ -0,0 +1,38 @@
+package com.example.backend.config;
+
+import com.example.backend.eduSphere.entity.Meeting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meetings created before optimistic locking have no version field; Spring Data would treat
+ * them as new documents on save. Initialize the version of those meetings once at startup.
+ */
+@Component
+public class MeetingVersionMigration implements CommandLineRunner {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            long updated = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    Meeting.class).getModifiedCount();
+
+            if (updated > 0) {
+                System.out.println("✅ Initialized version field on " + updated + " meetings");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Meeting version migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.config;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Records which one-off data migrations have completed, as {@code {_id: name, completedAt}}
+ * documents in the "migrations" collection. A migration that rewrites live data (counters,
+ * summaries) checks its marker first so that it runs once, not on every startup while the
+ * application is already serving requests.
+ */
+@Component
+public class MigrationMarkers {
+
+    public static final String COLLECTION = "migrations";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MigrationMarkers(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean isApplied(String migration) {
+        return mongoTemplate.exists(byName(migration), COLLECTION);
+    }
+
+    public void markApplied(String migration) {
+        mongoTemplate.upsert(byName(migration), new Update().set("completedAt", new Date()), COLLECTION);
+    }
+
+    private static Query byName(String migration) {
+        return new Query(Criteria.where("_id").is(migration));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Makes sure the indexes declared on every @Document entity (@Indexed, @CompoundIndex, TTL
+ * indexes) exist. Runs once at startup with order {@link #ORDER}: data migrations that have to
+ * finish before an index can be built, such as removing duplicates ahead of a unique index, use
+ * a lower order, and ones that rely on the indexes a higher one. A failing index is reported and
+ * the remaining entities are still processed.
+ */
+@Component
+@Order(MongoIndexBootstrap.ORDER)
+public class MongoIndexBootstrap implements CommandLineRunner {
+
+    public static final int ORDER = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexBootstrap(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Class<?>> entityClasses = new ArrayList<>();
+        for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+            if (entity.isAnnotationPresent(Document.class)) {
+                entityClasses.add(entity.getType());
+            }
+        }
+        int ensured = ensureIndexes(entityClasses);
+        System.out.println("🗂️ Ensured " + ensured + " indexes on " + entityClasses.size() + " collections");
+    }
+
+    /**
+     * Ensures the annotated indexes of the given entities; returns how many indexes were ensured
+     */
+    public int ensureIndexes(Collection<Class<?>> entityClasses) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        int ensured = 0;
+        for (Class<?> entityClass : entityClasses) {
+            try {
+                for (IndexDefinition index : resolver.resolveIndexFor(entityClass)) {
+                    mongoTemplate.indexOps(entityClass).ensureIndex(index);
+                    ensured++;
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Could not ensure indexes of " + entityClass.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return ensured;
+    }
+}
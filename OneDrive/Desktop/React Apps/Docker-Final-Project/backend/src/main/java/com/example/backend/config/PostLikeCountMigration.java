@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import com.example.backend.community.entity.Post;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills likeCount (the size of likes) on posts created before the counter existed, and turns
+ * missing or null likes into an empty array so the atomic $addToSet / $pull updates apply.
+ * Runs as a single server-side update; no post is loaded.
+ */
+@Component
+public class PostLikeCountMigration implements CommandLineRunner {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            AggregationUpdate backfill = AggregationUpdate.update()
+                    .set("likes").toValue(ConditionalOperators.ifNull("likes").then(List.of()))
+                    .set("likeCount").toValue(ArrayOperators.Size.lengthOfArray(
+                            ConditionalOperators.ifNull("likes").then(List.of())));
+
+            UpdateResult result = mongoTemplate.updateMulti(
+                    new Query(new Criteria().orOperator(
+                            Criteria.where("likeCount").exists(false),
+                            Criteria.where("likes").is(null))),
+                    backfill, Post.class);
+
+            if (result.getModifiedCount() > 0) {
+                System.out.println("✅ Backfilled likeCount on " + result.getModifiedCount() + " posts");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Post likeCount migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
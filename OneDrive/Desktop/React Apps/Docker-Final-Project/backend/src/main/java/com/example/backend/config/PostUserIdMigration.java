@@ -0,0 +1,84 @@
+package com.example.backend.config;
+
+import com.example.backend.community.entity.Post;
+import com.mongodb.DBRef;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies the author id out of the user DBRef into the denormalized userId field for posts
+ * created before the field existed. Reads raw documents so no DBRef is resolved. Also gives
+ * posts without a createdAt the creation time of their ObjectId, since the feed pages on
+ * (createdAt, _id).
+ */
+@Component
+public class PostUserIdMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            String collection = mongoTemplate.getCollectionName(Post.class);
+            BulkOperations bulkOps = null;
+            int pending = 0;
+            int updated = 0;
+
+            for (Document post : mongoTemplate.getCollection(collection)
+                    .find(new Document("userId", new Document("$exists", false)))
+                    .projection(new Document("user", 1))) {
+
+                if (!(post.get("user") instanceof DBRef user)) {
+                    continue;
+                }
+
+                if (bulkOps == null) {
+                    bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                }
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(post.get("_id"))),
+                        new Update().set("userId", user.getId().toString()));
+
+                if (++pending == BATCH_SIZE) {
+                    bulkOps.execute();
+                    updated += pending;
+                    bulkOps = null;
+                    pending = 0;
+                }
+            }
+
+            if (bulkOps != null) {
+                bulkOps.execute();
+                updated += pending;
+            }
+
+            if (updated > 0) {
+                System.out.println("✅ Backfilled userId on " + updated + " posts");
+            }
+
+            UpdateResult createdAt = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("createdAt").is(null).and("_id").type(JsonSchemaObject.Type.OBJECT_ID)),
+                    AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.valueOf("_id").convertToDate()),
+                    Post.class);
+            if (createdAt.getModifiedCount() > 0) {
+                System.out.println("✅ Backfilled createdAt on " + createdAt.getModifiedCount() + " posts");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Post userId migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -34,9 +34,11 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/register", "/api/login").permitAll()
                         .requestMatchers("/api/auth/user").authenticated()
+                        .requestMatchers("/api/auth/principal-cache/**").hasAuthority("ROLE_ADMIN")
 
                         // 🆕 REPORT GENERATION - Admin only (since it can access all system data)
                         .requestMatchers("/api/reports/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/files/storage/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/chat").authenticated()
 
 
@@ -74,6 +76,7 @@ public class SecurityConfig {
                         // Read access to courses - allow all authenticated users, but admin operations are restricted above
                         .requestMatchers(HttpMethod.GET, "/api/courses/**").authenticated()
                         .requestMatchers("/api/messages/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/calendar/ical/*").permitAll() // Subscription feeds, authorized by their key
                         .requestMatchers("/api/calendar/**").authenticated()
 
                         .requestMatchers("/api/cv/**").authenticated()
@@ -0,0 +1,70 @@
+package com.example.backend.config;
+
+import com.example.backend.community.entity.Story;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies the author id out of the user DBRef into the denormalized userId field for stories
+ * created before the field existed. Reads raw documents so no DBRef is resolved.
+ */
+@Component
+public class StoryUserIdMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            String collection = mongoTemplate.getCollectionName(Story.class);
+            BulkOperations bulkOps = null;
+            int pending = 0;
+            int updated = 0;
+
+            for (Document story : mongoTemplate.getCollection(collection)
+                    .find(new Document("userId", new Document("$exists", false)))
+                    .projection(new Document("user", 1))) {
+
+                if (!(story.get("user") instanceof DBRef user)) {
+                    continue;
+                }
+
+                if (bulkOps == null) {
+                    bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Story.class);
+                }
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(story.get("_id"))),
+                        new Update().set("userId", user.getId().toString()));
+
+                if (++pending == BATCH_SIZE) {
+                    bulkOps.execute();
+                    updated += pending;
+                    bulkOps = null;
+                    pending = 0;
+                }
+            }
+
+            if (bulkOps != null) {
+                bulkOps.execute();
+                updated += pending;
+            }
+
+            if (updated > 0) {
+                System.out.println("✅ Backfilled userId on " + updated + " stories");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Story userId migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
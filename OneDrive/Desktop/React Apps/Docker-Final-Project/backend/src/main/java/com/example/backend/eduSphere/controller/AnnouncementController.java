@@ -7,12 +7,14 @@ import com.example.backend.eduSphere.dto.response.DepartmentDto;
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.service.AnnouncementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,9 +27,13 @@ public class AnnouncementController {
     // --- Endpoints for all authenticated users ---
 
     @GetMapping
-    public ResponseEntity<List<AnnouncementResponse>> getAnnouncementsForUser(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<AnnouncementResponse>> getAnnouncementsForUser(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false, defaultValue = "0") int limit) {
         UserEntity currentUser = (UserEntity) userDetails;
-        List<AnnouncementResponse> announcements = announcementService.getAnnouncementsForUser(currentUser.getId(), currentUser.getRole());
+        // Without limit the full list is returned; page further with before = createdAt of the last item
+        List<AnnouncementResponse> announcements = announcementService.getAnnouncementsForUser(currentUser.getId(), currentUser.getRole(), before, limit);
         return ResponseEntity.ok(announcements);
     }
 
@@ -5,6 +5,7 @@ import com.example.backend.eduSphere.dto.request.RegisterRequest;
 import com.example.backend.eduSphere.dto.response.AuthResponse;
 import com.example.backend.eduSphere.dto.response.LoginResponse;
 import com.example.backend.eduSphere.service.UserService;
+import com.example.backend.common.security.AuthenticatedPrincipalCache;
 import com.example.backend.common.security.JwtUtil;
 import com.example.backend.eduSphere.entity.UserEntity;
 import jakarta.servlet.http.Cookie;
@@ -15,6 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api")
@@ -22,6 +25,7 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody RegisterRequest registerRequest) {
@@ -71,6 +75,12 @@ public class AuthController {
         }
     }
 
+    // ✅ Hit/miss counters of the authenticated-principal cache (admin only, see SecurityConfig)
+    @GetMapping("/auth/principal-cache/stats")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<String> logout(HttpServletResponse response) {
         // ✅ Remove JWT cookie
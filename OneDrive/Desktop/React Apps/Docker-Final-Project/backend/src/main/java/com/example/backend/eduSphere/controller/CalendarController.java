@@ -3,15 +3,23 @@ package com.example.backend.eduSphere.controller;
 import com.example.backend.eduSphere.dto.request.CalendarFilterDto;
 import com.example.backend.eduSphere.dto.response.CalendarEventDto;
 import com.example.backend.eduSphere.entity.Event; // Import Event
+import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.service.CalendarService;
+import com.example.backend.eduSphere.service.impl.CalendarFeedService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/calendar")
@@ -21,9 +29,20 @@ public class CalendarController {
     @Autowired
     private CalendarService calendarService;
 
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    /**
+     * GET /api/calendar/events : Calendar entries for the week containing weekStartDate.
+     * With view=month the whole month of weekStartDate is returned instead, and with an endDate
+     * any range from weekStartDate to endDate (e.g. a semester, up to a year). Any other view is
+     * rejected with 400.
+     */
     @GetMapping("/events")
-    public ResponseEntity<List<CalendarEventDto>> getCalendarEvents(
+    public ResponseEntity<?> getCalendarEvents(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStartDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "week") String view,
             // ✅ Add optional parameters for filtering
             @RequestParam(required = false) String courseId,
             @RequestParam(required = false) String instructorId,
@@ -31,8 +50,22 @@ public class CalendarController {
     ) {
         // We will create this DTO to pass the filters cleanly
         CalendarFilterDto filters = new CalendarFilterDto(courseId, instructorId, groupId);
-        List<CalendarEventDto> events = calendarService.getCalendarEventsForUser(weekStartDate, filters);
-        return ResponseEntity.ok(events);
+        try {
+            List<CalendarEventDto> events;
+            if (endDate != null) {
+                events = calendarService.getCalendarEventsForUser(weekStartDate, endDate, filters);
+            } else if ("month".equalsIgnoreCase(view)) {
+                YearMonth month = YearMonth.from(weekStartDate);
+                events = calendarService.getCalendarEventsForUser(month.atDay(1), month.atEndOfMonth(), filters);
+            } else if ("week".equalsIgnoreCase(view)) {
+                events = calendarService.getCalendarEventsForUser(weekStartDate, filters);
+            } else {
+                throw new IllegalArgumentException("Unknown calendar view '" + view + "' (expected week or month)");
+            }
+            return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // ✅ ADD THIS ENTIRE METHOD
@@ -57,4 +90,53 @@ public class CalendarController {
     public ResponseEntity<Event> updateEvent(@PathVariable String eventId, @RequestBody Event eventDetails) {
         return ResponseEntity.ok(calendarService.updateEvent(eventId, eventDetails));
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /api/calendar/feed.ics : The logged-in user's calendar as iCalendar (RRULE-based),
+     * with ETag / If-None-Match so unchanged polls are answered 304
+     */
+    @GetMapping("/feed.ics")
+    public void getFeed(@AuthenticationPrincipal UserEntity user,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        calendarFeedService.serve(user, request, response);
+    }
+
+    /**
+     * GET /api/calendar/ical/{feedKey}.ics : The same feed for calendar apps that subscribe by URL
+     * and cannot log in; the key comes from /feed/subscription
+     */
+    @GetMapping("/ical/{feedKey}")
+    public void getSubscribedFeed(@PathVariable String feedKey,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = feedKey.endsWith(".ics") ? feedKey.substring(0, feedKey.length() - 4) : feedKey;
+        UserEntity user = calendarFeedService.userForSubscriptionKey(key);
+        if (user == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        calendarFeedService.serve(user, request, response);
+    }
+
+    /**
+     * GET /api/calendar/feed/changes : Items changed since syncToken (all items without one),
+     * the UIDs removed since then and the token to send next time
+     */
+    @GetMapping("/feed/changes")
+    public ResponseEntity<Map<String, Object>> getFeedChanges(@AuthenticationPrincipal UserEntity user,
+                                                              @RequestParam(required = false) String syncToken) {
+        return ResponseEntity.ok(calendarFeedService.changesSince(user, syncToken));
+    }
+
+    @GetMapping("/feed/subscription")
+    public ResponseEntity<Map<String, String>> getFeedSubscription(@AuthenticationPrincipal UserEntity user) {
+        String key = calendarFeedService.subscriptionKey(user);
+        return ResponseEntity.ok(Map.of("feedKey", key, "feedPath", "/api/calendar/ical/" + key + ".ics"));
+    }
+
+    // Revokes the subscription URL; the next GET /feed/subscription issues a new one
+    @DeleteMapping("/feed/subscription")
+    public ResponseEntity<Void> revokeFeedSubscription(@AuthenticationPrincipal UserEntity user) {
+        calendarFeedService.revokeSubscription(user);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,9 @@ import com.example.backend.eduSphere.dto.request.ChatMessage;
 import com.example.backend.eduSphere.entity.ChatMessageEntity;
 import com.example.backend.eduSphere.repository.ChatMessageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -12,6 +15,8 @@ import org.springframework.web.bind.annotation.*;
 import com.example.backend.eduSphere.dto.request.ChatRequest;
 import com.example.backend.eduSphere.dto.response.ChatResponse;
 import com.example.backend.eduSphere.service.ChatService;
+import com.example.backend.eduSphere.service.ChatSummaryService;
+import com.example.backend.eduSphere.entity.ChatConversationSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,6 +24,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +44,10 @@ public class ChatController {
 
     private final ChatService chatService;
 
+    private final ChatSummaryService chatSummaryService;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     /**
      * New method for the chatbot API. Handles requests from the chat UI.
      * @param request The user's message.
@@ -78,6 +90,7 @@ public class ChatController {
 
         ChatMessageEntity savedMessage = chatMessageRepository.save(chatMessageEntity);
         System.out.println("Saved eduSphere message with ID: " + savedMessage.getId());
+        chatSummaryService.recordMessage(savedMessage);
 
         // Create response message with proper timestamp format
         ChatMessage responseMessage = new ChatMessage(
@@ -93,6 +106,7 @@ public class ChatController {
         String receiverTopic = "/topic/messages/eduSphere/" + message.getReceiverId();
         System.out.println("Sending to receiver topic: " + receiverTopic);
         messagingTemplate.convertAndSend(receiverTopic, responseMessage);
+        pushUnreadCount(message.getReceiverId(), "eduSphere");
 
         System.out.println("EduSphere message sent successfully");
     }
@@ -118,6 +132,7 @@ public class ChatController {
 
         ChatMessageEntity savedMessage = chatMessageRepository.save(chatMessageEntity);
         System.out.println("Saved community message with ID: " + savedMessage.getId());
+        chatSummaryService.recordMessage(savedMessage);
 
         // Create response message with proper timestamp format
         ChatMessage responseMessage = new ChatMessage(
@@ -133,6 +148,7 @@ public class ChatController {
         String receiverTopic = "/topic/messages/community/" + message.getReceiverId();
         System.out.println("Sending to receiver topic: " + receiverTopic);
         messagingTemplate.convertAndSend(receiverTopic, responseMessage);
+        pushUnreadCount(message.getReceiverId(), "community");
 
         System.out.println("Community message sent successfully");
     }
@@ -165,6 +181,30 @@ public class ChatController {
         return messages;
     }
 
+    // Paginated eduSphere chat history (newest page first)
+    @GetMapping("/{user1}/{user2}/page")
+    public Map<String, Object> getChatMessagesPage(
+            @PathVariable String user1,
+            @PathVariable String user2,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String beforeId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return getConversationPage(user1, user2, "eduSphere", before, beforeId, limit);
+    }
+
+    // Paginated community chat history (newest page first)
+    @GetMapping("/community/{user1}/{user2}/page")
+    public Map<String, Object> getCommunityChatMessagesPage(
+            @PathVariable String user1,
+            @PathVariable String user2,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String beforeId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return getConversationPage(user1, user2, "community", before, beforeId, limit);
+    }
+
     // NEW METHOD: Get chat conversations for a user in specific context
     @GetMapping("/conversations/{userId}")
     public List<ChatMessageEntity> getUserConversations(
@@ -177,6 +217,18 @@ public class ChatController {
         return messages;
     }
 
+    // Inbox: one summary per conversation (last message, unread count), most recent first
+    @GetMapping("/conversations/{userId}/summaries")
+    public List<ChatConversationSummary> getUserConversationSummaries(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "eduSphere") String context
+    ) {
+        System.out.println("Fetching conversation summaries for user " + userId + " in context " + context);
+        List<ChatConversationSummary> conversations = chatSummaryService.getInbox(userId, context);
+        System.out.println("Found " + conversations.size() + " conversations");
+        return conversations;
+    }
+
     // NEW METHOD: Get unread message count
     @GetMapping("/unread/{userId}")
     public Map<String, Object> getUnreadCount(
@@ -184,7 +236,7 @@ public class ChatController {
             @RequestParam(defaultValue = "eduSphere") String context
     ) {
         System.out.println("Getting unread count for user " + userId + " in context " + context);
-        long unreadCount = chatMessageRepository.countUnreadMessagesByUserIdAndContext(userId, context);
+        long unreadCount = chatSummaryService.getUnreadCount(userId, context);
         System.out.println("Unread count: " + unreadCount);
 
         return Map.of(
@@ -206,19 +258,17 @@ public class ChatController {
         System.out.println("Marking messages as read:");
         System.out.println("Receiver: " + receiverId + ", Sender: " + senderId + ", Context: " + context);
 
-        List<ChatMessageEntity> unreadMessages = chatMessageRepository
-                .findUnreadMessagesFromSenderInContext(receiverId, senderId, context);
+        // Single updateMulti on the unread-by-receiver index
+        long markedAsRead = chatMessageRepository
+                .findAndSetReadByReceiverIdAndSenderIdAndContextAndReadFalse(receiverId, senderId, context);
+        chatSummaryService.markConversationRead(receiverId, senderId, context);
 
-        System.out.println("Found " + unreadMessages.size() + " unread messages to mark as read");
-
-        unreadMessages.forEach(message -> {
-            message.setRead(true);
-            chatMessageRepository.save(message);
-        });
+        System.out.println("Marked " + markedAsRead + " messages as read");
+        pushUnreadCount(receiverId, context);
 
         return Map.of(
                 "success", true,
-                "markedAsRead", unreadMessages.size()
+                "markedAsRead", markedAsRead
         );
     }
 
@@ -227,19 +277,57 @@ public class ChatController {
     public Map<String, Object> getUserChatContexts(@PathVariable String userId) {
         System.out.println("Getting chat contexts for user " + userId);
 
-        List<ChatMessageEntity> eduSphereMessages = chatMessageRepository
-                .findAllByUserIdAndContext(userId, "eduSphere");
-        List<ChatMessageEntity> communityMessages = chatMessageRepository
-                .findAllByUserIdAndContext(userId, "community");
+        Map<String, Object> contexts = chatSummaryService.getContextStats(userId);
 
-        System.out.println("EduSphere messages: " + eduSphereMessages.size());
-        System.out.println("Community messages: " + communityMessages.size());
+        System.out.println("EduSphere messages: " + contexts.get("eduSphereCount"));
+        System.out.println("Community messages: " + contexts.get("communityCount"));
 
-        return Map.of(
-                "eduSphere", eduSphereMessages.size() > 0,
-                "community", communityMessages.size() > 0,
-                "eduSphereCount", eduSphereMessages.size(),
-                "communityCount", communityMessages.size()
-        );
+        return contexts;
+    }
+
+    // Push the receiver's unread count for a context so clients don't have to poll /unread
+    private void pushUnreadCount(String userId, String context) {
+        messagingTemplate.convertAndSend("/topic/unread/" + context + "/" + userId, Map.of(
+                "userId", userId,
+                "context", context,
+                "unreadCount", chatSummaryService.getUnreadCount(userId, context)
+        ));
+    }
+
+    /**
+     * One page of a conversation, keyed on (timestamp, id) of the oldest message already loaded.
+     * Messages are returned oldest first; pass nextBefore / nextBeforeId to load the previous page.
+     */
+    private Map<String, Object> getConversationPage(String user1, String user2, String context,
+                                                    String before, String beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String conversationKey = ChatMessageEntity.conversationKeyOf(user1, user2);
+
+        // Fetch one extra message to know whether an older page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1,
+                Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id")));
+
+        List<ChatMessageEntity> messages;
+        if (before == null || before.isBlank()) {
+            messages = chatMessageRepository.findLatestInConversation(conversationKey, context, pageable);
+        } else {
+            LocalDateTime beforeTimestamp = LocalDateTime.parse(before, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            messages = chatMessageRepository.findInConversationBefore(
+                    conversationKey, context, beforeTimestamp, beforeId == null ? "" : beforeId, pageable);
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        List<ChatMessageEntity> page = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        Collections.reverse(page);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("messages", page);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            ChatMessageEntity oldest = page.get(0);
+            response.put("nextBefore", oldest.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            response.put("nextBeforeId", oldest.getId());
+        }
+        return response;
     }
-}
\ No newline at end of file
+}
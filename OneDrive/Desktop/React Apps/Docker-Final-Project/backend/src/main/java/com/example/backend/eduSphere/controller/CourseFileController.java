@@ -1,16 +1,18 @@
 package com.example.backend.eduSphere.controller;
 
+import com.example.backend.common.util.StoredFileServer;
 import com.example.backend.eduSphere.entity.CourseFile;
 import com.example.backend.eduSphere.service.CourseContentService;
 import com.example.backend.eduSphere.service.CourseFileStorageService;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 @RestController
@@ -20,10 +22,13 @@ public class CourseFileController {
 
     private final CourseContentService courseContentService;
     private final CourseFileStorageService fileStorageService;
+    private final StoredFileServer storedFileServer;
 
-    public CourseFileController(CourseContentService courseContentService, CourseFileStorageService fileStorageService) {
+    public CourseFileController(CourseContentService courseContentService, CourseFileStorageService fileStorageService,
+                                StoredFileServer storedFileServer) {
         this.courseContentService = courseContentService;
         this.fileStorageService = fileStorageService;
+        this.storedFileServer = storedFileServer;
     }
 
     /**
@@ -39,19 +44,16 @@ public class CourseFileController {
      * GET /api/files/{fileId}/download : Download a specific file.
      */
     @GetMapping("/{fileId}/download")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileId) {
+    public void downloadFile(@PathVariable String fileId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         // Find file metadata
         CourseFile fileMetadata = courseContentService.getFileMetadata(fileId)
                 .orElseThrow(() -> new RuntimeException("File not found with id: " + fileId));
 
-        // Load file as Resource
-        Resource resource = fileStorageService.loadFileAsResource(fileMetadata.getStoredFileName());
-
-        // Build the response with correct headers
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(fileMetadata.getFileType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileMetadata.getFileName() + "\"")
-                .body(resource);
+        // Resolve the stored file; ranges, ETag and conditional GETs are handled by the file server
+        Path filePath = fileStorageService.loadFilePath(fileMetadata.getStoredFileName());
+        storedFileServer.serve(request, response, filePath, fileMetadata.getFileType(),
+                "attachment", fileMetadata.getFileName());
     }
 
     /**
@@ -32,9 +32,13 @@ public class FileController {
     }
 
     @GetMapping
-    public ResponseEntity<List<FileResponse>> getFiles(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<FileResponse>> getFiles(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
         UserEntity currentUser = (UserEntity) userDetails;
-        List<FileResponse> files = fileService.getAccessibleFiles(currentUser.getId(), currentUser.getRole(), null); // Pass null for userDepartment
+        // Without page the full list is returned, newest first
+        List<FileResponse> files = fileService.getAccessibleFiles(currentUser.getId(), currentUser.getRole(), null, page, size); // Pass null for userDepartment
         return ResponseEntity.ok(files);
     }
 
@@ -531,15 +531,34 @@ public class GradeController {
     }
 
     /**
-     * Bulk operations placeholder
+     * POST /api/grades/bulk-update : Enter many grades at once
+     * Body: {"grades": [{"studentId": "...", "columnId": "...", "grade": 87.5}, ...]}
+     * A null or empty grade removes it. Valid cells are applied even if others fail;
+     * the response lists the failed cells by their index in the request.
      */
     @PostMapping("/grades/bulk-update")
     @PreAuthorize("hasRole('LECTURER')")
     public ResponseEntity<?> bulkUpdateGrades(@RequestBody Map<String, Object> request) {
-        return ResponseEntity.ok(Map.of(
-                "message", "Bulk update functionality not yet implemented",
-                "status", "placeholder"
-        ));
+        try {
+            Object cells = request.get("grades");
+            if (!(cells instanceof List<?> cellList)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Request must contain a 'grades' array of {studentId, columnId, grade} cells"));
+            }
+
+            Map<String, Object> result = gradeService.bulkUpdateGrades(cellList);
+            System.out.println("✅ Bulk grade update: " + result.get("applied") + " applied, " + result.get("failed") + " failed");
+
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Runtime error in bulk grade update: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Unexpected error in bulk grade update: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error: " + e.getMessage()));
+        }
     }
 
     /**
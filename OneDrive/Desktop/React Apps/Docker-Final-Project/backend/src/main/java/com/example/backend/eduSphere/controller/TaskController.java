@@ -179,6 +179,38 @@ public class TaskController {
         }
     }
 
+    /**
+     * GET /api/tasks/{taskId}/statistics : Submission and grade statistics of a task
+     */
+    @GetMapping("/{taskId}/statistics")
+    @PreAuthorize("hasRole('LECTURER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getTaskStatistics(
+            @PathVariable String taskId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            UserEntity currentUser = userRepository.findByUsername(userDetails.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
+
+            if (!taskService.canUserAccessTask(taskId, currentUser.getId(), currentUser.getRole())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Access denied: You don't have permission to view this task"));
+            }
+
+            TaskDetailResponse.TaskStatistics statistics = taskService.getTaskStatistics(taskId);
+            return ResponseEntity.ok(statistics);
+
+        } catch (RuntimeException e) {
+            System.err.println("❌ Runtime error fetching task statistics: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Unexpected error fetching task statistics: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error: " + e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/tasks/course/{courseId} : Get all tasks for a course
      */
@@ -418,12 +450,12 @@ public class TaskController {
             UserEntity currentUser = userRepository.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
 
-            taskService.updateTaskVisibility(courseId, taskIds, visible, currentUser.getId());
-            System.out.println("✅ Updated visibility for " + taskIds.size() + " tasks");
+            int updatedCount = taskService.updateTaskVisibility(courseId, taskIds, visible, currentUser.getId());
+            System.out.println("✅ Updated visibility for " + updatedCount + " tasks");
 
             return ResponseEntity.ok(Map.of(
                     "message", "Task visibility updated successfully",
-                    "updatedCount", taskIds.size()
+                    "updatedCount", updatedCount
             ));
 
         } catch (RuntimeException e) {
@@ -469,12 +501,12 @@ public class TaskController {
             UserEntity currentUser = userRepository.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
 
-            taskService.updateTaskStatus(courseId, taskIds, status, currentUser.getId());
-            System.out.println("✅ Updated status for " + taskIds.size() + " tasks to: " + status);
+            int updatedCount = taskService.updateTaskStatus(courseId, taskIds, status, currentUser.getId());
+            System.out.println("✅ Updated status for " + updatedCount + " tasks to: " + status);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Task status updated successfully",
-                    "updatedCount", taskIds.size(),
+                    "updatedCount", updatedCount,
                     "newStatus", status
             ));
 
@@ -6,6 +6,7 @@ import com.example.backend.eduSphere.dto.response.TemplateResponse;
 import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.service.TemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/templates")
@@ -61,9 +63,16 @@ public class TemplateController {
 
     @PostMapping("/{id}/use")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Void> useTemplate(@PathVariable String id, @RequestBody UseTemplateRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Map<String, Object>> useTemplate(@PathVariable String id, @RequestBody UseTemplateRequest request, @AuthenticationPrincipal UserDetails userDetails) {
         UserEntity currentUser = (UserEntity) userDetails;
-        templateService.useTemplate(id, request, currentUser.getId(), currentUser.getName());
-        return ResponseEntity.ok().build();
+        Map<String, Object> job = templateService.useTemplate(id, request, currentUser.getId(), currentUser.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // Progress and throughput of a template fan-out started by /use
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getFanOutJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(templateService.getFanOutJob(jobId));
     }
 }
\ No newline at end of file
@@ -354,68 +354,30 @@ public class VideoMeetingController {
             log.debug("Processing leave request - Meeting: {}, Session: {}, Reason: {}",
                     meetingId, sessionId, reason);
 
-            Optional<Meeting> meetingOpt = videoMeetingService.getMeetingById(meetingId);
-            if (meetingOpt.isEmpty()) {
+            if (!meetingRepository.existsById(meetingId)) {
                 log.warn("Meeting not found: {}", meetingId);
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Meeting not found");
                 return ResponseEntity.notFound().build();
             }
 
-            Meeting meeting = meetingOpt.get();
-
-            Optional<AttendanceSession> sessionOpt = meeting.getAttendanceSessions().stream()
-                    .filter(session -> session.getId().equals(sessionId))
-                    .findFirst();
-
-            if (sessionOpt.isEmpty()) {
+            if (videoMeetingService.findAttendanceSession(meetingId, sessionId).isEmpty()) {
                 log.warn("Session not found: {} in meeting: {}", sessionId, meetingId);
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "Session not found");
                 return ResponseEntity.badRequest().body(errorResponse);
             }
 
-            AttendanceSession session = sessionOpt.get();
-
-            if (session.getLeaveTime() != null) {
+            // Ends the session with a single conditional update; concurrent leaves get "already_left"
+            Map<String, Object> response = videoMeetingService.leaveMeeting(meetingId, sessionId);
+            if ("left".equals(response.get("status"))) {
+                response.put("leaveTime", response.get("leaveTime").toString());
+                response.put("reason", reason != null ? reason : "unknown");
+                log.debug("Session ended successfully: {} - Duration: {} minutes ({} seconds)",
+                        sessionId, response.get("durationMinutes"), response.get("durationSeconds"));
+            } else {
                 log.debug("Session already ended: {}", sessionId);
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "already_left");
-                response.put("sessionId", sessionId);
-                response.put("leaveTime", session.getLeaveTime().toString());
-                response.put("durationMinutes", session.getDurationMinutes());
-                response.put("durationSeconds", session.getCurrentDurationSeconds());
-                return ResponseEntity.ok(response);
             }
 
-            try {
-                meeting.endAttendanceSessionById(sessionId);
-                Meeting savedMeeting = meetingRepository.save(meeting);
-
-                AttendanceSession endedSession = savedMeeting.getAttendanceSessions().stream()
-                        .filter(s -> s.getId().equals(sessionId))
-                        .findFirst()
-                        .orElse(session);
-
-                log.debug("Session ended successfully: {} - Duration: {} minutes ({} seconds)",
-                        sessionId, endedSession.getDurationMinutes(), endedSession.getCurrentDurationSeconds());
-
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "left");
-                response.put("sessionId", sessionId);
-                response.put("leaveTime", endedSession.getLeaveTime().toString());
-                response.put("durationMinutes", endedSession.getDurationMinutes());
-                response.put("durationSeconds", endedSession.getCurrentDurationSeconds());
-                response.put("reason", reason != null ? reason : "unknown");
-
-                return ResponseEntity.ok(response);
-
-            } catch (Exception saveError) {
-                log.error("Error saving meeting after ending session: {}", saveError.getMessage(), saveError);
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Failed to save session end");
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-            }
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             log.error("Error processing leave request for meeting {}: {}", meetingId, e.getMessage(), e);
@@ -500,16 +462,11 @@ public class VideoMeetingController {
 
             log.debug("Resuming session - Meeting: {}, Session: {}", meetingId, sessionId);
 
-            Optional<Meeting> meetingOpt = videoMeetingService.getMeetingById(meetingId);
-            if (meetingOpt.isEmpty()) {
+            if (!meetingRepository.existsById(meetingId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            Meeting meeting = meetingOpt.get();
-
-            Optional<AttendanceSession> sessionOpt = meeting.getAttendanceSessions().stream()
-                    .filter(session -> session.getId().equals(sessionId))
-                    .findFirst();
+            Optional<AttendanceSession> sessionOpt = videoMeetingService.findAttendanceSession(meetingId, sessionId);
 
             if (sessionOpt.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -519,46 +476,18 @@ public class VideoMeetingController {
 
             AttendanceSession session = sessionOpt.get();
 
-            // FIXED: Validate session can be resumed
-            if (session.getLeaveTime() == null) {
-                // Session is already active
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "already_active");
-                response.put("id", session.getId());
-                response.put("joinTime", session.getJoinTime().toString());
-                response.put("userName", session.getUserName());
-                response.put("isExistingSession", true);
-                return ResponseEntity.ok(response);
-            }
-
             // Check if session is too old to resume (10 minutes)
             LocalDateTime cutoff = LocalDateTime.now().minusMinutes(10);
-            if (session.getLeaveTime().isBefore(cutoff)) {
+            if (session.getLeaveTime() != null && session.getLeaveTime().isBefore(cutoff)) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "Session too old to resume");
                 return ResponseEntity.badRequest().body(errorResponse);
             }
 
-            // Resume the session
-            session.setLeaveTime(null);
-            session.setDurationMinutes(null);
-
-            Meeting savedMeeting = meetingRepository.save(meeting);
-
-            AttendanceSession resumedSession = savedMeeting.getAttendanceSessions().stream()
-                    .filter(s -> s.getId().equals(sessionId))
-                    .findFirst()
-                    .orElse(session);
-
-            log.debug("Session resumed successfully: {}", resumedSession.getId());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "resumed");
-            response.put("id", resumedSession.getId());
-            response.put("joinTime", resumedSession.getJoinTime().toString());
-            response.put("userName", resumedSession.getUserName());
-            response.put("isExistingSession", true);
+            // Resume the session in place (no-op with "already_active" if it is still open)
+            Map<String, Object> response = videoMeetingService.resumeAttendanceSession(meetingId, sessionId);
 
+            log.debug("Session {}: {}", response.get("status"), sessionId);
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -574,14 +503,13 @@ public class VideoMeetingController {
         try {
             log.debug("Getting active sessions for meeting: {}", meetingId);
 
-            Optional<Meeting> meetingOpt = videoMeetingService.getMeetingById(meetingId);
-            if (meetingOpt.isEmpty()) {
+            // Served from the in-memory presence registry
+            Optional<List<AttendanceSession>> sessionsOpt = videoMeetingService.getLiveAttendanceSessions(meetingId);
+            if (sessionsOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
-            Meeting meeting = meetingOpt.get();
-
-            List<Map<String, Object>> activeSessions = meeting.getAttendanceSessions().stream()
+            List<Map<String, Object>> activeSessions = sessionsOpt.get().stream()
                     .filter(session -> session.isActive() && session.isValid()) // FIXED: Added validity check
                     .map(session -> {
                         Map<String, Object> sessionMap = new HashMap<>();
@@ -603,6 +531,33 @@ public class VideoMeetingController {
         }
     }
 
+    @GetMapping("/meetings/{meetingId}/participant-count")
+    public ResponseEntity<Map<String, Object>> getParticipantCount(@PathVariable String meetingId) {
+        try {
+            Optional<List<AttendanceSession>> sessionsOpt = videoMeetingService.getLiveAttendanceSessions(meetingId);
+            if (sessionsOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            List<AttendanceSession> sessions = sessionsOpt.get();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("meetingId", meetingId);
+            response.put("activeSessions", sessions.size());
+            response.put("participantCount", sessions.stream()
+                    .map(AttendanceSession::getUserId)
+                    .distinct()
+                    .count());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("Error getting participant count for meeting {}: {}", meetingId, e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to get participant count");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @GetMapping("/meetings/{meetingId}/attendance")
     public ResponseEntity<List<AttendanceSession>> getMeetingAttendance(@PathVariable String meetingId) {
         try {
@@ -633,29 +588,12 @@ public class VideoMeetingController {
 
             log.debug("Received heartbeat for meeting: {}, session: {}", meetingId, sessionId);
 
-            Optional<Meeting> meetingOpt = videoMeetingService.getMeetingById(meetingId);
-            if (meetingOpt.isEmpty()) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Meeting not found");
+            // Absorbed by the presence registry; the database is only consulted for unknown sessions
+            Map<String, Object> response = videoMeetingService.heartbeat(meetingId, sessionId);
+            if ("session_not_found".equals(response.get("status")) && !meetingRepository.existsById(meetingId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            Meeting meeting = meetingOpt.get();
-            Optional<AttendanceSession> sessionOpt = meeting.getAttendanceSessions().stream()
-                    .filter(session -> session.getId().equals(sessionId))
-                    .filter(AttendanceSession::isActive)
-                    .findFirst();
-
-            Map<String, Object> response = new HashMap<>();
-            if (sessionOpt.isPresent()) {
-                response.put("status", "success");
-                response.put("sessionId", sessionId);
-                response.put("currentDuration", sessionOpt.get().getCurrentDurationSeconds());
-            } else {
-                response.put("status", "session_not_found");
-                response.put("sessionId", sessionId);
-            }
-
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.warn("Heartbeat failed for meeting {}: {}", meetingId, e.getMessage());
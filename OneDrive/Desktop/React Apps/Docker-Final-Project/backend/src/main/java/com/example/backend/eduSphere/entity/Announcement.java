@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "announcements")
+@CompoundIndex(name = "audience", def = "{'targetAudienceType': 1, 'targetCourseId': 1, 'targetUserId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "target_user", def = "{'targetUserId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "creator", def = "{'creatorId': 1, 'createdAt': -1}")
 public class Announcement {
 
     @Id
@@ -2,6 +2,9 @@ package com.example.backend.eduSphere.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -14,6 +17,10 @@ import java.util.List;
  */
 @Data
 @Document(collection = "assignments")
+@CompoundIndexes({
+        @CompoundIndex(name = "course_due", def = "{'course': 1, 'due_date': 1}"),
+        @CompoundIndex(name = "instructor_due", def = "{'instructor_id': 1, 'due_date': 1}")
+})
 public class Assignment {
 
     @Id
@@ -24,6 +31,7 @@ public class Assignment {
     private String course;
     private String type; // e.g., "assignment", "test", "exam"
 
+    @Indexed
     @Field("due_date")
     private LocalDate dueDate;
 
@@ -0,0 +1,27 @@
+package com.example.backend.eduSphere.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Secret key of a user's calendar subscription URL. Phone calendar apps cannot send the login
+ * token, so the subscribed feed is looked up by this key instead; revoking it invalidates the URL.
+ */
+@Data
+@Document(collection = "calendar_feed_keys")
+public class CalendarFeedKey {
+
+    @Id
+    private String key;
+
+    @Indexed(unique = true)
+    @Field("user_id")
+    private String userId;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.example.backend.eduSphere.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What a user's calendar feed contained when a sync token was handed out: the content hash of
+ * every item, keyed by UID. A later sync with that token is answered with only the items whose
+ * hash changed plus the UIDs that disappeared. States expire after 30 days, after which the
+ * client gets a full listing again.
+ */
+@Data
+@Document(collection = "calendar_sync_states")
+public class CalendarSyncState {
+
+    @Id
+    private String token;
+
+    @Field("user_id")
+    private String userId;
+
+    private Map<String, String> items = new HashMap<>();
+
+    @Indexed(name = "calendar_sync_state_ttl", expireAfter = "30d")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.example.backend.eduSphere.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's view of one conversation (owner ↔ peer in a chat context), maintained on write
+ * so the inbox, unread badges and context flags never scan chat_messages.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "chat_conversation_summaries")
+@CompoundIndex(name = "owner_peer_context", def = "{'ownerId': 1, 'peerId': 1, 'context': 1}", unique = true)
+@CompoundIndex(name = "owner_inbox", def = "{'ownerId': 1, 'context': 1, 'lastTimestamp': -1}")
+public class ChatConversationSummary {
+
+    @Id
+    private String id;
+
+    private String ownerId; // User whose inbox this entry belongs to
+    private String peerId; // The other participant
+    private String context; // "eduSphere" or "community"
+    private String conversationKey;
+
+    private String lastMessage;
+    private String lastSenderId;
+    private LocalDateTime lastTimestamp;
+
+    private long unreadCount = 0; // Messages from peer not yet read by owner
+    private long messageCount = 0;
+}
@@ -2,18 +2,19 @@ package com.example.backend.eduSphere.entity;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "chat_messages")
+@CompoundIndex(name = "conversation_history", def = "{'conversationKey': 1, 'context': 1, 'timestamp': -1, '_id': -1}")
+@CompoundIndex(name = "unread_by_receiver", def = "{'receiverId': 1, 'context': 1, 'read': 1, 'senderId': 1}")
 public class ChatMessageEntity {
 
     @Id
@@ -38,6 +39,20 @@ public class ChatMessageEntity {
     @NotBlank(message = "Context cannot be blank")
     private String context; // "eduSphere" or "community"
 
+    // Same for both directions of a conversation: "<smaller userId>:<larger userId>"
+    private String conversationKey;
+
+    public ChatMessageEntity(String id, String senderId, String receiverId, String content, LocalDateTime timestamp, boolean read, String context) {
+        this.id = id;
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.content = content;
+        this.timestamp = timestamp;
+        this.read = read;
+        this.context = context;
+        this.conversationKey = conversationKeyOf(senderId, receiverId);
+    }
+
     // Constructor without context (for backward compatibility)
     public ChatMessageEntity(String id, String senderId, String receiverId, String content, LocalDateTime timestamp, boolean read) {
         this.id = id;
@@ -47,5 +62,13 @@ public class ChatMessageEntity {
         this.timestamp = timestamp;
         this.read = read;
         this.context = "eduSphere"; // Default to eduSphere for existing messages
+        this.conversationKey = conversationKeyOf(senderId, receiverId);
+    }
+
+    public static String conversationKeyOf(String userId1, String userId2) {
+        if (userId1 == null || userId2 == null) {
+            return null;
+        }
+        return userId1.compareTo(userId2) <= 0 ? userId1 + ":" + userId2 : userId2 + ":" + userId1;
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.example.backend.eduSphere.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -10,6 +12,7 @@ import java.util.List;
 
 @Data
 @Document(collection = "courses")
+@CompoundIndex(name = "enrolled_students", def = "{'enrollments.studentIds': 1}")
 public class Course {
 
     @Id
@@ -25,6 +28,7 @@ public class Course {
     private Boolean selectable;
 
     @Field("lecturer_id")
+    @Indexed
     private String lecturerId;
 
     private List<YearlyEnrollment> enrollments = new ArrayList<>();
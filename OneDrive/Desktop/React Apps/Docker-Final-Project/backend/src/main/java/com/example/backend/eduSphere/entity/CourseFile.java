@@ -38,6 +38,9 @@ public class CourseFile {
     @Field("size")
     private long size; // File size in bytes
 
+    @Field("content_hash")
+    private String contentHash; // SHA-256 of the stored content (see ContentAddressedStore)
+
     @CreatedDate
     @Field("upload_date")
     @Indexed
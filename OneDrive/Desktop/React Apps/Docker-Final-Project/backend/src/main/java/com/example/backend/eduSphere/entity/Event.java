@@ -2,6 +2,8 @@ package com.example.backend.eduSphere.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -11,6 +13,11 @@ import java.time.LocalTime;
 
 @Data
 @Document(collection = "events")
+@CompoundIndexes({
+        @CompoundIndex(name = "group_range", def = "{'learning_group_id': 1, 'startDate': 1, 'endDate': 1}"),
+        @CompoundIndex(name = "instructor_range", def = "{'instructor_id': 1, 'startDate': 1, 'endDate': 1}"),
+        @CompoundIndex(name = "range", def = "{'startDate': 1, 'endDate': 1}")
+})
 public class Event {
 
     @Id
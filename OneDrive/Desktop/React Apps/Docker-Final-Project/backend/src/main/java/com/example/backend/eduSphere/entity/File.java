@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "files")
+@CompoundIndex(name = "access_value", def = "{'accessType': 1, 'accessValue': 1, 'uploadDate': -1}")
+@CompoundIndex(name = "recipients", def = "{'recipientIds': 1, 'uploadDate': -1}")
 public class File {
 
     @Id
@@ -30,6 +33,7 @@ public class File {
     // File path/URL on the server
     private String fileUrl;
     private String filename; // The unique filename on the server
+    private String contentHash; // SHA-256 of the stored content
 
     // User who uploaded the file
     private String uploadedByUserId;
@@ -30,6 +30,7 @@ public class LecturerResource {
     private String filePath; // The path where the file is stored
     private String mimeType;
     private long size;
+    private String contentHash; // SHA-256 of the stored content
 
     @CreatedDate
     private LocalDateTime uploadDate;
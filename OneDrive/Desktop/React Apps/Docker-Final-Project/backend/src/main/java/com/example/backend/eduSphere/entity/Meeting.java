@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -54,6 +55,9 @@ public class Meeting {
     @LastModifiedDate
     private LocalDateTime updatedAt; // UTC
 
+    @Version
+    private Long version; // Bumped by every attendance update; guards full-document saves
+
     /**
      * Generate a complete invitation link for the meeting
      * This creates a URL that participants can use to join the meeting
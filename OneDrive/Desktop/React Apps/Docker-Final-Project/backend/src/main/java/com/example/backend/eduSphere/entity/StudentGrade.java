@@ -39,6 +39,13 @@ public class StudentGrade {
     @Field("final_letter_grade")
     private String finalLetterGrade; // A, B, C, D, F
 
+    // Unrounded running aggregates, kept so a column weight change can be applied as a delta
+    @Field("weighted_score")
+    private Double weightedScore; // Sum of grade * columnPercentage / 100 over graded columns
+
+    @Field("graded_weight")
+    private Double gradedWeight; // Sum of percentages of the graded columns
+
     @CreatedDate
     private LocalDateTime createdAt;
 
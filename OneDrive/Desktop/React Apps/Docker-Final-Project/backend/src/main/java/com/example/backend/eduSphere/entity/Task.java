@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -18,6 +19,7 @@ import java.util.List;
  */
 @Data
 @Document(collection = "tasks")
+@CompoundIndex(name = "course_due", def = "{'course_id': 1, 'due_date': 1}")
 public class Task {
 
     @Id
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -16,6 +18,11 @@ import java.util.List;
  */
 @Data
 @Document(collection = "task_submissions")
+@CompoundIndexes({
+        @CompoundIndex(name = "course_task", def = "{'course_id': 1, 'task_id': 1}"),
+        // Per-task statistics and the latest-submissions list filter on task_id alone
+        @CompoundIndex(name = "task_submitted", def = "{'task_id': 1, 'submittedAt': -1}")
+})
 public class TaskSubmission {
 
     @Id
@@ -0,0 +1,13 @@
+package com.example.backend.eduSphere.repository;
+
+import com.example.backend.eduSphere.entity.ChatConversationSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ChatConversationSummaryRepository extends MongoRepository<ChatConversationSummary, String> {
+
+    List<ChatConversationSummary> findByOwnerIdAndContextOrderByLastTimestampDesc(String ownerId, String context);
+
+    List<ChatConversationSummary> findByOwnerId(String ownerId);
+}
@@ -1,8 +1,12 @@
 package com.example.backend.eduSphere.repository;
 
 import com.example.backend.eduSphere.entity.ChatMessageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends MongoRepository<ChatMessageEntity, String> {
@@ -62,10 +66,21 @@ public interface ChatMessageRepository extends MongoRepository<ChatMessageEntity
             sort = "{ 'timestamp': -1 }")
     List<ChatMessageEntity> findRecentMessagesByUserIdAndContext(String userId, String context);
 
-    // NEW: Mark messages as read between two users in a specific context
-    @Query("{ '$and': [ " +
-            "  { 'senderId': ?1, 'receiverId': ?0 }, " +
-            "  { 'context': ?2 } " +
-            "] }")
-    List<ChatMessageEntity> findUnreadMessagesFromSenderInContext(String receiverId, String senderId, String context);
-}
\ No newline at end of file
+    // Keyset pagination over a conversation (index: conversationKey, context, timestamp, _id).
+    // Pass a Pageable with page 0, the page size and a sort of timestamp desc, _id desc.
+    @Query("{ 'conversationKey': ?0, 'context': ?1 }")
+    List<ChatMessageEntity> findLatestInConversation(String conversationKey, String context, Pageable pageable);
+
+    @Query("{ 'conversationKey': ?0, 'context': ?1, " +
+            "  '$or': [ " +
+            "    { 'timestamp': { '$lt': ?2 } }, " +
+            "    { 'timestamp': ?2, '_id': { '$lt': ?3 } } " +
+            "  ] }")
+    List<ChatMessageEntity> findInConversationBefore(String conversationKey, String context,
+                                                     LocalDateTime beforeTimestamp, String beforeId,
+                                                     Pageable pageable);
+
+    // Mark every unread message from sender to receiver in a context as read; returns the modified count
+    @Update("{ '$set': { 'read': true } }")
+    long findAndSetReadByReceiverIdAndSenderIdAndContextAndReadFalse(String receiverId, String senderId, String context);
+}
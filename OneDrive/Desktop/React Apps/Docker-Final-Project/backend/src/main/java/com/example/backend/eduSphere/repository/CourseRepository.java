@@ -2,6 +2,7 @@ package com.example.backend.eduSphere.repository;
 
 import com.example.backend.eduSphere.entity.Course;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -22,4 +23,11 @@ public interface CourseRepository extends MongoRepository<Course, String> {
 
     // Finds all courses taught by a specific lecturer in a specific department
     List<Course> findByLecturerIdAndDepartment(String lecturerId, String department);
-}
\ No newline at end of file
+
+    // Id and department only, for per-user access scopes
+    @Query(value = "{ 'lecturer_id': ?0 }", fields = "{ 'department': 1 }")
+    List<Course> findScopeByLecturerId(String lecturerId);
+
+    @Query(value = "{ 'enrollments.studentIds': ?0 }", fields = "{ 'department': 1 }")
+    List<Course> findScopeByStudentId(String studentId);
+}
@@ -5,12 +5,15 @@ import com.example.backend.eduSphere.dto.response.AnnouncementResponse;
 import com.example.backend.eduSphere.dto.response.CourseDto; // We'll need a DTO for courses
 import com.example.backend.eduSphere.dto.response.DepartmentDto; // And for departments
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AnnouncementService {
 
     List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole);
 
+    List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole, LocalDateTime before, int limit);
+
     List<AnnouncementResponse> getMyAnnouncements(String userId);
 
     AnnouncementResponse getAnnouncementById(String announcementId);
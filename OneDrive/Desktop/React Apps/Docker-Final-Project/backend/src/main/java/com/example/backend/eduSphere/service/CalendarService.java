@@ -10,6 +10,9 @@ public interface CalendarService {
 
     List<CalendarEventDto> getCalendarEventsForUser(LocalDate weekStartDate, CalendarFilterDto filters);
 
+    // Any range up to a year (e.g. a month or a semester), both ends inclusive
+    List<CalendarEventDto> getCalendarEventsForUser(LocalDate from, LocalDate to, CalendarFilterDto filters);
+
     Event createEvent(Event event);
     void deleteEvent(String eventId);
     Event getEventById(String eventId);
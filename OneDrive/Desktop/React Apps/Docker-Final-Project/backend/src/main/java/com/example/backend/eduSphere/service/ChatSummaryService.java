@@ -0,0 +1,38 @@
+package com.example.backend.eduSphere.service;
+
+import com.example.backend.eduSphere.entity.ChatConversationSummary;
+import com.example.backend.eduSphere.entity.ChatMessageEntity;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ChatSummaryService {
+
+    /**
+     * Update both participants' conversation summaries for a newly saved message
+     */
+    void recordMessage(ChatMessageEntity message);
+
+    /**
+     * Reset the receiver's unread count for the conversation with the sender
+     */
+    void markConversationRead(String receiverId, String senderId, String context);
+
+    /**
+     * The user's conversations in a context, most recent first
+     */
+    List<ChatConversationSummary> getInbox(String userId, String context);
+
+    long getUnreadCount(String userId, String context);
+
+    /**
+     * Per-context flags and message counts for the user
+     */
+    Map<String, Object> getContextStats(String userId);
+
+    /**
+     * Rebuild all summaries from chat_messages (one aggregation, one bulk write)
+     * @return Number of summaries written
+     */
+    int rebuildAll();
+}
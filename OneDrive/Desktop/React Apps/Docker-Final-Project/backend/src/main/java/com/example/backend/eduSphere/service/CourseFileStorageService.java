@@ -3,6 +3,8 @@ package com.example.backend.eduSphere.service;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
+
 public interface CourseFileStorageService {
 
     /**
@@ -19,12 +21,26 @@ public interface CourseFileStorageService {
      */
     Resource loadFileAsResource(String filename);
 
+    /**
+     * Resolves a stored file to its path on disk, for streaming and range requests.
+     * @param filename The unique name of the file to load.
+     * @return The path of the existing, readable file.
+     */
+    Path loadFilePath(String filename);
+
     /**
      * Deletes a file from the server.
      * @param filename The unique name of the file to delete.
      */
     void deleteFile(String filename);
 
+    /**
+     * Gets the SHA-256 of a stored file's content.
+     * @param filename The unique name of the file.
+     * @return The hex content hash, or null if the file is not in the content store.
+     */
+    String getContentHash(String filename);
+
     /**
      * Checks if a file exists on the server.
      * @param filename The unique name of the file to check.
@@ -13,6 +13,8 @@ public interface FileService {
 
     List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment);
 
+    List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment, Integer page, int size);
+
     FileResponse getFileMetadata(String fileId);
 
     void deleteFile(String fileId, String deleterId, String userRole);
@@ -6,6 +6,7 @@ import com.example.backend.eduSphere.entity.GradeColumn;
 import com.example.backend.eduSphere.entity.StudentGrade;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface GradeService {
@@ -22,6 +23,12 @@ public interface GradeService {
     Double calculateFinalGrade(String studentId, String courseId);
     String calculateLetterGrade(Double percentage);
 
+    /**
+     * Applies a grade sheet of {studentId, columnId, grade} cells in one bulk write.
+     * Returns counts plus the per-cell errors; valid cells are applied even if others fail.
+     */
+    Map<String, Object> bulkUpdateGrades(List<?> cells);
+
     List<GradeResponseDto> getGradesByStudentId(String studentId);
     GradeResponseDto addGrade(GradeRequestDto gradeDto);
     GradeResponseDto updateGrade(String gradeId, GradeRequestDto gradeDto);
@@ -56,10 +56,10 @@ public interface TaskService {
 
     void removeFileFromTask(String taskId, String instructorId);
 
-    // Batch operations
-    void updateTaskVisibility(String courseId, List<String> taskIds, boolean visible, String instructorId);
+    // Batch operations (return the number of tasks changed)
+    int updateTaskVisibility(String courseId, List<String> taskIds, boolean visible, String instructorId);
 
-    void updateTaskStatus(String courseId, List<String> taskIds, String status, String instructorId);
+    int updateTaskStatus(String courseId, List<String> taskIds, String status, String instructorId);
 
     // Validation
     boolean canUserAccessTask(String taskId, String userId, String userRole);
@@ -5,6 +5,7 @@ import com.example.backend.eduSphere.dto.request.UseTemplateRequest;
 import com.example.backend.eduSphere.dto.response.TemplateResponse;
 
 import java.util.List;
+import java.util.Map;
 
 public interface TemplateService {
 
@@ -21,6 +22,8 @@ public interface TemplateService {
     // 🆕 UPDATED: Added deleterId
     void deleteTemplate(String templateId, String deleterId);
 
-    // 🆕 UPDATED: Added creatorId and creatorName
-    void useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName);
+    // 🆕 UPDATED: Added creatorId and creatorName; sends in the background and returns the fan-out job
+    Map<String, Object> useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName);
+
+    Map<String, Object> getFanOutJob(String jobId);
 }
\ No newline at end of file
@@ -73,6 +73,37 @@ public interface VideoMeetingService {
      */
     Map<String, Object> leaveMeeting(String meetingId, String sessionId);
 
+    /**
+     * Resume an attendance session that was left (clears its leave time)
+     * @param meetingId Meeting ID
+     * @param sessionId Attendance session ID
+     * @return Resumed session information
+     */
+    Map<String, Object> resumeAttendanceSession(String meetingId, String sessionId);
+
+    /**
+     * Heartbeat of a participant's attendance session
+     * @param meetingId Meeting ID
+     * @param sessionId Attendance session ID
+     * @return Heartbeat status and current session duration
+     */
+    Map<String, Object> heartbeat(String meetingId, String sessionId);
+
+    /**
+     * Currently active attendance sessions of a meeting, served from live presence
+     * @param meetingId Meeting ID
+     * @return Active sessions, or empty if the meeting does not exist
+     */
+    Optional<List<AttendanceSession>> getLiveAttendanceSessions(String meetingId);
+
+    /**
+     * Find a single attendance session of a meeting
+     * @param meetingId Meeting ID
+     * @param sessionId Attendance session ID
+     * @return Attendance session if found
+     */
+    Optional<AttendanceSession> findAttendanceSession(String meetingId, String sessionId);
+
     /**
      * Get meeting attendance records
      * @param meetingId Meeting ID
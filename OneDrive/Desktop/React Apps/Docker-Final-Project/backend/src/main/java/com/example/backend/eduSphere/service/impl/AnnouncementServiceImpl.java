@@ -12,13 +12,19 @@ import com.example.backend.eduSphere.repository.DepartmentRepository;
 import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.eduSphere.service.AnnouncementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,6 +32,9 @@ import java.util.stream.Stream;
 @Service
 public class AnnouncementServiceImpl implements AnnouncementService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
     @Autowired
     private AnnouncementRepository announcementRepository;
     @Autowired
@@ -34,44 +43,79 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     private DepartmentRepository departmentRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private UserCourseScopeCache courseScopeCache;
+    @Autowired
+    private BroadcastAnnouncementCache broadcastCache;
 
     @Override
     public List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole) {
-        Set<Announcement> announcementsSet = new HashSet<>();
+        return getAnnouncementsForUser(userId, userRole, null, 0);
+    }
 
-        if ("1100".equals(userRole)) { // Admin
-            announcementsSet.addAll(announcementRepository.findAll());
-        } else if ("1200".equals(userRole)) { // Lecturer
-            announcementsSet.addAll(announcementRepository.findByCreatorIdOrderByCreatedAtDesc(userId));
+    /**
+     * Announcements visible to the user, newest first. Broadcast ("all" and role) announcements
+     * come from the shared cache; only the user's own slice (their courses, announcements
+     * addressed to them and, for lecturers, their own) is queried, with a single $or query.
+     * With a positive limit, returns at most that many created before {@code before}.
+     */
+    @Override
+    public List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole, LocalDateTime before, int limit) {
+        int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : 0;
 
-            List<String> lecturerCourses = courseRepository.findByLecturerId(userId).stream()
-                    .map(Course::getId)
+        if ("1100".equals(userRole)) { // Admin
+            Query query = new Query(createdBefore(new Criteria(), before)).with(NEWEST_FIRST).limit(pageSize);
+            return mongoTemplate.find(query, Announcement.class).stream()
+                    .map(this::mapToResponse)
                     .collect(Collectors.toList());
-            announcementsSet.addAll(announcementRepository.findByTargetAudienceTypeAndTargetCourseIdIn("course", lecturerCourses));
+        }
 
-            announcementsSet.addAll(announcementRepository.findByTargetAudienceType("all"));
-            announcementsSet.addAll(announcementRepository.findByTargetAudienceType("lecturer"));
-            announcementsSet.addAll(announcementRepository.findByTargetUserId(userId));
+        String roleAudience;
+        if ("1200".equals(userRole)) { // Lecturer
+            roleAudience = "lecturer";
         } else if ("1300".equals(userRole)) { // Student
-            List<Course> enrolledCourses = courseRepository.findByEnrollments_StudentIds(userId);
-
-            announcementsSet.addAll(announcementRepository.findByTargetAudienceType("all"));
-            announcementsSet.addAll(announcementRepository.findByTargetAudienceType("student"));
-
-            List<String> enrolledCourseIds = enrolledCourses.stream().map(Course::getId).collect(Collectors.toList());
-            if (!enrolledCourseIds.isEmpty()) {
-                announcementsSet.addAll(announcementRepository.findByTargetAudienceTypeAndTargetCourseIdIn("course", enrolledCourseIds));
-            }
+            roleAudience = "student";
+        } else {
+            return new ArrayList<>();
+        }
 
-            announcementsSet.addAll(announcementRepository.findByTargetUserId(userId));
+        List<Criteria> slice = new ArrayList<>();
+        Set<String> courseIds = courseScopeCache.get(userId, userRole).courseIds();
+        if (!courseIds.isEmpty()) {
+            slice.add(Criteria.where("targetAudienceType").is("course").and("targetCourseId").in(courseIds));
+        }
+        slice.add(Criteria.where("targetUserId").is(userId));
+        if ("lecturer".equals(roleAudience)) {
+            slice.add(Criteria.where("creatorId").is(userId));
         }
 
-        return announcementsSet.stream()
+        Query query = new Query(createdBefore(new Criteria().orOperator(slice), before)).with(NEWEST_FIRST).limit(pageSize);
+        List<Announcement> own = mongoTemplate.find(query, Announcement.class);
+
+        // Merge with the cached broadcasts; an announcement can match several sources
+        Map<String, Announcement> merged = new LinkedHashMap<>();
+        Stream.of(broadcastCache.get("all"), broadcastCache.get(roleAudience), own)
+                .flatMap(List::stream)
+                .filter(announcement -> before == null
+                        || (announcement.getCreatedAt() != null && announcement.getCreatedAt().isBefore(before)))
+                .forEach(announcement -> merged.putIfAbsent(announcement.getId(), announcement));
+
+        Stream<Announcement> newestFirst = merged.values().stream()
+                .sorted(Comparator.comparing(Announcement::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        if (pageSize > 0) {
+            newestFirst = newestFirst.limit(pageSize);
+        }
+        return newestFirst
                 .map(this::mapToResponse)
-                .sorted((a1, a2) -> a2.getCreatedAt().compareTo(a1.getCreatedAt()))
                 .collect(Collectors.toList());
     }
 
+    private static Criteria createdBefore(Criteria criteria, LocalDateTime before) {
+        return before == null ? criteria : new Criteria().andOperator(criteria, Criteria.where("createdAt").lt(before));
+    }
+
     @Override
     public List<AnnouncementResponse> getMyAnnouncements(String userId) {
         List<Announcement> announcements = announcementRepository.findByCreatorIdOrderByCreatedAtDesc(userId);
@@ -105,6 +149,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setTargetUserId(announcementRequest.getTargetUserId());
 
         Announcement savedAnnouncement = announcementRepository.save(announcement);
+        broadcastCache.invalidate();
         return mapToResponse(savedAnnouncement);
     }
 
@@ -131,6 +176,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         existingAnnouncement.setUpdatedAt(LocalDateTime.now());
 
         Announcement updatedAnnouncement = announcementRepository.save(existingAnnouncement);
+        broadcastCache.invalidate();
         return mapToResponse(updatedAnnouncement);
     }
 
@@ -163,6 +209,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         newAnnouncement.setUpdatedAt(LocalDateTime.now());
 
         Announcement savedAnnouncement = announcementRepository.save(newAnnouncement);
+        broadcastCache.invalidate();
         return mapToResponse(savedAnnouncement);
     }
 
@@ -176,6 +223,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         }
 
         announcementRepository.delete(announcement);
+        broadcastCache.invalidate();
     }
 
     @Override
@@ -0,0 +1,78 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Announcement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast announcements ("all", "lecturer", "student" audiences), newest first, shared by every
+ * user's announcement feed. Loaded with one query and kept for a short TTL;
+ * {@link AnnouncementServiceImpl} invalidates it whenever an announcement is written.
+ */
+@Component
+public class BroadcastAnnouncementCache {
+
+    public static final List<String> BROADCAST_AUDIENCES = List.of("all", "lecturer", "student");
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlMillis;
+
+    private volatile Snapshot snapshot;
+
+    public BroadcastAnnouncementCache(MongoTemplate mongoTemplate,
+                                      @Value("${app.announcements.broadcast-cache-ttl-ms:30000}") long ttlMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Announcements of one broadcast audience, newest first (unmodifiable)
+     */
+    public List<Announcement> get(String audienceType) {
+        Snapshot current = snapshot;
+        if (isStale(current)) {
+            synchronized (this) {
+                current = snapshot;
+                if (isStale(current)) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current.byAudience.getOrDefault(audienceType, List.of());
+    }
+
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private boolean isStale(Snapshot current) {
+        return current == null || System.currentTimeMillis() - current.loadedAtMillis > ttlMillis;
+    }
+
+    private Snapshot load() {
+        Query query = new Query(Criteria.where("targetAudienceType").in(BROADCAST_AUDIENCES))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Map<String, List<Announcement>> grouped = new HashMap<>();
+        for (Announcement announcement : mongoTemplate.find(query, Announcement.class)) {
+            grouped.computeIfAbsent(announcement.getTargetAudienceType(), type -> new ArrayList<>()).add(announcement);
+        }
+
+        Map<String, List<Announcement>> byAudience = new HashMap<>();
+        grouped.forEach((type, announcements) -> byAudience.put(type, List.copyOf(announcements)));
+        return new Snapshot(byAudience, System.currentTimeMillis());
+    }
+
+    private record Snapshot(Map<String, List<Announcement>> byAudience, long loadedAtMillis) {
+    }
+}
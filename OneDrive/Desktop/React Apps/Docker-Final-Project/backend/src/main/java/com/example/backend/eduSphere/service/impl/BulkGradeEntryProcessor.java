@@ -0,0 +1,350 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.GradeColumn;
+import com.example.backend.eduSphere.entity.StudentGrade;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a grade sheet (a list of studentId / columnId / grade cells) in one pass.
+ *
+ * Every cell is validated up front against the referenced columns, which are loaded with a
+ * single query together with the active columns of their courses. The affected grade records
+ * are read with one more query, updated and recomputed in memory, and written back with a
+ * single unordered bulk write: one update (or upsert for students without a record) per
+ * student, touching only the entered grades plus the final grade aggregates. Invalid cells and
+ * failed writes are reported per cell; the rest of the sheet is still applied.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkGradeEntryProcessor {
+
+    public static final int MAX_CELLS = 20_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final GradeRecalculationEngine gradeRecalculationEngine;
+
+    public Map<String, Object> apply(List<?> cells) {
+        if (cells.size() > MAX_CELLS) {
+            throw new RuntimeException("A bulk update accepts at most " + MAX_CELLS + " cells, got " + cells.size());
+        }
+
+        long startedAt = System.currentTimeMillis();
+        List<Map<String, Object>> errors = new ArrayList<>();
+
+        List<GradeCell> parsed = new ArrayList<>(cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            GradeCell cell = parseCell(i, cells.get(i), errors);
+            if (cell != null) {
+                parsed.add(cell);
+            }
+        }
+
+        Set<String> columnIds = new HashSet<>();
+        for (GradeCell cell : parsed) {
+            columnIds.add(cell.columnId());
+        }
+        Map<String, GradeColumn> columnsById = loadColumns(columnIds);
+
+        // courseId -> studentId -> columnId -> cell; a later cell for the same grade wins
+        Map<String, Map<String, Map<String, GradeCell>>> sheet = new LinkedHashMap<>();
+        Set<String> studentIds = new HashSet<>();
+        int validCells = 0;
+
+        for (GradeCell cell : parsed) {
+            GradeColumn column = columnsById.get(cell.columnId());
+            if (column == null) {
+                errors.add(cellError(cell, "Grade column not found: " + cell.columnId()));
+                continue;
+            }
+            if (Boolean.FALSE.equals(column.getIsActive())) {
+                errors.add(cellError(cell, "Cannot update grade for inactive column: " + cell.columnId()));
+                continue;
+            }
+            sheet.computeIfAbsent(column.getCourseId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(cell.studentId(), id -> new LinkedHashMap<>())
+                    .put(cell.columnId(), cell);
+            studentIds.add(cell.studentId());
+            validCells++;
+        }
+
+        int studentsUpdated = 0;
+        int recordsCreated = 0;
+        int failedWrites = 0;
+
+        if (!sheet.isEmpty()) {
+            Map<String, List<GradeColumn>> activeColumnsByCourse = loadActiveColumns(sheet.keySet());
+            Map<String, List<StudentGrade>> recordsByStudentAndCourse = loadRecords(sheet.keySet(), studentIds);
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StudentGrade.class);
+            // Cells behind each queued operation, by operation index, to report write errors per cell
+            List<Collection<GradeCell>> cellsByOperation = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+
+            for (Map.Entry<String, Map<String, Map<String, GradeCell>>> course : sheet.entrySet()) {
+                String courseId = course.getKey();
+                List<GradeColumn> activeColumns = activeColumnsByCourse.getOrDefault(courseId, List.of());
+
+                for (Map.Entry<String, Map<String, GradeCell>> student : course.getValue().entrySet()) {
+                    String studentId = student.getKey();
+                    Collection<GradeCell> studentCells = student.getValue().values();
+
+                    List<StudentGrade> existing = recordsByStudentAndCourse.getOrDefault(recordKey(studentId, courseId), List.of());
+                    StudentGrade record = existing.isEmpty() ? newRecord(studentId, courseId) : mergeDuplicates(existing);
+                    boolean merged = existing.size() > 1;
+
+                    if (merged) {
+                        List<String> duplicateIds = new ArrayList<>();
+                        for (StudentGrade duplicate : existing) {
+                            if (!duplicate.getId().equals(record.getId())) {
+                                duplicateIds.add(duplicate.getId());
+                            }
+                        }
+                        bulkOps.remove(Query.query(Criteria.where("_id").in(duplicateIds)));
+                        cellsByOperation.add(studentCells);
+                    }
+
+                    Update update = new Update();
+                    for (GradeCell cell : studentCells) {
+                        if (cell.grade() == null) {
+                            record.removeGrade(cell.columnId());
+                            if (!merged) {
+                                update.unset("grades." + cell.columnId());
+                            }
+                        } else {
+                            record.setGrade(cell.columnId(), cell.grade());
+                            if (!merged) {
+                                update.set("grades." + cell.columnId(), cell.grade());
+                            }
+                        }
+                    }
+                    if (merged) {
+                        // The surviving record takes over the grades of the removed duplicates
+                        update.set("grades", record.getGrades());
+                    }
+
+                    gradeRecalculationEngine.recomputeRecord(record, activeColumns);
+                    update.set("weightedScore", record.getWeightedScore())
+                            .set("gradedWeight", record.getGradedWeight())
+                            .set("finalGrade", record.getFinalGrade())
+                            .set("finalLetterGrade", record.getFinalLetterGrade())
+                            .set("updatedAt", now);
+
+                    if (record.getId() == null) {
+                        update.setOnInsert("createdAt", now);
+                        bulkOps.upsert(Query.query(Criteria.where("studentId").is(studentId).and("courseId").is(courseId)), update);
+                    } else {
+                        bulkOps.updateOne(Query.query(Criteria.where("_id").is(record.getId())), update);
+                    }
+                    cellsByOperation.add(studentCells);
+                    studentsUpdated++;
+                }
+            }
+
+            try {
+                BulkWriteResult result = bulkOps.execute();
+                recordsCreated = result.getUpserts().size();
+            } catch (BulkOperationException e) {
+                recordsCreated = e.getResult().getUpserts().size();
+                Set<Integer> failedOperations = new HashSet<>();
+                for (BulkWriteError writeError : e.getErrors()) {
+                    if (!failedOperations.add(writeError.getIndex())) {
+                        continue;
+                    }
+                    Collection<GradeCell> failed = cellsByOperation.get(writeError.getIndex());
+                    for (GradeCell cell : failed) {
+                        errors.add(cellError(cell, "Write failed: " + writeError.getMessage()));
+                    }
+                    failedWrites += failed.size();
+                }
+            }
+        }
+
+        long durationMs = System.currentTimeMillis() - startedAt;
+        int applied = Math.max(0, validCells - failedWrites);
+
+        System.out.println("📝 Bulk grade entry: " + applied + "/" + cells.size() + " cells applied for " +
+                studentsUpdated + " students in " + sheet.size() + " course(s), " + errors.size() +
+                " errors, " + durationMs + " ms");
+
+        errors.sort((a, b) -> Integer.compare((Integer) a.get("index"), (Integer) b.get("index")));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("processed", cells.size());
+        response.put("applied", applied);
+        response.put("failed", errors.size());
+        response.put("studentsUpdated", studentsUpdated);
+        response.put("recordsCreated", recordsCreated);
+        response.put("errors", errors);
+        response.put("durationMs", durationMs);
+        return response;
+    }
+
+    private GradeCell parseCell(int index, Object raw, List<Map<String, Object>> errors) {
+        if (!(raw instanceof Map<?, ?> cell)) {
+            errors.add(error(index, null, null, "Each cell must be an object with studentId, columnId and grade"));
+            return null;
+        }
+
+        String studentId = cell.get("studentId") instanceof String value ? value.trim() : null;
+        String columnId = cell.get("columnId") instanceof String value ? value.trim() : null;
+
+        if (studentId == null || studentId.isEmpty()) {
+            errors.add(error(index, null, columnId, "studentId is required"));
+            return null;
+        }
+        if (columnId == null || columnId.isEmpty()) {
+            errors.add(error(index, studentId, null, "columnId is required"));
+            return null;
+        }
+
+        Double grade;
+        try {
+            grade = parseGrade(cell.get("grade"));
+        } catch (IllegalArgumentException e) {
+            errors.add(error(index, studentId, columnId, e.getMessage()));
+            return null;
+        }
+        return new GradeCell(index, studentId, columnId, grade);
+    }
+
+    /**
+     * Same rules as the single-grade endpoint: numbers or numeric strings between 0 and 100;
+     * null, an empty string or "null" removes the grade.
+     */
+    static Double parseGrade(Object value) {
+        Double grade;
+        if (value == null) {
+            return null;
+        } else if (value instanceof Number number) {
+            grade = number.doubleValue();
+        } else if (value instanceof String text) {
+            String trimmed = text.trim();
+            if (trimmed.isEmpty() || "null".equalsIgnoreCase(trimmed)) {
+                return null;
+            }
+            try {
+                grade = Double.parseDouble(trimmed);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid grade format: '" + text + "'");
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported grade type: " + value.getClass().getSimpleName());
+        }
+
+        if (!(grade >= 0 && grade <= 100)) {
+            throw new IllegalArgumentException("Grade must be between 0 and 100, got: " + grade);
+        }
+        return grade;
+    }
+
+    private Map<String, GradeColumn> loadColumns(Set<String> columnIds) {
+        Map<String, GradeColumn> columnsById = new HashMap<>();
+        if (columnIds.isEmpty()) {
+            return columnsById;
+        }
+        for (GradeColumn column : mongoTemplate.find(Query.query(Criteria.where("_id").in(columnIds)), GradeColumn.class)) {
+            columnsById.put(column.getId(), column);
+        }
+        return columnsById;
+    }
+
+    private Map<String, List<GradeColumn>> loadActiveColumns(Set<String> courseIds) {
+        Query query = Query.query(Criteria.where("courseId").in(courseIds).and("isActive").is(true));
+        Map<String, List<GradeColumn>> byCourse = new HashMap<>();
+        for (GradeColumn column : mongoTemplate.find(query, GradeColumn.class)) {
+            byCourse.computeIfAbsent(column.getCourseId(), id -> new ArrayList<>()).add(column);
+        }
+        return byCourse;
+    }
+
+    private Map<String, List<StudentGrade>> loadRecords(Set<String> courseIds, Set<String> studentIds) {
+        Query query = Query.query(Criteria.where("courseId").in(courseIds).and("studentId").in(studentIds));
+        Map<String, List<StudentGrade>> byStudentAndCourse = new HashMap<>();
+        for (StudentGrade record : mongoTemplate.find(query, StudentGrade.class)) {
+            byStudentAndCourse.computeIfAbsent(recordKey(record.getStudentId(), record.getCourseId()),
+                    key -> new ArrayList<>()).add(record);
+        }
+        return byStudentAndCourse;
+    }
+
+    private static String recordKey(String studentId, String courseId) {
+        return courseId + ":" + studentId;
+    }
+
+    private static StudentGrade newRecord(String studentId, String courseId) {
+        StudentGrade record = new StudentGrade();
+        record.setStudentId(studentId);
+        record.setCourseId(courseId);
+        record.setGrades(new HashMap<>());
+        return record;
+    }
+
+    /**
+     * Keeps the most recently updated record, filling in grades only the duplicates have
+     * (as the single-grade update does)
+     */
+    private static StudentGrade mergeDuplicates(List<StudentGrade> records) {
+        StudentGrade primary = records.get(0);
+        for (StudentGrade record : records) {
+            if (record.getUpdatedAt() != null
+                    && (primary.getUpdatedAt() == null || record.getUpdatedAt().isAfter(primary.getUpdatedAt()))) {
+                primary = record;
+            }
+        }
+
+        Map<String, Double> grades = new HashMap<>();
+        for (StudentGrade record : records) {
+            if (record != primary && record.getGrades() != null) {
+                record.getGrades().forEach((columnId, grade) -> {
+                    if (grade != null) {
+                        grades.put(columnId, grade);
+                    }
+                });
+            }
+        }
+        if (primary.getGrades() != null) {
+            primary.getGrades().forEach((columnId, grade) -> {
+                if (grade != null) {
+                    grades.put(columnId, grade);
+                }
+            });
+        }
+        primary.setGrades(grades);
+        return primary;
+    }
+
+    private static Map<String, Object> cellError(GradeCell cell, String message) {
+        return error(cell.index(), cell.studentId(), cell.columnId(), message);
+    }
+
+    private static Map<String, Object> error(int index, String studentId, String columnId, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("index", index);
+        error.put("studentId", studentId);
+        error.put("columnId", columnId);
+        error.put("error", message);
+        return error;
+    }
+
+    private record GradeCell(int index, String studentId, String columnId, Double grade) {
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Assignment;
+import com.example.backend.eduSphere.entity.CalendarFeedKey;
+import com.example.backend.eduSphere.entity.CalendarSyncState;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.Event;
+import com.example.backend.eduSphere.entity.Meeting;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import com.example.backend.eduSphere.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user iCalendar feed with conditional requests and incremental sync.
+ *
+ * The feed holds the user's weekly event rules (as RRULEs), assignment due dates and meetings
+ * from {@code app.calendar.feed.past-days} ago onwards, scoped by role like the calendar view.
+ * Every item is rendered once and hashed; the sorted item hashes give the feed's sync token,
+ * which doubles as its (weak) ETag. The last token of each user is kept for a short TTL, so a
+ * poll with a matching If-None-Match is answered 304 without touching the database, and after
+ * that without rendering or sending the body. The delta endpoint compares the current item
+ * hashes with those stored for the client's token and returns only what changed.
+ */
+@Component
+public class CalendarFeedService {
+
+    public static final String CONTENT_TYPE = "text/calendar; charset=UTF-8";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, CachedTag> tags = new ConcurrentHashMap<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final ZoneId zone;
+    private final int pastDays;
+    private final long tagTtlMillis;
+    private final int maxCachedTags;
+
+    public CalendarFeedService(MongoTemplate mongoTemplate,
+                               CourseRepository courseRepository,
+                               UserRepository userRepository,
+                               @Value("${app.calendar.time-zone:}") String timeZone,
+                               @Value("${app.calendar.feed.past-days:180}") int pastDays,
+                               @Value("${app.calendar.feed.etag-cache.ttl-seconds:60}") long tagTtlSeconds,
+                               @Value("${app.calendar.feed.etag-cache.max-size:10000}") int maxCachedTags) {
+        this.mongoTemplate = mongoTemplate;
+        this.courseRepository = courseRepository;
+        this.userRepository = userRepository;
+        this.zone = timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+        this.pastDays = pastDays;
+        this.tagTtlMillis = tagTtlSeconds * 1000L;
+        this.maxCachedTags = maxCachedTags;
+    }
+
+    /**
+     * Writes the user's feed as text/calendar, or 304 if the client's If-None-Match still matches
+     */
+    public void serve(UserEntity user, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        CachedTag cached = tags.get(user.getId());
+        if (cached != null && cached.expiresAt > System.currentTimeMillis() && matches(ifNoneMatch, cached.etag)) {
+            response.setHeader(HttpHeaders.ETAG, cached.etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        FeedSnapshot snapshot = snapshot(user);
+        String etag = etag(snapshot.syncToken);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (matches(ifNoneMatch, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"calendar.ics\"");
+        writeCalendar(snapshot, user, response.getWriter());
+    }
+
+    /**
+     * Items changed since {@code syncToken}: every item whose content differs (or is new) as a
+     * VEVENT, plus the UIDs that are gone. Without a token, or with one that is unknown or
+     * expired, all items are returned and {@code fullSync} is true.
+     */
+    public Map<String, Object> changesSince(UserEntity user, String syncToken) {
+        FeedSnapshot snapshot = snapshot(user);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("syncToken", snapshot.syncToken);
+
+        if (snapshot.syncToken.equals(syncToken)) {
+            result.put("fullSync", false);
+            result.put("changed", List.of());
+            result.put("removed", List.of());
+            return result;
+        }
+
+        CalendarSyncState previous = syncToken == null || syncToken.isBlank()
+                ? null
+                : mongoTemplate.findById(syncToken, CalendarSyncState.class);
+        if (previous != null && !user.getId().equals(previous.getUserId())) {
+            previous = null;
+        }
+        storeState(user, snapshot);
+
+        Map<String, String> before = previous == null ? Map.of() : previous.getItems();
+        String stamp = ICalendarFormat.utc(LocalDateTime.now(ZoneOffset.UTC));
+
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (FeedItem item : snapshot.items) {
+            if (!item.hash.equals(before.get(item.uid))) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("uid", item.uid);
+                entry.put("data", render(item, stamp));
+                changed.add(entry);
+            }
+        }
+        Set<String> current = snapshot.items.stream().map(FeedItem::uid).collect(Collectors.toSet());
+        List<String> removed = before.keySet().stream()
+                .filter(uid -> !current.contains(uid))
+                .sorted()
+                .collect(Collectors.toList());
+
+        result.put("fullSync", previous == null);
+        result.put("changed", changed);
+        result.put("removed", removed);
+        if (previous == null) {
+            result.put("timezone", String.join("\r\n", ICalendarFormat.timezone(zone)) + "\r\n");
+        }
+        return result;
+    }
+
+    /**
+     * The user's subscription key, created on first use
+     */
+    public String subscriptionKey(UserEntity user) {
+        CalendarFeedKey existing = mongoTemplate.findOne(
+                new Query(Criteria.where("userId").is(user.getId())), CalendarFeedKey.class);
+        if (existing != null) {
+            return existing.getKey();
+        }
+
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        CalendarFeedKey key = new CalendarFeedKey();
+        key.setKey(Base64.getUrlEncoder().withoutPadding().encodeToString(secret));
+        key.setUserId(user.getId());
+        key.setCreatedAt(LocalDateTime.now());
+        try {
+            return mongoTemplate.insert(key).getKey();
+        } catch (DuplicateKeyException e) {
+            // Created by a concurrent request of the same user
+            return mongoTemplate.findOne(
+                    new Query(Criteria.where("userId").is(user.getId())), CalendarFeedKey.class).getKey();
+        }
+    }
+
+    public void revokeSubscription(UserEntity user) {
+        mongoTemplate.remove(new Query(Criteria.where("userId").is(user.getId())), CalendarFeedKey.class);
+    }
+
+    /**
+     * Owner of a subscription key, or null if the key does not exist (or was revoked)
+     */
+    public UserEntity userForSubscriptionKey(String key) {
+        CalendarFeedKey feedKey = key == null ? null : mongoTemplate.findById(key, CalendarFeedKey.class);
+        return feedKey == null ? null : userRepository.findById(feedKey.getUserId()).orElse(null);
+    }
+
+    /**
+     * Drops all cached ETags after an event rule, assignment or meeting changed (each one is in
+     * many users' feeds)
+     */
+    public void invalidateAll() {
+        tags.clear();
+    }
+
+    FeedSnapshot snapshot(UserEntity user) {
+        LocalDate horizon = LocalDate.now(zone).minusDays(pastDays);
+        String userId = user.getId();
+
+        // Rules still running at the horizon (or open-ended), things due or scheduled after it
+        Criteria eventCriteria = Criteria.where("endDate").not().lt(horizon);
+        Criteria assignmentCriteria = Criteria.where("dueDate").gte(horizon);
+        Criteria meetingCriteria = Criteria.where("datetime").gte(horizon.atStartOfDay(zone)
+                .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+
+        switch (user.getRole() == null ? "" : user.getRole()) {
+            case "1300": // Student Role
+                eventCriteria.and("learningGroupId").is(CalendarServiceImpl.STUDENT_LEARNING_GROUP);
+
+                List<String> courseIds = courseRepository.findScopeByStudentId(userId).stream()
+                        .map(Course::getId)
+                        .collect(Collectors.toList());
+                assignmentCriteria = courseIds.isEmpty() ? null : assignmentCriteria.and("course").in(courseIds);
+                meetingCriteria.orOperator(
+                        Criteria.where("courseId").in(courseIds),
+                        Criteria.where("participants").is(userId));
+                break;
+
+            case "1200": // Lecturer Role
+                eventCriteria.and("instructorId").is(userId);
+                assignmentCriteria.and("instructorId").is(userId);
+                meetingCriteria.orOperator(
+                        Criteria.where("lecturerId").is(userId),
+                        Criteria.where("createdBy").is(userId));
+                break;
+
+            case "1100": // Admin Role
+            default:
+                break;
+        }
+
+        List<Event> events = mongoTemplate.find(new Query(eventCriteria), Event.class);
+        List<Assignment> assignments = assignmentCriteria == null
+                ? List.of()
+                : mongoTemplate.find(new Query(assignmentCriteria), Assignment.class);
+        Query meetingQuery = new Query(meetingCriteria);
+        meetingQuery.fields().exclude("attendanceSessions").exclude("participants");
+        List<Meeting> meetings = mongoTemplate.find(meetingQuery, Meeting.class);
+
+        Map<String, String> courseNames = resolveCourseNames(assignments);
+
+        List<FeedItem> items = new ArrayList<>();
+        for (Event event : events) {
+            addItem(items, ICalendarFormat.eventUid(event), ICalendarFormat.eventRule(event, zone, horizon));
+        }
+        for (Assignment assignment : assignments) {
+            String courseName = assignment.getCourse() == null ? null : courseNames.get(assignment.getCourse());
+            addItem(items, ICalendarFormat.assignmentUid(assignment), ICalendarFormat.assignment(assignment, courseName, zone));
+        }
+        for (Meeting meeting : meetings) {
+            addItem(items, ICalendarFormat.meetingUid(meeting), ICalendarFormat.meeting(meeting));
+        }
+        items.sort(Comparator.comparing(FeedItem::uid));
+
+        FeedSnapshot snapshot = new FeedSnapshot(items, syncToken(userId, items));
+        rememberTag(userId, etag(snapshot.syncToken));
+        return snapshot;
+    }
+
+    private Map<String, String> resolveCourseNames(List<Assignment> assignments) {
+        Set<String> courseIds = new HashSet<>();
+        for (Assignment assignment : assignments) {
+            if (assignment.getCourse() != null) {
+                courseIds.add(assignment.getCourse());
+            }
+        }
+        Map<String, String> courseNames = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return courseNames;
+        }
+
+        Query query = new Query(Criteria.where("_id").in(courseIds));
+        query.fields().include("name");
+        for (Course course : mongoTemplate.find(query, Course.class)) {
+            courseNames.put(course.getId(), course.getName());
+        }
+        return courseNames;
+    }
+
+    private void writeCalendar(FeedSnapshot snapshot, UserEntity user, Writer out) throws IOException {
+        ICalendarFormat.writeLine(out, "BEGIN:VCALENDAR");
+        ICalendarFormat.writeLine(out, "VERSION:2.0");
+        ICalendarFormat.writeLine(out, "PRODID:-//EduSphere//Calendar Feed//EN");
+        ICalendarFormat.writeLine(out, "CALSCALE:GREGORIAN");
+        ICalendarFormat.writeLine(out, "METHOD:PUBLISH");
+        ICalendarFormat.writeLine(out, "X-WR-CALNAME:" + ICalendarFormat.escapeText("EduSphere - " + user.getName()));
+        ICalendarFormat.writeLine(out, "X-WR-TIMEZONE:" + zone.getId());
+        ICalendarFormat.writeLine(out, "REFRESH-INTERVAL;VALUE=DURATION:PT1H");
+        ICalendarFormat.writeLine(out, "X-PUBLISHED-TTL:PT1H");
+        for (String line : ICalendarFormat.timezone(zone)) {
+            ICalendarFormat.writeLine(out, line);
+        }
+
+        String stamp = ICalendarFormat.utc(LocalDateTime.now(ZoneOffset.UTC));
+        for (FeedItem item : snapshot.items) {
+            writeItem(out, item, stamp);
+        }
+        ICalendarFormat.writeLine(out, "END:VCALENDAR");
+        out.flush();
+    }
+
+    private static void writeItem(Writer out, FeedItem item, String stamp) throws IOException {
+        ICalendarFormat.writeLine(out, "BEGIN:VEVENT");
+        ICalendarFormat.writeLine(out, "UID:" + item.uid);
+        ICalendarFormat.writeLine(out, "DTSTAMP:" + stamp);
+        for (String line : item.lines) {
+            ICalendarFormat.writeLine(out, line);
+        }
+        ICalendarFormat.writeLine(out, "END:VEVENT");
+    }
+
+    private static String render(FeedItem item, String stamp) {
+        StringWriter out = new StringWriter();
+        try {
+            writeItem(out, item, stamp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private void storeState(UserEntity user, FeedSnapshot snapshot) {
+        CalendarSyncState state = new CalendarSyncState();
+        state.setToken(snapshot.syncToken);
+        state.setUserId(user.getId());
+        for (FeedItem item : snapshot.items) {
+            state.getItems().put(item.uid, item.hash);
+        }
+        state.setCreatedAt(LocalDateTime.now());
+        try {
+            mongoTemplate.save(state);
+        } catch (DuplicateKeyException e) {
+            // The same state was stored by a concurrent sync
+        }
+    }
+
+    private void rememberTag(String userId, String etag) {
+        if (tagTtlMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (tags.size() >= maxCachedTags) {
+            tags.values().removeIf(entry -> entry.expiresAt <= now);
+            if (tags.size() >= maxCachedTags) {
+                tags.clear();
+            }
+        }
+        tags.put(userId, new CachedTag(etag, now + tagTtlMillis));
+    }
+
+    private static void addItem(List<FeedItem> items, String uid, List<String> lines) {
+        if (!lines.isEmpty()) {
+            items.add(new FeedItem(uid, lines, sha256(String.join("\n", lines)).substring(0, 32)));
+        }
+    }
+
+    private String syncToken(String userId, List<FeedItem> items) {
+        StringBuilder content = new StringBuilder(userId).append('\n').append(zone.getId()).append('\n');
+        for (FeedItem item : items) {
+            content.append(item.uid).append('=').append(item.hash).append('\n');
+        }
+        return sha256(content.toString());
+    }
+
+    private static String etag(String syncToken) {
+        // Weak: the body also carries the generation time (DTSTAMP)
+        return "W/\"" + syncToken + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record FeedItem(String uid, List<String> lines, String hash) {
+    }
+
+    record FeedSnapshot(List<FeedItem> items, String syncToken) {
+    }
+
+    private record CachedTag(String etag, long expiresAt) {
+    }
+}
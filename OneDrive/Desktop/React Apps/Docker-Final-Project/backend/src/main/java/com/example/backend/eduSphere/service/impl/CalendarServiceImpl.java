@@ -6,12 +6,12 @@ import com.example.backend.eduSphere.entity.Assignment;
 import com.example.backend.eduSphere.entity.Course;
 import com.example.backend.eduSphere.entity.Event;
 import com.example.backend.eduSphere.entity.UserEntity;
-import com.example.backend.eduSphere.repository.AssignmentRepository;
 import com.example.backend.eduSphere.repository.CourseRepository;
 import com.example.backend.eduSphere.repository.EventRepository;
+import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.eduSphere.service.CalendarService;
-import com.example.backend.eduSphere.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -21,99 +21,204 @@ import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+/**
+ * Calendar views over any date range (a week, a month or a whole semester).
+ *
+ * Event rules are fetched only if their [startDate, endDate] overlaps the range (a missing date
+ * leaves the rule open-ended on that side) and assignments only if they are due inside it, both
+ * on indexed fields. Rules are expanded with
+ * {@link EventRecurrenceExpander} in one pass over the range. Instructors and courses referenced
+ * by the view are resolved with one batched query each; instructor profiles are also kept in a
+ * short-lived cache since the same few lecturers appear in every view.
+ */
 @Service
 public class CalendarServiceImpl implements CalendarService {
 
+    public static final int MAX_RANGE_DAYS = 366;
+
+    // The only learning group students are currently assigned to; shared with the calendar feed
+    public static final String STUDENT_LEARNING_GROUP = "Nursing_Year1_2025";
+
+    private final Map<String, CachedInstructor> instructorCache = new ConcurrentHashMap<>();
+
     @Autowired
     private MongoTemplate mongoTemplate;
     @Autowired
     private CourseRepository courseRepository;
     @Autowired
-    private AssignmentRepository assignmentRepository;
-    @Autowired
     private EventRepository eventRepository;
     @Autowired
-    private UserService userService;
+    private UserRepository userRepository;
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Value("${app.calendar.instructor-cache.ttl-seconds:300}")
+    private long instructorCacheTtlSeconds;
 
     @Override
     public List<CalendarEventDto> getCalendarEventsForUser(LocalDate requestedDate, CalendarFilterDto filters) {
+        LocalDate weekStartDate = requestedDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        return getCalendarEventsForUser(weekStartDate, weekStartDate.plusDays(6), filters);
+    }
+
+    @Override
+    public List<CalendarEventDto> getCalendarEventsForUser(LocalDate from, LocalDate to, CalendarFilterDto filters) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before its start " + from);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Calendar range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         // ✅ Correct way: cast to your UserEntity
         UserEntity user = (UserEntity) authentication.getPrincipal();
         String userId = user.getId();
 
-        // You can now use `user` or `userId`
-        LocalDate weekStartDate = requestedDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
-        LocalDate weekEndDate = weekStartDate.plusDays(6);
-
-        List<Event> eventRules = new ArrayList<>();
-        List<Assignment> assignments = new ArrayList<>();
+        // Rules whose recurrence window overlaps the range, assignments due inside it
+        // A rule without a start or end date is open-ended on that side ({$eq: null} also matches a missing field)
+        Criteria eventCriteria = new Criteria().andOperator(
+                new Criteria().orOperator(Criteria.where("startDate").lte(to), Criteria.where("startDate").is(null)),
+                new Criteria().orOperator(Criteria.where("endDate").gte(from), Criteria.where("endDate").is(null)));
+        Criteria assignmentCriteria = Criteria.where("dueDate").gte(from).lte(to);
 
         switch (user.getRole()) {
             case "1300": // Student Role
-                String learningGroupId = "Nursing_Year1_2025";
-                eventRules.addAll(eventRepository.findByLearningGroupId(learningGroupId));
+                eventCriteria.and("learningGroupId").is(STUDENT_LEARNING_GROUP);
 
-                List<Course> enrolledCourses = courseRepository.findByEnrollments_StudentIds(userId);
-                List<String> courseIds = enrolledCourses.stream().map(Course::getId).collect(Collectors.toList());
-                if (!courseIds.isEmpty()) {
-                    assignments.addAll(assignmentRepository.findByCourseIn(courseIds));
-                }
+                List<String> courseIds = courseRepository.findScopeByStudentId(userId).stream()
+                        .map(Course::getId)
+                        .collect(Collectors.toList());
+                assignmentCriteria = courseIds.isEmpty() ? null : assignmentCriteria.and("course").in(courseIds);
                 break;
 
             case "1200": // Lecturer Role
-                eventRules.addAll(eventRepository.findByInstructorId(userId));
-                assignments.addAll(assignmentRepository.findByInstructorId(userId));
+                eventCriteria.and("instructorId").is(userId);
+                assignmentCriteria.and("instructorId").is(userId);
                 break;
 
             case "1100": // Admin Role
             default:
-                Query eventQuery = new Query();
                 if (filters.getCourseId() != null && !filters.getCourseId().isEmpty()) {
-                    eventQuery.addCriteria(Criteria.where("course_id").is(filters.getCourseId()));
+                    eventCriteria.and("courseId").is(filters.getCourseId());
                 }
                 if (filters.getInstructorId() != null && !filters.getInstructorId().isEmpty()) {
-                    eventQuery.addCriteria(Criteria.where("instructor_id").is(filters.getInstructorId()));
+                    eventCriteria.and("instructorId").is(filters.getInstructorId());
                 }
                 if (filters.getGroupId() != null && !filters.getGroupId().isEmpty()) {
-                    eventQuery.addCriteria(Criteria.where("learning_group_id").is(filters.getGroupId()));
+                    eventCriteria.and("learningGroupId").is(filters.getGroupId());
                 }
-                eventRules.addAll(mongoTemplate.find(eventQuery, Event.class));
-                assignments.addAll(assignmentRepository.findAll());
                 break;
         }
 
-        Stream<CalendarEventDto> recurringEvents = eventRules.stream()
-                .flatMap(rule -> generateEventsForWeek(rule, weekStartDate, weekEndDate));
+        List<Event> eventRules = mongoTemplate.find(new Query(eventCriteria), Event.class);
+        List<Assignment> assignments = assignmentCriteria == null
+                ? List.of()
+                : mongoTemplate.find(new Query(assignmentCriteria), Assignment.class);
+
+        Map<String, CachedInstructor> instructors = resolveInstructors(eventRules);
+        Map<String, String> courseNames = resolveCourseNames(assignments);
+
+        List<CalendarEventDto> calendar = new ArrayList<>();
+        for (Event rule : eventRules) {
+            CachedInstructor instructor = rule.getInstructorId() == null ? null : instructors.get(rule.getInstructorId());
+            for (LocalDate date : EventRecurrenceExpander.occurrences(rule, from, to)) {
+                calendar.add(mapEventToDto(rule, date, instructor));
+            }
+        }
+        for (Assignment assignment : assignments) {
+            calendar.add(mapAssignmentToDto(assignment, courseNames));
+        }
+
+        calendar.sort(Comparator.comparing(CalendarEventDto::getDate));
+        return calendar;
+    }
+
+    /**
+     * Instructor name and picture for every instructor of the given rules; only instructors
+     * missing from the cache are loaded, with a single findAllById
+     */
+    private Map<String, CachedInstructor> resolveInstructors(List<Event> rules) {
+        long now = System.currentTimeMillis();
+        Map<String, CachedInstructor> resolved = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (Event rule : rules) {
+            String instructorId = rule.getInstructorId();
+            if (instructorId == null || instructorId.isEmpty() || resolved.containsKey(instructorId)) {
+                continue;
+            }
+            CachedInstructor cached = instructorCache.get(instructorId);
+            if (cached != null && cached.expiresAt > now) {
+                resolved.put(instructorId, cached);
+            } else {
+                missing.add(instructorId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long expiresAt = now + instructorCacheTtlSeconds * 1000L;
+            for (UserEntity instructor : userRepository.findAllById(missing)) {
+                CachedInstructor profile = new CachedInstructor(instructor.getName(), instructor.getProfilePic(), expiresAt);
+                resolved.put(instructor.getId(), profile);
+                if (instructorCacheTtlSeconds > 0) {
+                    instructorCache.put(instructor.getId(), profile);
+                }
+            }
+            missing.removeAll(resolved.keySet());
+            if (!missing.isEmpty()) {
+                System.err.println("Instructors not found for IDs: " + missing);
+            }
+        }
+        return resolved;
+    }
 
-        Stream<CalendarEventDto> weeklyAssignments = assignments.stream()
-                .filter(a -> a.getDueDate() != null && !a.getDueDate().isBefore(weekStartDate) && !a.getDueDate().isAfter(weekEndDate))
-                .map(this::mapAssignmentToDto);
+    private Map<String, String> resolveCourseNames(List<Assignment> assignments) {
+        Set<String> courseIds = new HashSet<>();
+        for (Assignment assignment : assignments) {
+            if (assignment.getCourse() != null) {
+                courseIds.add(assignment.getCourse());
+            }
+        }
+        Map<String, String> courseNames = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return courseNames;
+        }
 
-        return Stream.concat(recurringEvents, weeklyAssignments)
-                .sorted(Comparator.comparing(CalendarEventDto::getDate))
-                .collect(Collectors.toList());
+        Query query = new Query(Criteria.where("_id").in(courseIds));
+        query.fields().include("name");
+        for (Course course : mongoTemplate.find(query, Course.class)) {
+            courseNames.put(course.getId(), course.getName());
+        }
+        return courseNames;
     }
 
     @Override
     public Event createEvent(Event event) {
         // Here you can add validation logic in the future
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        calendarFeedService.invalidateAll();
+        return saved;
     }
 
     @Override
     public void deleteEvent(String eventId) {
         // This will delete the entire recurring event rule
         eventRepository.deleteById(eventId);
+        calendarFeedService.invalidateAll();
     }
 
     @Override
@@ -143,43 +248,14 @@ public class CalendarServiceImpl implements CalendarService {
         existingEvent.setLearningGroupId(eventDetails.getLearningGroupId());
 
         // 3. Save the updated event back to the database
-        return eventRepository.save(existingEvent);
+        Event saved = eventRepository.save(existingEvent);
+        calendarFeedService.invalidateAll();
+        return saved;
     }
 
-    private Stream<CalendarEventDto> generateEventsForWeek(Event rule, LocalDate weekStart, LocalDate weekEnd) {
-        List<CalendarEventDto> instances = new ArrayList<>();
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDay = weekStart.plusDays(i);
-            if (currentDay.getDayOfWeek() == rule.getDayOfWeek()) {
-                if (!currentDay.isBefore(rule.getStartDate()) && !currentDay.isAfter(rule.getEndDate())) {
-                    instances.add(mapEventToDto(rule, currentDay));
-                    break;
-                }
-            }
-        }
-        return instances.stream();
-    }
-
-    // ✅ THIS METHOD IS NOW FIXED
-    private CalendarEventDto mapEventToDto(Event rule, LocalDate specificDate) {
+    private CalendarEventDto mapEventToDto(Event rule, LocalDate specificDate, CachedInstructor instructor) {
         String instanceId = rule.getId() + "_" + specificDate.toString();
 
-        // --- Logic to fetch instructor details ---
-        String instructorName = "N/A";
-        String instructorImage = null; // Default to null
-        if (rule.getInstructorId() != null && !rule.getInstructorId().isEmpty()) {
-            try {
-                UserEntity instructor = userService.getUserById(rule.getInstructorId());
-                if (instructor != null) {
-                    instructorName = instructor.getName();
-                    instructorImage = instructor.getProfilePic(); // Get the profile picture URL
-                }
-            } catch (Exception e) {
-                System.err.println("Instructor not found for ID: " + rule.getInstructorId());
-            }
-        }
-        // --- End of new logic ---
-
         return CalendarEventDto.builder()
                 .id(instanceId)
                 .title(rule.getTitle())
@@ -189,21 +265,17 @@ public class CalendarServiceImpl implements CalendarService {
                 .startTime(rule.getStartTime())
                 .endTime(rule.getEndTime())
                 .location(rule.getLocation())
-                .instructorName(instructorName) // Add name to DTO
-                .instructorImage(instructorImage) // Add image to DTO
+                .instructorName(instructor != null ? instructor.name() : "N/A")
+                .instructorImage(instructor != null ? instructor.image() : null)
                 .build();
     }
 
-    private CalendarEventDto mapAssignmentToDto(Assignment assignment) {
-        final String[] courseName = {"Unknown Course"};
-        if (assignment.getCourse() != null) {
-            Optional<Course> courseOpt = courseRepository.findById(assignment.getCourse());
-            courseOpt.ifPresent(c -> courseName[0] = c.getName());
-        }
+    private CalendarEventDto mapAssignmentToDto(Assignment assignment, Map<String, String> courseNames) {
+        String courseName = assignment.getCourse() == null ? null : courseNames.get(assignment.getCourse());
         return CalendarEventDto.builder()
                 .id(assignment.getId())
                 .title(assignment.getTitle())
-                .course(courseName[0])
+                .course(courseName != null ? courseName : "Unknown Course")
                 .description(assignment.getDescription())
                 .type(assignment.getType())
                 .date(assignment.getDueDate())
@@ -211,4 +283,7 @@ public class CalendarServiceImpl implements CalendarService {
                 .progress(assignment.getProgress())
                 .build();
     }
-}
\ No newline at end of file
+
+    private record CachedInstructor(String name, String image, long expiresAt) {
+    }
+}
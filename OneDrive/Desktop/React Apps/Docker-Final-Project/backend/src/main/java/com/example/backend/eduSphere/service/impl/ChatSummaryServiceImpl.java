@@ -0,0 +1,203 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.ChatConversationSummary;
+import com.example.backend.eduSphere.entity.ChatMessageEntity;
+import com.example.backend.eduSphere.repository.ChatConversationSummaryRepository;
+import com.example.backend.eduSphere.service.ChatSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ChatSummaryServiceImpl implements ChatSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatConversationSummaryRepository summaryRepository;
+
+    /**
+     * Upserts the sender's and the receiver's summary separately. When the first messages of a
+     * conversation race, one upsert per side can fail on the unique index after the other request
+     * inserted the document; only that side is retried (as a plain update of the now existing
+     * document), so no counter is applied twice.
+     */
+    @Override
+    public void recordMessage(ChatMessageEntity message) {
+        // Sender's side: new last message, nothing unread
+        upsertSummary(summaryQuery(message.getSenderId(), message.getReceiverId(), message.getContext()),
+                lastMessageUpdate(message));
+
+        // Receiver's side: new last message, one more unread
+        upsertSummary(summaryQuery(message.getReceiverId(), message.getSenderId(), message.getContext()),
+                lastMessageUpdate(message).inc("unreadCount", 1));
+    }
+
+    private void upsertSummary(Query query, Update update) {
+        try {
+            mongoTemplate.upsert(query, update, ChatConversationSummary.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent upsert inserted the summary first; this update did not apply, so apply it once now
+            mongoTemplate.upsert(query, update, ChatConversationSummary.class);
+        }
+    }
+
+    @Override
+    public void markConversationRead(String receiverId, String senderId, String context) {
+        mongoTemplate.updateFirst(summaryQuery(receiverId, senderId, context),
+                new Update().set("unreadCount", 0L), ChatConversationSummary.class);
+    }
+
+    @Override
+    public List<ChatConversationSummary> getInbox(String userId, String context) {
+        return summaryRepository.findByOwnerIdAndContextOrderByLastTimestampDesc(userId, context);
+    }
+
+    @Override
+    public long getUnreadCount(String userId, String context) {
+        return getInbox(userId, context).stream()
+                .mapToLong(ChatConversationSummary::getUnreadCount)
+                .sum();
+    }
+
+    @Override
+    public Map<String, Object> getContextStats(String userId) {
+        long eduSphereCount = 0;
+        long communityCount = 0;
+
+        for (ChatConversationSummary summary : summaryRepository.findByOwnerId(userId)) {
+            if ("eduSphere".equals(summary.getContext())) {
+                eduSphereCount += summary.getMessageCount();
+            } else if ("community".equals(summary.getContext())) {
+                communityCount += summary.getMessageCount();
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("eduSphere", eduSphereCount > 0);
+        stats.put("community", communityCount > 0);
+        stats.put("eduSphereCount", eduSphereCount);
+        stats.put("communityCount", communityCount);
+        return stats;
+    }
+
+    @Override
+    public int rebuildAll() {
+        // One row per direction (sender → receiver, context), grouped on the server
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "timestamp")),
+                Aggregation.group("senderId", "receiverId", "context")
+                        .count().as("messageCount")
+                        .sum(ConditionalOperators.when(ComparisonOperators.Eq.valueOf("read").equalToValue(false))
+                                .then(1).otherwise(0)).as("unreadCount")
+                        .last("content").as("lastMessage")
+                        .last("timestamp").as("lastTimestamp"));
+
+        List<Document> directions = mongoTemplate.aggregate(aggregation, ChatMessageEntity.class, Document.class)
+                .getMappedResults();
+
+        // Fold both directions into each participant's summary
+        Map<String, ChatConversationSummary> summaries = new LinkedHashMap<>();
+        for (Document direction : directions) {
+            Document key = direction.get("_id", Document.class);
+            String senderId = key.getString("senderId");
+            String receiverId = key.getString("receiverId");
+            String context = key.getString("context");
+            if (senderId == null || receiverId == null || context == null) {
+                continue;
+            }
+
+            long messageCount = ((Number) direction.get("messageCount")).longValue();
+            long unreadCount = ((Number) direction.get("unreadCount")).longValue();
+            String lastMessage = direction.getString("lastMessage");
+            LocalDateTime lastTimestamp = toLocalDateTime(direction.get("lastTimestamp"));
+
+            ChatConversationSummary senderSide = summaries.computeIfAbsent(senderId + "|" + receiverId + "|" + context,
+                    k -> newSummary(senderId, receiverId, context));
+            ChatConversationSummary receiverSide = summaries.computeIfAbsent(receiverId + "|" + senderId + "|" + context,
+                    k -> newSummary(receiverId, senderId, context));
+
+            senderSide.setMessageCount(senderSide.getMessageCount() + messageCount);
+            receiverSide.setMessageCount(receiverSide.getMessageCount() + messageCount);
+            receiverSide.setUnreadCount(receiverSide.getUnreadCount() + unreadCount);
+
+            for (ChatConversationSummary summary : List.of(senderSide, receiverSide)) {
+                if (summary.getLastTimestamp() == null
+                        || (lastTimestamp != null && lastTimestamp.isAfter(summary.getLastTimestamp()))) {
+                    summary.setLastTimestamp(lastTimestamp);
+                    summary.setLastMessage(lastMessage);
+                    summary.setLastSenderId(senderId);
+                }
+            }
+        }
+
+        if (summaries.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatConversationSummary.class);
+        for (ChatConversationSummary summary : summaries.values()) {
+            bulkOps.upsert(summaryQuery(summary.getOwnerId(), summary.getPeerId(), summary.getContext()),
+                    new Update()
+                            .set("conversationKey", summary.getConversationKey())
+                            .set("lastMessage", summary.getLastMessage())
+                            .set("lastSenderId", summary.getLastSenderId())
+                            .set("lastTimestamp", summary.getLastTimestamp())
+                            .set("unreadCount", summary.getUnreadCount())
+                            .set("messageCount", summary.getMessageCount()));
+        }
+        bulkOps.execute();
+
+        System.out.println("💬 Rebuilt " + summaries.size() + " chat conversation summaries");
+        return summaries.size();
+    }
+
+    private static Query summaryQuery(String ownerId, String peerId, String context) {
+        return new Query(Criteria.where("ownerId").is(ownerId)
+                .and("peerId").is(peerId)
+                .and("context").is(context));
+    }
+
+    private static Update lastMessageUpdate(ChatMessageEntity message) {
+        return new Update()
+                .set("lastMessage", message.getContent())
+                .set("lastSenderId", message.getSenderId())
+                .set("lastTimestamp", message.getTimestamp())
+                .setOnInsert("conversationKey", message.getConversationKey())
+                .inc("messageCount", 1);
+    }
+
+    private static ChatConversationSummary newSummary(String ownerId, String peerId, String context) {
+        ChatConversationSummary summary = new ChatConversationSummary();
+        summary.setOwnerId(ownerId);
+        summary.setPeerId(peerId);
+        summary.setContext(context);
+        summary.setConversationKey(ChatMessageEntity.conversationKeyOf(ownerId, peerId));
+        return summary;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Date date) {
+            // Same zone the mapping layer uses to write LocalDateTime
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        return value instanceof LocalDateTime localDateTime ? localDateTime : null;
+    }
+}
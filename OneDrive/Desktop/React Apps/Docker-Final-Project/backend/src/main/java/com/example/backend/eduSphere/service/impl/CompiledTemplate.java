@@ -0,0 +1,89 @@
+package com.example.backend.eduSphere.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template text split once into literal segments and {variable} placeholders, so it can be
+ * rendered for many recipients with a single pass each. Placeholders without a value are kept
+ * verbatim, as the per-variable string replacement did before.
+ */
+public final class CompiledTemplate {
+
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        if (text == null) {
+            text = "";
+        }
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int close = text.charAt(i) == '{' ? placeholderEnd(text, i) : -1;
+            if (close > 0) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(text.substring(i + 1, close));
+                i = close + 1;
+            } else {
+                literal.append(text.charAt(i));
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    // Index of the '}' closing a non-empty placeholder opened at start, or -1
+    private static int placeholderEnd(String text, int start) {
+        for (int j = start + 1; j < text.length(); j++) {
+            char c = text.charAt(j);
+            if (c == '}') {
+                return j > start + 1 ? j : -1;
+            }
+            if (c == '{') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Variable names in order of appearance (duplicates included)
+     */
+    public List<String> getVariables() {
+        return List.of(variables);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+        for (int v = 0; v < variables.length; v++) {
+            out.append(literals[v]);
+            String value = values.get(variables[v]);
+            if (value != null) {
+                out.append(value);
+            } else {
+                out.append('{').append(variables[v]).append('}');
+            }
+        }
+        out.append(literals[variables.length]);
+        return out.toString();
+    }
+}
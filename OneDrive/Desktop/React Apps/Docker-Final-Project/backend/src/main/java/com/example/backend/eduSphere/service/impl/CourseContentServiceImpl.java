@@ -181,6 +181,7 @@ public class CourseContentServiceImpl implements CourseContentService {
             CourseFile courseFile = new CourseFile();
             courseFile.setFileName(file.getOriginalFilename());
             courseFile.setStoredFileName(storedFileName);
+            courseFile.setContentHash(courseFileStorageService.getContentHash(storedFileName));
             courseFile.setFileType(file.getContentType());
             courseFile.setSize(file.getSize());
             courseFile.setCategoryId(categoryId);
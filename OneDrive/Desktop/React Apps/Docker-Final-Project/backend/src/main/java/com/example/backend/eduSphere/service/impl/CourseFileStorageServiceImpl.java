@@ -1,6 +1,7 @@
 package com.example.backend.eduSphere.service.impl;
 
 import com.example.backend.common.exceptions.FileStorageException;
+import com.example.backend.common.storage.ContentAddressedStore;
 import com.example.backend.eduSphere.service.CourseFileStorageService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
@@ -14,7 +15,6 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 import java.util.Set;
 
@@ -22,6 +22,7 @@ import java.util.Set;
 public class CourseFileStorageServiceImpl implements CourseFileStorageService {
 
     private final Path fileStorageLocation;
+    private final ContentAddressedStore contentStore;
 
     // Security: Define allowed file extensions
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of(
@@ -30,8 +31,10 @@ public class CourseFileStorageServiceImpl implements CourseFileStorageService {
             ".zip", ".rar", ".csv"
     );
 
-    public CourseFileStorageServiceImpl(@Value("${app.upload.dir}") String uploadDir) {
+    public CourseFileStorageServiceImpl(@Value("${app.upload.dir}") String uploadDir,
+                                        ContentAddressedStore contentStore) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.contentStore = contentStore;
 
         try {
             // Create the upload directory if it doesn't exist
@@ -49,108 +52,110 @@ public class CourseFileStorageServiceImpl implements CourseFileStorageService {
     public String storeFile(MultipartFile file) {
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
 
-        try {
-            // Validate filename
-            if (originalFileName.contains("..")) {
-                throw new FileStorageException("Filename contains invalid path sequence: " + originalFileName);
-            }
-
-            if (originalFileName.isEmpty()) {
-                throw new FileStorageException("Cannot store file with empty name");
-            }
-
-            // Check file extension
-            String fileExtension = getFileExtension(originalFileName);
-            if (!ALLOWED_EXTENSIONS.contains(fileExtension.toLowerCase())) {
-                throw new FileStorageException("File extension not allowed: " + fileExtension);
-            }
-
-            // Generate unique filename
-            String uniqueFileName = generateUniqueFileName(originalFileName);
+        // Validate filename
+        if (originalFileName.contains("..")) {
+            throw new FileStorageException("Filename contains invalid path sequence: " + originalFileName);
+        }
 
-            // Resolve target location
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
+        if (originalFileName.isEmpty()) {
+            throw new FileStorageException("Cannot store file with empty name");
+        }
 
-            // Ensure the target location is within the upload directory
-            if (!targetLocation.toAbsolutePath().normalize().startsWith(this.fileStorageLocation)) {
-                throw new FileStorageException("Cannot store file outside upload directory");
-            }
+        // Check file extension
+        String fileExtension = getFileExtension(originalFileName);
+        if (!ALLOWED_EXTENSIONS.contains(fileExtension.toLowerCase())) {
+            throw new FileStorageException("File extension not allowed: " + fileExtension);
+        }
 
-            // Copy file to target location
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Generate unique filename
+        String uniqueFileName = generateUniqueFileName(originalFileName);
 
-            // Verify file was stored successfully
-            if (!Files.exists(targetLocation)) {
-                throw new FileStorageException("File was not stored successfully: " + uniqueFileName);
-            }
+        // Resolve target location
+        Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
 
-            return uniqueFileName;
+        // Ensure the target location is within the upload directory
+        if (!targetLocation.toAbsolutePath().normalize().startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Cannot store file outside upload directory");
+        }
 
-        } catch (IOException ex) {
+        // Store the content (hashed while writing; identical content is kept only once)
+        try {
+            contentStore.store(file, uniqueFileName);
+        } catch (FileStorageException ex) {
             throw new FileStorageException("Could not store file " + originalFileName + ". Please try again!", ex);
         }
+
+        // Verify file was stored successfully
+        if (!Files.exists(targetLocation)) {
+            throw new FileStorageException("File was not stored successfully: " + uniqueFileName);
+        }
+
+        return uniqueFileName;
     }
 
     @Override
     public Resource loadFileAsResource(String filename) {
         try {
-            // Clean the filename
-            String cleanFilename = StringUtils.cleanPath(filename);
-
-            // Validate filename
-            if (cleanFilename.contains("..")) {
-                throw new FileStorageException("Filename contains invalid path sequence: " + filename);
-            }
+            return new UrlResource(loadFilePath(filename).toUri());
+        } catch (MalformedURLException ex) {
+            throw new FileStorageException("File not found: " + filename, ex);
+        }
+    }
 
-            Path filePath = this.fileStorageLocation.resolve(cleanFilename).normalize();
+    @Override
+    public Path loadFilePath(String filename) {
+        // Clean the filename
+        String cleanFilename = StringUtils.cleanPath(filename);
 
-            // Ensure the file is within the upload directory
-            if (!filePath.toAbsolutePath().startsWith(this.fileStorageLocation)) {
-                throw new FileStorageException("Cannot access file outside upload directory");
-            }
+        // Validate filename
+        if (cleanFilename.contains("..")) {
+            throw new FileStorageException("Filename contains invalid path sequence: " + filename);
+        }
 
-            Resource resource = new UrlResource(filePath.toUri());
+        Path filePath = this.fileStorageLocation.resolve(cleanFilename).normalize();
 
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw new FileStorageException("File not found or not readable: " + filename);
-            }
+        // Ensure the file is within the upload directory
+        if (!filePath.toAbsolutePath().startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Cannot access file outside upload directory");
+        }
 
-        } catch (MalformedURLException ex) {
-            throw new FileStorageException("File not found: " + filename, ex);
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            throw new FileStorageException("File not found or not readable: " + filename);
         }
+
+        return filePath;
     }
 
     @Override
     public void deleteFile(String filename) {
-        try {
-            // Clean the filename
-            String cleanFilename = StringUtils.cleanPath(filename);
+        // Clean the filename
+        String cleanFilename = StringUtils.cleanPath(filename);
 
-            // Validate filename
-            if (cleanFilename.contains("..")) {
-                throw new FileStorageException("Filename contains invalid path sequence: " + filename);
-            }
-
-            Path filePath = this.fileStorageLocation.resolve(cleanFilename).normalize();
+        // Validate filename
+        if (cleanFilename.contains("..")) {
+            throw new FileStorageException("Filename contains invalid path sequence: " + filename);
+        }
 
-            // Ensure the file is within the upload directory
-            if (!filePath.toAbsolutePath().startsWith(this.fileStorageLocation)) {
-                throw new FileStorageException("Cannot delete file outside upload directory");
-            }
+        Path filePath = this.fileStorageLocation.resolve(cleanFilename).normalize();
 
-            boolean deleted = Files.deleteIfExists(filePath);
+        // Ensure the file is within the upload directory
+        if (!filePath.toAbsolutePath().startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Cannot delete file outside upload directory");
+        }
 
-            if (!deleted) {
-                System.out.println("Warning: File not found for deletion: " + filename);
-            }
+        // Removes the file and drops its reference on the stored content
+        boolean deleted = contentStore.release(cleanFilename);
 
-        } catch (IOException ex) {
-            throw new FileStorageException("Could not delete file: " + filename, ex);
+        if (!deleted) {
+            System.out.println("Warning: File not found for deletion: " + filename);
         }
     }
 
+    @Override
+    public String getContentHash(String filename) {
+        return contentStore.hashOf(StringUtils.cleanPath(filename));
+    }
+
     @Override
     public boolean fileExists(String filename) {
         try {
@@ -1,5 +1,6 @@
 package com.example.backend.eduSphere.service.impl;
 
+import com.example.backend.community.service.impl.FriendSuggestionEngine;
 import com.example.backend.eduSphere.dto.request.CourseRequestDto;
 import com.example.backend.eduSphere.dto.request.EnrollmentRequest;
 import com.example.backend.eduSphere.dto.request.EnrollmentRequestDto;
@@ -27,11 +28,16 @@ public class CourseServiceImpl implements CourseService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final AssignmentRepository assignmentRepository;
+    private final FriendSuggestionEngine suggestionEngine;
+    private final UserCourseScopeCache courseScopeCache;
 
-    public CourseServiceImpl(CourseRepository courseRepository, UserRepository userRepository, AssignmentRepository assignmentRepository) {
+    public CourseServiceImpl(CourseRepository courseRepository, UserRepository userRepository, AssignmentRepository assignmentRepository,
+                             FriendSuggestionEngine suggestionEngine, UserCourseScopeCache courseScopeCache) {
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.assignmentRepository = assignmentRepository;
+        this.suggestionEngine = suggestionEngine;
+        this.courseScopeCache = courseScopeCache;
     }
 
     @Override
@@ -97,7 +103,9 @@ public class CourseServiceImpl implements CourseService {
         if (course.getEnrollments() == null) {
             course.setEnrollments(new ArrayList<>());
         }
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        courseScopeCache.invalidateAll();
+        return savedCourse;
     }
 
     @Override
@@ -122,7 +130,9 @@ public class CourseServiceImpl implements CourseService {
         if (courseDetails.getFinalExam() != null) existingCourse.setFinalExam(courseDetails.getFinalExam());
         existingCourse.setCredits(courseDetails.getCredits());
 
-        return courseRepository.save(existingCourse);
+        Course savedCourse = courseRepository.save(existingCourse);
+        courseScopeCache.invalidateAll();
+        return savedCourse;
     }
 
     @Override
@@ -131,6 +141,7 @@ public class CourseServiceImpl implements CourseService {
             throw new RuntimeException("Course not found with id: " + id);
         }
         courseRepository.deleteById(id);
+        courseScopeCache.invalidateAll();
     }
 
     @Override
@@ -167,7 +178,10 @@ public class CourseServiceImpl implements CourseService {
             yearlyEnrollment.getStudentIds().add(studentId);
         }
 
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        markClassmatesForSuggestions(savedCourse, List.of(studentId));
+        courseScopeCache.invalidateUsers(List.of(studentId));
+        return savedCourse;
     }
 
     @Override
@@ -185,7 +199,10 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // Save the updated course with the students removed
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        markClassmatesForSuggestions(savedCourse, studentIdsToUnenroll);
+        courseScopeCache.invalidateUsers(studentIdsToUnenroll);
+        return savedCourse;
     }
 
     @Override
@@ -293,6 +310,8 @@ public class CourseServiceImpl implements CourseService {
         currentYearEnrollment.getStudentIds().add(enrollmentDto.getStudentId());
 
         Course updatedCourse = courseRepository.save(course);
+        markClassmatesForSuggestions(updatedCourse, List.of(enrollmentDto.getStudentId()));
+        courseScopeCache.invalidateUsers(List.of(enrollmentDto.getStudentId()));
 
         // Fetch lecturer name
         String lecturerName = "Not Assigned";
@@ -413,6 +432,7 @@ public class CourseServiceImpl implements CourseService {
         course.setSemester(courseDto.getSemester());
         // You can update other fields from the DTO if needed
         Course updatedCourse = courseRepository.save(course);
+        courseScopeCache.invalidateUsers(Collections.singletonList(courseDto.getLecturerId()));
 
         // Map the updated course to a DTO and return
         CourseResponseDto responseDto = new CourseResponseDto();
@@ -477,6 +497,15 @@ public class CourseServiceImpl implements CourseService {
 
         course.setLecturerId(null);
         courseRepository.save(course);
+        courseScopeCache.invalidateUsers(List.of(lecturerId));
     }
 
-}
\ No newline at end of file
+    // Shared course counts change for the (un)enrolled students and for everybody still in the course
+    private void markClassmatesForSuggestions(Course course, List<String> changedStudentIds) {
+        Set<String> affected = new HashSet<>(changedStudentIds);
+        if (course.getEnrollments() != null) {
+            course.getEnrollments().forEach(enrollment -> affected.addAll(enrollment.getStudentIds()));
+        }
+        suggestionEngine.markDirty(affected);
+    }
+}
@@ -2,12 +2,8 @@ package com.example.backend.eduSphere.service.impl;
 
 import com.example.backend.eduSphere.dto.request.AssignmentRequestDto;
 import com.example.backend.eduSphere.dto.response.AssignmentResponseDto;
-import com.example.backend.eduSphere.dto.response.DashboardChartsDto;
 import com.example.backend.eduSphere.dto.response.DashboardDataResponseDto;
-import com.example.backend.eduSphere.dto.response.DashboardStatsDto;
 import com.example.backend.eduSphere.entity.Assignment;
-import com.example.backend.eduSphere.entity.Course;
-import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.AssignmentRepository;
 import com.example.backend.eduSphere.repository.CourseRepository;
 import com.example.backend.eduSphere.repository.UserRepository;
@@ -15,10 +11,7 @@ import com.example.backend.eduSphere.service.DashboardService;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,90 +20,27 @@ public class DashboardServiceImpl implements DashboardService {
     private final UserRepository userRepository;
     private final AssignmentRepository assignmentRepository;
     private final CourseRepository courseRepository;
+    private final DashboardStatisticsCache dashboardStatisticsCache;
+    private final CalendarFeedService calendarFeedService;
 
-    public DashboardServiceImpl(UserRepository userRepository, AssignmentRepository assignmentRepository, CourseRepository courseRepository) {
+    public DashboardServiceImpl(UserRepository userRepository, AssignmentRepository assignmentRepository, CourseRepository courseRepository,
+                                DashboardStatisticsCache dashboardStatisticsCache, CalendarFeedService calendarFeedService) {
         this.userRepository = userRepository;
         this.assignmentRepository = assignmentRepository;
         this.courseRepository = courseRepository;
+        this.dashboardStatisticsCache = dashboardStatisticsCache;
+        this.calendarFeedService = calendarFeedService;
     }
 
     @Override
     public DashboardDataResponseDto getDashboardDataForRole(String userRole) {
-        List<Course> allCourses = courseRepository.findAll();
-
-        long activeUserCount = userRepository.count();
-        Set<String> departments = allCourses.stream()
-                .map(Course::getDepartment)
-                .collect(Collectors.toSet());
-        long activeDepartmentCount = departments.size();
-
-        DashboardStatsDto statsDto = new DashboardStatsDto(activeUserCount, "System Optimal", activeDepartmentCount);
-        DashboardChartsDto chartsDto = getChartData(allCourses);
+        // Stats and charts come from the pre-aggregated snapshot (refreshed on a schedule)
+        DashboardStatisticsCache.Snapshot snapshot = dashboardStatisticsCache.getSnapshot();
         List<AssignmentResponseDto> assignments = getUpcomingAssignments();
 
-        return new DashboardDataResponseDto(statsDto, chartsDto, assignments);
+        return new DashboardDataResponseDto(snapshot.getStats(), snapshot.getCharts(), assignments);
     }
 
-    private DashboardChartsDto getChartData(List<Course> allCourses) {
-        // --- Department Enrollment Chart Logic ---
-        Map<String, Integer> enrollmentByDept = new HashMap<>();
-        for (Course course : allCourses) {
-            String department = course.getDepartment();
-
-            // --- UPDATED LOGIC ---
-            // Calculate total students by summing up enrollments from all years for the course.
-            int studentCount = 0;
-            if (course.getEnrollments() != null) {
-                studentCount = course.getEnrollments().stream()
-                        .mapToInt(enrollment -> enrollment.getStudentIds().size())
-                        .sum();
-            }
-            // --- END OF UPDATED LOGIC ---
-
-            enrollmentByDept.put(department, enrollmentByDept.getOrDefault(department, 0) + studentCount);
-        }
-        List<Map<String, Object>> departmentEnrollmentData = enrollmentByDept.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> dataPoint = new HashMap<>();
-                    dataPoint.put("name", entry.getKey());
-                    dataPoint.put("value", entry.getValue());
-                    return dataPoint;
-                })
-                .collect(Collectors.toList());
-
-        // --- System Usage Pie Chart Logic ---
-        long studentCount = userRepository.findByRole("1300").size();
-        long lecturerCount = userRepository.findByRole("1200").size();
-        long adminCount = userRepository.findByRole("1100").size();
-        List<Map<String, Object>> systemUsageData = List.of(
-                Map.of("name", "Students", "value", studentCount),
-                Map.of("name", "Lecturers", "value", lecturerCount),
-                Map.of("name", "Admins", "value", adminCount)
-        );
-
-        // --- Annual Enrollment Line Chart Logic ---
-        List<UserEntity> allUsers = userRepository.findAll();
-        Map<Integer, Long> usersByYear = allUsers.stream()
-                .filter(user -> user.getCreatedAt() != null)
-                .collect(Collectors.groupingBy(
-                        user -> user.getCreatedAt().getYear(),
-                        Collectors.counting()
-                ));
-
-        List<Map<String, Object>> annualEnrollmentData = usersByYear.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> {
-                    Map<String, Object> dataPoint = new HashMap<>();
-                    dataPoint.put("name", String.valueOf(entry.getKey()));
-                    dataPoint.put("value", entry.getValue());
-                    return dataPoint;
-                })
-                .collect(Collectors.toList());
-
-        return new DashboardChartsDto(departmentEnrollmentData, systemUsageData, annualEnrollmentData);
-    }
-
-
     // --- Assignment-related methods (no changes) ---
     @Override
     public AssignmentResponseDto createAssignment(AssignmentRequestDto assignmentRequestDto) {
@@ -118,6 +48,7 @@ public class DashboardServiceImpl implements DashboardService {
         Assignment newAssignment = new Assignment();
         mapToAssignmentEntity(newAssignment, assignmentRequestDto);
         Assignment savedAssignment = assignmentRepository.save(newAssignment);
+        calendarFeedService.invalidateAll();
         return mapToAssignmentResponseDto(savedAssignment);
     }
 
@@ -128,6 +59,7 @@ public class DashboardServiceImpl implements DashboardService {
                 .orElseThrow(() -> new RuntimeException("Assignment not found with id: " + id));
         mapToAssignmentEntity(existingAssignment, assignmentRequestDto);
         Assignment savedAssignment = assignmentRepository.save(existingAssignment);
+        calendarFeedService.invalidateAll();
         return mapToAssignmentResponseDto(savedAssignment);
     }
 
@@ -138,6 +70,7 @@ public class DashboardServiceImpl implements DashboardService {
             throw new RuntimeException("Assignment not found with id: " + id);
         }
         assignmentRepository.deleteById(id);
+        calendarFeedService.invalidateAll();
     }
 
     private List<AssignmentResponseDto> getUpcomingAssignments() {
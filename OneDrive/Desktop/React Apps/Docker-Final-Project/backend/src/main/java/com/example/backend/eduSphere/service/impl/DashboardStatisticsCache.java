@@ -0,0 +1,176 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.dto.response.DashboardChartsDto;
+import com.example.backend.eduSphere.dto.response.DashboardStatsDto;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.UserEntity;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-aggregated admin dashboard statistics.
+ *
+ * Department enrollment, role counts and users per year are computed by aggregation pipelines
+ * (no user or course documents are loaded) and kept as a snapshot that is refreshed
+ * on a fixed interval. Dashboard requests only read the current snapshot.
+ */
+@Component
+public class DashboardStatisticsCache {
+
+    private static final String ROLE_STUDENT = "1300";
+    private static final String ROLE_LECTURER = "1200";
+    private static final String ROLE_ADMIN = "1100";
+
+    private final MongoTemplate mongoTemplate;
+    private final long maxAgeMillis;
+
+    private volatile Snapshot snapshot;
+
+    public DashboardStatisticsCache(MongoTemplate mongoTemplate,
+                                    @Value("${app.dashboard.stats.refresh-interval-ms:300000}") long refreshIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxAgeMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Current snapshot; computed on the calling thread only if none exists yet or the scheduled
+     * refresh has fallen far behind.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (isStale(current)) {
+            synchronized (this) {
+                current = snapshot;
+                if (isStale(current)) {
+                    current = refresh();
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale(Snapshot current) {
+        return current == null || System.currentTimeMillis() - current.computedAtMillis > 2 * maxAgeMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stats.refresh-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.stats.refresh-interval-ms:300000}")
+    public synchronized Snapshot refresh() {
+        long start = System.currentTimeMillis();
+
+        List<Map<String, Object>> departmentEnrollment = new ArrayList<>();
+        for (Document row : aggregateDepartmentEnrollment()) {
+            departmentEnrollment.add(dataPoint(row.getString("_id"), ((Number) row.get("value")).intValue()));
+        }
+
+        Map<String, Long> usersByRole = aggregateUsersByRole();
+        long totalUsers = usersByRole.values().stream().mapToLong(Long::longValue).sum();
+        List<Map<String, Object>> systemUsage = List.of(
+                Map.of("name", "Students", "value", usersByRole.getOrDefault(ROLE_STUDENT, 0L)),
+                Map.of("name", "Lecturers", "value", usersByRole.getOrDefault(ROLE_LECTURER, 0L)),
+                Map.of("name", "Admins", "value", usersByRole.getOrDefault(ROLE_ADMIN, 0L))
+        );
+
+        List<Map<String, Object>> annualEnrollment = new ArrayList<>();
+        for (Document row : aggregateUsersByYear()) {
+            annualEnrollment.add(dataPoint(String.valueOf(row.get("_id")), ((Number) row.get("value")).longValue()));
+        }
+
+        DashboardStatsDto stats = new DashboardStatsDto(totalUsers, "System Optimal", departmentEnrollment.size());
+        DashboardChartsDto charts = new DashboardChartsDto(departmentEnrollment, systemUsage, annualEnrollment);
+
+        Snapshot refreshed = new Snapshot(stats, charts, LocalDateTime.now(), System.currentTimeMillis());
+        snapshot = refreshed;
+
+        System.out.println("📊 Dashboard statistics refreshed in " + (System.currentTimeMillis() - start) + " ms");
+        return refreshed;
+    }
+
+    /**
+     * Total enrolled students (over all yearly enrollments) per department
+     */
+    private List<Document> aggregateDepartmentEnrollment() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.unwind("enrollments", true),
+                Aggregation.project("department")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("enrollments.studentIds").then(List.of())))
+                        .as("students"),
+                Aggregation.group("department").sum("students").as("value"));
+
+        return mongoTemplate.aggregate(aggregation, Course.class, Document.class).getMappedResults();
+    }
+
+    private Map<String, Long> aggregateUsersByRole() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("role").count().as("value"));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, UserEntity.class, Document.class).getMappedResults()) {
+            counts.put(row.getString("_id"), ((Number) row.get("value")).longValue());
+        }
+        return counts;
+    }
+
+    private List<Document> aggregateUsersByYear() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").ne(null)),
+                Aggregation.project()
+                        .and(DateOperators.Year.yearOf("createdAt")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                        .as("year"),
+                Aggregation.group("year").count().as("value"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        return mongoTemplate.aggregate(aggregation, UserEntity.class, Document.class).getMappedResults();
+    }
+
+    private static Map<String, Object> dataPoint(String name, Object value) {
+        Map<String, Object> dataPoint = new HashMap<>();
+        dataPoint.put("name", name);
+        dataPoint.put("value", value);
+        return dataPoint;
+    }
+
+    public static final class Snapshot {
+        private final DashboardStatsDto stats;
+        private final DashboardChartsDto charts;
+        private final LocalDateTime computedAt;
+        private final long computedAtMillis;
+
+        private Snapshot(DashboardStatsDto stats, DashboardChartsDto charts, LocalDateTime computedAt, long computedAtMillis) {
+            this.stats = stats;
+            this.charts = charts;
+            this.computedAt = computedAt;
+            this.computedAtMillis = computedAtMillis;
+        }
+
+        public DashboardStatsDto getStats() {
+            return stats;
+        }
+
+        public DashboardChartsDto getCharts() {
+            return charts;
+        }
+
+        public LocalDateTime getComputedAt() {
+            return computedAt;
+        }
+    }
+}
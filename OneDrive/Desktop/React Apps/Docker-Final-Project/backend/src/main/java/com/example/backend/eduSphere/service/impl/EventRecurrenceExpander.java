@@ -0,0 +1,41 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Event;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expands weekly event rules into the dates they occur on within a range.
+ *
+ * The first occurrence is found with a single day-of-week adjustment and the rest by stepping a
+ * week at a time, so a rule costs one iteration per occurrence whether the range is a week, a
+ * month or a whole semester. A rule without a start or end date is open-ended on that side.
+ */
+public final class EventRecurrenceExpander {
+
+    private EventRecurrenceExpander() {
+    }
+
+    /**
+     * Dates in [from, to] (inclusive) on which the rule occurs, in ascending order
+     */
+    public static List<LocalDate> occurrences(Event rule, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (rule.getDayOfWeek() == null || from == null || to == null) {
+            return dates;
+        }
+
+        LocalDate first = rule.getStartDate() != null && rule.getStartDate().isAfter(from) ? rule.getStartDate() : from;
+        LocalDate last = rule.getEndDate() != null && rule.getEndDate().isBefore(to) ? rule.getEndDate() : to;
+
+        for (LocalDate date = first.with(TemporalAdjusters.nextOrSame(rule.getDayOfWeek()));
+             !date.isAfter(last);
+             date = date.plusWeeks(1)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+}
@@ -4,15 +4,19 @@ import com.example.backend.common.controller.FileUploadController;
 import com.example.backend.common.exceptions.ResourceNotFoundException;
 import com.example.backend.eduSphere.dto.request.FileUploadRequest;
 import com.example.backend.eduSphere.dto.response.FileResponse;
-import com.example.backend.eduSphere.entity.Course;
 import com.example.backend.eduSphere.entity.File;
 import com.example.backend.eduSphere.repository.FileRepository;
-import com.example.backend.eduSphere.repository.CourseRepository;
 import com.example.backend.eduSphere.service.FileService;
+import com.example.backend.eduSphere.service.impl.UserCourseScopeCache.UserCourseScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,23 +26,27 @@ import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class FileServiceImpl implements FileService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private FileRepository fileRepository;
 
     @Autowired
-    private FileUploadController fileUploadController;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private UserCourseScopeCache courseScopeCache;
+
+    @Autowired
+    private FileUploadController fileUploadController;
 
     @Value("${app.upload.dir}")
     private String uploadDir;
@@ -65,6 +73,7 @@ public class FileServiceImpl implements FileService {
         fileEntity.setSize(body.get("size"));
         fileEntity.setFileUrl(body.get("url"));
         fileEntity.setFilename(body.get("filename"));
+        fileEntity.setContentHash(body.get("contentHash"));
 
         fileEntity.setUploadedByUserId(uploaderId);
         fileEntity.setUploadedByUserName(uploaderName);
@@ -87,85 +96,57 @@ public class FileServiceImpl implements FileService {
 
     @Override
     public List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment) {
-        List<File> files;
+        return getAccessibleFiles(userId, userRole, userDepartment, null, 0);
+    }
+
+    @Override
+    public List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment,
+                                                 Integer page, int size) {
+        Query query = new Query(accessCriteria(userId, userRole))
+                .with(Sort.by(Sort.Direction.DESC, "uploadDate"));
+        if (page != null) {
+            query.with(PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        }
 
+        return mongoTemplate.find(query, File.class).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The access rules as a single query. Admins see everything; lecturers and students get one
+     * $or branch per rule, each served by the access_value or recipients index.
+     */
+    private Criteria accessCriteria(String userId, String userRole) {
         if ("1100".equals(userRole)) { // Admin
-            files = fileRepository.findAllByOrderByUploadDateDesc();
-        } else if ("1200".equals(userRole)) { // Lecturer
-            Set<String> lecturerDepartments = courseRepository.findByLecturerId(userId).stream()
-                    .map(Course::getDepartment)
-                    .collect(Collectors.toSet());
-
-            Set<String> lecturerCourseIds = courseRepository.findByLecturerId(userId).stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toSet());
-
-            files = fileRepository.findFilesForBaseFiltering().stream()
-                    .filter(file -> {
-                        String accessType = file.getAccessType();
-                        String accessValue = file.getAccessValue();
-
-                        if ("public".equals(accessType) || "lecturers".equals(accessType)) {
-                            return true;
-                        }
-
-                        if ("students".equals(accessType) && "Department".equals(file.getAccessBy()) && lecturerDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        if ("course".equals(accessType) && lecturerCourseIds.contains(accessValue)) {
-                            return true;
-                        }
-
-                        // 🆕 NEW: Check for personal access
-                        if ("personal".equals(accessType) && file.getRecipientIds() != null && file.getRecipientIds().contains(userId)) {
-                            return true;
-                        }
-
-                        return false;
-                    })
-                    .collect(Collectors.toList());
+            return new Criteria();
+        }
+
+        UserCourseScope scope = courseScopeCache.get(userId, userRole);
+        List<Criteria> rules = new ArrayList<>();
+
+        if ("1200".equals(userRole)) { // Lecturer
+            rules.add(Criteria.where("accessType").in("public", "lecturers"));
+            if (!scope.departments().isEmpty()) {
+                rules.add(Criteria.where("accessType").is("students")
+                        .and("accessValue").in(scope.departments())
+                        .and("accessBy").is("Department"));
+            }
         } else { // Student
-            Set<String> studentDepartments = courseRepository.findByEnrollments_StudentIds(userId).stream()
-                    .map(Course::getDepartment)
-                    .collect(Collectors.toSet());
-
-            Set<String> studentCourseIds = courseRepository.findByEnrollments_StudentIds(userId).stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toSet());
-
-            files = fileRepository.findFilesForBaseFiltering().stream()
-                    .filter(file -> {
-                        String accessType = file.getAccessType();
-                        String accessValue = file.getAccessValue();
-
-                        if ("public".equals(accessType)) {
-                            return true;
-                        }
-
-                        if ("students".equals(accessType) && "Department".equals(file.getAccessBy()) && studentDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        if ("lecturers".equals(accessType) && "Department".equals(file.getAccessBy()) && studentDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        if ("course".equals(accessType) && studentCourseIds.contains(accessValue)) {
-                            return true;
-                        }
-
-                        // 🆕 NEW: Check for personal access
-                        if ("personal".equals(accessType) && file.getRecipientIds() != null && file.getRecipientIds().contains(userId)) {
-                            return true;
-                        }
-
-                        return false;
-                    })
-                    .collect(Collectors.toList());
+            rules.add(Criteria.where("accessType").is("public"));
+            if (!scope.departments().isEmpty()) {
+                rules.add(Criteria.where("accessType").in("students", "lecturers")
+                        .and("accessValue").in(scope.departments())
+                        .and("accessBy").is("Department"));
+            }
+        }
+
+        if (!scope.courseIds().isEmpty()) {
+            rules.add(Criteria.where("accessType").is("course").and("accessValue").in(scope.courseIds()));
         }
+        rules.add(Criteria.where("recipientIds").is(userId).and("accessType").is("personal"));
 
-        return files.stream().map(this::mapToResponse).collect(Collectors.toList());
+        return new Criteria().orOperator(rules);
     }
 
     @Override
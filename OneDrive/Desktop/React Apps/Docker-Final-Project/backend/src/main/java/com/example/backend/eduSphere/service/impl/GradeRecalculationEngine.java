@@ -0,0 +1,239 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.GradeColumn;
+import com.example.backend.eduSphere.entity.StudentGrade;
+import com.example.backend.eduSphere.repository.GradeColumnRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Course-wide final grade recomputation.
+ *
+ * Loads the active columns and the course's grade records once, accumulates the weighted
+ * score of every student column by column over primitive arrays, and writes back only the
+ * records whose final grade actually changed with a single unordered bulk write.
+ *
+ * Every record also stores its unrounded weighted score and graded weight, so a change to a
+ * single column's percentage can be applied arithmetically (see {@link #applyColumnWeightChange})
+ * by reading only that column's grade instead of every student's full grade map.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradeRecalculationEngine {
+
+    private final MongoTemplate mongoTemplate;
+    private final GradeColumnRepository gradeColumnRepository;
+
+    /**
+     * Full recompute of every grade record in the course. Returns the number of records written.
+     */
+    public int recomputeCourse(String courseId) {
+        List<GradeColumn> columns = gradeColumnRepository.findByCourseIdAndIsActiveTrue(courseId);
+        List<StudentGrade> records = mongoTemplate.find(
+                Query.query(Criteria.where("courseId").is(courseId)), StudentGrade.class);
+
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        int studentCount = records.size();
+        double[] weightedScores = new double[studentCount];
+        double[] gradedWeights = new double[studentCount];
+
+        // Column-major pass: one weight per column, one accumulator slot per student
+        for (GradeColumn column : columns) {
+            String columnId = column.getId();
+            double weight = column.getPercentage() == null ? 0.0 : column.getPercentage();
+
+            for (int s = 0; s < studentCount; s++) {
+                Map<String, Double> grades = records.get(s).getGrades();
+                Double grade = grades == null ? null : grades.get(columnId);
+                if (grade != null && grade >= 0) {
+                    weightedScores[s] += (grade * weight) / 100.0;
+                    gradedWeights[s] += weight;
+                }
+            }
+        }
+
+        BulkOperations bulkOps = null;
+        int changed = 0;
+
+        for (int s = 0; s < studentCount; s++) {
+            StudentGrade record = records.get(s);
+            double finalGrade = finalGradeFrom(weightedScores[s], gradedWeights[s]);
+            String letterGrade = letterGradeFor(finalGrade);
+
+            if (Objects.equals(record.getFinalGrade(), finalGrade)
+                    && Objects.equals(record.getFinalLetterGrade(), letterGrade)
+                    && Objects.equals(record.getWeightedScore(), weightedScores[s])
+                    && Objects.equals(record.getGradedWeight(), gradedWeights[s])) {
+                continue;
+            }
+
+            if (bulkOps == null) {
+                bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StudentGrade.class);
+            }
+            bulkOps.updateOne(byId(record.getId()),
+                    aggregateUpdate(weightedScores[s], gradedWeights[s], finalGrade, letterGrade));
+            changed++;
+        }
+
+        if (bulkOps != null) {
+            bulkOps.execute();
+        }
+
+        System.out.println("🔄 Recomputed " + studentCount + " grade records for course " + courseId +
+                " (" + columns.size() + " columns), " + changed + " changed");
+        return changed;
+    }
+
+    /**
+     * Delta recompute after a single column's percentage changed from {@code oldPercentage} to
+     * {@code newPercentage}. Only records holding a grade for that column are affected; they are
+     * read with a projection of that one grade plus the stored aggregates. Falls back to a full
+     * recompute if any affected record predates the stored aggregates. An inactive column does not
+     * count towards final grades (see {@link #recomputeCourse}), so changing its weight changes nothing.
+     */
+    public int applyColumnWeightChange(String courseId, String columnId, int oldPercentage, int newPercentage) {
+        if (oldPercentage == newPercentage) {
+            return 0;
+        }
+        GradeColumn column = gradeColumnRepository.findById(columnId).orElse(null);
+        if (column == null || !Boolean.TRUE.equals(column.getIsActive())) {
+            return 0;
+        }
+
+        String gradePath = "grades." + columnId;
+        Query query = Query.query(Criteria.where("courseId").is(courseId).and(gradePath).gte(0));
+        query.fields().include(gradePath).include("weightedScore").include("gradedWeight")
+                .include("finalGrade").include("finalLetterGrade");
+
+        List<StudentGrade> affected = mongoTemplate.find(query, StudentGrade.class);
+        if (affected.isEmpty()) {
+            return 0;
+        }
+
+        double weightDelta = newPercentage - oldPercentage;
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StudentGrade.class);
+
+        for (StudentGrade record : affected) {
+            if (record.getWeightedScore() == null || record.getGradedWeight() == null) {
+                return recomputeCourse(courseId);
+            }
+
+            applyWeightDelta(record, record.getGrades().get(columnId), weightDelta);
+            bulkOps.updateOne(byId(record.getId()), aggregateUpdate(record.getWeightedScore(),
+                    record.getGradedWeight(), record.getFinalGrade(), record.getFinalLetterGrade()));
+        }
+
+        bulkOps.execute();
+
+        System.out.println("⚖️ Applied weight change " + oldPercentage + "% → " + newPercentage +
+                "% for column " + columnId + " to " + affected.size() + " grade records");
+        return affected.size();
+    }
+
+    /**
+     * Shifts a record's stored aggregates by one graded column's weight change and derives its
+     * final grade and letter grade from them; the result equals {@link #recomputeRecord} with the
+     * new weight as long as the stored aggregates were current.
+     */
+    static void applyWeightDelta(StudentGrade record, double grade, double weightDelta) {
+        double weightedScore = record.getWeightedScore() + (grade * weightDelta) / 100.0;
+        double gradedWeight = record.getGradedWeight() + weightDelta;
+        double finalGrade = finalGradeFrom(weightedScore, gradedWeight);
+        record.setWeightedScore(weightedScore);
+        record.setGradedWeight(gradedWeight);
+        record.setFinalGrade(finalGrade);
+        record.setFinalLetterGrade(letterGradeFor(finalGrade));
+    }
+
+    /**
+     * Recomputes a single in-memory record against the given columns, setting its aggregates,
+     * final grade and letter grade. Returns the final grade.
+     */
+    public double recomputeRecord(StudentGrade record, List<GradeColumn> columns) {
+        double weightedScore = 0.0;
+        double gradedWeight = 0.0;
+        Map<String, Double> grades = record.getGrades();
+
+        if (grades != null) {
+            for (GradeColumn column : columns) {
+                Double grade = grades.get(column.getId());
+                double weight = column.getPercentage() == null ? 0.0 : column.getPercentage();
+                if (grade != null && grade >= 0) {
+                    weightedScore += (grade * weight) / 100.0;
+                    gradedWeight += weight;
+                }
+            }
+        }
+
+        double finalGrade = finalGradeFrom(weightedScore, gradedWeight);
+        record.setWeightedScore(weightedScore);
+        record.setGradedWeight(gradedWeight);
+        record.setFinalGrade(finalGrade);
+        record.setFinalLetterGrade(letterGradeFor(finalGrade));
+        return finalGrade;
+    }
+
+    /**
+     * Final percentage from the weighted score and the total weight of graded columns.
+     * Partially graded students are scaled to the graded weight; result is clamped to
+     * [0, 100] and rounded to two decimals.
+     */
+    static double finalGradeFrom(double weightedScore, double gradedWeight) {
+        double finalGrade;
+        if (gradedWeight <= 0) {
+            finalGrade = 0.0;
+        } else if (gradedWeight == 100.0) {
+            finalGrade = weightedScore;
+        } else {
+            finalGrade = (weightedScore / gradedWeight) * 100.0;
+        }
+
+        finalGrade = Math.max(0.0, Math.min(100.0, finalGrade));
+        return Math.round(finalGrade * 100.0) / 100.0;
+    }
+
+    static String letterGradeFor(Double percentage) {
+        if (percentage == null || percentage < 0) return "F";
+
+        if (percentage >= 97) return "A+";
+        else if (percentage >= 93) return "A";
+        else if (percentage >= 90) return "A-";
+        else if (percentage >= 87) return "B+";
+        else if (percentage >= 83) return "B";
+        else if (percentage >= 80) return "B-";
+        else if (percentage >= 77) return "C+";
+        else if (percentage >= 73) return "C";
+        else if (percentage >= 70) return "C-";
+        else if (percentage >= 67) return "D+";
+        else if (percentage >= 63) return "D";
+        else if (percentage >= 60) return "D-";
+        else return "F";
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private static Update aggregateUpdate(double weightedScore, double gradedWeight,
+                                          double finalGrade, String letterGrade) {
+        return new Update()
+                .set("weightedScore", weightedScore)
+                .set("gradedWeight", gradedWeight)
+                .set("finalGrade", finalGrade)
+                .set("finalLetterGrade", letterGrade)
+                .set("updatedAt", LocalDateTime.now());
+    }
+}
@@ -9,6 +9,10 @@ import com.example.backend.eduSphere.repository.CourseRepository;
 import com.example.backend.eduSphere.repository.GradeColumnRepository;
 import com.example.backend.eduSphere.repository.StudentGradeRepository;
 import com.example.backend.eduSphere.service.GradeService;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,13 +28,22 @@ public class GradeServiceImpl implements GradeService {
     private final GradeColumnRepository gradeColumnRepository;
     private final StudentGradeRepository studentGradeRepository;
     private final CourseRepository courseRepository;
+    private final GradeRecalculationEngine gradeRecalculationEngine;
+    private final BulkGradeEntryProcessor bulkGradeEntryProcessor;
+    private final MongoTemplate mongoTemplate;
 
     public GradeServiceImpl(GradeColumnRepository gradeColumnRepository,
                             StudentGradeRepository studentGradeRepository,
-                            CourseRepository courseRepository) {
+                            CourseRepository courseRepository,
+                            GradeRecalculationEngine gradeRecalculationEngine,
+                            BulkGradeEntryProcessor bulkGradeEntryProcessor,
+                            MongoTemplate mongoTemplate) {
         this.gradeColumnRepository = gradeColumnRepository;
         this.studentGradeRepository = studentGradeRepository;
         this.courseRepository = courseRepository;
+        this.gradeRecalculationEngine = gradeRecalculationEngine;
+        this.bulkGradeEntryProcessor = bulkGradeEntryProcessor;
+        this.mongoTemplate = mongoTemplate;
     }
 
 
@@ -104,6 +117,8 @@ public class GradeServiceImpl implements GradeService {
             }
         }
 
+        Integer previousPercentage = existingColumn.getPercentage();
+
         // Update fields safely
         if (updates.getName() != null && !updates.getName().trim().isEmpty()) {
             existingColumn.setName(updates.getName().trim());
@@ -124,8 +139,13 @@ public class GradeServiceImpl implements GradeService {
         GradeColumn savedColumn = gradeColumnRepository.save(existingColumn);
         System.out.println("✅ Updated grade column successfully");
 
-        // Recalculate all student grades for this course after updating column
-        recalculateAllGradesForCourse(existingColumn.getCourseId());
+        // Only the weight affects final grades: apply it as a delta to the students graded in this column
+        if (previousPercentage != null && !previousPercentage.equals(savedColumn.getPercentage())) {
+            gradeRecalculationEngine.applyColumnWeightChange(existingColumn.getCourseId(), columnId,
+                    previousPercentage, savedColumn.getPercentage());
+        } else if (previousPercentage == null) {
+            recalculateAllGradesForCourse(existingColumn.getCourseId());
+        }
 
         return savedColumn;
     }
@@ -139,12 +159,11 @@ public class GradeServiceImpl implements GradeService {
 
         String courseId = column.getCourseId();
 
-        // Remove this column's grades from all students
-        List<StudentGrade> studentGrades = studentGradeRepository.findByCourseId(courseId);
-        for (StudentGrade studentGrade : studentGrades) {
-            studentGrade.removeGrade(columnId);
-            studentGradeRepository.save(studentGrade);
-        }
+        // Remove this column's grades from all students in a single multi-document update
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("courseId").is(courseId)),
+                new Update().unset("grades." + columnId),
+                StudentGrade.class);
 
         // Delete the column
         gradeColumnRepository.deleteById(columnId);
@@ -207,12 +226,9 @@ public class GradeServiceImpl implements GradeService {
             System.out.println("📊 After update - Student grades: " + studentGrade.getGrades());
 
             // FIXED: Calculate final grade using the UPDATED record, not fetching from database again
-            Double finalGrade = calculateFinalGradeFromRecord(studentGrade, courseId);
-            String letterGrade = calculateLetterGrade(finalGrade);
-
-            // Update the final grades
-            studentGrade.setFinalGrade(finalGrade);
-            studentGrade.setFinalLetterGrade(letterGrade);
+            // (also refreshes the stored aggregates used for column weight deltas)
+            Double finalGrade = gradeRecalculationEngine.recomputeRecord(studentGrade, getGradeColumnsByCourse(courseId));
+            String letterGrade = studentGrade.getFinalLetterGrade();
 
             System.out.println("🎯 Calculated final grade: " + finalGrade + "% (" + letterGrade + ")");
 
@@ -230,6 +246,12 @@ public class GradeServiceImpl implements GradeService {
         }
     }
 
+    @Override
+    public Map<String, Object> bulkUpdateGrades(List<?> cells) {
+        System.out.println("📝 === BULK GRADE UPDATE: " + cells.size() + " cells ===");
+        return bulkGradeEntryProcessor.apply(cells);
+    }
+
     /**
      * NEW METHOD: Calculate final grade from an existing StudentGrade record
      * This avoids fetching from database and uses the in-memory updated record
@@ -438,21 +460,7 @@ public class GradeServiceImpl implements GradeService {
 
     @Override
     public String calculateLetterGrade(Double percentage) {
-        if (percentage == null || percentage < 0) return "F";
-
-        if (percentage >= 97) return "A+";
-        else if (percentage >= 93) return "A";
-        else if (percentage >= 90) return "A-";
-        else if (percentage >= 87) return "B+";
-        else if (percentage >= 83) return "B";
-        else if (percentage >= 80) return "B-";
-        else if (percentage >= 77) return "C+";
-        else if (percentage >= 73) return "C";
-        else if (percentage >= 70) return "C-";
-        else if (percentage >= 67) return "D+";
-        else if (percentage >= 63) return "D";
-        else if (percentage >= 60) return "D-";
-        else return "F";
+        return GradeRecalculationEngine.letterGradeFor(percentage);
     }
 
     @Override
@@ -476,58 +484,16 @@ public class GradeServiceImpl implements GradeService {
 
     /**
      * Helper method to recalculate all final grades for a course
-     * This ensures consistency when grade columns are modified
+     * This ensures consistency when grade columns are modified.
+     * Columns and grade records are loaded once and only changed records are written (one bulk write).
      */
     public void recalculateAllGradesForCourse(String courseId) {
         System.out.println("🔄 === RECALCULATING ALL GRADES FOR COURSE ===");
         System.out.println("Course: " + courseId);
 
         try {
-            List<StudentGrade> studentGrades = studentGradeRepository.findByCourseId(courseId);
-            System.out.println("👥 Found " + studentGrades.size() + " student records");
-
-            int updatedCount = 0;
-
-            // Get unique student IDs to handle duplicates
-            Set<String> processedStudents = new HashSet<>();
-
-            for (StudentGrade studentGrade : studentGrades) {
-                String studentId = studentGrade.getStudentId();
-
-                // Skip if we've already processed this student (handles duplicates)
-                if (processedStudents.contains(studentId)) {
-                    continue;
-                }
-                processedStudents.add(studentId);
-
-                try {
-                    Double newFinalGrade = calculateFinalGrade(studentId, courseId);
-                    String newLetterGrade = calculateLetterGrade(newFinalGrade);
-
-                    // Find the most recent record for this student
-                    StudentGrade currentRecord = findOrCreateStudentGradeRecord(studentId, courseId);
-
-                    // Only update if values changed
-                    if (!Objects.equals(currentRecord.getFinalGrade(), newFinalGrade) ||
-                            !Objects.equals(currentRecord.getFinalLetterGrade(), newLetterGrade)) {
-
-                        currentRecord.setFinalGrade(newFinalGrade);
-                        currentRecord.setFinalLetterGrade(newLetterGrade);
-
-                        studentGradeRepository.save(currentRecord);
-                        updatedCount++;
-
-                        System.out.println("✅ Updated student " + studentId +
-                                ": " + newFinalGrade + "% (" + newLetterGrade + ")");
-                    }
-                } catch (Exception e) {
-                    System.err.println("❌ Error updating grades for student " + studentId + ": " + e.getMessage());
-                }
-            }
-
-            System.out.println("🎉 Recalculation complete: " + updatedCount + "/" +
-                    processedStudents.size() + " records updated");
-
+            int updatedCount = gradeRecalculationEngine.recomputeCourse(courseId);
+            System.out.println("🎉 Recalculation complete: " + updatedCount + " records updated");
         } catch (Exception e) {
             System.err.println("❌ Error during bulk recalculation: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,287 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Assignment;
+import com.example.backend.eduSphere.entity.Event;
+import com.example.backend.eduSphere.entity.Meeting;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 5545 (iCalendar) content lines for the calendar feed.
+ *
+ * Weekly event rules become a single VEVENT with an RRULE instead of one VEVENT per occurrence,
+ * with local times anchored to a VTIMEZONE derived from the zone's transition rules so that
+ * clients keep the lecture at the same wall-clock time across DST changes. Assignments are
+ * all-day (or timed, if they have a due time) entries on their due date, meetings are timed
+ * entries in UTC as they are stored. Components are returned without UID / DTSTAMP, which the
+ * feed adds when it writes them.
+ */
+public final class ICalendarFormat {
+
+    public static final String UID_DOMAIN = "@edusphere";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private ICalendarFormat() {
+    }
+
+    public static String eventUid(Event event) {
+        return "event-" + event.getId() + UID_DOMAIN;
+    }
+
+    public static String assignmentUid(Assignment assignment) {
+        return "assignment-" + assignment.getId() + UID_DOMAIN;
+    }
+
+    public static String meetingUid(Meeting meeting) {
+        return "meeting-" + meeting.getId() + UID_DOMAIN;
+    }
+
+    /**
+     * The recurring VEVENT of a weekly event rule, or an empty list if the rule has no day of
+     * week or never occurs. A rule without a start date starts at {@code fallbackStart}.
+     */
+    public static List<String> eventRule(Event event, ZoneId zone, LocalDate fallbackStart) {
+        List<String> lines = new ArrayList<>();
+        if (event.getDayOfWeek() == null) {
+            return lines;
+        }
+
+        LocalDate start = event.getStartDate() != null ? event.getStartDate() : fallbackStart;
+        LocalDate first = start.with(TemporalAdjusters.nextOrSame(event.getDayOfWeek()));
+        if (event.getEndDate() != null && first.isAfter(event.getEndDate())) {
+            return lines;
+        }
+
+        lines.add("SUMMARY:" + escapeText(event.getTitle()));
+        if (event.getStartTime() == null) {
+            lines.add("DTSTART;VALUE=DATE:" + DATE.format(first));
+            lines.add("DTEND;VALUE=DATE:" + DATE.format(first.plusDays(1)));
+        } else {
+            lines.add("DTSTART;TZID=" + zone.getId() + ":" + LOCAL_DATE_TIME.format(first.atTime(event.getStartTime())));
+            if (event.getEndTime() != null) {
+                // A lecture ending at or before its start time runs past midnight
+                LocalDate endDate = event.getEndTime().isAfter(event.getStartTime()) ? first : first.plusDays(1);
+                lines.add("DTEND;TZID=" + zone.getId() + ":" + LOCAL_DATE_TIME.format(endDate.atTime(event.getEndTime())));
+            }
+        }
+
+        StringBuilder rrule = new StringBuilder("RRULE:FREQ=WEEKLY;BYDAY=").append(weekday(event.getDayOfWeek()));
+        if (event.getEndDate() != null) {
+            // UNTIL is inclusive; with a zoned DTSTART it has to be given in UTC
+            rrule.append(";UNTIL=");
+            if (event.getStartTime() == null) {
+                rrule.append(DATE.format(event.getEndDate()));
+            } else {
+                rrule.append(utc(event.getEndDate().atTime(event.getStartTime()).atZone(zone)
+                        .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime()));
+            }
+        }
+        lines.add(rrule.toString());
+
+        addText(lines, "DESCRIPTION", event.getDescription());
+        addText(lines, "LOCATION", event.getLocation());
+        addText(lines, "CATEGORIES", event.getType());
+        return lines;
+    }
+
+    /**
+     * The VEVENT of an assignment's due date, or an empty list if it has none
+     */
+    public static List<String> assignment(Assignment assignment, String courseName, ZoneId zone) {
+        List<String> lines = new ArrayList<>();
+        if (assignment.getDueDate() == null) {
+            return lines;
+        }
+
+        lines.add("SUMMARY:" + escapeText(courseName != null ? assignment.getTitle() + " (" + courseName + ")" : assignment.getTitle()));
+        if (assignment.getDueTime() == null) {
+            lines.add("DTSTART;VALUE=DATE:" + DATE.format(assignment.getDueDate()));
+            lines.add("DTEND;VALUE=DATE:" + DATE.format(assignment.getDueDate().plusDays(1)));
+        } else {
+            String due = LOCAL_DATE_TIME.format(assignment.getDueDate().atTime(assignment.getDueTime()));
+            lines.add("DTSTART;TZID=" + zone.getId() + ":" + due);
+            lines.add("DTEND;TZID=" + zone.getId() + ":" + due);
+        }
+        lines.add("TRANSP:TRANSPARENT");
+
+        addText(lines, "DESCRIPTION", assignment.getDescription());
+        addText(lines, "CATEGORIES", assignment.getType());
+        return lines;
+    }
+
+    /**
+     * The VEVENT of a meeting, or an empty list if it has no scheduled time
+     */
+    public static List<String> meeting(Meeting meeting) {
+        List<String> lines = new ArrayList<>();
+        LocalDateTime start = meetingStart(meeting);
+        if (start == null) {
+            return lines;
+        }
+
+        LocalDateTime end = meeting.getEndTime() != null && meeting.getEndTime().isAfter(start)
+                ? meeting.getEndTime()
+                : start.plusMinutes(meeting.getDuration() != null && meeting.getDuration() > 0 ? meeting.getDuration() : 60);
+
+        lines.add("SUMMARY:" + escapeText(meeting.getDisplayName()));
+        lines.add("DTSTART:" + utc(start));
+        lines.add("DTEND:" + utc(end));
+        if ("cancelled".equalsIgnoreCase(meeting.getStatus())) {
+            lines.add("STATUS:CANCELLED");
+        }
+
+        addText(lines, "DESCRIPTION", meeting.getDescription());
+        addText(lines, "LOCATION", meeting.getCourseName());
+        if (meeting.getInvitationLink() != null && !meeting.getInvitationLink().isEmpty()) {
+            lines.add("URL:" + meeting.getInvitationLink());
+        }
+        return lines;
+    }
+
+    /**
+     * Meeting times are stored as UTC; datetime is the main field, the others are older fallbacks
+     */
+    public static LocalDateTime meetingStart(Meeting meeting) {
+        if (meeting.getDatetime() != null) {
+            return meeting.getDatetime();
+        }
+        return meeting.getScheduledAt() != null ? meeting.getScheduledAt() : meeting.getStartTime();
+    }
+
+    /**
+     * VTIMEZONE for the zone's current rules: one STANDARD / DAYLIGHT component per yearly
+     * transition rule, or a single fixed-offset STANDARD component for zones without DST
+     */
+    public static List<String> timezone(ZoneId zone) {
+        List<String> lines = new ArrayList<>();
+        lines.add("BEGIN:VTIMEZONE");
+        lines.add("TZID:" + zone.getId());
+
+        ZoneRules rules = zone.getRules();
+        List<ZoneOffsetTransitionRule> transitionRules = rules.getTransitionRules();
+        if (transitionRules.isEmpty()) {
+            String offset = offset(rules.getOffset(Instant.now()));
+            lines.add("BEGIN:STANDARD");
+            lines.add("DTSTART:19700101T000000");
+            lines.add("TZOFFSETFROM:" + offset);
+            lines.add("TZOFFSETTO:" + offset);
+            lines.add("END:STANDARD");
+        } else {
+            for (ZoneOffsetTransitionRule rule : transitionRules) {
+                ZoneOffsetTransition transition = rule.createTransition(1970);
+                String component = rule.getOffsetAfter().getTotalSeconds() > rule.getOffsetBefore().getTotalSeconds()
+                        ? "DAYLIGHT" : "STANDARD";
+                lines.add("BEGIN:" + component);
+                lines.add("DTSTART:" + LOCAL_DATE_TIME.format(transition.getDateTimeBefore()));
+                lines.add("TZOFFSETFROM:" + offset(rule.getOffsetBefore()));
+                lines.add("TZOFFSETTO:" + offset(rule.getOffsetAfter()));
+                lines.add("RRULE:FREQ=YEARLY;BYMONTH=" + rule.getMonth().getValue() + yearlyDay(rule));
+                lines.add("END:" + component);
+            }
+        }
+
+        lines.add("END:VTIMEZONE");
+        return lines;
+    }
+
+    /**
+     * BYDAY / BYMONTHDAY of a yearly transition: Java describes it as "the day of week on or
+     * after (or, for negative indicators, on or before) a day of the month"
+     */
+    private static String yearlyDay(ZoneOffsetTransitionRule rule) {
+        int indicator = rule.getDayOfMonthIndicator();
+        DayOfWeek dayOfWeek = rule.getDayOfWeek();
+        if (dayOfWeek == null) {
+            return ";BYMONTHDAY=" + indicator;
+        }
+        Month month = rule.getMonth();
+        boolean lastWeekOfMonth = indicator == -1
+                || (month.minLength() == month.maxLength() && indicator + 6 == month.maxLength());
+        if (lastWeekOfMonth) {
+            return ";BYDAY=-1" + weekday(dayOfWeek);
+        }
+        if (indicator > 0 && indicator % 7 == 1) {
+            return ";BYDAY=" + (indicator / 7 + 1) + weekday(dayOfWeek);
+        }
+
+        int from = indicator > 0 ? indicator : indicator - 6;
+        int to = indicator > 0 ? Math.min(indicator + 6, 31) : indicator;
+        StringBuilder days = new StringBuilder(";BYDAY=").append(weekday(dayOfWeek)).append(";BYMONTHDAY=");
+        for (int day = from; day <= to; day++) {
+            days.append(day).append(day < to ? "," : "");
+        }
+        return days.toString();
+    }
+
+    /**
+     * Writes one content line, folded to 75 octets as the RFC requires (never inside a UTF-8
+     * sequence), terminated by CRLF
+     */
+    public static void writeLine(Writer out, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+
+    public static String escapeText(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    public static String utc(LocalDateTime utcDateTime) {
+        return LOCAL_DATE_TIME.format(utcDateTime) + "Z";
+    }
+
+    private static void addText(List<String> lines, String property, String value) {
+        if (value != null && !value.isBlank()) {
+            lines.add(property + ":" + escapeText(value));
+        }
+    }
+
+    private static String weekday(DayOfWeek dayOfWeek) {
+        return dayOfWeek.name().substring(0, 2);
+    }
+
+    private static String offset(ZoneOffset offset) {
+        int seconds = offset.getTotalSeconds();
+        int absolute = Math.abs(seconds);
+        String formatted = String.format("%s%02d%02d", seconds < 0 ? "-" : "+", absolute / 3600, (absolute / 60) % 60);
+        return absolute % 60 == 0 ? formatted : formatted + String.format("%02d", absolute % 60);
+    }
+}
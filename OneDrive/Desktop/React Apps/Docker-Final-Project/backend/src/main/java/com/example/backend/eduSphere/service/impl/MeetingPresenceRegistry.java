@@ -0,0 +1,214 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.AttendanceSession;
+import com.example.backend.eduSphere.entity.Meeting;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Node-local live presence of meeting participants (meetingId → sessionId → last heartbeat).
+ *
+ * Heartbeats only touch this registry. Sessions that stop sending heartbeats are expired by a
+ * scheduled sweep, and their leave time (the last heartbeat) and duration are written behind to
+ * the meeting's attendanceSessions in one unordered bulk write per flush. Joins, explicit leaves
+ * and resumes are still written synchronously by {@link VideoMeetingServiceImpl} and mirrored here.
+ */
+@Component
+public class MeetingPresenceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MeetingPresenceRegistry.class);
+
+    private final Map<String, Map<String, Presence>> meetings = new ConcurrentHashMap<>();
+    private final Queue<AttendanceSession> pendingLeaves = new ConcurrentLinkedQueue<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final long timeoutMillis;
+
+    public MeetingPresenceRegistry(MongoTemplate mongoTemplate,
+                                   @Value("${app.meetings.presence.timeout-seconds:90}") long timeoutSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.timeoutMillis = timeoutSeconds * 1000L;
+    }
+
+    /**
+     * Whether this node already holds the presence of the meeting (seeded or joined since startup)
+     */
+    public boolean isTracked(String meetingId) {
+        return meetings.containsKey(meetingId);
+    }
+
+    /**
+     * Seed a meeting with its active sessions as read from the database. Sessions already known
+     * to the registry keep their last heartbeat.
+     */
+    public void seed(String meetingId, Collection<AttendanceSession> activeSessions) {
+        Map<String, Presence> sessions = meetings.computeIfAbsent(meetingId, id -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+        for (AttendanceSession session : activeSessions) {
+            sessions.putIfAbsent(session.getId(), new Presence(session, now));
+        }
+    }
+
+    public void register(String meetingId, AttendanceSession session) {
+        // A session that is live again must not be closed by an expiry still waiting to be flushed
+        pendingLeaves.removeIf(pending -> pending.getId().equals(session.getId()));
+        meetings.computeIfAbsent(meetingId, id -> new ConcurrentHashMap<>())
+                .put(session.getId(), new Presence(session, System.currentTimeMillis()));
+    }
+
+    public void remove(String meetingId, String sessionId) {
+        Map<String, Presence> sessions = meetings.get(meetingId);
+        if (sessions != null) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    /**
+     * Forget a meeting entirely (meeting ended or deleted); pending leaves are still flushed
+     */
+    public void removeMeeting(String meetingId) {
+        meetings.remove(meetingId);
+    }
+
+    /**
+     * Record a heartbeat. Returns the live session, or null if this node does not know it.
+     */
+    public AttendanceSession touch(String meetingId, String sessionId) {
+        Map<String, Presence> sessions = meetings.get(meetingId);
+        Presence presence = sessions == null ? null : sessions.get(sessionId);
+        if (presence == null) {
+            return null;
+        }
+        presence.lastSeen = System.currentTimeMillis();
+        return presence.session;
+    }
+
+    public List<AttendanceSession> getActiveSessions(String meetingId) {
+        Map<String, Presence> sessions = meetings.get(meetingId);
+        if (sessions == null) {
+            return new ArrayList<>();
+        }
+        List<AttendanceSession> active = new ArrayList<>(sessions.size());
+        for (Presence presence : sessions.values()) {
+            active.add(presence.session);
+        }
+        return active;
+    }
+
+    /**
+     * Expire sessions that missed their heartbeats; their leave time is the last heartbeat
+     */
+    @Scheduled(fixedDelayString = "${app.meetings.presence.sweep-interval-ms:30000}")
+    public void expireStaleSessions() {
+        long cutoff = System.currentTimeMillis() - timeoutMillis;
+        int expired = 0;
+
+        for (Map.Entry<String, Map<String, Presence>> meeting : meetings.entrySet()) {
+            Map<String, Presence> sessions = meeting.getValue();
+            for (Map.Entry<String, Presence> entry : sessions.entrySet()) {
+                Presence presence = entry.getValue();
+                if (presence.lastSeen < cutoff && sessions.remove(entry.getKey(), presence)) {
+                    AttendanceSession ended = copyOf(presence.session, meeting.getKey());
+                    ended.setLeaveTime(toUtc(presence.lastSeen));
+                    pendingLeaves.add(ended);
+                    expired++;
+                }
+            }
+        }
+
+        // Drop meetings nobody is in any more (atomically, so a concurrent join is not lost)
+        for (String meetingId : meetings.keySet()) {
+            meetings.computeIfPresent(meetingId, (id, sessions) -> sessions.isEmpty() ? null : sessions);
+        }
+
+        if (expired > 0) {
+            log.debug("Expired {} stale attendance sessions", expired);
+        }
+    }
+
+    /**
+     * Write queued leaves in one bulk write. Each update only applies if the session is still
+     * open, so a leave written meanwhile by another request or node is never overwritten.
+     */
+    @Scheduled(fixedDelayString = "${app.meetings.presence.flush-interval-ms:10000}")
+    public void flush() {
+        List<AttendanceSession> batch = new ArrayList<>();
+        AttendanceSession next;
+        while ((next = pendingLeaves.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Meeting.class);
+            for (AttendanceSession session : batch) {
+                Query query = new Query(Criteria.where("_id").is(session.getMeetingId())
+                        .and("attendanceSessions").elemMatch(
+                                Criteria.where("id").is(session.getId()).and("leaveTime").is(null)));
+                Update update = new Update()
+                        .set("attendanceSessions.$.leaveTime", session.getLeaveTime())
+                        .set("attendanceSessions.$.durationMinutes", session.getDurationMinutes())
+                        .inc("version", 1);
+                bulkOps.updateOne(query, update);
+            }
+            int modified = bulkOps.execute().getModifiedCount();
+            log.debug("Flushed {} expired attendance sessions ({} written)", batch.size(), modified);
+        } catch (Exception e) {
+            log.error("Failed to flush {} expired attendance sessions: {}", batch.size(), e.getMessage(), e);
+            pendingLeaves.addAll(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static AttendanceSession copyOf(AttendanceSession session, String meetingId) {
+        AttendanceSession copy = new AttendanceSession();
+        copy.setId(session.getId());
+        copy.setUserId(session.getUserId());
+        copy.setUserName(session.getUserName());
+        copy.setMeetingId(meetingId);
+        copy.setJoinTime(session.getJoinTime());
+        return copy;
+    }
+
+    private static LocalDateTime toUtc(long epochMillis) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.of("UTC"))
+                .toLocalDateTime();
+    }
+
+    private static final class Presence {
+        private final AttendanceSession session;
+        private volatile long lastSeen;
+
+        private Presence(AttendanceSession session, long lastSeen) {
+            this.session = session;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
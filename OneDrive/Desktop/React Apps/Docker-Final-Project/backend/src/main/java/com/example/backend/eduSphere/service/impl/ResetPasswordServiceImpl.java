@@ -1,5 +1,6 @@
 package com.example.backend.eduSphere.service.impl;
 
+import com.example.backend.common.security.AuthenticatedPrincipalCache;
 import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.eduSphere.entity.ResetPasswordEntity;
 import com.example.backend.eduSphere.repository.ResetPasswordRepository;
@@ -31,6 +32,9 @@ public class ResetPasswordServiceImpl implements ResetPasswordService {
     @Autowired
     private EmailUtil emailUtil;
 
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
     private final BCryptPasswordEncoder passwordEncoder;
 
     @Override
@@ -94,6 +98,7 @@ public class ResetPasswordServiceImpl implements ResetPasswordService {
         userRepository.findByEmail(email).ifPresent(user -> {
             user.setPassword(encodedPassword);
             userRepository.save(user);
+            principalCache.invalidateUser(user.getId());
         });
 
         // Delete the used reset token
@@ -1,5 +1,6 @@
 package com.example.backend.eduSphere.service.impl;
 
+import com.example.backend.common.storage.ContentAddressedStore;
 import com.example.backend.eduSphere.dto.request.FileUploadRequest;
 import com.example.backend.eduSphere.dto.request.ResourceRequestDto;
 import com.example.backend.eduSphere.dto.response.FileResponse;
@@ -27,6 +28,7 @@ public class ResourceServiceImpl implements ResourceService {
     private final LecturerResourceRepository resourceRepository;
     private final FileService fileService;
     private final UserRepository userRepository;
+    private final ContentAddressedStore contentStore;
 
     @Override
     public List<ResourceResponseDto> getResourcesByLecturerId(String lecturerId) {
@@ -76,6 +78,10 @@ public class ResourceServiceImpl implements ResourceService {
             resource.setSize(Long.parseLong(fileResponse.getSize()));
             resource.setUploadDate(fileResponse.getUploadDate());
 
+            // The upload is shared with the File record; both reference the same stored content
+            String storedName = fileResponse.getFileUrl().substring(fileResponse.getFileUrl().lastIndexOf('/') + 1);
+            resource.setContentHash(contentStore.hashOf("edusphere/files/" + storedName));
+
             LecturerResource savedResource = resourceRepository.save(resource);
             return mapToDto(savedResource);
 
@@ -0,0 +1,186 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.dto.response.TaskDetailResponse;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.Task;
+import com.example.backend.eduSphere.entity.TaskSubmission;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-task submission statistics.
+ *
+ * Counts, late submissions, average / highest / lowest grade, the A-F histogram and the
+ * today / this week counts all come from a single $group over the task's submissions (the
+ * histogram as cumulative "at least 90/80/70/60" sums), so no submission is loaded into memory.
+ * Results are cached per task for a short TTL; {@link TaskServiceImpl} invalidates a task when
+ * its submissions or grades are rewritten, and the TTL bounds staleness for writes made elsewhere.
+ */
+@Component
+public class TaskStatisticsService {
+
+    private static final int[] GRADE_THRESHOLDS = {90, 80, 70, 60};
+
+    private final Map<String, CachedStatistics> entries = new ConcurrentHashMap<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final CourseRepository courseRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public TaskStatisticsService(MongoTemplate mongoTemplate,
+                                 CourseRepository courseRepository,
+                                 @Value("${app.tasks.statistics-cache.ttl-seconds:120}") long ttlSeconds,
+                                 @Value("${app.tasks.statistics-cache.max-size:5000}") int maxSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.courseRepository = courseRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+    }
+
+    public TaskDetailResponse.TaskStatistics get(Task task) {
+        long now = System.currentTimeMillis();
+
+        CachedStatistics cached = entries.get(task.getId());
+        if (cached != null && cached.expiresAt > now) {
+            return cached.statistics;
+        }
+
+        TaskDetailResponse.TaskStatistics statistics = compute(task);
+
+        if (ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                entries.values().removeIf(entry -> entry.expiresAt <= now);
+                if (entries.size() >= maxSize) {
+                    entries.clear();
+                }
+            }
+            entries.put(task.getId(), new CachedStatistics(statistics, task.getCourseId(), now + ttlMillis));
+        }
+        return statistics;
+    }
+
+    public void invalidate(String taskId) {
+        entries.remove(taskId);
+    }
+
+    public void invalidateCourse(String courseId) {
+        entries.values().removeIf(entry -> courseId.equals(entry.courseId));
+    }
+
+    private TaskDetailResponse.TaskStatistics compute(Task task) {
+        TaskDetailResponse.TaskStatistics stats = new TaskDetailResponse.TaskStatistics();
+
+        int enrolledStudents = 0;
+        try {
+            Course course = courseRepository.findById(task.getCourseId()).orElse(null);
+            if (course != null && course.getEnrollments() != null) {
+                enrolledStudents = course.getEnrollments().stream()
+                        .mapToInt(enrollment -> enrollment.getStudentIds().size())
+                        .sum();
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not calculate enrolled students: " + e.getMessage());
+        }
+        stats.setTotalStudents(enrolledStudents);
+
+        Document totals = aggregateSubmissions(task.getId());
+        int submitted = intValue(totals, "submitted");
+        int graded = intValue(totals, "graded");
+
+        stats.setSubmittedCount(submitted);
+        stats.setGradedCount(graded);
+        stats.setPendingCount(submitted - graded);
+        stats.setLateSubmissions(intValue(totals, "late"));
+        stats.setSubmissionsToday(intValue(totals, "today"));
+        stats.setSubmissionsThisWeek(intValue(totals, "thisWeek"));
+
+        double completionRate = enrolledStudents > 0 ? (submitted * 100.0) / enrolledStudents : 0.0;
+        stats.setCompletionRate(Math.round(completionRate * 100.0) / 100.0);
+
+        if (graded > 0) {
+            Number average = totals.get("average", Number.class);
+            stats.setAverageGrade(average == null ? 0.0 : Math.round(average.doubleValue() * 100.0) / 100.0);
+            stats.setHighestGrade(intValue(totals, "highest"));
+            stats.setLowestGrade(intValue(totals, "lowest"));
+
+            int atLeast90 = intValue(totals, "atLeast90");
+            int atLeast80 = intValue(totals, "atLeast80");
+            int atLeast70 = intValue(totals, "atLeast70");
+            int atLeast60 = intValue(totals, "atLeast60");
+            stats.setGradeDistribution(new TaskDetailResponse.GradeDistribution(
+                    atLeast90, atLeast80 - atLeast90, atLeast70 - atLeast80, atLeast60 - atLeast70, graded - atLeast60));
+        }
+
+        stats.setStudentsStarted(submitted);
+        stats.setStudentsCompleted(graded);
+        return stats;
+    }
+
+    private Document aggregateSubmissions(String taskId) {
+        LocalDate today = LocalDate.now();
+        Date startOfToday = toDate(today.atStartOfDay());
+        Date startOfWeek = toDate(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay());
+
+        // {$cond: [{$gt: ["$grade", null]}, 1, 0]}: null and missing grades compare below any number
+        AggregationExpression isGraded = context -> new Document("$cond",
+                Arrays.asList(new Document("$gt", Arrays.asList("$grade", null)), 1, 0));
+
+        GroupOperation group = Aggregation.group()
+                .count().as("submitted")
+                .sum(isGraded).as("graded")
+                .sum(countIf(ComparisonOperators.valueOf("isLate").equalToValue(true))).as("late")
+                .sum(countIf(ComparisonOperators.valueOf("submittedAt").greaterThanEqualToValue(startOfToday))).as("today")
+                .sum(countIf(ComparisonOperators.valueOf("submittedAt").greaterThanEqualToValue(startOfWeek))).as("thisWeek")
+                .avg("grade").as("average")
+                .max("grade").as("highest")
+                .min("grade").as("lowest");
+        for (int threshold : GRADE_THRESHOLDS) {
+            group = group.sum(countIf(ComparisonOperators.valueOf("grade").greaterThanEqualToValue(threshold)))
+                    .as("atLeast" + threshold);
+        }
+
+        TypedAggregation<TaskSubmission> aggregation = Aggregation.newAggregation(TaskSubmission.class,
+                Aggregation.match(Criteria.where("taskId").is(taskId)),
+                group);
+
+        Document totals = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        return totals == null ? new Document() : totals;
+    }
+
+    private static AggregationExpression countIf(AggregationExpression condition) {
+        return ConditionalOperators.when(condition).then(1).otherwise(0);
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static int intValue(Document document, String key) {
+        Number value = document.get(key, Number.class);
+        return value == null ? 0 : value.intValue();
+    }
+
+    private record CachedStatistics(TaskDetailResponse.TaskStatistics statistics, String courseId, long expiresAt) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Announcement;
+import com.example.backend.eduSphere.entity.UserEntity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a template to many recipients in the background.
+ *
+ * Subject and content are compiled once into {@link CompiledTemplate}s; recipients are then read
+ * in batches (name and email only), rendered with one pass per field and written with one
+ * batch insert of personal announcements per batch. Every submission gets a job id whose
+ * progress and throughput can be polled; finished jobs are kept for a while and then dropped.
+ */
+@Component
+public class TemplateFanOutPipeline {
+
+    private static final String NAME_VARIABLE = "name";
+    private static final String EMAIL_VARIABLE = "email";
+
+    private final Map<String, FanOutJob> jobs = new ConcurrentHashMap<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final long retentionMillis;
+
+    public TemplateFanOutPipeline(MongoTemplate mongoTemplate,
+                                  @Value("${app.templates.fan-out.threads:2}") int threads,
+                                  @Value("${app.templates.fan-out.batch-size:500}") int batchSize,
+                                  @Value("${app.templates.fan-out.job-retention-minutes:60}") long retentionMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionMillis = retentionMinutes * 60_000L;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "template-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the fan-out and returns its job straight away
+     *
+     * @param variableValues values given with the request; they take precedence over the
+     *                       recipient's own {name} and {email}
+     */
+    public FanOutJob submit(String templateId, String subject, String content, Map<String, String> variableValues,
+                            List<String> recipientIds, String creatorId, String creatorName) {
+        List<String> recipients = recipientIds == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(recipientIds));
+        FanOutJob job = new FanOutJob(UUID.randomUUID().toString(), templateId, recipients.size());
+        jobs.put(job.id, job);
+
+        CompiledTemplate compiledSubject = CompiledTemplate.compile(subject);
+        CompiledTemplate compiledContent = CompiledTemplate.compile(content);
+        Map<String, String> sharedValues = variableValues == null ? Map.of() : Map.copyOf(variableValues);
+
+        try {
+            executor.execute(() -> run(job, compiledSubject, compiledContent, sharedValues, recipients, creatorId, creatorName));
+        } catch (RejectedExecutionException e) {
+            job.fail("Fan-out executor is shut down");
+        }
+        return job;
+    }
+
+    public FanOutJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void run(FanOutJob job, CompiledTemplate subject, CompiledTemplate content, Map<String, String> sharedValues,
+                     List<String> recipientIds, String creatorId, String creatorName) {
+        job.start();
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (int from = 0; from < recipientIds.size(); from += batchSize) {
+                List<String> batchIds = recipientIds.subList(from, Math.min(from + batchSize, recipientIds.size()));
+
+                Query recipientQuery = new Query(Criteria.where("_id").in(batchIds));
+                recipientQuery.fields().include(NAME_VARIABLE).include(EMAIL_VARIABLE);
+                List<UserEntity> users = mongoTemplate.find(recipientQuery, UserEntity.class);
+
+                List<Announcement> announcements = new ArrayList<>(users.size());
+                for (UserEntity user : users) {
+                    values.clear();
+                    putIfNotNull(values, NAME_VARIABLE, user.getName());
+                    putIfNotNull(values, EMAIL_VARIABLE, user.getEmail());
+                    values.putAll(sharedValues);
+
+                    announcements.add(personalAnnouncement(subject.render(values), content.render(values),
+                            user.getId(), creatorId, creatorName));
+                }
+
+                if (!announcements.isEmpty()) {
+                    mongoTemplate.insert(announcements, Announcement.class);
+                }
+                job.progress(batchIds.size(), announcements.size());
+            }
+            job.complete();
+
+            System.out.println("📨 Template " + job.templateId + " sent to " + job.sent + "/" + job.total +
+                    " recipients in " + job.elapsedMillis() + " ms (" + Math.round(job.throughput()) + " recipients/s)");
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            System.err.println("❌ Template fan-out " + job.id + " failed after " + job.processed + " recipients: " + e.getMessage());
+        }
+    }
+
+    private static Announcement personalAnnouncement(String title, String content, String userId,
+                                                     String creatorId, String creatorName) {
+        Announcement announcement = new Announcement();
+        announcement.setTitle(title);
+        announcement.setContent(content);
+        announcement.setPriority("medium");
+        announcement.setStatus("active");
+        announcement.setCreatorId(creatorId);
+        announcement.setCreatorName(creatorName);
+        // The template sends to a list of specific users, so the type is 'personal'
+        announcement.setTargetAudienceType("personal");
+        announcement.setTargetUserId(userId);
+        return announcement;
+    }
+
+    private static void putIfNotNull(Map<String, String> values, String name, String value) {
+        if (value != null) {
+            values.put(name, value);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.templates.fan-out.cleanup-interval-ms:600000}")
+    public void dropFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.finishedAtMillis > 0 && job.finishedAtMillis < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public static final class FanOutJob {
+        private final String id;
+        private final String templateId;
+        private final int total;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile String status = "queued";
+        private volatile int processed;
+        private volatile int sent;
+        private volatile long startedAtMillis;
+        private volatile long finishedAtMillis;
+        private volatile String error;
+
+        private FanOutJob(String id, String templateId, int total) {
+            this.id = id;
+            this.templateId = templateId;
+            this.total = total;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        private void start() {
+            startedAtMillis = System.currentTimeMillis();
+            status = "running";
+        }
+
+        // Only the worker thread writes progress
+        private void progress(int processedRecipients, int sentAnnouncements) {
+            processed += processedRecipients;
+            sent += sentAnnouncements;
+        }
+
+        private void complete() {
+            finishedAtMillis = System.currentTimeMillis();
+            status = "completed";
+        }
+
+        private void fail(String message) {
+            finishedAtMillis = System.currentTimeMillis();
+            error = message;
+            status = "failed";
+        }
+
+        private long elapsedMillis() {
+            if (startedAtMillis == 0) {
+                return 0;
+            }
+            return (finishedAtMillis > 0 ? finishedAtMillis : System.currentTimeMillis()) - startedAtMillis;
+        }
+
+        // Recipients processed per second
+        private double throughput() {
+            long elapsed = elapsedMillis();
+            return elapsed > 0 ? processed * 1000.0 / elapsed : 0.0;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("templateId", templateId);
+            map.put("status", status);
+            map.put("total", total);
+            map.put("processed", processed);
+            map.put("sent", sent);
+            // Ids that do not belong to a user are skipped
+            map.put("skipped", processed - sent);
+            map.put("progress", total > 0 ? (double) processed / total : 1.0);
+            map.put("elapsedMs", elapsedMillis());
+            map.put("recipientsPerSecond", throughput());
+            map.put("createdAt", createdAt);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -1,23 +1,19 @@
 package com.example.backend.eduSphere.service.impl;
 
 import com.example.backend.common.exceptions.ResourceNotFoundException;
-import com.example.backend.eduSphere.dto.request.AnnouncementRequest;
 import com.example.backend.eduSphere.dto.request.TemplateRequest;
 import com.example.backend.eduSphere.dto.request.UseTemplateRequest;
 import com.example.backend.eduSphere.dto.response.TemplateResponse;
 import com.example.backend.eduSphere.entity.Template;
-import com.example.backend.eduSphere.entity.UserEntity;
 import com.example.backend.eduSphere.repository.TemplateRepository;
-import com.example.backend.eduSphere.repository.UserRepository;
-import com.example.backend.eduSphere.service.AnnouncementService;
 import com.example.backend.eduSphere.service.TemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -28,9 +24,7 @@ public class TemplateServiceImpl implements TemplateService {
     @Autowired
     private TemplateRepository templateRepository;
     @Autowired
-    private UserRepository userRepository;
-    @Autowired
-    private AnnouncementService announcementService;
+    private TemplateFanOutPipeline fanOutPipeline;
 
     @Override
     public List<TemplateResponse> getAllTemplates() {
@@ -98,30 +92,32 @@ public class TemplateServiceImpl implements TemplateService {
         templateRepository.deleteById(templateId);
     }
 
-    // 🆕 UPDATED: This method now uses recipientIds from the request
+    // Recipients are rendered and written in the background; returns the fan-out job
     @Override
-    public void useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName) {
+    public Map<String, Object> useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName) {
         Template template = templateRepository.findById(templateId)
                 .orElseThrow(() -> new ResourceNotFoundException("Template not found with id " + templateId));
 
-        // Find users based on the recipient IDs from the request
-        List<UserEntity> targetUsers = userRepository.findAllById(useTemplateRequest.getRecipientIds());
-
-        for (UserEntity user : targetUsers) {
-            String personalizedSubject = replaceVariables(template.getSubject(), useTemplateRequest.getVariableValues(), user);
-            String personalizedContent = replaceVariables(template.getContent(), useTemplateRequest.getVariableValues(), user);
-
-            AnnouncementRequest announcementRequest = new AnnouncementRequest();
-            announcementRequest.setTitle(personalizedSubject);
-            announcementRequest.setContent(personalizedContent);
-            announcementRequest.setPriority("medium");
+        Map<String, String> variableValues = new HashMap<>();
+        if (useTemplateRequest.getVariableValues() != null) {
+            for (UseTemplateRequest.VariableValue var : useTemplateRequest.getVariableValues()) {
+                if (var.getName() != null && var.getValue() != null) {
+                    variableValues.put(var.getName(), var.getValue());
+                }
+            }
+        }
 
-            // The template sends to a list of specific users, so the type should be 'personal'
-            announcementRequest.setTargetAudienceType("personal");
-            announcementRequest.setTargetUserId(user.getId());
+        return fanOutPipeline.submit(templateId, template.getSubject(), template.getContent(), variableValues,
+                useTemplateRequest.getRecipientIds(), creatorId, creatorName).toMap();
+    }
 
-            announcementService.createAnnouncement(announcementRequest, creatorId, creatorName);
+    @Override
+    public Map<String, Object> getFanOutJob(String jobId) {
+        TemplateFanOutPipeline.FanOutJob job = fanOutPipeline.getJob(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Template job not found with id " + jobId);
         }
+        return job.toMap();
     }
 
     private List<String> extractVariablesFromContent(String content) {
@@ -136,20 +132,6 @@ public class TemplateServiceImpl implements TemplateService {
                 .collect(Collectors.toList());
     }
 
-    private String replaceVariables(String content, List<UseTemplateRequest.VariableValue> variableValues, UserEntity user) {
-        String result = content;
-        for (UseTemplateRequest.VariableValue var : variableValues) {
-            String placeholder = "{" + var.getName() + "}";
-            String value = var.getValue();
-            result = result.replace(placeholder, value);
-        }
-
-        result = result.replace("{name}", user.getName());
-        result = result.replace("{email}", user.getEmail());
-
-        return result;
-    }
-
     private TemplateResponse mapToResponse(Template template) {
         return new TemplateResponse(
                 template.getId(),
@@ -0,0 +1,93 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user course scope (the departments and course ids a lecturer teaches or a student is
+ * enrolled in), used to evaluate access rules. Computed with one projected course query and kept
+ * for a short TTL; {@link CourseServiceImpl} invalidates the affected users when enrollments or
+ * lecturer assignments change.
+ */
+@Component
+public class UserCourseScopeCache {
+
+    private static final String ROLE_LECTURER = "1200";
+
+    private final Map<String, CachedScope> entries = new ConcurrentHashMap<>();
+
+    private final CourseRepository courseRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public UserCourseScopeCache(CourseRepository courseRepository,
+                                @Value("${app.courses.scope-cache.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${app.courses.scope-cache.max-size:10000}") int maxSize) {
+        this.courseRepository = courseRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+    }
+
+    public UserCourseScope get(String userId, String role) {
+        String key = role + ":" + userId;
+        long now = System.currentTimeMillis();
+
+        CachedScope cached = entries.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.scope;
+        }
+
+        List<Course> courses = ROLE_LECTURER.equals(role)
+                ? courseRepository.findScopeByLecturerId(userId)
+                : courseRepository.findScopeByStudentId(userId);
+
+        Set<String> departments = new HashSet<>();
+        Set<String> courseIds = new HashSet<>();
+        for (Course course : courses) {
+            courseIds.add(course.getId());
+            if (course.getDepartment() != null) {
+                departments.add(course.getDepartment());
+            }
+        }
+        UserCourseScope scope = new UserCourseScope(Set.copyOf(departments), Set.copyOf(courseIds));
+
+        if (ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                entries.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now);
+                if (entries.size() >= maxSize) {
+                    entries.clear();
+                }
+            }
+            entries.put(key, new CachedScope(scope, now + ttlMillis));
+        }
+        return scope;
+    }
+
+    public void invalidateUsers(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new HashSet<>(userIds);
+        entries.keySet().removeIf(key -> ids.contains(key.substring(key.indexOf(':') + 1)));
+    }
+
+    // A course's department changed or the course is gone; every scope may contain it
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public record UserCourseScope(Set<String> departments, Set<String> courseIds) {
+    }
+
+    private record CachedScope(UserCourseScope scope, long expiresAt) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.eduSphere.service.impl;
 
 import com.example.backend.common.exceptions.BadRequestException;
+import com.example.backend.common.security.AuthenticatedPrincipalCache;
 import com.example.backend.common.security.JwtUtil;
 import com.example.backend.eduSphere.dto.request.AdminCreateUserRequest;
 import com.example.backend.eduSphere.dto.request.LoginRequest;
@@ -32,6 +33,7 @@ public class UserServiceImpl implements UserService {
     private final BCryptPasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final MailService mailService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     public void registerUser(@NonNull RegisterRequest registerRequest) {
@@ -169,7 +171,10 @@ public class UserServiceImpl implements UserService {
             user.setRating(request.getRating());
         }
 
-        return userRepository.save(user);
+        UserEntity savedUser = userRepository.save(user);
+        // Role/status may have changed: force the next request to reload the principal
+        principalCache.invalidateUser(savedUser.getId());
+        return savedUser;
     }
 
     public UserEntity getUserByUsername(String username) {
@@ -10,6 +10,18 @@ import com.example.backend.eduSphere.repository.UserRepository;
 import com.example.backend.eduSphere.service.VideoMeetingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.DataTypeOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +46,17 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeetingPresenceRegistry presenceRegistry;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    private static final int MAX_ATTENDANCE_UPDATE_ATTEMPTS = 3;
+
     @Value("${app.base.url:http://localhost:3000}")
     private String baseUrl;
 
@@ -113,6 +136,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
                 savedMeeting.generateInvitationLink(baseUrl);
                 savedMeeting = meetingRepository.save(savedMeeting);
             }
+            calendarFeedService.invalidateAll();
 
             return savedMeeting;
         } catch (Exception e) {
@@ -355,7 +379,14 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
                             meeting.updateInvitationLink(baseUrl);
                         }
 
-                        Meeting savedMeeting = meetingRepository.save(meeting);
+                        // Write only the meeting details: sessions and participants may be changing concurrently
+                        Meeting savedMeeting = mongoTemplate.findAndModify(meetingById(meetingId),
+                                meetingDetailsUpdate(meeting).inc("version", 1),
+                                FindAndModifyOptions.options().returnNew(true), Meeting.class);
+                        if (savedMeeting == null) {
+                            return null;
+                        }
+                        calendarFeedService.invalidateAll();
 
                         // Convert datetime to local time for frontend response
                         if (savedMeeting.getDatetime() != null) {
@@ -376,6 +407,8 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     public void deleteMeeting(String meetingId) {
         try {
             meetingRepository.deleteById(meetingId);
+            presenceRegistry.removeMeeting(meetingId);
+            calendarFeedService.invalidateAll();
             log.info("Meeting deleted: {}", meetingId);
         } catch (Exception e) {
             log.error("Failed to delete meeting {}: {}", meetingId, e.getMessage(), e);
@@ -384,25 +417,69 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     }
 
     // ===== MEETING PARTICIPATION =====
+    //
+    // Join / leave / resume / heartbeat never load and re-save the whole meeting: sessions are
+    // pushed or modified in place with targeted updates, each guarded by a condition on the
+    // session array so concurrent requests cannot lose each other's changes. Every targeted
+    // write bumps the meeting version, so full-document saves elsewhere fail fast (optimistic
+    // locking) instead of overwriting sessions written in between.
 
     @Override
     public Map<String, Object> joinMeeting(String meetingId, String userId, String userName) {
         try {
-            Meeting meeting = meetingRepository.findById(meetingId)
-                    .orElseThrow(() -> new RuntimeException("Meeting not found"));
+            if (!meetingRepository.existsById(meetingId)) {
+                throw new RuntimeException("Meeting not found");
+            }
 
             // Add user to participants list
-            meeting.addParticipant(userId);
+            mongoTemplate.updateFirst(meetingById(meetingId),
+                    new Update().addToSet("participants", userId).inc("version", 1),
+                    Meeting.class);
 
-            // Create or get attendance session with better duplicate handling
-            AttendanceSession session = meeting.addOrUpdateAttendanceSession(userId, userName);
+            AttendanceSession session = null;
+
+            for (int attempt = 0; attempt < MAX_ATTENDANCE_UPDATE_ATTEMPTS && session == null; attempt++) {
+                List<AttendanceSession> userSessions = findUserAttendanceSessions(meetingId, userId);
+
+                // User already has an active session
+                Optional<AttendanceSession> activeSession = userSessions.stream()
+                        .filter(AttendanceSession::isActive)
+                        .filter(AttendanceSession::isValid)
+                        .findFirst();
+                if (activeSession.isPresent()) {
+                    session = activeSession.get();
+                    break;
+                }
+
+                // Very recent session (within 2 minutes) that was left: resume it instead of creating a new one
+                LocalDateTime twoMinutesAgo = getCurrentUtcTime().minusMinutes(2);
+                Optional<AttendanceSession> veryRecentSession = userSessions.stream()
+                        .filter(s -> s.getJoinTime().isAfter(twoMinutesAgo))
+                        .filter(AttendanceSession::isValid)
+                        .filter(s -> s.getLeaveTime() != null)
+                        .max(Comparator.comparing(AttendanceSession::getJoinTime));
+
+                if (veryRecentSession.isPresent()) {
+                    if (reopenSessionIfNoActive(meetingId, userId, veryRecentSession.get().getId())) {
+                        session = veryRecentSession.get();
+                        session.rejoinSession();
+                    }
+                    continue;
+                }
+
+                // Create new session, unless a concurrent request created one first
+                AttendanceSession newSession = new AttendanceSession(userId, userName, meetingId);
+                if (pushSessionIfNoActive(meetingId, userId, newSession)) {
+                    session = newSession;
+                }
+            }
 
             if (session == null || !session.isValid()) {
                 throw new RuntimeException("Failed to create valid attendance session");
             }
 
-            // Save meeting with updated session
-            Meeting savedMeeting = meetingRepository.save(meeting);
+            seedPresence(meetingId);
+            presenceRegistry.register(meetingId, session);
 
             // Check if this is a resumed session
             boolean isExistingSession = session.getSessionAgeMinutes() > 1; // More than 1 minute old
@@ -430,51 +507,45 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Override
     public Map<String, Object> leaveMeeting(String meetingId, String sessionId) {
         try {
-            Meeting meeting = meetingRepository.findById(meetingId)
-                    .orElseThrow(() -> new RuntimeException("Meeting not found"));
-
-            boolean sessionEnded = meeting.endAttendanceSessionById(sessionId);
-
-            if (!sessionEnded) {
-                // Try to find the session anyway and provide more info
-                Optional<AttendanceSession> sessionOpt = meeting.getAttendanceSessions().stream()
-                        .filter(session -> session.getId().equals(sessionId))
-                        .findFirst();
-
-                if (sessionOpt.isPresent()) {
-                    AttendanceSession session = sessionOpt.get();
-                    if (session.getLeaveTime() != null) {
-                        // Session already ended, return existing info
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("status", "already_left");
-                        response.put("sessionId", sessionId);
-                        response.put("leaveTime", session.getLeaveTime().toString());
-                        response.put("durationMinutes", session.getDurationMinutes());
-                        response.put("durationSeconds", session.getCurrentDurationSeconds());
-                        return response;
-                    }
+            presenceRegistry.remove(meetingId, sessionId);
+
+            AttendanceSession session = findAttendanceSession(meetingId, sessionId)
+                    .orElseThrow(() -> new RuntimeException("Session not found or could not be ended"));
+
+            if (session.getLeaveTime() == null) {
+                session.endSession();
+
+                // Only the request that actually closes the session writes the leave time
+                Query query = new Query(Criteria.where("_id").is(meetingId)
+                        .and("attendanceSessions").elemMatch(
+                                Criteria.where("id").is(sessionId).and("leaveTime").is(null)));
+                Update update = new Update()
+                        .set("attendanceSessions.$.leaveTime", session.getLeaveTime())
+                        .set("attendanceSessions.$.durationMinutes", session.getDurationMinutes())
+                        .inc("version", 1);
+
+                if (mongoTemplate.updateFirst(query, update, Meeting.class).getModifiedCount() > 0) {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("sessionId", sessionId);
+                    response.put("leaveTime", session.getLeaveTime());
+                    response.put("durationMinutes", session.getDurationMinutes());
+                    response.put("durationSeconds", session.getCurrentDurationSeconds());
+                    response.put("status", "left");
+                    return response;
                 }
 
-                throw new RuntimeException("Session not found or could not be ended");
+                // Ended concurrently: report the stored values
+                session = findAttendanceSession(meetingId, sessionId)
+                        .orElseThrow(() -> new RuntimeException("Ended session not found"));
             }
 
-            // Save meeting with updated session
-            Meeting savedMeeting = meetingRepository.save(meeting);
-
-            // Get the ended session for response
-            AttendanceSession endedSession = savedMeeting.getAttendanceSessions().stream()
-                    .filter(session -> session.getId().equals(sessionId))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Ended session not found"));
-
-            // Prepare response
+            // Session already ended, return existing info
             Map<String, Object> response = new HashMap<>();
+            response.put("status", "already_left");
             response.put("sessionId", sessionId);
-            response.put("leaveTime", endedSession.getLeaveTime());
-            response.put("durationMinutes", endedSession.getDurationMinutes());
-            response.put("durationSeconds", endedSession.getCurrentDurationSeconds());
-            response.put("status", "left");
-
+            response.put("leaveTime", session.getLeaveTime().toString());
+            response.put("durationMinutes", session.getDurationMinutes());
+            response.put("durationSeconds", session.getCurrentDurationSeconds());
             return response;
         } catch (Exception e) {
             log.error("Failed to leave meeting {} session {}: {}", meetingId, sessionId, e.getMessage(), e);
@@ -482,6 +553,197 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
         }
     }
 
+    @Override
+    public Map<String, Object> resumeAttendanceSession(String meetingId, String sessionId) {
+        Query query = new Query(Criteria.where("_id").is(meetingId)
+                .and("attendanceSessions").elemMatch(
+                        Criteria.where("id").is(sessionId).and("leaveTime").ne(null)));
+        Update update = new Update()
+                .set("attendanceSessions.$.leaveTime", null)
+                .set("attendanceSessions.$.durationMinutes", null)
+                .inc("version", 1);
+
+        boolean resumed = mongoTemplate.updateFirst(query, update, Meeting.class).getModifiedCount() > 0;
+
+        AttendanceSession session = findAttendanceSession(meetingId, sessionId)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+        if (session.isActive()) {
+            seedPresence(meetingId);
+            presenceRegistry.register(meetingId, session);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", resumed ? "resumed" : "already_active");
+        response.put("id", session.getId());
+        response.put("joinTime", session.getJoinTime().toString());
+        response.put("userName", session.getUserName());
+        response.put("isExistingSession", true);
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> heartbeat(String meetingId, String sessionId) {
+        // Served from the presence registry; the database is only read for sessions this node
+        // has not seen yet (e.g. after a restart)
+        AttendanceSession session = presenceRegistry.touch(meetingId, sessionId);
+        if (session == null && !presenceRegistry.isTracked(meetingId) && seedPresence(meetingId)) {
+            session = presenceRegistry.touch(meetingId, sessionId);
+        }
+        if (session == null) {
+            Optional<AttendanceSession> stored = findAttendanceSession(meetingId, sessionId)
+                    .filter(AttendanceSession::isActive);
+            if (stored.isPresent()) {
+                session = stored.get();
+                presenceRegistry.register(meetingId, session);
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        if (session != null) {
+            response.put("status", "success");
+            response.put("sessionId", sessionId);
+            response.put("currentDuration", session.getCurrentDurationSeconds());
+        } else {
+            response.put("status", "session_not_found");
+            response.put("sessionId", sessionId);
+        }
+        return response;
+    }
+
+    @Override
+    public Optional<List<AttendanceSession>> getLiveAttendanceSessions(String meetingId) {
+        if (!seedPresence(meetingId)) {
+            return Optional.empty();
+        }
+        return Optional.of(presenceRegistry.getActiveSessions(meetingId));
+    }
+
+    /**
+     * First use of a meeting on this node: seed the presence registry with its open sessions.
+     * Returns false if the meeting does not exist.
+     */
+    private boolean seedPresence(String meetingId) {
+        if (presenceRegistry.isTracked(meetingId)) {
+            return true;
+        }
+        List<AttendanceSession> openSessions = filterAttendanceSessions(meetingId,
+                ComparisonOperators.Ne.valueOf(DataTypeOperators.Type.typeOf("s.leaveTime"))
+                        .notEqualToValue("date"));
+        if (openSessions == null) {
+            return false;
+        }
+        presenceRegistry.seed(meetingId, openSessions.stream()
+                .filter(AttendanceSession::isValid)
+                .collect(Collectors.toList()));
+        return true;
+    }
+
+    /**
+     * Load a single attendance session by id ($elemMatch projection, not the whole session list)
+     */
+    @Override
+    public Optional<AttendanceSession> findAttendanceSession(String meetingId, String sessionId) {
+        Query query = meetingById(meetingId);
+        query.fields().elemMatch("attendanceSessions", Criteria.where("id").is(sessionId));
+
+        Meeting meeting = mongoTemplate.findOne(query, Meeting.class);
+        if (meeting == null || meeting.getAttendanceSessions() == null) {
+            return Optional.empty();
+        }
+        return meeting.getAttendanceSessions().stream()
+                .filter(session -> sessionId.equals(session.getId()))
+                .findFirst();
+    }
+
+    /**
+     * Load only one user's attendance sessions of a meeting ($filter on the server)
+     */
+    private List<AttendanceSession> findUserAttendanceSessions(String meetingId, String userId) {
+        List<AttendanceSession> sessions = filterAttendanceSessions(meetingId,
+                ComparisonOperators.Eq.valueOf("s.userId").equalToValue(userId));
+        return sessions == null ? new ArrayList<>() : sessions;
+    }
+
+    /**
+     * Attendance sessions of a meeting matching the given $filter condition on "s",
+     * or null if the meeting does not exist
+     */
+    private List<AttendanceSession> filterAttendanceSessions(String meetingId, AggregationExpression condition) {
+        TypedAggregation<Meeting> aggregation = Aggregation.newAggregation(Meeting.class,
+                Aggregation.match(Criteria.where("_id").is(meetingId)),
+                Aggregation.project().and(ArrayOperators.Filter.filter("attendanceSessions").as("s")
+                        .by(condition))
+                        .as("attendanceSessions"));
+
+        Meeting meeting = mongoTemplate.aggregate(aggregation, Meeting.class).getUniqueMappedResult();
+        if (meeting == null) {
+            return null;
+        }
+        if (meeting.getAttendanceSessions() == null) {
+            return new ArrayList<>();
+        }
+        return meeting.getAttendanceSessions().stream()
+                .filter(session -> session.getJoinTime() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * $push a new session only if the user has no active session (checked in the same update)
+     */
+    private boolean pushSessionIfNoActive(String meetingId, String userId, AttendanceSession session) {
+        Query query = new Query(Criteria.where("_id").is(meetingId)
+                .and("attendanceSessions").not().elemMatch(activeSessionOf(userId)));
+        Update update = new Update().push("attendanceSessions", session).inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, Meeting.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Clear the leave time of a session only if the user has no active session (checked in the same update)
+     */
+    private boolean reopenSessionIfNoActive(String meetingId, String userId, String sessionId) {
+        Query query = new Query(Criteria.where("_id").is(meetingId)
+                .and("attendanceSessions").not().elemMatch(activeSessionOf(userId)));
+        Update update = new Update()
+                .set("attendanceSessions.$[s].leaveTime", null)
+                .set("attendanceSessions.$[s].durationMinutes", null)
+                .inc("version", 1)
+                .filterArray(Criteria.where("s._id").is(sessionId));
+        return mongoTemplate.updateFirst(query, update, Meeting.class).getModifiedCount() > 0;
+    }
+
+    private Criteria activeSessionOf(String userId) {
+        // Matches AttendanceSession.isActive(), limited to sessions that are still valid (< 24 hours)
+        return Criteria.where("userId").is(userId)
+                .and("leaveTime").is(null)
+                .and("joinTime").gte(getCurrentUtcTime().minusHours(24));
+    }
+
+    private Query meetingById(String meetingId) {
+        return new Query(Criteria.where("_id").is(meetingId));
+    }
+
+    /**
+     * $set of the editable meeting details (everything except participants, attendance sessions
+     * and the version), taken from the updated in-memory meeting
+     */
+    private static Update meetingDetailsUpdate(Meeting meeting) {
+        return new Update()
+                .set("title", meeting.getTitle())
+                .set("description", meeting.getDescription())
+                .set("datetime", meeting.getDatetime())
+                .set("duration", meeting.getDuration())
+                .set("status", meeting.getStatus())
+                .set("type", meeting.getType())
+                .set("maxUsers", meeting.getMaxUsers())
+                .set("courseId", meeting.getCourseId())
+                .set("courseName", meeting.getCourseName())
+                .set("courseCode", meeting.getCourseCode())
+                .set("lecturerId", meeting.getLecturerId())
+                .set("studentsCount", meeting.getStudentsCount())
+                .set("invitationLink", meeting.getInvitationLink())
+                .set("updatedAt", meeting.getUpdatedAt());
+    }
+
     @Override
     public List<AttendanceSession> getMeetingAttendance(String meetingId) {
         try {
@@ -506,22 +768,25 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Override
     public Meeting startMeeting(String meetingId) {
         try {
-            return meetingRepository.findById(meetingId)
-                    .map(meeting -> {
-                        meeting.setStatus("active");
-                        meeting.setStartTime(getCurrentUtcTime());
-
-                        Meeting savedMeeting = meetingRepository.save(meeting);
+            // Targeted update: participants usually join while the meeting is being started
+            Meeting savedMeeting = mongoTemplate.findAndModify(meetingById(meetingId),
+                    new Update()
+                            .set("status", "active")
+                            .set("startTime", getCurrentUtcTime())
+                            .inc("version", 1),
+                    FindAndModifyOptions.options().returnNew(true), Meeting.class);
+            if (savedMeeting == null) {
+                return null;
+            }
+            calendarFeedService.invalidateAll();
 
-                        // Convert datetime to local time for response
-                        if (savedMeeting.getDatetime() != null) {
-                            savedMeeting.setDatetime(convertUtcToLocal(savedMeeting.getDatetime()));
-                        }
+            // Convert datetime to local time for response
+            if (savedMeeting.getDatetime() != null) {
+                savedMeeting.setDatetime(convertUtcToLocal(savedMeeting.getDatetime()));
+            }
 
-                        log.info("Meeting started: {}", meetingId);
-                        return savedMeeting;
-                    })
-                    .orElse(null);
+            log.info("Meeting started: {}", meetingId);
+            return savedMeeting;
         } catch (Exception e) {
             log.error("Failed to start meeting {}: {}", meetingId, e.getMessage(), e);
             throw new RuntimeException("Failed to start meeting: " + e.getMessage());
@@ -531,27 +796,39 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Override
     public Meeting endMeeting(String meetingId) {
         try {
-            return meetingRepository.findById(meetingId)
-                    .map(meeting -> {
-                        meeting.setStatus("ended");
-                        meeting.setEndTime(getCurrentUtcTime());
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return meetingRepository.findById(meetingId)
+                            .map(meeting -> {
+                                meeting.setStatus("ended");
+                                meeting.setEndTime(getCurrentUtcTime());
 
-                        // End all active attendance sessions
-                        meeting.endAllActiveAttendanceSessions();
+                                // End all active attendance sessions
+                                meeting.endAllActiveAttendanceSessions();
 
-                        // Clean up any invalid sessions
-                        int removedSessions = meeting.removeInvalidSessions();
+                                // Clean up any invalid sessions
+                                int removedSessions = meeting.removeInvalidSessions();
 
-                        Meeting savedMeeting = meetingRepository.save(meeting);
+                                Meeting savedMeeting = meetingRepository.save(meeting);
+                                presenceRegistry.removeMeeting(meetingId);
+                                calendarFeedService.invalidateAll();
 
-                        // Convert datetime to local time for response
-                        if (savedMeeting.getDatetime() != null) {
-                            savedMeeting.setDatetime(convertUtcToLocal(savedMeeting.getDatetime()));
-                        }
+                                // Convert datetime to local time for response
+                                if (savedMeeting.getDatetime() != null) {
+                                    savedMeeting.setDatetime(convertUtcToLocal(savedMeeting.getDatetime()));
+                                }
 
-                        return savedMeeting;
-                    })
-                    .orElse(null);
+                                return savedMeeting;
+                            })
+                            .orElse(null);
+                } catch (OptimisticLockingFailureException e) {
+                    // A participant joined or left while we were ending the meeting: reload and retry
+                    if (attempt >= MAX_ATTENDANCE_UPDATE_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("Meeting {} changed concurrently while ending, retrying ({})", meetingId, attempt);
+                }
+            }
         } catch (Exception e) {
             log.error("Failed to end meeting {}: {}", meetingId, e.getMessage(), e);
             throw new RuntimeException("Failed to end meeting: " + e.getMessage());
@@ -792,70 +1069,81 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
      */
     public void recalculateAttendanceDurations(String meetingId) {
         try {
-            Meeting meeting = meetingRepository.findById(meetingId)
-                    .orElseThrow(() -> new RuntimeException("Meeting not found"));
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Meeting meeting = meetingRepository.findById(meetingId)
+                            .orElseThrow(() -> new RuntimeException("Meeting not found"));
 
-            List<AttendanceSession> sessions = meeting.getAttendanceSessions();
-            if (sessions == null || sessions.isEmpty()) {
-                return;
-            }
+                    List<AttendanceSession> sessions = meeting.getAttendanceSessions();
+                    if (sessions == null || sessions.isEmpty()) {
+                        return;
+                    }
 
-            int updatedCount = 0;
-            int invalidCount = 0;
-            int duplicateCount = 0;
+                    int updatedCount = 0;
+                    int invalidCount = 0;
+                    int duplicateCount = 0;
 
-            // First pass - recalculate durations and identify issues
-            for (AttendanceSession session : sessions) {
-                try {
-                    if (session.getJoinTime() != null && session.getLeaveTime() != null) {
-                        Long originalDuration = session.getDurationMinutes();
-                        session.recalculateDuration();
+                    // First pass - recalculate durations and identify issues
+                    for (AttendanceSession session : sessions) {
+                        try {
+                            if (session.getJoinTime() != null && session.getLeaveTime() != null) {
+                                Long originalDuration = session.getDurationMinutes();
+                                session.recalculateDuration();
 
-                        if (!Objects.equals(originalDuration, session.getDurationMinutes())) {
-                            updatedCount++;
+                                if (!Objects.equals(originalDuration, session.getDurationMinutes())) {
+                                    updatedCount++;
+                                }
+                            }
+
+                            if (!session.isValid()) {
+                                invalidCount++;
+                            }
+                        } catch (Exception e) {
+                            invalidCount++;
                         }
                     }
 
-                    if (!session.isValid()) {
-                        invalidCount++;
+                    // Second pass - remove duplicates and invalid sessions
+                    int originalSize = sessions.size();
+
+                    // Remove clearly invalid sessions
+                    sessions.removeIf(session -> !session.isValid());
+
+                    // Remove suspicious sessions (too short and not active)
+                    sessions.removeIf(session -> session.isSuspiciouslyShort());
+
+                    // Remove duplicate sessions for same user with overlapping times
+                    List<AttendanceSession> cleanedSessions = new ArrayList<>();
+                    for (AttendanceSession session : sessions) {
+                        boolean isDuplicate = cleanedSessions.stream()
+                                .anyMatch(existing ->
+                                        existing.getUserId().equals(session.getUserId()) &&
+                                                existing.overlapsWith(session) &&
+                                                !existing.getId().equals(session.getId()) &&
+                                                existing.getCurrentDurationSeconds() >= session.getCurrentDurationSeconds()
+                                );
+
+                        if (!isDuplicate) {
+                            cleanedSessions.add(session);
+                        } else {
+                            duplicateCount++;
+                        }
                     }
-                } catch (Exception e) {
-                    invalidCount++;
-                }
-            }
-
-            // Second pass - remove duplicates and invalid sessions
-            int originalSize = sessions.size();
-
-            // Remove clearly invalid sessions
-            sessions.removeIf(session -> !session.isValid());
-
-            // Remove suspicious sessions (too short and not active)
-            sessions.removeIf(session -> session.isSuspiciouslyShort());
 
-            // Remove duplicate sessions for same user with overlapping times
-            List<AttendanceSession> cleanedSessions = new ArrayList<>();
-            for (AttendanceSession session : sessions) {
-                boolean isDuplicate = cleanedSessions.stream()
-                        .anyMatch(existing ->
-                                existing.getUserId().equals(session.getUserId()) &&
-                                        existing.overlapsWith(session) &&
-                                        !existing.getId().equals(session.getId()) &&
-                                        existing.getCurrentDurationSeconds() >= session.getCurrentDurationSeconds()
-                        );
+                    meeting.getAttendanceSessions().clear();
+                    meeting.getAttendanceSessions().addAll(cleanedSessions);
 
-                if (!isDuplicate) {
-                    cleanedSessions.add(session);
-                } else {
-                    duplicateCount++;
+                    // Save the meeting
+                    meetingRepository.save(meeting);
+                    return;
+                } catch (OptimisticLockingFailureException e) {
+                    // A participant joined or left while the sessions were being cleaned up: reload and retry
+                    if (attempt >= MAX_ATTENDANCE_UPDATE_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("Meeting {} changed concurrently while recalculating attendance, retrying ({})", meetingId, attempt);
                 }
             }
-
-            meeting.getAttendanceSessions().clear();
-            meeting.getAttendanceSessions().addAll(cleanedSessions);
-
-            // Save the meeting
-            meetingRepository.save(meeting);
         } catch (Exception e) {
             log.error("Failed to recalculate attendance durations for meeting {}: {}",
                     meetingId, e.getMessage(), e);
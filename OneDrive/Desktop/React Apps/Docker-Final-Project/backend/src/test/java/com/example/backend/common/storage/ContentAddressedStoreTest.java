@@ -0,0 +1,119 @@
+package com.example.backend.common.storage;
+
+import com.example.backend.common.exceptions.FileStorageException;
+import com.example.backend.common.storage.ContentAddressedStore.StoredContent;
+import com.example.backend.common.util.StoredFileServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ContentAddressedStoreTest {
+
+	@TempDir
+	Path uploadDir;
+
+	private ContentAddressedStore store;
+
+	@BeforeEach
+	void createStore() {
+		store = new ContentAddressedStore(mock(MongoTemplate.class), new StoredFileServer(),
+				uploadDir.toString(), "", 60);
+	}
+
+	@Test
+	void hashesWhileWritingAndServesFromTheRequestedPath() throws Exception {
+		byte[] content = "lecture notes".getBytes(StandardCharsets.UTF_8);
+
+		StoredContent stored = store.store(new ByteArrayInputStream(content), "edusphere/files/a.pdf");
+
+		assertEquals(sha256(content), stored.hash());
+		assertEquals(content.length, stored.size());
+		assertEquals("edusphere/files/a.pdf", stored.path());
+		assertFalse(stored.deduplicated());
+		assertArrayEquals(content, Files.readAllBytes(uploadDir.resolve("edusphere/files/a.pdf")));
+		assertTrue(Files.exists(store.blobPath(stored.hash())));
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		byte[] content = new byte[50_000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 241);
+		}
+
+		StoredContent first = store.store(new ByteArrayInputStream(content), "edusphere/files/a.pdf");
+		StoredContent second = store.store(new ByteArrayInputStream(content), "stories/b.pdf");
+
+		assertEquals(first.hash(), second.hash());
+		assertTrue(second.deduplicated());
+		assertTrue(Files.isSameFile(first.file(), store.blobPath(first.hash())));
+		assertTrue(Files.isSameFile(second.file(), store.blobPath(first.hash())));
+		assertArrayEquals(content, Files.readAllBytes(second.file()));
+	}
+
+	@Test
+	void releaseRemovesOnlyThatPath() throws Exception {
+		byte[] content = "shared".getBytes(StandardCharsets.UTF_8);
+		StoredContent first = store.store(new ByteArrayInputStream(content), "avatars/a.png");
+		StoredContent second = store.store(new ByteArrayInputStream(content), "avatars/b.png");
+
+		assertTrue(store.release("avatars/a.png"));
+
+		assertFalse(Files.exists(first.file()));
+		assertArrayEquals(content, Files.readAllBytes(second.file()));
+		assertTrue(Files.exists(store.blobPath(first.hash())));
+		assertFalse(store.release("avatars/a.png"));
+	}
+
+	@Test
+	void adoptReplacesExistingDuplicatesWithLinks() throws Exception {
+		byte[] content = "old upload".getBytes(StandardCharsets.UTF_8);
+		Path older = Files.createDirectories(uploadDir.resolve("groups")).resolve("one.jpg");
+		Path newer = uploadDir.resolve("groups/two.jpg");
+		Files.write(older, content);
+		Files.write(newer, content);
+
+		StoredContent first = store.adopt(older);
+		StoredContent second = store.adopt(newer);
+
+		assertFalse(first.deduplicated());
+		assertTrue(second.deduplicated());
+		assertTrue(Files.isSameFile(older, newer));
+		assertArrayEquals(content, Files.readAllBytes(newer));
+	}
+
+	@Test
+	void differentContentGetsDifferentBlobs() {
+		StoredContent a = store.store(new ByteArrayInputStream(new byte[]{1}), "cvs/a.pdf");
+		StoredContent b = store.store(new ByteArrayInputStream(new byte[]{2}), "cvs/b.pdf");
+
+		assertNotEquals(a.hash(), b.hash());
+	}
+
+	@Test
+	void pathsOutsideTheUploadDirectoryAreRejected() {
+		assertThrows(FileStorageException.class,
+				() -> store.store(new ByteArrayInputStream(new byte[]{1}), "../escape.txt"));
+		assertThrows(FileStorageException.class, () -> store.release(".blobs/tmp/x.part"));
+	}
+
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
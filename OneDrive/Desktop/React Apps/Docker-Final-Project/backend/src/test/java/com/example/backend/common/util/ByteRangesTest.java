@@ -0,0 +1,64 @@
+package com.example.backend.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteRangesTest {
+
+	private static final long LENGTH = 1000;
+
+	@Test
+	void closedRange() {
+		assertEquals(List.of(new ByteRanges.ByteRange(0, 499)), ByteRanges.parse("bytes=0-499", LENGTH));
+	}
+
+	@Test
+	void openEndedRange() {
+		assertEquals(List.of(new ByteRanges.ByteRange(900, 999)), ByteRanges.parse("bytes=900-", LENGTH));
+	}
+
+	@Test
+	void suffixRange() {
+		assertEquals(List.of(new ByteRanges.ByteRange(800, 999)), ByteRanges.parse("bytes=-200", LENGTH));
+		assertEquals(List.of(new ByteRanges.ByteRange(0, 999)), ByteRanges.parse("bytes=-5000", LENGTH));
+	}
+
+	@Test
+	void endIsClampedToLength() {
+		assertEquals(List.of(new ByteRanges.ByteRange(500, 999)), ByteRanges.parse("bytes=500-123456", LENGTH));
+	}
+
+	@Test
+	void multipleRangesAreSortedAndKeptApart() {
+		assertEquals(List.of(new ByteRanges.ByteRange(0, 9), new ByteRanges.ByteRange(100, 199), new ByteRanges.ByteRange(990, 999)),
+				ByteRanges.parse("bytes=100-199, -10, 0-9", LENGTH));
+	}
+
+	@Test
+	void overlappingAndAdjacentRangesAreCoalesced() {
+		assertEquals(List.of(new ByteRanges.ByteRange(0, 299)), ByteRanges.parse("bytes=0-99,50-199,200-299", LENGTH));
+	}
+
+	@Test
+	void unsatisfiableRangesAreDropped() {
+		assertEquals(List.of(new ByteRanges.ByteRange(0, 9)), ByteRanges.parse("bytes=0-9,5000-6000", LENGTH));
+		assertTrue(ByteRanges.parse("bytes=1000-", LENGTH).isEmpty());
+		assertTrue(ByteRanges.parse("bytes=-0", LENGTH).isEmpty());
+	}
+
+	@Test
+	void malformedHeadersAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> ByteRanges.parse("items=0-1", LENGTH));
+		assertThrows(IllegalArgumentException.class, () -> ByteRanges.parse("bytes=5-1", LENGTH));
+		assertThrows(IllegalArgumentException.class, () -> ByteRanges.parse("bytes=abc-", LENGTH));
+		assertThrows(IllegalArgumentException.class, () -> ByteRanges.parse("bytes=0-1-2", LENGTH));
+		assertThrows(IllegalArgumentException.class, () -> ByteRanges.parse("bytes=-", LENGTH));
+		assertThrows(IllegalArgumentException.class,
+				() -> ByteRanges.parse("bytes=" + "0-1,".repeat(ByteRanges.MAX_RANGES) + "0-1", LENGTH));
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.backend.common.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoredFileServerTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final StoredFileServer server = new StoredFileServer();
+	private Path file;
+	private byte[] content;
+
+	@BeforeEach
+	void createFile() throws Exception {
+		content = new byte[10_000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 251);
+		}
+		file = tempDir.resolve("lecture.mp4");
+		Files.write(file, content);
+	}
+
+	@Test
+	void fullResponseCarriesValidators() throws Exception {
+		MockHttpServletResponse response = serve(get());
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(content, response.getContentAsByteArray());
+		assertEquals("video/mp4", response.getContentType());
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertTrue(response.getHeader("ETag").matches("\"[0-9a-f]{64}\""));
+		assertNotNull(response.getHeader("Last-Modified"));
+	}
+
+	@Test
+	void singleRangeIsServedAsPartialContent() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=100-199");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 100-199/10000", response.getHeader("Content-Range"));
+		assertEquals(100, response.getContentLengthLong());
+		assertArrayEquals(slice(100, 200), response.getContentAsByteArray());
+	}
+
+	@Test
+	void suffixRangeReturnsTheTail() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=-500");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 9500-9999/10000", response.getHeader("Content-Range"));
+		assertArrayEquals(slice(9500, 10_000), response.getContentAsByteArray());
+	}
+
+	@Test
+	void multipleRangesAreServedAsMultipartByteranges() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=0-9, 5000-5009");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertNull(response.getHeader("Content-Range"));
+		assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+		String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+
+		byte[] body = response.getContentAsByteArray();
+		assertEquals(body.length, response.getContentLengthLong());
+
+		String text = new String(body, StandardCharsets.ISO_8859_1);
+		assertTrue(text.contains("Content-Range: bytes 0-9/10000\r\n\r\n" + latin1(slice(0, 10))));
+		assertTrue(text.contains("Content-Range: bytes 5000-5009/10000\r\n\r\n" + latin1(slice(5000, 5010))));
+		assertTrue(text.endsWith("\r\n--" + boundary + "--\r\n"));
+		assertEquals(3, text.split("--" + boundary, -1).length - 1);
+	}
+
+	@Test
+	void unsatisfiableRangeIs416() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=20000-");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */10000", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void malformedRangeIsIgnored() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=oops");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		String etag = serve(get()).getHeader("ETag");
+
+		MockHttpServletRequest request = get();
+		request.addHeader("If-None-Match", "\"other\", " + etag);
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void ifModifiedSinceIsNotModified() throws Exception {
+		long lastModified = serve(get()).getDateHeader("Last-Modified");
+
+		MockHttpServletRequest request = get();
+		request.addHeader("If-Modified-Since", lastModified);
+		assertEquals(304, serve(request).getStatus());
+
+		MockHttpServletRequest older = get();
+		older.addHeader("If-Modified-Since", lastModified - 60_000);
+		assertEquals(200, serve(older).getStatus());
+	}
+
+	@Test
+	void staleIfRangeServesTheFullFile() throws Exception {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=0-9");
+		request.addHeader("If-Range", "\"stale\"");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void changedFileGetsANewEtag() throws Exception {
+		String before = serve(get()).getHeader("ETag");
+
+		Files.write(file, "changed".getBytes(StandardCharsets.UTF_8));
+		String after = serve(get()).getHeader("ETag");
+
+		assertTrue(!before.equals(after));
+	}
+
+	@Test
+	void sendfileCapableConnectorGetsTheRegion() throws Exception {
+		MockHttpServletRequest request = get();
+		request.setAttribute(StoredFileServer.SENDFILE_SUPPORT, Boolean.TRUE);
+		request.addHeader("Range", "bytes=100-199");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+		assertEquals(100L, request.getAttribute(StoredFileServer.SENDFILE_START));
+		assertEquals(200L, request.getAttribute(StoredFileServer.SENDFILE_END));
+	}
+
+	@Test
+	void missingFileIs404() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		server.serve(get(), response, tempDir.resolve("missing.mp4"), null, "inline", "missing.mp4");
+		assertEquals(404, response.getStatus());
+	}
+
+	private MockHttpServletRequest get() {
+		return new MockHttpServletRequest("GET", "/api/files/edusphere/files/lecture.mp4");
+	}
+
+	private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		server.serve(request, response, file, null, "inline", "lecture.mp4");
+		return response;
+	}
+
+	private byte[] slice(int from, int to) {
+		byte[] slice = new byte[to - from];
+		System.arraycopy(content, from, slice, 0, slice.length);
+		return slice;
+	}
+
+	private static String latin1(byte[] bytes) {
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
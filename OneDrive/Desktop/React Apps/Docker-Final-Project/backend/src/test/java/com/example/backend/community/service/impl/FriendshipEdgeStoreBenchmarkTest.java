@@ -0,0 +1,142 @@
+package com.example.backend.community.service.impl;
+
+import com.example.backend.community.entity.FriendRequest;
+import com.example.backend.community.entity.Friendship;
+import com.example.backend.community.repository.FriendRequestRepository;
+import com.example.backend.community.repository.FriendshipRepository;
+import com.example.backend.config.MongoIndexBootstrap;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.repository.UserRepository;
+import com.example.backend.support.MongoCommandCounter;
+import com.example.backend.support.MongoTest;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Friend lookups against a 100,000-edge friendship store: friend lists and friendship status
+ * checks answered from the indexed edge fields, never by scanning the collection.
+ */
+@MongoTest
+class FriendshipEdgeStoreBenchmarkTest {
+
+	private static final int USERS = 10_000;
+	private static final int FRIENDS_PER_SIDE = 10;
+	private static final int EDGES = USERS * FRIENDS_PER_SIDE;
+	private static final int LOOKUPS = 1_000;
+	private static final int BATCH_SIZE = 10_000;
+
+	private MongoTemplate mongoTemplate;
+	private MongoCommandCounter commandCounter;
+	private FriendsServiceImpl friendsService;
+
+	@BeforeEach
+	void createEdges(MongoTemplate mongoTemplate, MongoCommandCounter commandCounter) {
+		this.mongoTemplate = mongoTemplate;
+		this.commandCounter = commandCounter;
+		new MongoIndexBootstrap(mongoTemplate).ensureIndexes(List.of(Friendship.class, FriendRequest.class));
+
+		MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+		friendsService = new FriendsServiceImpl();
+		ReflectionTestUtils.setField(friendsService, "userRepository", repositories.getRepository(UserRepository.class));
+		ReflectionTestUtils.setField(friendsService, "friendshipRepository", repositories.getRepository(FriendshipRepository.class));
+		ReflectionTestUtils.setField(friendsService, "friendRequestRepository", repositories.getRepository(FriendRequestRepository.class));
+
+		List<UserEntity> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			UserEntity user = new UserEntity();
+			user.setId(userId(i));
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@example.com");
+			users.add(user);
+		}
+		mongoTemplate.insert(users, UserEntity.class);
+
+		// Every user is friends with the next FRIENDS_PER_SIDE users (wrapping around): 20 friends each
+		List<Friendship> edges = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			for (int k = 1; k <= FRIENDS_PER_SIDE; k++) {
+				Friendship edge = new Friendship();
+				edge.setUserId1(userId(i));
+				edge.setUserId2(userId((i + k) % USERS));
+				edge.setPairKey(Friendship.pairKeyOf(edge.getUserId1(), edge.getUserId2()));
+				edges.add(edge);
+				if (edges.size() == BATCH_SIZE) {
+					mongoTemplate.insert(edges, Friendship.class);
+					edges = new ArrayList<>();
+				}
+			}
+		}
+	}
+
+	@Test
+	void friendListsAreReadFromTheIndexedEdges() {
+		commandCounter.reset();
+		long started = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			List<String> friendIds = friendsService.getFriendIds(userId(i * (USERS / LOOKUPS)));
+			assertEquals(2 * FRIENDS_PER_SIDE, friendIds.size());
+		}
+		double micros = (System.nanoTime() - started) / 1e3 / LOOKUPS;
+
+		System.out.printf("Friend ids of %d users in a %d-edge store: %.0f µs each, %d queries%n",
+				LOOKUPS, EDGES, micros, commandCounter.total());
+
+		assertEquals(LOOKUPS, commandCounter.total());
+		assertEquals(EDGES, mongoTemplate.count(new Query(), Friendship.class));
+
+		Set<String> expected = new HashSet<>();
+		for (int k = 1; k <= FRIENDS_PER_SIDE; k++) {
+			expected.add(userId(k));
+			expected.add(userId(USERS - k));
+		}
+		assertEquals(expected, new HashSet<>(friendsService.getFriendIds(userId(0))));
+
+		Document plan = mongoTemplate.getCollection("friendships")
+				.find(new Document("$or", List.of(new Document("userId1", userId(0)), new Document("userId2", userId(0)))))
+				.explain();
+		assertFalse(plan.toJson().contains("COLLSCAN"), plan.toJson());
+	}
+
+	@Test
+	void friendshipStatusIsAnIndexedPairLookup() {
+		commandCounter.reset();
+		long started = System.nanoTime();
+		int friends = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			String status = friendsService.getFriendshipStatus(userId(i), userId((i + 1 + i % (2 * FRIENDS_PER_SIDE)) % USERS)).getStatus();
+			if ("friends".equals(status)) {
+				friends++;
+			}
+		}
+		double micros = (System.nanoTime() - started) / 1e3 / LOOKUPS;
+
+		System.out.printf("Friendship status of %d pairs in a %d-edge store: %.0f µs each, %d queries%n",
+				LOOKUPS, EDGES, micros, commandCounter.total());
+
+		// Offsets 1..10 are friends, 11..20 are not (and need the extra pending-request check)
+		assertEquals(LOOKUPS / 2, friends);
+		assertEquals(LOOKUPS * 3 + LOOKUPS / 2, commandCounter.total());
+
+		Document plan = mongoTemplate.getCollection("friendships")
+				.find(new Document("pairKey", Friendship.pairKeyOf(userId(0), userId(1))))
+				.explain();
+		assertFalse(plan.toJson().contains("COLLSCAN"), plan.toJson());
+	}
+
+	private static String userId(int index) {
+		return String.format("user-%05d", index);
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.backend.community.service.impl;
+
+import com.example.backend.community.entity.Post;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Concurrent likes, unlikes and comment count updates on a single post: no lost or double-counted updates.
+ */
+@MongoTest
+class PostEngagementCounterConcurrencyTest {
+
+	private static final int USERS = 500;
+
+	private MongoTemplate mongoTemplate;
+	private PostEngagementCounter counter;
+	private String postId;
+
+	@BeforeEach
+	void createPost(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		counter = new PostEngagementCounter(mongoTemplate);
+
+		Post post = new Post();
+		post.setDesc("popular post");
+		post.setLikes(new ArrayList<>());
+		post.setLikeCount(0);
+		post.setCommentCount(0);
+		postId = mongoTemplate.insert(post).getId();
+	}
+
+	@Test
+	void fiveHundredSimultaneousLikesAreAllCounted() throws Exception {
+		runConcurrently(USERS, i -> counter.like(postId, "user-" + i));
+
+		Post post = mongoTemplate.findById(postId, Post.class);
+		assertNotNull(post);
+		assertEquals(USERS, post.getLikeCount());
+		assertEquals(USERS, new HashSet<>(post.getLikes()).size());
+	}
+
+	@Test
+	void repeatedLikesByTheSameUserCountOnce() throws Exception {
+		runConcurrently(USERS * 2, i -> counter.like(postId, "user-" + (i % USERS)));
+
+		Post post = mongoTemplate.findById(postId, Post.class);
+		assertEquals(USERS, post.getLikeCount());
+		assertEquals(USERS, post.getLikes().size());
+	}
+
+	@Test
+	void concurrentLikesAndUnlikesKeepCountAndSetInStep() throws Exception {
+		runConcurrently(USERS, i -> counter.like(postId, "user-" + i));
+
+		// Half the users unlike while new users like
+		runConcurrently(USERS, i -> i % 2 == 0
+				? counter.unlike(postId, "user-" + i)
+				: counter.like(postId, "new-user-" + i));
+
+		Post post = mongoTemplate.findById(postId, Post.class);
+		assertEquals(USERS, post.getLikeCount());
+		assertEquals(post.getLikes().size(), post.getLikeCount());
+	}
+
+	@Test
+	void toggleLikesThenUnlikes() {
+		assertEquals(1, counter.toggleLike(postId, "user-1").getLikeCount());
+		assertEquals(0, counter.toggleLike(postId, "user-1").getLikeCount());
+		assertNull(counter.toggleLike("000000000000000000000000", "user-1"));
+	}
+
+	@Test
+	void commentCountIsIncrementedAtomically() throws Exception {
+		runConcurrently(USERS, i -> {
+			counter.incrementCommentCount(postId, 1);
+			return null;
+		});
+
+		assertEquals(USERS, mongoTemplate.findById(postId, Post.class).getCommentCount());
+	}
+
+	private void runConcurrently(int tasks, IndexedTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < tasks; i++) {
+				int index = i;
+				Callable<Object> call = () -> {
+					start.await();
+					return task.run(index);
+				};
+				futures.add(executor.submit(call));
+			}
+			start.countDown();
+			for (Future<Object> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface IndexedTask {
+		Object run(int index) throws Exception;
+	}
+}
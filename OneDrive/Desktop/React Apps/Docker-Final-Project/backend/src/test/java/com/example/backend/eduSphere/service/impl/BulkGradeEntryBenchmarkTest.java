@@ -0,0 +1,138 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.GradeColumn;
+import com.example.backend.eduSphere.entity.StudentGrade;
+import com.example.backend.eduSphere.repository.GradeColumnRepository;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of a full 500 x 6 grade sheet through the bulk endpoint's processor.
+ */
+@MongoTest
+class BulkGradeEntryBenchmarkTest {
+
+	private static final int STUDENTS = 500;
+	private static final int[] COLUMN_WEIGHTS = {10, 10, 15, 15, 20, 30};
+	private static final String COURSE_ID = "course-bulk";
+
+	private MongoTemplate mongoTemplate;
+	private BulkGradeEntryProcessor processor;
+	private List<String> columnIds;
+
+	@BeforeEach
+	void createCourse(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		GradeColumnRepository columnRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(GradeColumnRepository.class);
+		processor = new BulkGradeEntryProcessor(mongoTemplate, new GradeRecalculationEngine(mongoTemplate, columnRepository));
+
+		columnIds = new ArrayList<>();
+		for (int c = 0; c < COLUMN_WEIGHTS.length; c++) {
+			GradeColumn column = new GradeColumn();
+			column.setCourseId(COURSE_ID);
+			column.setName("Column " + c);
+			column.setType("exam");
+			column.setPercentage(COLUMN_WEIGHTS[c]);
+			column.setDisplayOrder(c + 1);
+			columnIds.add(mongoTemplate.insert(column).getId());
+		}
+
+		// Half of the students already have a record with one grade
+		List<StudentGrade> existing = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s += 2) {
+			StudentGrade record = new StudentGrade();
+			record.setStudentId("student-" + s);
+			record.setCourseId(COURSE_ID);
+			record.setGrades(new HashMap<>(Map.of(columnIds.get(0), 50.0)));
+			existing.add(record);
+		}
+		mongoTemplate.insert(existing, StudentGrade.class);
+	}
+
+	@Test
+	void appliesAFullGradeSheetWithOneBulkWrite() {
+		List<Map<String, Object>> sheet = gradeSheet(0);
+		sheet.add(Map.of("studentId", "student-1", "columnId", "missing-column", "grade", 80));
+		sheet.add(Map.of("studentId", "student-2", "columnId", columnIds.get(1), "grade", 120));
+
+		long started = System.nanoTime();
+		Map<String, Object> result = processor.apply(sheet);
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		System.out.printf("Bulk grade entry: %d cells in %.1f ms (%.0f cells/s)%n",
+				sheet.size(), seconds * 1000, STUDENTS * COLUMN_WEIGHTS.length / seconds);
+
+		assertEquals(STUDENTS * COLUMN_WEIGHTS.length, result.get("applied"));
+		assertEquals(2, result.get("failed"));
+		assertEquals(STUDENTS, result.get("studentsUpdated"));
+		assertEquals(STUDENTS / 2, result.get("recordsCreated"));
+
+		List<StudentGrade> records = mongoTemplate.find(
+				Query.query(Criteria.where("courseId").is(COURSE_ID)), StudentGrade.class);
+		assertEquals(STUDENTS, records.size());
+		for (StudentGrade record : records) {
+			assertEquals(COLUMN_WEIGHTS.length, record.getGrades().size());
+			assertEquals(expectedFinalGrade(studentIndex(record), 0), record.getFinalGrade(), 1e-9);
+			assertEquals(100.0, record.getGradedWeight(), 1e-9);
+		}
+	}
+
+	@Test
+	void reenteringTheSheetUpdatesEveryRecordInPlace() {
+		processor.apply(gradeSheet(0));
+
+		// Second pass, as when a lecturer corrects a whole sheet: no new records
+		long started = System.nanoTime();
+		Map<String, Object> result = processor.apply(gradeSheet(5));
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		System.out.printf("Bulk grade re-entry: %.1f ms (%.0f cells/s)%n",
+				seconds * 1000, STUDENTS * COLUMN_WEIGHTS.length / seconds);
+
+		assertEquals(0, result.get("recordsCreated"));
+		assertTrue(((List<?>) result.get("errors")).isEmpty());
+
+		StudentGrade record = mongoTemplate.findOne(
+				Query.query(Criteria.where("studentId").is("student-7").and("courseId").is(COURSE_ID)), StudentGrade.class);
+		assertEquals(expectedFinalGrade(7, 5), record.getFinalGrade(), 1e-9);
+	}
+
+	private List<Map<String, Object>> gradeSheet(int offset) {
+		List<Map<String, Object>> sheet = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s++) {
+			for (int c = 0; c < COLUMN_WEIGHTS.length; c++) {
+				sheet.add(Map.of("studentId", "student-" + s, "columnId", columnIds.get(c), "grade", grade(s, c, offset)));
+			}
+		}
+		return sheet;
+	}
+
+	private static double grade(int student, int column, int offset) {
+		return (student * 7 + column * 13 + offset) % 101;
+	}
+
+	private static double expectedFinalGrade(int student, int offset) {
+		double weighted = 0;
+		for (int c = 0; c < COLUMN_WEIGHTS.length; c++) {
+			weighted += grade(student, c, offset) * COLUMN_WEIGHTS[c] / 100.0;
+		}
+		return GradeRecalculationEngine.finalGradeFrom(weighted, 100.0);
+	}
+
+	private static int studentIndex(StudentGrade record) {
+		return Integer.parseInt(record.getStudentId().substring("student-".length()));
+	}
+}
@@ -0,0 +1,195 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.config.MongoIndexBootstrap;
+import com.example.backend.eduSphere.entity.Assignment;
+import com.example.backend.eduSphere.entity.CalendarFeedKey;
+import com.example.backend.eduSphere.entity.CalendarSyncState;
+import com.example.backend.eduSphere.entity.Event;
+import com.example.backend.eduSphere.entity.Meeting;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import com.example.backend.eduSphere.repository.UserRepository;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conditional feed requests and sync-token deltas of a lecturer's calendar feed, and the cost of
+ * an unchanged poll.
+ */
+@MongoTest
+class CalendarFeedServiceTest {
+
+	private static final int RULES = 40;
+	private static final int ASSIGNMENTS = 200;
+	private static final int MEETINGS = 100;
+	private static final int POLLS = 1_000;
+
+	private MongoTemplate mongoTemplate;
+	private CalendarFeedService feedService;
+	private UserEntity lecturer;
+
+	@BeforeEach
+	void seedCalendar(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+		feedService = new CalendarFeedService(mongoTemplate,
+				repositories.getRepository(CourseRepository.class),
+				repositories.getRepository(UserRepository.class),
+				"Asia/Jerusalem", 180, 60, 1000);
+
+		new MongoIndexBootstrap(mongoTemplate).ensureIndexes(List.of(Event.class, Assignment.class, Meeting.class,
+				CalendarFeedKey.class, CalendarSyncState.class));
+
+		lecturer = new UserEntity();
+		lecturer.setName("Dr. Levi");
+		lecturer.setRole("1200");
+		lecturer = mongoTemplate.insert(lecturer);
+
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < RULES; i++) {
+			Event event = new Event();
+			event.setTitle("Lecture " + i);
+			event.setDayOfWeek(DayOfWeek.of(i % 5 + 1));
+			event.setStartDate(today.minusWeeks(4));
+			event.setEndDate(today.plusWeeks(12));
+			event.setStartTime(LocalTime.of(8 + i % 8, 0));
+			event.setEndTime(LocalTime.of(9 + i % 8, 30));
+			event.setInstructorId(lecturer.getId());
+			mongoTemplate.insert(event);
+		}
+		for (int i = 0; i < ASSIGNMENTS; i++) {
+			Assignment assignment = new Assignment();
+			assignment.setTitle("Assignment " + i);
+			assignment.setDueDate(today.plusDays(i % 90));
+			assignment.setInstructorId(lecturer.getId());
+			mongoTemplate.insert(assignment);
+		}
+		for (int i = 0; i < MEETINGS; i++) {
+			Meeting meeting = new Meeting();
+			meeting.setRoomId("room-" + i);
+			meeting.setTitle("Meeting " + i);
+			meeting.setDatetime(LocalDateTime.now().plusHours(i));
+			meeting.setLecturerId(lecturer.getId());
+			mongoTemplate.insert(meeting);
+		}
+	}
+
+	@Test
+	void unchangedFeedIsAnsweredNotModified() throws Exception {
+		MockHttpServletResponse first = get(null);
+		assertEquals(200, first.getStatus());
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		String body = first.getContentAsString();
+		assertTrue(body.startsWith("BEGIN:VCALENDAR\r\n"));
+		assertEquals(RULES + ASSIGNMENTS + MEETINGS, body.split("BEGIN:VEVENT").length - 1);
+		assertEquals(RULES, body.split("RRULE:FREQ=WEEKLY").length - 1);
+
+		// Within the ETag cache TTL
+		long started = System.nanoTime();
+		for (int i = 0; i < POLLS; i++) {
+			assertEquals(304, get(etag).getStatus());
+		}
+		double cachedMs = (System.nanoTime() - started) / 1e6 / POLLS;
+
+		// After the TTL: the feed is rebuilt but not sent
+		feedService.invalidateAll();
+		started = System.nanoTime();
+		MockHttpServletResponse revalidated = get(etag);
+		double rebuiltMs = (System.nanoTime() - started) / 1e6;
+		assertEquals(304, revalidated.getStatus());
+		assertEquals(0, revalidated.getContentAsByteArray().length);
+
+		System.out.printf("Feed poll: %.3f ms (cached ETag), %.1f ms (revalidated), %d bytes saved per poll%n",
+				cachedMs, rebuiltMs, first.getContentAsByteArray().length);
+	}
+
+	@Test
+	void changedFeedGetsANewEtag() throws Exception {
+		String etag = get(null).getHeader(HttpHeaders.ETAG);
+
+		Meeting meeting = new Meeting();
+		meeting.setRoomId("room-new");
+		meeting.setTitle("Extra office hours");
+		meeting.setDatetime(LocalDateTime.now().plusDays(1));
+		meeting.setLecturerId(lecturer.getId());
+		mongoTemplate.insert(meeting);
+		feedService.invalidateAll();
+
+		MockHttpServletResponse response = get(etag);
+		assertEquals(200, response.getStatus());
+		assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void syncReturnsOnlyChangedAndRemovedItems() {
+		Map<String, Object> full = feedService.changesSince(lecturer, null);
+		assertEquals(true, full.get("fullSync"));
+		assertEquals(RULES + ASSIGNMENTS + MEETINGS, ((List<?>) full.get("changed")).size());
+		String token = (String) full.get("syncToken");
+
+		Map<String, Object> unchanged = feedService.changesSince(lecturer, token);
+		assertEquals(false, unchanged.get("fullSync"));
+		assertTrue(((List<?>) unchanged.get("changed")).isEmpty());
+		assertEquals(token, unchanged.get("syncToken"));
+
+		Event event = mongoTemplate.findAll(Event.class).get(0);
+		event.setLocation("Room 204");
+		mongoTemplate.save(event);
+		Assignment assignment = mongoTemplate.findAll(Assignment.class).get(0);
+		mongoTemplate.remove(assignment);
+
+		Map<String, Object> delta = feedService.changesSince(lecturer, token);
+		assertEquals(false, delta.get("fullSync"));
+		List<?> changed = (List<?>) delta.get("changed");
+		assertEquals(1, changed.size());
+		Map<?, ?> item = (Map<?, ?>) changed.get(0);
+		assertEquals(ICalendarFormat.eventUid(event), item.get("uid"));
+		assertTrue(((String) item.get("data")).contains("LOCATION:Room 204"));
+		assertEquals(List.of(ICalendarFormat.assignmentUid(assignment)), delta.get("removed"));
+
+		// A token of another user is not honoured
+		UserEntity other = new UserEntity();
+		other.setRole("1200");
+		other = mongoTemplate.insert(other);
+		assertEquals(true, feedService.changesSince(other, token).get("fullSync"));
+	}
+
+	@Test
+	void subscriptionKeyResolvesToItsUserUntilRevoked() {
+		String key = feedService.subscriptionKey(lecturer);
+		assertEquals(key, feedService.subscriptionKey(lecturer));
+		assertEquals(lecturer.getId(), feedService.userForSubscriptionKey(key).getId());
+
+		feedService.revokeSubscription(lecturer);
+		assertNull(feedService.userForSubscriptionKey(key));
+		assertNotEquals(key, feedService.subscriptionKey(lecturer));
+	}
+
+	private MockHttpServletResponse get(String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/feed.ics");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		feedService.serve(lecturer, request, response);
+		return response;
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.config.MongoIndexBootstrap;
+import com.example.backend.eduSphere.dto.request.CalendarFilterDto;
+import com.example.backend.eduSphere.dto.response.CalendarEventDto;
+import com.example.backend.eduSphere.entity.Assignment;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.Event;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import com.example.backend.eduSphere.repository.UserRepository;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Week vs month view latency of the admin calendar (every event and assignment in range).
+ */
+@MongoTest
+class CalendarViewBenchmarkTest {
+
+	private static final int RULES = 300;
+	private static final int ASSIGNMENTS = 5_000;
+	private static final int INSTRUCTORS = 25;
+	private static final int COURSES = 40;
+	private static final int RUNS = 20;
+	private static final LocalDate SEMESTER_START = LocalDate.of(2025, 2, 2);
+	private static final LocalDate SEMESTER_END = LocalDate.of(2025, 6, 28);
+
+	private MongoTemplate mongoTemplate;
+	private CalendarServiceImpl calendarService;
+	private final CalendarFilterDto noFilters = new CalendarFilterDto();
+
+	@BeforeEach
+	void seedCalendar(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		new MongoIndexBootstrap(mongoTemplate).ensureIndexes(List.of(Event.class, Assignment.class));
+
+		MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+		calendarService = new CalendarServiceImpl();
+		ReflectionTestUtils.setField(calendarService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(calendarService, "courseRepository", repositories.getRepository(CourseRepository.class));
+		ReflectionTestUtils.setField(calendarService, "userRepository", repositories.getRepository(UserRepository.class));
+		ReflectionTestUtils.setField(calendarService, "instructorCacheTtlSeconds", 300L);
+
+		List<String> instructorIds = new ArrayList<>();
+		for (int i = 0; i < INSTRUCTORS; i++) {
+			UserEntity instructor = new UserEntity();
+			instructor.setName("Lecturer " + i);
+			instructor.setRole("1200");
+			instructorIds.add(mongoTemplate.insert(instructor).getId());
+		}
+
+		List<String> courseIds = new ArrayList<>();
+		for (int c = 0; c < COURSES; c++) {
+			Course course = new Course();
+			course.setName("Course " + c);
+			courseIds.add(mongoTemplate.insert(course).getId());
+		}
+
+		List<Event> rules = new ArrayList<>();
+		for (int r = 0; r < RULES; r++) {
+			Event rule = new Event();
+			rule.setTitle("Lecture " + r);
+			rule.setType("LECTURE");
+			rule.setDayOfWeek(DayOfWeek.of(r % 7 + 1));
+			// Two semesters' worth of rules; only the second overlaps the benchmarked range
+			boolean current = r % 2 == 0;
+			rule.setStartDate(current ? SEMESTER_START : SEMESTER_START.minusMonths(6));
+			rule.setEndDate(current ? SEMESTER_END : SEMESTER_START.minusDays(7));
+			rule.setStartTime(LocalTime.of(8 + r % 8, 0));
+			rule.setEndTime(LocalTime.of(9 + r % 8, 30));
+			rule.setInstructorId(instructorIds.get(r % INSTRUCTORS));
+			rule.setLearningGroupId("group-" + r % 10);
+			rules.add(rule);
+		}
+		mongoTemplate.insert(rules, Event.class);
+
+		List<Assignment> assignments = new ArrayList<>();
+		for (int a = 0; a < ASSIGNMENTS; a++) {
+			Assignment assignment = new Assignment();
+			assignment.setTitle("Assignment " + a);
+			assignment.setType("assignment");
+			assignment.setCourse(courseIds.get(a % COURSES));
+			assignment.setDueDate(LocalDate.of(2025, 1, 1).plusDays(a % 365));
+			assignments.add(assignment);
+		}
+		mongoTemplate.insert(assignments, Assignment.class);
+
+		UserEntity admin = new UserEntity();
+		admin.setId("admin");
+		admin.setName("Admin");
+		admin.setRole("1100");
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void weekAndMonthViewsForAnAdmin() {
+		LocalDate anchor = LocalDate.of(2025, 3, 12);
+		YearMonth month = YearMonth.from(anchor);
+
+		List<CalendarEventDto> week = calendarService.getCalendarEventsForUser(anchor, noFilters);
+		List<CalendarEventDto> monthView = calendarService.getCalendarEventsForUser(month.atDay(1), month.atEndOfMonth(), noFilters);
+
+		double weekMs = averageMillis(() -> calendarService.getCalendarEventsForUser(anchor, noFilters));
+		double monthMs = averageMillis(() -> calendarService.getCalendarEventsForUser(month.atDay(1), month.atEndOfMonth(), noFilters));
+		double semesterMs = averageMillis(() -> calendarService.getCalendarEventsForUser(SEMESTER_START, SEMESTER_END, noFilters));
+
+		System.out.printf("Admin calendar: week %d entries in %.1f ms, month %d entries in %.1f ms, semester in %.1f ms%n",
+				week.size(), weekMs, monthView.size(), monthMs, semesterMs);
+
+		// 150 current rules, one occurrence each per week; 5000 assignments spread over 365 days
+		LocalDate weekStart = anchor.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+		assertEquals(RULES / 2 + expectedAssignments(weekStart, 7), week.size());
+		assertEquals(expectedLectures(month.atDay(1), month.atEndOfMonth()) + expectedAssignments(month.atDay(1), month.lengthOfMonth()),
+				monthView.size());
+		assertTrue(week.stream()
+				.filter(entry -> entry.getStartTime() != null)
+				.allMatch(entry -> entry.getInstructorName().startsWith("Lecturer ")));
+	}
+
+	@Test
+	void rulesWithoutStartOrEndDateAreOpenEnded() {
+		LocalDate anchor = LocalDate.of(2025, 3, 12);
+		List<CalendarEventDto> before = calendarService.getCalendarEventsForUser(anchor, noFilters);
+
+		mongoTemplate.insert(List.of(
+				openEndedRule("No dates", null, null),
+				openEndedRule("No end", SEMESTER_START, null),
+				openEndedRule("No start", null, SEMESTER_END),
+				openEndedRule("Ended before", null, SEMESTER_START.minusDays(1))), Event.class);
+
+		List<CalendarEventDto> after = calendarService.getCalendarEventsForUser(anchor, noFilters);
+		assertEquals(before.size() + 3, after.size());
+		assertTrue(after.stream().noneMatch(entry -> "Ended before".equals(entry.getTitle())));
+	}
+
+	private static Event openEndedRule(String title, LocalDate startDate, LocalDate endDate) {
+		Event rule = new Event();
+		rule.setTitle(title);
+		rule.setType("LECTURE");
+		rule.setDayOfWeek(DayOfWeek.WEDNESDAY);
+		rule.setStartDate(startDate);
+		rule.setEndDate(endDate);
+		rule.setStartTime(LocalTime.of(10, 0));
+		rule.setEndTime(LocalTime.of(11, 0));
+		return rule;
+	}
+
+	private static int expectedLectures(LocalDate from, LocalDate to) {
+		int count = 0;
+		for (int r = 0; r < RULES; r += 2) {
+			for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+				if (day.getDayOfWeek() == DayOfWeek.of(r % 7 + 1)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static int expectedAssignments(LocalDate from, int days) {
+		int count = 0;
+		for (int a = 0; a < ASSIGNMENTS; a++) {
+			LocalDate due = LocalDate.of(2025, 1, 1).plusDays(a % 365);
+			if (!due.isBefore(from) && due.isBefore(from.plusDays(days))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static double averageMillis(Supplier<List<CalendarEventDto>> view) {
+		view.get(); // warm-up
+		long started = System.nanoTime();
+		for (int i = 0; i < RUNS; i++) {
+			view.get();
+		}
+		return (System.nanoTime() - started) / 1e6 / RUNS;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.example.backend.eduSphere.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledTemplateTest {
+
+	@Test
+	void rendersEveryPlaceholderInOnePass() {
+		CompiledTemplate template = CompiledTemplate.compile("Dear {name}, your {course} exam is on {date}. Bye {name}!");
+
+		String rendered = template.render(Map.of("name", "Dana", "course", "Algebra", "date", "May 3"));
+
+		assertEquals("Dear Dana, your Algebra exam is on May 3. Bye Dana!", rendered);
+		assertEquals(List.of("name", "course", "date", "name"), template.getVariables());
+	}
+
+	@Test
+	void keepsPlaceholdersWithoutValues() {
+		CompiledTemplate template = CompiledTemplate.compile("Hi {name}, see {link}");
+
+		assertEquals("Hi Dana, see {link}", template.render(Map.of("name", "Dana")));
+	}
+
+	@Test
+	void leavesBracesThatAreNotPlaceholdersAlone() {
+		CompiledTemplate template = CompiledTemplate.compile("{} and { {name} and {unclosed");
+
+		assertEquals("{} and { Dana and {unclosed", template.render(Map.of("name", "Dana")));
+	}
+
+	@Test
+	void valuesAreNotExpandedAgain() {
+		CompiledTemplate template = CompiledTemplate.compile("{a}{b}");
+
+		assertEquals("{b}x", template.render(Map.of("a", "{b}", "b", "x")));
+	}
+
+	@Test
+	void handlesTextWithoutPlaceholdersAndNull() {
+		assertEquals("plain text", CompiledTemplate.compile("plain text").render(Map.of()));
+		assertEquals("", CompiledTemplate.compile(null).render(Map.of()));
+	}
+}
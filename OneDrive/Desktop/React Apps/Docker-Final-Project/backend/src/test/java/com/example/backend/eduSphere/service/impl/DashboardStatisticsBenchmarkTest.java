@@ -0,0 +1,113 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.entity.YearlyEnrollment;
+import com.example.backend.support.MongoCommandCounter;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Admin dashboard statistics over 50,000 users: cost of computing the snapshot, and of serving
+ * dashboard requests from it.
+ */
+@MongoTest
+class DashboardStatisticsBenchmarkTest {
+
+	private static final int USERS = 50_000;
+	private static final int COURSES = 100;
+	private static final int DEPARTMENTS = 5;
+	private static final int STUDENTS_PER_COURSE = 100;
+	private static final int FIRST_YEAR = 2021;
+	private static final int YEARS = 5;
+	private static final int BATCH_SIZE = 5_000;
+
+	private MongoCommandCounter commandCounter;
+	private DashboardStatisticsCache cache;
+
+	@BeforeEach
+	void createUsersAndCourses(MongoTemplate mongoTemplate, MongoCommandCounter commandCounter) {
+		this.commandCounter = commandCounter;
+		cache = new DashboardStatisticsCache(mongoTemplate, 300_000);
+
+		List<UserEntity> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			UserEntity user = new UserEntity();
+			user.setUsername("user" + i);
+			user.setName("User " + i);
+			user.setRole(i % 50 == 0 ? "1100" : i % 10 == 0 ? "1200" : "1300");
+			user.setCreatedAt(LocalDateTime.of(FIRST_YEAR + i % YEARS, 6, 15, 12, 0));
+			users.add(user);
+			if (users.size() == BATCH_SIZE) {
+				mongoTemplate.insert(users, UserEntity.class);
+				users = new ArrayList<>();
+			}
+		}
+
+		List<Course> courses = new ArrayList<>();
+		for (int c = 0; c < COURSES; c++) {
+			Course course = new Course();
+			course.setName("Course " + c);
+			course.setDepartment("Department " + c % DEPARTMENTS);
+			YearlyEnrollment enrollment = new YearlyEnrollment(2025);
+			for (int s = 0; s < STUDENTS_PER_COURSE; s++) {
+				enrollment.getStudentIds().add("student-" + s);
+			}
+			course.getEnrollments().add(enrollment);
+			courses.add(course);
+		}
+		mongoTemplate.insert(courses, Course.class);
+	}
+
+	@Test
+	void snapshotIsComputedByAggregationAndServedWithoutQueries() {
+		commandCounter.reset();
+		long started = System.nanoTime();
+		DashboardStatisticsCache.Snapshot snapshot = cache.refresh();
+		double refreshMillis = (System.nanoTime() - started) / 1e6;
+		int refreshCommands = commandCounter.total();
+
+		int requests = 1_000;
+		commandCounter.reset();
+		started = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			assertSame(snapshot, cache.getSnapshot());
+		}
+		double servedMicros = (System.nanoTime() - started) / 1e3 / requests;
+
+		System.out.printf("Dashboard snapshot of %d users: %d queries in %.1f ms; %d requests served at %.2f µs each with %d queries%n",
+				USERS, refreshCommands, refreshMillis, requests, servedMicros, commandCounter.total());
+
+		// Department enrollment, users by role, users by year
+		assertEquals(3, refreshCommands);
+		assertEquals(0, commandCounter.total());
+
+		assertEquals(USERS, snapshot.getStats().getActiveUsers());
+		assertEquals(DEPARTMENTS, snapshot.getStats().getActiveDepartments());
+		for (Map<String, Object> department : snapshot.getCharts().getDepartmentEnrollment()) {
+			assertEquals(COURSES / DEPARTMENTS * STUDENTS_PER_COURSE, department.get("value"));
+		}
+
+		List<Map<String, Object>> systemUsage = snapshot.getCharts().getSystemUsage();
+		assertEquals(45_000L, systemUsage.get(0).get("value"));
+		assertEquals(4_000L, systemUsage.get(1).get("value"));
+		assertEquals(1_000L, systemUsage.get(2).get("value"));
+
+		List<Map<String, Object>> annualEnrollment = snapshot.getCharts().getAnnualEnrollment();
+		assertEquals(YEARS, annualEnrollment.size());
+		for (int y = 0; y < YEARS; y++) {
+			assertEquals(String.valueOf(FIRST_YEAR + y), annualEnrollment.get(y).get("name"));
+			assertEquals((long) USERS / YEARS, annualEnrollment.get(y).get("value"));
+		}
+	}
+}
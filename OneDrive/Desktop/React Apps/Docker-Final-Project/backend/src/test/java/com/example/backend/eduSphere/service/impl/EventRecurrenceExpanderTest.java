@@ -0,0 +1,75 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventRecurrenceExpanderTest {
+
+	@Test
+	void expandsEveryWeekOfAMonthInOnePass() {
+		Event rule = rule(DayOfWeek.MONDAY, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+
+		List<LocalDate> dates = EventRecurrenceExpander.occurrences(rule, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+		assertEquals(List.of(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 17),
+				LocalDate.of(2025, 3, 24), LocalDate.of(2025, 3, 31)), dates);
+	}
+
+	@Test
+	void clipsToTheRuleWindow() {
+		Event rule = rule(DayOfWeek.WEDNESDAY, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 20));
+
+		List<LocalDate> dates = EventRecurrenceExpander.occurrences(rule, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+		assertEquals(List.of(LocalDate.of(2025, 3, 12), LocalDate.of(2025, 3, 19)), dates);
+	}
+
+	@Test
+	void matchesTheWeeklyViewOfASingleWeek() {
+		Event rule = rule(DayOfWeek.SUNDAY, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+		LocalDate weekStart = LocalDate.of(2025, 3, 9); // a Sunday
+
+		assertEquals(List.of(weekStart), EventRecurrenceExpander.occurrences(rule, weekStart, weekStart.plusDays(6)));
+	}
+
+	@Test
+	void includesOccurrencesOnTheRangeAndRuleBoundaries() {
+		Event rule = rule(DayOfWeek.FRIDAY, LocalDate.of(2025, 3, 7), LocalDate.of(2025, 3, 14));
+
+		List<LocalDate> dates = EventRecurrenceExpander.occurrences(rule, LocalDate.of(2025, 3, 7), LocalDate.of(2025, 3, 14));
+
+		assertEquals(List.of(LocalDate.of(2025, 3, 7), LocalDate.of(2025, 3, 14)), dates);
+	}
+
+	@Test
+	void treatsMissingBoundsAsOpenEndedAndMissingDayAsNever() {
+		Event openEnded = rule(DayOfWeek.TUESDAY, null, null);
+		assertEquals(2, EventRecurrenceExpander.occurrences(openEnded, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 14)).size());
+
+		Event noDay = rule(null, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+		assertTrue(EventRecurrenceExpander.occurrences(noDay, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)).isEmpty());
+	}
+
+	@Test
+	void returnsNothingOutsideTheRuleWindow() {
+		Event rule = rule(DayOfWeek.MONDAY, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+		assertTrue(EventRecurrenceExpander.occurrences(rule, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)).isEmpty());
+	}
+
+	private static Event rule(DayOfWeek day, LocalDate start, LocalDate end) {
+		Event event = new Event();
+		event.setId("rule");
+		event.setDayOfWeek(day);
+		event.setStartDate(start);
+		event.setEndDate(end);
+		return event;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.GradeColumn;
+import com.example.backend.eduSphere.entity.StudentGrade;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * A column weight change applied as a delta to the stored aggregates gives the same result as a
+ * full recompute of the record with the new weights.
+ */
+class GradeRecalculationEngineTest {
+
+	private final GradeRecalculationEngine engine = new GradeRecalculationEngine(null, null);
+
+	@Test
+	void weightDeltaMatchesFullRecomputeForFullyGradedRecords() {
+		List<GradeColumn> columns = columns(20, 30, 50);
+
+		for (int s = 0; s < 200; s++) {
+			StudentGrade record = record(columns, (s * 7) % 101, (s * 13 + 5) % 101, (s * 29 + 11) % 101);
+			assertDeltaMatchesRecompute(record, columns, 1, 45);
+			assertDeltaMatchesRecompute(record, columns, 2, 10);
+		}
+	}
+
+	@Test
+	void weightDeltaMatchesFullRecomputeForPartiallyGradedRecords() {
+		List<GradeColumn> columns = columns(10, 25, 25, 40);
+
+		for (int s = 0; s < 200; s++) {
+			StudentGrade record = record(columns, (s * 3) % 101, null, (s * 17 + 3) % 101, s % 2 == 0 ? null : (s * 31) % 101);
+			assertDeltaMatchesRecompute(record, columns, 0, 30);
+			assertDeltaMatchesRecompute(record, columns, 2, 5);
+		}
+	}
+
+	@Test
+	void deletedColumnMustBeRecomputedBeforeTheNextDelta() {
+		List<GradeColumn> columns = columns(30, 30, 40);
+		StudentGrade record = record(columns, 90, 40, 70);
+
+		// Column 0 is deleted: its grade is unset and the record recomputed without it
+		List<GradeColumn> remaining = new ArrayList<>(columns.subList(1, 3));
+		StudentGrade stale = copy(record);
+		record.getGrades().remove(columns.get(0).getId());
+		engine.recomputeRecord(record, remaining);
+		assertDeltaMatchesRecompute(record, remaining, 0, 60);
+
+		// Without that recompute the stored aggregates still carry the deleted column's weight
+		stale.getGrades().remove(columns.get(0).getId());
+		GradeRecalculationEngine.applyWeightDelta(stale, 40, 60 - 30);
+		StudentGrade expected = copy(stale);
+		remaining.get(0).setPercentage(60);
+		engine.recomputeRecord(expected, remaining);
+		assertNotEquals(expected.getFinalGrade(), stale.getFinalGrade());
+	}
+
+	/**
+	 * Changes the weight of columns[index] to newPercentage on both a delta-updated copy and a fully
+	 * recomputed copy of the record and compares them; leaves the new weight in place.
+	 */
+	private void assertDeltaMatchesRecompute(StudentGrade record, List<GradeColumn> columns, int index, int newPercentage) {
+		GradeColumn column = columns.get(index);
+		int oldPercentage = column.getPercentage();
+
+		StudentGrade delta = copy(record);
+		Double grade = delta.getGrades().get(column.getId());
+		if (grade != null) {
+			GradeRecalculationEngine.applyWeightDelta(delta, grade, newPercentage - oldPercentage);
+		}
+
+		column.setPercentage(newPercentage);
+		StudentGrade full = copy(record);
+		engine.recomputeRecord(full, columns);
+
+		assertEquals(full.getWeightedScore(), delta.getWeightedScore(), 1e-9);
+		assertEquals(full.getGradedWeight(), delta.getGradedWeight(), 1e-9);
+		assertEquals(full.getFinalGrade(), delta.getFinalGrade(), 1e-9);
+		assertEquals(full.getFinalLetterGrade(), delta.getFinalLetterGrade());
+
+		// The record now reflects the new weights, as after applyColumnWeightChange
+		engine.recomputeRecord(record, columns);
+	}
+
+	private List<GradeColumn> columns(int... percentages) {
+		List<GradeColumn> columns = new ArrayList<>();
+		for (int c = 0; c < percentages.length; c++) {
+			GradeColumn column = new GradeColumn();
+			column.setId("column-" + c);
+			column.setPercentage(percentages[c]);
+			columns.add(column);
+		}
+		return columns;
+	}
+
+	private StudentGrade record(List<GradeColumn> columns, Integer... grades) {
+		StudentGrade record = new StudentGrade();
+		Map<String, Double> gradeMap = new HashMap<>();
+		for (int c = 0; c < grades.length; c++) {
+			if (grades[c] != null) {
+				gradeMap.put(columns.get(c).getId(), grades[c].doubleValue());
+			}
+		}
+		record.setGrades(gradeMap);
+		engine.recomputeRecord(record, columns);
+		return record;
+	}
+
+	private static StudentGrade copy(StudentGrade record) {
+		StudentGrade copy = new StudentGrade();
+		copy.setGrades(new HashMap<>(record.getGrades()));
+		copy.setWeightedScore(record.getWeightedScore());
+		copy.setGradedWeight(record.getGradedWeight());
+		copy.setFinalGrade(record.getFinalGrade());
+		copy.setFinalLetterGrade(record.getFinalLetterGrade());
+		return copy;
+	}
+}
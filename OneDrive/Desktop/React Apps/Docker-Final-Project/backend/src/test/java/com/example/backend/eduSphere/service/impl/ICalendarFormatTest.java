@@ -0,0 +1,129 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.Assignment;
+import com.example.backend.eduSphere.entity.Event;
+import com.example.backend.eduSphere.entity.Meeting;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ICalendarFormatTest {
+
+	private static final ZoneId JERUSALEM = ZoneId.of("Asia/Jerusalem");
+
+	@Test
+	void weeklyRuleBecomesOneRecurringEvent() {
+		Event event = event(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 6, 29), DayOfWeek.TUESDAY);
+
+		List<String> lines = ICalendarFormat.eventRule(event, JERUSALEM, LocalDate.of(2025, 1, 1));
+
+		assertTrue(lines.contains("DTSTART;TZID=Asia/Jerusalem:20250304T083000"));
+		assertTrue(lines.contains("DTEND;TZID=Asia/Jerusalem:20250304T100000"));
+		// End date at the start time, 08:30 IDT (+03:00), in UTC
+		assertTrue(lines.contains("RRULE:FREQ=WEEKLY;BYDAY=TU;UNTIL=20250629T053000Z"));
+		assertTrue(lines.contains("LOCATION:Room 101\\, Building A"));
+	}
+
+	@Test
+	void ruleThatNeverOccursIsSkipped() {
+		// Wednesday to Sunday of the same week has no Monday
+		Event event = event(LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 9), DayOfWeek.MONDAY);
+
+		assertTrue(ICalendarFormat.eventRule(event, JERUSALEM, LocalDate.of(2025, 1, 1)).isEmpty());
+	}
+
+	@Test
+	void openEndedRuleHasNoUntilAndStartsAtTheFallback() {
+		Event event = event(null, null, DayOfWeek.SUNDAY);
+
+		List<String> lines = ICalendarFormat.eventRule(event, JERUSALEM, LocalDate.of(2025, 1, 1));
+
+		assertTrue(lines.contains("DTSTART;TZID=Asia/Jerusalem:20250105T083000"));
+		assertTrue(lines.contains("RRULE:FREQ=WEEKLY;BYDAY=SU"));
+	}
+
+	@Test
+	void assignmentWithoutDueTimeIsAllDay() {
+		Assignment assignment = new Assignment();
+		assignment.setTitle("Care plan");
+		assignment.setDueDate(LocalDate.of(2025, 5, 12));
+
+		List<String> lines = ICalendarFormat.assignment(assignment, "Anatomy", JERUSALEM);
+
+		assertEquals("SUMMARY:Care plan (Anatomy)", lines.get(0));
+		assertTrue(lines.contains("DTSTART;VALUE=DATE:20250512"));
+		assertTrue(lines.contains("DTEND;VALUE=DATE:20250513"));
+	}
+
+	@Test
+	void meetingIsWrittenInUtcWithItsDuration() {
+		Meeting meeting = new Meeting();
+		meeting.setTitle("Office hours");
+		meeting.setDatetime(LocalDateTime.of(2025, 5, 12, 14, 0));
+		meeting.setDuration(45);
+		meeting.setStatus("cancelled");
+
+		List<String> lines = ICalendarFormat.meeting(meeting);
+
+		assertTrue(lines.contains("DTSTART:20250512T140000Z"));
+		assertTrue(lines.contains("DTEND:20250512T144500Z"));
+		assertTrue(lines.contains("STATUS:CANCELLED"));
+	}
+
+	@Test
+	void timezoneHasDaylightAndStandardRules() {
+		List<String> berlin = ICalendarFormat.timezone(ZoneId.of("Europe/Berlin"));
+
+		assertTrue(berlin.contains("BEGIN:DAYLIGHT"));
+		assertTrue(berlin.contains("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU"));
+		assertTrue(berlin.contains("RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU"));
+		assertTrue(berlin.contains("TZOFFSETTO:+0200"));
+
+		List<String> tokyo = ICalendarFormat.timezone(ZoneId.of("Asia/Tokyo"));
+		assertTrue(tokyo.contains("TZOFFSETTO:+0900"));
+		assertTrue(tokyo.stream().noneMatch(line -> line.startsWith("RRULE")));
+	}
+
+	@Test
+	void textIsEscapedAndLongLinesAreFoldedOnCharacterBoundaries() throws Exception {
+		assertEquals("a\\;b\\,c\\\\d\\ne", ICalendarFormat.escapeText("a;b,c\\d\ne"));
+
+		StringWriter out = new StringWriter();
+		ICalendarFormat.writeLine(out, "SUMMARY:" + "שיעור ".repeat(20));
+
+		String[] physical = out.toString().split("\r\n");
+		assertTrue(physical.length > 1);
+		StringBuilder unfolded = new StringBuilder(physical[0]);
+		for (int i = 1; i < physical.length; i++) {
+			assertTrue(physical[i].startsWith(" "));
+			unfolded.append(physical[i].substring(1));
+		}
+		for (String line : physical) {
+			assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+		}
+		assertEquals("SUMMARY:" + "שיעור ".repeat(20), unfolded.toString());
+	}
+
+	private static Event event(LocalDate start, LocalDate end, DayOfWeek dayOfWeek) {
+		Event event = new Event();
+		event.setId("e1");
+		event.setTitle("Anatomy lecture");
+		event.setStartDate(start);
+		event.setEndDate(end);
+		event.setDayOfWeek(dayOfWeek);
+		event.setStartTime(LocalTime.of(8, 30));
+		event.setEndTime(LocalTime.of(10, 0));
+		event.setLocation("Room 101, Building A");
+		return event;
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.dto.response.TaskResponse;
+import com.example.backend.eduSphere.entity.Course;
+import com.example.backend.eduSphere.entity.Task;
+import com.example.backend.eduSphere.entity.UserEntity;
+import com.example.backend.eduSphere.entity.YearlyEnrollment;
+import com.example.backend.eduSphere.repository.CourseRepository;
+import com.example.backend.eduSphere.repository.GradeColumnRepository;
+import com.example.backend.eduSphere.repository.TaskRepository;
+import com.example.backend.eduSphere.repository.TaskSubmissionRepository;
+import com.example.backend.eduSphere.repository.UserRepository;
+import com.example.backend.support.MongoCommandCounter;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Queries per request when listing a 200-task course: the batched enrichment against the
+ * former three lookups per task.
+ */
+@MongoTest
+class TaskEnrichmentBenchmarkTest {
+
+	private static final int TASKS = 200;
+	private static final int INSTRUCTORS = 20;
+	private static final int STUDENTS_PER_YEAR = 150;
+
+	private MongoCommandCounter commandCounter;
+	private TaskRepository taskRepository;
+	private CourseRepository courseRepository;
+	private UserRepository userRepository;
+	private TaskServiceImpl taskService;
+	private String courseId;
+
+	@BeforeEach
+	void createCourse(MongoTemplate mongoTemplate, MongoCommandCounter commandCounter) {
+		this.commandCounter = commandCounter;
+		MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+		taskRepository = repositories.getRepository(TaskRepository.class);
+		courseRepository = repositories.getRepository(CourseRepository.class);
+		userRepository = repositories.getRepository(UserRepository.class);
+		taskService = new TaskServiceImpl(taskRepository, courseRepository,
+				repositories.getRepository(TaskSubmissionRepository.class), userRepository,
+				repositories.getRepository(GradeColumnRepository.class), mongoTemplate,
+				new TaskStatisticsService(mongoTemplate, courseRepository, 120, 5000), null);
+
+		Course course = new Course();
+		course.setName("Anatomy");
+		course.setLecturerId("lecturer-0");
+		for (int year = 1; year <= 2; year++) {
+			YearlyEnrollment enrollment = new YearlyEnrollment(2024 + year);
+			for (int s = 0; s < STUDENTS_PER_YEAR; s++) {
+				enrollment.getStudentIds().add("student-" + year + "-" + s);
+			}
+			course.getEnrollments().add(enrollment);
+		}
+		courseId = mongoTemplate.insert(course).getId();
+
+		List<UserEntity> instructors = new ArrayList<>();
+		for (int i = 0; i < INSTRUCTORS; i++) {
+			UserEntity instructor = new UserEntity();
+			instructor.setId("lecturer-" + i);
+			instructor.setUsername("lecturer" + i);
+			instructor.setName("Lecturer " + i);
+			instructor.setRole("1200");
+			instructors.add(instructor);
+		}
+		mongoTemplate.insert(instructors, UserEntity.class);
+
+		List<Task> tasks = new ArrayList<>();
+		for (int t = 0; t < TASKS; t++) {
+			Task task = new Task();
+			task.setTitle("Task " + t);
+			task.setCourseId(courseId);
+			task.setInstructorId("lecturer-" + (t % INSTRUCTORS));
+			task.setDueDate(LocalDate.of(2025, 10, 1).plusDays(t));
+			tasks.add(task);
+		}
+		mongoTemplate.insert(tasks, Task.class);
+	}
+
+	@Test
+	void listingACourseResolvesCoursesAndInstructorsInOneQueryEach() {
+		commandCounter.reset();
+		long started = System.nanoTime();
+		List<TaskResponse> responses = taskService.getTasksByCourse(courseId);
+		double millis = (System.nanoTime() - started) / 1e6;
+		int batchedCommands = commandCounter.total();
+
+		commandCounter.reset();
+		started = System.nanoTime();
+		legacyEnrichment(taskRepository.findByCourseIdOrderByDueDateAsc(courseId));
+		double legacyMillis = (System.nanoTime() - started) / 1e6;
+		int legacyCommands = commandCounter.total();
+
+		System.out.printf("Task list of %d tasks: %d queries in %.1f ms (per-task lookups: %d queries in %.1f ms)%n",
+				TASKS, batchedCommands, millis, legacyCommands, legacyMillis);
+
+		// The tasks, their course and their instructors
+		assertEquals(3, batchedCommands);
+		assertEquals(1 + 3 * TASKS, legacyCommands);
+
+		assertEquals(TASKS, responses.size());
+		for (TaskResponse response : responses) {
+			assertEquals("Anatomy", response.getCourseName());
+			assertEquals(2 * STUDENTS_PER_YEAR, response.getEnrolledStudents());
+			assertEquals("Lecturer " + response.getInstructorId().substring("lecturer-".length()), response.getInstructorName());
+		}
+	}
+
+	/**
+	 * The enrichment as it was before batching: course name, enrolled count and instructor name
+	 * looked up separately for every task
+	 */
+	private void legacyEnrichment(List<Task> tasks) {
+		for (Task task : tasks) {
+			TaskResponse response = TaskResponse.fromEntity(task);
+			courseRepository.findById(task.getCourseId()).ifPresent(course -> response.setCourseName(course.getName()));
+			courseRepository.findById(task.getCourseId()).ifPresent(course -> response.setEnrolledStudents(
+					course.getEnrollments().stream().mapToInt(enrollment -> enrollment.getStudentIds().size()).sum()));
+			userRepository.findById(task.getInstructorId()).ifPresent(instructor -> response.setInstructorName(instructor.getName()));
+		}
+	}
+}
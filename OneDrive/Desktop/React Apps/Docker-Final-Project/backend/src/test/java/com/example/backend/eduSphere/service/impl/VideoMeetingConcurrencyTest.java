@@ -0,0 +1,158 @@
+package com.example.backend.eduSphere.service.impl;
+
+import com.example.backend.eduSphere.entity.AttendanceSession;
+import com.example.backend.eduSphere.entity.Meeting;
+import com.example.backend.eduSphere.repository.MeetingRepository;
+import com.example.backend.support.MongoTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent joins, leaves and heartbeats on a single meeting (also while it is being started or
+ * edited): every participant and attendance session is kept, and no user ends up with two open sessions.
+ */
+@MongoTest
+class VideoMeetingConcurrencyTest {
+
+	private static final int USERS = 200;
+
+	private MongoTemplate mongoTemplate;
+	private VideoMeetingServiceImpl meetingService;
+	private String meetingId;
+
+	@BeforeEach
+	void createMeeting(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		meetingService = new VideoMeetingServiceImpl();
+		ReflectionTestUtils.setField(meetingService, "meetingRepository",
+				new MongoRepositoryFactory(mongoTemplate).getRepository(MeetingRepository.class));
+		ReflectionTestUtils.setField(meetingService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(meetingService, "presenceRegistry", new MeetingPresenceRegistry(mongoTemplate, 90));
+		ReflectionTestUtils.setField(meetingService, "calendarFeedService",
+				new CalendarFeedService(mongoTemplate, null, null, "", 180, 60, 10000));
+
+		Meeting meeting = new Meeting();
+		meeting.setTitle("Lecture");
+		meeting.setStatus("active");
+		meetingId = mongoTemplate.insert(meeting).getId();
+	}
+
+	@Test
+	void simultaneousJoinsAreAllRecorded() throws Exception {
+		List<Object> responses = runConcurrently(USERS, i -> meetingService.joinMeeting(meetingId, "user-" + i, "User " + i));
+
+		Meeting meeting = mongoTemplate.findById(meetingId, Meeting.class);
+		assertNotNull(meeting);
+		assertEquals(USERS, meeting.getParticipants().size());
+		assertEquals(USERS, meeting.getAttendanceSessions().size());
+		assertEquals(USERS, meeting.getAttendanceSessions().stream().map(AttendanceSession::getUserId).distinct().count());
+		assertTrue(meeting.getAttendanceSessions().stream().allMatch(AttendanceSession::isActive));
+		assertEquals(USERS, responses.stream().map(response -> ((Map<?, ?>) response).get("id")).distinct().count());
+	}
+
+	@Test
+	void repeatedJoinsByTheSameUserShareOneSession() throws Exception {
+		List<Object> responses = runConcurrently(USERS, i -> meetingService.joinMeeting(meetingId, "user-" + (i % 10), "User"));
+
+		Meeting meeting = mongoTemplate.findById(meetingId, Meeting.class);
+		assertEquals(10, meeting.getParticipants().size());
+		assertEquals(10, meeting.getAttendanceSessions().size());
+		assertEquals(10, responses.stream().map(response -> ((Map<?, ?>) response).get("id")).distinct().count());
+	}
+
+	@Test
+	void concurrentLeavesAndHeartbeatsCloseEachSessionOnce() throws Exception {
+		List<Object> joined = runConcurrently(USERS, i -> meetingService.joinMeeting(meetingId, "user-" + i, "User " + i));
+		List<String> sessionIds = new ArrayList<>();
+		for (Object response : joined) {
+			sessionIds.add((String) ((Map<?, ?>) response).get("id"));
+		}
+
+		// Every session is left twice while heartbeats for it keep arriving
+		List<Object> results = runConcurrently(USERS * 3, i -> i % 3 == 2
+				? meetingService.heartbeat(meetingId, sessionIds.get(i % USERS))
+				: meetingService.leaveMeeting(meetingId, sessionIds.get(i % USERS)));
+
+		long left = results.stream().filter(result -> "left".equals(((Map<?, ?>) result).get("status"))).count();
+		assertEquals(USERS, left);
+
+		Meeting meeting = mongoTemplate.findById(meetingId, Meeting.class);
+		assertEquals(USERS, meeting.getAttendanceSessions().size());
+		assertEquals(USERS, new HashSet<>(sessionIds).size());
+		assertTrue(meeting.getAttendanceSessions().stream().noneMatch(AttendanceSession::isActive));
+	}
+
+	@Test
+	void startingTheMeetingWhileEveryoneJoinsKeepsAllSessions() throws Exception {
+		mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(meetingId)),
+				new Update().set("status", "scheduled"), Meeting.class);
+
+		// Task 0 starts the meeting and updates its details in the middle of the joins
+		runConcurrently(USERS + 2, i -> switch (i) {
+			case 0 -> meetingService.startMeeting(meetingId);
+			case 1 -> {
+				Meeting details = new Meeting();
+				details.setTitle("Lecture 2");
+				yield meetingService.updateMeeting(meetingId, details);
+			}
+			default -> meetingService.joinMeeting(meetingId, "user-" + i, "User " + i);
+		});
+
+		Meeting meeting = mongoTemplate.findById(meetingId, Meeting.class);
+		assertEquals("active", meeting.getStatus());
+		assertEquals("Lecture 2", meeting.getTitle());
+		assertNotNull(meeting.getStartTime());
+		assertEquals(USERS, meeting.getParticipants().size());
+		assertEquals(USERS, meeting.getAttendanceSessions().size());
+	}
+
+	private List<Object> runConcurrently(int tasks, IndexedTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int i = 0; i < tasks; i++) {
+				int index = i;
+				Callable<Object> call = () -> {
+					start.await();
+					return task.run(index);
+				};
+				futures.add(executor.submit(call));
+			}
+			start.countDown();
+			List<Object> results = new ArrayList<>();
+			for (Future<Object> future : futures) {
+				results.add(future.get(30, TimeUnit.SECONDS));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface IndexedTask {
+		Object run(int index) throws Exception;
+	}
+}
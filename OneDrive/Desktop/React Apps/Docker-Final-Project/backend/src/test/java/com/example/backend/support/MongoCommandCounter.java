@@ -0,0 +1,47 @@
+package com.example.backend.support;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the commands a {@link MongoTest} sends to its database, by command name ("find",
+ * "aggregate", "update", ...). Connection handshakes and driver housekeeping are not counted.
+ * Inject it next to the MongoTemplate to measure round-trips per request.
+ */
+public class MongoCommandCounter implements CommandListener {
+
+	private static final Set<String> IGNORED = Set.of("hello", "ismaster", "isMaster", "ping", "buildInfo",
+			"endSessions", "killCursors", "saslStart", "saslContinue");
+
+	private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		if (!IGNORED.contains(event.getCommandName())) {
+			counts.computeIfAbsent(event.getCommandName(), name -> new AtomicInteger()).incrementAndGet();
+		}
+	}
+
+	public void reset() {
+		counts.clear();
+	}
+
+	public int total() {
+		return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+	}
+
+	public int count(String commandName) {
+		AtomicInteger count = counts.get(commandName);
+		return count == null ? 0 : count.get();
+	}
+
+	@Override
+	public String toString() {
+		return counts.toString();
+	}
+}
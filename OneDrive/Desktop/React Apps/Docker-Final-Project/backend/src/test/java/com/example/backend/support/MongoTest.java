@@ -0,0 +1,21 @@
+package com.example.backend.support;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tests against a real MongoDB, enabled only when MONGODB_TEST_URI is set (e.g.
+ * mongodb://localhost:27017). Lifecycle and test methods can take a {@code MongoTemplate}
+ * parameter; every test gets its own database, dropped when the test finishes.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@EnabledIfEnvironmentVariable(named = MongoTestExtension.URI_VARIABLE, matches = ".+")
+@ExtendWith(MongoTestExtension.class)
+public @interface MongoTest {
+}
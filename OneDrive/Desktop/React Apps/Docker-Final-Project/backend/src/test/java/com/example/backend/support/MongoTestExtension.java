@@ -0,0 +1,64 @@
+package com.example.backend.support;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.UUID;
+
+/**
+ * Resolves {@code MongoTemplate} and {@link MongoCommandCounter} parameters for {@link MongoTest}
+ * classes. Both are created once per test (shared by its @BeforeEach, @Test and @AfterEach
+ * methods); the template works on a database named after the test class plus a random suffix,
+ * which is dropped, and its client closed, when the test's extension context closes.
+ */
+public class MongoTestExtension implements ParameterResolver {
+
+	static final String URI_VARIABLE = "MONGODB_TEST_URI";
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(MongoTestExtension.class);
+
+	@Override
+	public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		Class<?> type = parameterContext.getParameter().getType();
+		return type == MongoTemplate.class || type == MongoCommandCounter.class;
+	}
+
+	@Override
+	public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		TestDatabase database = extensionContext.getStore(NAMESPACE)
+				.getOrComputeIfAbsent(TestDatabase.class, key -> TestDatabase.create(extensionContext), TestDatabase.class);
+		return parameterContext.getParameter().getType() == MongoCommandCounter.class
+				? database.commandCounter
+				: database.mongoTemplate;
+	}
+
+	private record TestDatabase(MongoClient client, MongoTemplate mongoTemplate, MongoCommandCounter commandCounter)
+			implements ExtensionContext.Store.CloseableResource {
+
+		static TestDatabase create(ExtensionContext context) {
+			MongoCommandCounter commandCounter = new MongoCommandCounter();
+			MongoClient client = MongoClients.create(MongoClientSettings.builder()
+					.applyConnectionString(new ConnectionString(System.getenv(URI_VARIABLE)))
+					.addCommandListener(commandCounter)
+					.build());
+			String prefix = context.getRequiredTestClass().getSimpleName().toLowerCase();
+			String name = prefix.substring(0, Math.min(prefix.length(), 30)) + "_" + UUID.randomUUID().toString().replace("-", "");
+			return new TestDatabase(client, new MongoTemplate(client, name), commandCounter);
+		}
+
+		@Override
+		public void close() {
+			try {
+				mongoTemplate.getDb().drop();
+			} finally {
+				client.close();
+			}
+		}
+	}
+}